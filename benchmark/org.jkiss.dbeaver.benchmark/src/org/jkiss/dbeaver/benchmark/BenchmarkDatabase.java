@@ -0,0 +1,113 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.impl.data.DefaultValueHandler;
+import org.mockito.Mockito;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Embedded in-memory H2 database with generated sample data.
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    public static final String TABLE_NAME = "BENCH_DATA";
+    public static final String[] COLUMN_NAMES = {"ID", "NAME", "AMOUNT", "CREATED", "ACTIVE", "DESCRIPTION"};
+    private static final DBPDataKind[] COLUMN_DATA_KINDS = {
+        DBPDataKind.NUMERIC, DBPDataKind.STRING, DBPDataKind.NUMERIC, DBPDataKind.DATETIME, DBPDataKind.BOOLEAN, DBPDataKind.STRING
+    };
+
+    private final Connection connection;
+
+    public BenchmarkDatabase(int rowCount) throws SQLException {
+        // Use driver directly: DriverManager doesn't see drivers from bundle class path
+        connection = new org.h2.Driver().connect("jdbc:h2:mem:", new Properties());
+        try (Statement stat = connection.createStatement()) {
+            stat.execute(
+                "CREATE TABLE " + TABLE_NAME + " (" +
+                "ID BIGINT PRIMARY KEY, " +
+                "NAME VARCHAR(100), " +
+                "AMOUNT DECIMAL(15,2), " +
+                "CREATED TIMESTAMP, " +
+                "ACTIVE BOOLEAN, " +
+                "DESCRIPTION VARCHAR(1000))");
+            stat.execute(
+                "INSERT INTO " + TABLE_NAME + " " +
+                "SELECT X, 'Name ' || MOD(X * 7919, 100003), MOD(X * 104729, 1000000) / 100.0, " +
+                "DATEADD('SECOND', X * 37, TIMESTAMP '2020-01-01 00:00:00'), MOD(X, 3) = 0, " +
+                "CASEWHEN(MOD(X, 10) = 0, NULL, 'Row description, with \"quotes\" and delimiters; #' || X) " +
+                "FROM SYSTEM_RANGE(1, " + rowCount + ")");
+        }
+    }
+
+    /**
+     * Reads all table rows. Values are JDBC objects in the column order of {@link #COLUMN_NAMES}.
+     */
+    @NotNull
+    public List<Object[]> readRows() throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        try (Statement stat = connection.createStatement();
+             ResultSet rs = stat.executeQuery("SELECT " + String.join(",", COLUMN_NAMES) + " FROM " + TABLE_NAME + " ORDER BY ID"))
+        {
+            int columnCount = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Creates attribute bindings for table columns.
+     * Bindings are not bound to a real data source, values are handled by the default value handler.
+     */
+    @NotNull
+    public static DBDAttributeBinding[] createAttributeBindings() {
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().defaultAnswer(Mockito.RETURNS_DEEP_STUBS).stubOnly());
+        DBDAttributeBinding[] bindings = new DBDAttributeBinding[COLUMN_NAMES.length];
+        for (int i = 0; i < bindings.length; i++) {
+            DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class, Mockito.withSettings()
+                .useConstructor(DefaultValueHandler.INSTANCE)
+                .defaultAnswer(Mockito.CALLS_REAL_METHODS)
+                .stubOnly());
+            Mockito.doReturn(COLUMN_NAMES[i]).when(binding).getName();
+            Mockito.doReturn(COLUMN_NAMES[i]).when(binding).getLabel();
+            Mockito.doReturn(i).when(binding).getOrdinalPosition();
+            Mockito.doReturn(COLUMN_DATA_KINDS[i]).when(binding).getDataKind();
+            Mockito.doReturn(dataSource).when(binding).getDataSource();
+            bindings[i] = binding;
+        }
+        return bindings;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * Runs JMH benchmarks inside the test platform runtime.
+ *
+ * Benchmarks are not forked: forked JVM would lose OSGi bundles and the platform.
+ * Results are saved in JSON format.
+ */
+public class BenchmarkRunner {
+
+    public static final String PROP_INCLUDE = "benchmark.include";
+    public static final String PROP_RESULT = "benchmark.result";
+
+    @Test
+    public void runBenchmarks() throws RunnerException {
+        File resultFile = new File(System.getProperty(PROP_RESULT, "target/jmh-result.json"));
+        File resultFolder = resultFile.getAbsoluteFile().getParentFile();
+        if (!resultFolder.exists() && !resultFolder.mkdirs()) {
+            Assert.fail("Can't create benchmark results folder " + resultFolder);
+        }
+        Options options = new OptionsBuilder()
+            .include(System.getProperty(PROP_INCLUDE, ".*"))
+            .forks(0)
+            .shouldFailOnError(true)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile.getAbsolutePath())
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        Assert.assertFalse("No benchmarks were run", results.isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Generates large SQL scripts of typical statements
+ */
+public class BenchmarkScripts {
+
+    private static final String[] STATEMENTS = {
+        "SELECT t.id, t.name, sum(o.amount) AS total\n" +
+            "FROM customers t\n" +
+            "    LEFT OUTER JOIN orders o ON o.customer_id = t.id AND o.status <> 'CANCELLED'\n" +
+            "WHERE t.created > '2020-01-01' AND (t.region IN ('EU', 'US') OR t.vip = 1)\n" +
+            "GROUP BY t.id, t.name\n" +
+            "HAVING sum(o.amount) > 1000\n" +
+            "ORDER BY total DESC",
+        "INSERT INTO audit_log (id, event_type, message, created) VALUES (%d, 'UPDATE', 'Text with ; delimiter', CURRENT_TIMESTAMP)",
+        "UPDATE orders SET status = 'SHIPPED', updated = CURRENT_TIMESTAMP WHERE id = %d",
+        "-- Report query\n" +
+            "SELECT *\n" +
+            "FROM (SELECT p.*, row_number() OVER (PARTITION BY p.category ORDER BY p.price DESC) AS rn FROM products p) x\n" +
+            "WHERE x.rn <= 10 /* top ten */",
+        "DELETE FROM sessions WHERE last_access < CURRENT_TIMESTAMP - INTERVAL '1' DAY",
+        "CREATE TABLE tmp_%d (id INTEGER PRIMARY KEY, name VARCHAR(100) NOT NULL, value NUMERIC(10,2))",
+        "WITH recent AS (SELECT customer_id, max(created) AS last_order FROM orders GROUP BY customer_id)\n" +
+            "SELECT c.name, r.last_order FROM customers c JOIN recent r ON r.customer_id = c.id WHERE c.id > :minId",
+    };
+
+    /**
+     * Returns script with the given number of statements separated by ';'
+     */
+    @NotNull
+    public static String generateScript(int statementCount) {
+        StringBuilder script = new StringBuilder(statementCount * 150);
+        for (int i = 0; i < statementCount; i++) {
+            String statement = STATEMENTS[i % STATEMENTS.length];
+            script.append(statement.contains("%d") ? String.format(statement, i) : statement).append(";\n\n");
+        }
+        return script.toString();
+    }
+}
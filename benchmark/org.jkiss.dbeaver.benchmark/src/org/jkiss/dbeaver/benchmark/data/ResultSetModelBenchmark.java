@@ -0,0 +1,92 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark.data;
+
+import org.jkiss.dbeaver.benchmark.BenchmarkDatabase;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result set model: data loading (rows and data filter initialization) and local sorting
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResultSetModelBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rowCount;
+
+    private List<Object[]> rows;
+    private DBDAttributeBinding[] attributes;
+    private ResultSetModel model;
+
+    @Setup
+    public void setup() throws SQLException {
+        try (BenchmarkDatabase database = new BenchmarkDatabase(rowCount)) {
+            rows = database.readRows();
+        }
+        attributes = BenchmarkDatabase.createAttributeBindings();
+        model = new ResultSetModel();
+        model.setMetaData(Mockito.mock(DBCResultSet.class, Mockito.withSettings().stubOnly()), attributes);
+        model.setData(rows);
+    }
+
+    @Benchmark
+    public ResultSetModel loadData() {
+        model.setData(rows);
+        return model;
+    }
+
+    @Benchmark
+    public ResultSetModel sortByNumber() {
+        return sort(new int[] {2}, true);
+    }
+
+    @Benchmark
+    public ResultSetModel sortByString() {
+        return sort(new int[] {1}, false);
+    }
+
+    @Benchmark
+    public ResultSetModel sortByMultipleColumns() {
+        return sort(new int[] {4, 3, 1}, false);
+    }
+
+    private ResultSetModel sort(int[] columns, boolean descending) {
+        for (DBDAttributeConstraint constraint : model.getDataFilter().getConstraints()) {
+            constraint.setOrderPosition(0);
+        }
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeConstraint constraint = model.getDataFilter().getConstraint(attributes[columns[i]]);
+            constraint.setOrderPosition(i + 1);
+            constraint.setOrderDescending(descending);
+        }
+        model.resetOrdering();
+        return model;
+    }
+}
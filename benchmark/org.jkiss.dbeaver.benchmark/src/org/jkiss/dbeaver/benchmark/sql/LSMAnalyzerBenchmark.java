@@ -0,0 +1,68 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark.sql;
+
+import org.jkiss.dbeaver.benchmark.BenchmarkScripts;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzer;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semantic analysis parser: parse of individual script queries
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LSMAnalyzerBenchmark {
+
+    private static final int STATEMENT_COUNT = 100;
+
+    private LSMAnalyzer analyzer;
+    private String[] statements;
+
+    @Setup
+    public void setup() {
+        analyzer = new SQLStandardAnalyzer(new LSMAnalyzerParameters(
+            Map.of("\"", "\""), true, true, '?', List.of(Map.entry(1, Set.of(":"))), true
+        ));
+        statements = BenchmarkScripts.generateScript(STATEMENT_COUNT).split(";\n\n");
+    }
+
+    /**
+     * Parses all statements. Score is the number of statements per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(STATEMENT_COUNT)
+    public void parseStatements(Blackhole blackhole) {
+        for (String statement : statements) {
+            STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString(statement), new STMSkippingErrorListener());
+            blackhole.consume(tree);
+        }
+    }
+}
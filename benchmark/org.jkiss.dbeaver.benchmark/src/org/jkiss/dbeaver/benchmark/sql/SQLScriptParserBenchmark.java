@@ -0,0 +1,79 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark.sql;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.dbeaver.benchmark.BenchmarkScripts;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLParserContext;
+import org.jkiss.dbeaver.model.sql.parser.SQLRuleManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Script parsing: splitting large script into queries and query extraction at cursor position
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SQLScriptParserBenchmark {
+
+    @Param({"1000", "10000"})
+    public int statementCount;
+
+    private SQLParserContext context;
+    private int scriptLength;
+
+    @Setup
+    public void setup() {
+        String script = BenchmarkScripts.generateScript(statementCount);
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(BasicSQLDialect.INSTANCE, DBWorkbench.getPlatform().getPreferenceStore());
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules();
+        context = new SQLParserContext(null, syntaxManager, ruleManager, new Document(script));
+        scriptLength = script.length();
+    }
+
+    @Benchmark
+    public List<SQLScriptElement> extractScriptQueries() {
+        return SQLScriptParser.extractScriptQueries(context, 0, scriptLength, false, false, false);
+    }
+
+    @Benchmark
+    public SQLScriptElement parseQueryAtScriptStart() {
+        return SQLScriptParser.parseQuery(context, 0, scriptLength, 10, false, false);
+    }
+
+    @Benchmark
+    public SQLScriptElement parseQueryAtScriptEnd() {
+        return SQLScriptParser.parseQuery(context, 0, scriptLength, scriptLength - 10, false, false);
+    }
+
+    @Benchmark
+    public SQLScriptElement extractQueryAtScriptMiddle() {
+        return SQLScriptParser.extractQueryAtPos(context, scriptLength / 2);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.cache.SimpleObjectCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Object cache lookups by name
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ObjectCacheBenchmark {
+
+    @Param({"100", "10000"})
+    public int objectCount;
+
+    @Param({"true", "false"})
+    public boolean caseSensitive;
+
+    private SimpleObjectCache<DBSObject, BenchmarkObject> cache;
+    private String[] lookupNames;
+    private int lookupIndex;
+
+    @Setup
+    public void setup() {
+        List<BenchmarkObject> objects = new ArrayList<>(objectCount);
+        for (int i = 0; i < objectCount; i++) {
+            objects.add(new BenchmarkObject("TABLE_" + i));
+        }
+        cache = new SimpleObjectCache<>();
+        cache.setCaseSensitive(caseSensitive);
+        cache.setCache(objects);
+        lookupNames = new String[1024];
+        for (int i = 0; i < lookupNames.length; i++) {
+            String name = "TABLE_" + ((i * 7919) % objectCount);
+            lookupNames[i] = caseSensitive ? name : name.toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    @Benchmark
+    public BenchmarkObject getCachedObject() {
+        lookupIndex = (lookupIndex + 1) & (lookupNames.length - 1);
+        return cache.getCachedObject(lookupNames[lookupIndex]);
+    }
+
+    @Benchmark
+    public BenchmarkObject getMissingObject() {
+        return cache.getCachedObject("MISSING_TABLE");
+    }
+
+    @Benchmark
+    public List<BenchmarkObject> getCachedObjects() {
+        return cache.getCachedObjects();
+    }
+
+    public static class BenchmarkObject implements DBSObject {
+        private final String name;
+
+        BenchmarkObject(String name) {
+            this.name = name;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Nullable
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.benchmark.BenchmarkDatabase;
+import org.jkiss.dbeaver.model.DBPNamedObject;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.tools.transfer.stream.IParallelDataExporter;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.ParallelRowFormatter;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.DataExporterCSV;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.DataExporterJSON;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stream exporters: rows formatting. Output is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataExporterBenchmark {
+
+    private static final int ROW_COUNT = 10000;
+
+    @Param({"csv", "json"})
+    public String format;
+
+    private List<Object[]> rows;
+    private Object[][] rowArray;
+    private ExporterSite site;
+    private IParallelDataExporter exporter;
+
+    @Setup
+    public void setup() throws SQLException, DBException, IOException {
+        try (BenchmarkDatabase database = new BenchmarkDatabase(ROW_COUNT)) {
+            rows = database.readRows();
+        }
+        rowArray = rows.toArray(new Object[0][]);
+        site = new ExporterSite(BenchmarkDatabase.createAttributeBindings());
+        switch (format) {
+            case "csv" -> {
+                site.properties.put("delimiter", ",");
+                site.properties.put("rowDelimiter", "default");
+                site.properties.put("header", "top");
+                exporter = new DataExporterCSV();
+            }
+            case "json" -> exporter = new DataExporterJSON();
+            default -> throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        exporter.init(site);
+        exporter.exportHeader(null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        exporter.dispose();
+    }
+
+    /**
+     * Exports all rows. Score is the number of rows per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public void exportRows() throws DBException, IOException {
+        for (Object[] row : rows) {
+            exporter.exportRow(null, null, row);
+        }
+        site.writer.flush();
+    }
+
+    /**
+     * Exports all rows formatting blocks in parallel on the common fork-join pool.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public void exportRowsParallel() throws DBException, IOException {
+        ParallelRowFormatter formatter = new ParallelRowFormatter(exporter, null, site.writer);
+        formatter.submit(rowArray, rowArray.length);
+        formatter.flush();
+        site.writer.flush();
+    }
+
+    private static class ExporterSite implements IStreamDataExporterSite {
+        private final DBDAttributeBinding[] attributes;
+        private final Map<String, Object> properties = new HashMap<>();
+        private final OutputStream outputStream = OutputStream.nullOutputStream();
+        private final PrintWriter writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        ExporterSite(DBDAttributeBinding[] attributes) {
+            this.attributes = attributes;
+        }
+
+        @Override
+        public DBPNamedObject getSource() {
+            return () -> BenchmarkDatabase.TABLE_NAME;
+        }
+
+        @Override
+        public DBDDisplayFormat getExportFormat() {
+            return DBDDisplayFormat.UI;
+        }
+
+        @Override
+        public Map<String, Object> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public DBDAttributeBinding[] getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public Path getOutputFile() {
+            return null;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
+        }
+
+        @Override
+        public void flush() {
+            writer.flush();
+        }
+
+        @Override
+        public void writeBinaryData(@NotNull DBDContentStorage cs) {
+            // Not used
+        }
+
+        @Override
+        public String getOutputEncoding() {
+            return StandardCharsets.UTF_8.name();
+        }
+    }
+}
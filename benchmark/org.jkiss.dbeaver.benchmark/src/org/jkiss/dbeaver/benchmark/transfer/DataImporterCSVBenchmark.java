@@ -0,0 +1,128 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmark.transfer;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.benchmark.BenchmarkDatabase;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.importer.DataImporterCSV;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV importer: column types detection and rows parsing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataImporterCSVBenchmark {
+
+    private static final int ROW_COUNT = 10000;
+
+    private final DataImporterCSV importer = new DataImporterCSV();
+    private final Map<String, Object> properties = new HashMap<>();
+    private final StreamEntityMapping mapping = new StreamEntityMapping(Path.of("benchmark.csv"));
+    private final VoidProgressMonitor monitor = new VoidProgressMonitor();
+    private byte[] csvData;
+    private DBPDataSource streamDataSource;
+    private IDataTransferConsumer consumer;
+    private long valuesHash;
+
+    @Setup
+    public void setup() throws SQLException, DBException {
+        try (BenchmarkDatabase database = new BenchmarkDatabase(ROW_COUNT)) {
+            csvData = toCSV(database.readRows()).getBytes(StandardCharsets.UTF_8);
+        }
+        properties.put("header", DataImporterCSV.HeaderPosition.top);
+        properties.put("columnTypeSamplesCount", ROW_COUNT);
+
+        IStreamDataImporterSite site = Mockito.mock(IStreamDataImporterSite.class, Mockito.withSettings().defaultAnswer(Mockito.RETURNS_DEEP_STUBS).stubOnly());
+        Mockito.when(site.getProcessorProperties()).thenReturn(properties);
+        Mockito.when(site.getSourceObject()).thenReturn(mapping);
+        importer.init(site);
+        mapping.getStreamColumns().addAll(readColumnsInfo());
+
+        streamDataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().defaultAnswer(Mockito.RETURNS_DEEP_STUBS).stubOnly());
+        consumer = Mockito.mock(IDataTransferConsumer.class, Mockito.withSettings().stubOnly());
+        int columnCount = BenchmarkDatabase.COLUMN_NAMES.length;
+        Mockito.doAnswer(invocation -> {
+            DBCResultSet resultSet = invocation.getArgument(1);
+            for (int i = 0; i < columnCount; i++) {
+                Object value = resultSet.getAttributeValue(i);
+                valuesHash += value == null ? 0 : value.hashCode();
+            }
+            return null;
+        }).when(consumer).fetchRow(Mockito.any(), Mockito.any());
+    }
+
+    @TearDown
+    public void tearDown() {
+        importer.dispose();
+    }
+
+    @Benchmark
+    public List<StreamDataImporterColumnInfo> readColumnsInfo() throws DBException {
+        return importer.readColumnsInfo(mapping, new ByteArrayInputStream(csvData));
+    }
+
+    /**
+     * Parses all rows. Score is the number of rows per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public long runImport() throws DBException {
+        importer.runImport(monitor, streamDataSource, new ByteArrayInputStream(csvData), consumer);
+        return valuesHash;
+    }
+
+    private static String toCSV(List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 100);
+        csv.append(String.join(",", BenchmarkDatabase.COLUMN_NAMES)).append('\n');
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                Object value = row[i];
+                if (value instanceof String str) {
+                    csv.append('"').append(str.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    csv.append(value);
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+}
@@ -36,6 +36,7 @@ class CompareObjectsPageSettings extends ActiveWizardPage<CompareObjectsWizard>
     private Button compareLazyProperties;
     private Button compareOnlyStructure;
     private Button compareScriptProperties;
+    private Spinner parallelTasksSpinner;
 
     CompareObjectsPageSettings() {
         super(CompareUIMessages.compare_objects_page_settings_page);
@@ -116,6 +117,16 @@ class CompareObjectsPageSettings extends ActiveWizardPage<CompareObjectsWizard>
                     settings.setCompareScripts(compareScriptProperties.getSelection());
                 }
             });
+
+            Composite parallelTasksPanel = UIUtils.createComposite(compareSettings, 2);
+            parallelTasksSpinner = UIUtils.createLabelSpinner(
+                parallelTasksPanel,
+                CompareUIMessages.compare_objects_page_settings_spinner_parallel_tasks,
+                CompareUIMessages.compare_objects_page_settings_spinner_parallel_tasks_tip,
+                settings.getMaxParallelTasks(),
+                1,
+                32);
+            parallelTasksSpinner.addModifyListener(e -> settings.setMaxParallelTasks(parallelTasksSpinner.getSelection()));
         }
         
         setControl(composite);
@@ -17,6 +17,9 @@
 package org.jkiss.dbeaver.tools.compare.simple;
 
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
@@ -27,123 +30,159 @@ import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
-import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
-import org.jkiss.dbeaver.runtime.properties.*;
+import org.jkiss.dbeaver.runtime.properties.DataSourcePropertyFilter;
+import org.jkiss.dbeaver.runtime.properties.ObjectPropertyDescriptor;
+import org.jkiss.dbeaver.runtime.properties.PropertyCollector;
+import org.jkiss.dbeaver.utils.GeneralUtils;
 
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Compares database object trees.
+ * <p>
+ * Trees are compared level by level. Children and properties of all objects of the level are read
+ * on a bounded pool of jobs, then report lines are built in the tree order, so the report
+ * doesn't depend on the order of reads.
+ */
 public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
-    private final Object PROPS_LOCK = new Object();
+    public static final int DEFAULT_PARALLEL_TASKS = 4;
 
-    private CompareObjectsSettings settings;
+    private static final long INITIALIZE_CHECK_PERIOD = 100;
+
+    private final CompareObjectsSettings settings;
 
     private final List<DBNDatabaseNode> rootNodes;
     private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
 
-    private final DBRProgressListener initializeFinisher;
-    private final ILazyPropertyLoadListener lazyPropertyLoadListener;
-
-    private volatile int initializedCount = 0;
     private volatile IStatus initializeError;
-    private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
+    private volatile DBException readError;
+
+    private interface CompareTask {
+        void run(DBRProgressMonitor monitor) throws DBException, InterruptedException;
+    }
+
+    /**
+     * Objects with the same name in compared trees. Object of each root node has the same index as the root node.
+     */
+    private static class CompareGroup {
+        final CompareReportLine line;
+        final NodeData[] nodeData;
+        // Properties to report, null if properties are not compared
+        List<ObjectPropertyDescriptor> properties;
+        // Properties to read
+        List<ObjectPropertyDescriptor> readProperties;
+        boolean readLazyProperties;
+        final List<CompareGroup> children = new ArrayList<>();
+
+        CompareGroup(CompareReportLine line) {
+            this.line = line;
+            this.nodeData = new NodeData[line.nodes.length];
+            for (int i = 0; i < line.nodes.length; i++) {
+                if (line.nodes[i] != null) {
+                    nodeData[i] = new NodeData();
+                }
+            }
+        }
+
+        boolean isExpandable() {
+            int count = 0;
+            for (DBNDatabaseNode node : line.nodes) {
+                if (node != null) {
+                    count++;
+                }
+            }
+            // Go deeper only if we have more than one node
+            return count > 1;
+        }
+    }
 
-    private final List<CompareReportLine> reportLines = new ArrayList<>();
-    private int reportDepth = 0;
-    private CompareReportLine lastLine;
+    /**
+     * Data read from one node. Written by a single job, read after the job group is finished.
+     */
+    private static class NodeData {
+        final Map<DBPPropertyDescriptor, Object> propertyValues = new IdentityHashMap<>();
+        final Map<DBPPropertyDescriptor, byte[]> scriptHashes = new IdentityHashMap<>();
+        DBNDatabaseNode[] children;
+    }
 
-    private void reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
+    private CompareReportLine createReportLine(List<DBNDatabaseNode> objects, int depth)
     {
-        reportDepth++;
-        lastLine = new CompareReportLine();
-        lastLine.depth = reportDepth;
-        lastLine.structure = objects.get(0);
-        lastLine.nodes = new DBNDatabaseNode[rootNodes.size()];
+        CompareReportLine line = new CompareReportLine();
+        line.depth = depth;
+        line.structure = objects.get(0);
+        line.nodes = new DBNDatabaseNode[rootNodes.size()];
         for (int i = 0; i < rootNodes.size(); i++) {
             for (DBNDatabaseNode node : objects) {
                 if (node == rootNodes.get(i) || node.isChildOf(rootNodes.get(i))) {
-                    lastLine.nodes[i] = node;
+                    line.nodes[i] = node;
                     break;
                 }
             }
         }
-        for (DBNDatabaseNode node : lastLine.nodes) {
+        for (DBNDatabaseNode node : line.nodes) {
             if (node == null) {
-                lastLine.hasDifference = true;
+                line.hasDifference = true;
                 break;
             }
         }
-        reportLines.add(lastLine);
+        return line;
     }
 
-    private void reportPropertyCompare(ObjectPropertyDescriptor property)
+    private void reportPropertyCompare(CompareGroup group, ObjectPropertyDescriptor property)
     {
+        CompareReportLine line = group.line;
         CompareReportProperty reportProperty = new CompareReportProperty(property);
         reportProperty.values = new Object[rootNodes.size()];
-        for (int i = 0; i < lastLine.nodes.length; i++) {
-            DBNDatabaseNode node = lastLine.nodes[i];
-            if (node == null) {
-                continue;
-            }
-            Map<DBPPropertyDescriptor, Object> valueMap = propertyValues.get(node.getObject());
-            if (valueMap != null) {
-                reportProperty.values[i] = valueMap.get(property);
+        for (int i = 0; i < line.nodes.length; i++) {
+            NodeData data = group.nodeData[i];
+            if (data != null) {
+                reportProperty.values[i] = data.propertyValues.get(property);
             }
         }
-        if (lastLine.properties == null) {
-            lastLine.properties = new ArrayList<>();
+        if (line.properties == null) {
+            line.properties = new ArrayList<>();
         }
-        lastLine.properties.add(reportProperty);
+        line.properties.add(reportProperty);
 
-        Object firstValue = reportProperty.values[0];
         for (int i = 1; i < rootNodes.size(); i++) {
-            if (!CompareUtils.equalPropertyValues(reportProperty.values[i], firstValue)) {
-                lastLine.hasDifference = true;
+            if (!equalPropertyValues(group, property, reportProperty.values, i)) {
+                line.hasDifference = true;
                 break;
             }
         }
     }
 
-    private void reportObjectsCompareEnd()
+    private static boolean equalPropertyValues(CompareGroup group, ObjectPropertyDescriptor property, Object[] values, int index)
     {
-        reportDepth--;
+        NodeData firstData = group.nodeData[0];
+        NodeData data = group.nodeData[index];
+        if (firstData != null && data != null) {
+            byte[] firstHash = firstData.scriptHashes.get(property);
+            byte[] hash = data.scriptHashes.get(property);
+            if (firstHash != null && hash != null) {
+                // Scripts were hashed while reading
+                return Arrays.equals(firstHash, hash);
+            }
+        }
+        return CompareUtils.equalPropertyValues(values[index], values[0]);
     }
 
     public CompareObjectsExecutor(CompareObjectsSettings settings)
     {
         this.settings = settings;
         this.rootNodes = settings.getNodes();
-
-        initializeFinisher = new DBRProgressListener() {
-            @Override
-            public void onTaskFinished(IStatus status)
-            {
-                if (!status.isOK()) {
-                    initializeError = status;
-                } else {
-                    initializedCount++;
-                }
-            }
-        };
-        lazyPropertyLoadListener = new ILazyPropertyLoadListener() {
-            @Override
-            public void handlePropertyLoad(Object object, DBPPropertyDescriptor property, Object propertyValue, boolean completed)
-            {
-                synchronized (propertyValues) {
-                    Map<DBPPropertyDescriptor, Object> objectProps = propertyValues.get(object);
-                    if (objectProps != null) {
-                        objectProps.put(property, propertyValue);
-                    }
-                }
-            }
-        };
-        PropertiesContributor.getInstance().addLazyListener(lazyPropertyLoadListener);
     }
 
     public IStatus getInitializeError()
@@ -153,72 +192,164 @@ public class CompareObjectsExecutor {
 
     public void dispose()
     {
-        PropertiesContributor.getInstance().removeLazyListener(lazyPropertyLoadListener);
+        dataSourceFilters.clear();
     }
 
     public CompareReport compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
-        reportLines.clear();
-        lastLine = null;
+        initializeError = null;
+        readError = null;
 
-        compareNodes(monitor, nodes);
+        CompareGroup rootGroup = new CompareGroup(createReportLine(nodes, 1));
+        List<CompareGroup> level = Collections.singletonList(rootGroup);
+        while (!level.isEmpty()) {
+            level = compareLevel(monitor, level);
+        }
+
+        List<CompareReportLine> reportLines = new ArrayList<>();
+        collectReportLines(rootGroup, reportLines);
         return new CompareReport(rootNodes, reportLines);
     }
 
-    private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+    private static void collectReportLines(CompareGroup group, List<CompareReportLine> reportLines)
+    {
+        reportLines.add(group.line);
+        for (CompareGroup child : group.children) {
+            collectReportLines(child, reportLines);
+        }
+    }
+
+    /**
+     * Compares objects of one tree level.
+     *
+     * @return groups of the next level
+     */
+    private List<CompareGroup> compareLevel(DBRProgressMonitor monitor, List<CompareGroup> level)
         throws DBException, InterruptedException
     {
-        reportObjectsCompareBegin(nodes);
+        List<CompareGroup> groups = new ArrayList<>();
+        List<CompareGroup> objectGroups = new ArrayList<>();
+        for (CompareGroup group : level) {
+            if (group.isExpandable()) {
+                groups.add(group);
+                if (!(group.line.structure instanceof DBNDatabaseFolder)) {
+                    objectGroups.add(group);
+                }
+            }
+        }
+        if (groups.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        try {
-            if (nodes.size() > 1) {
-                // Go deeper only if we have more than one node
-                if (!(nodes.get(0) instanceof DBNDatabaseFolder)) {
-                    compareProperties(monitor, nodes);
+        // Initialize nodes
+        List<CompareTask> tasks = new ArrayList<>();
+        for (CompareGroup group : objectGroups) {
+            for (DBNDatabaseNode node : group.line.nodes) {
+                if (node != null) {
+                    tasks.add(taskMonitor -> initializeNode(monitor, node));
                 }
+            }
+        }
+        runTasks(monitor, "Initialize nodes", tasks);
+        if (initializeError != null) {
+            throw new DBException(initializeError.getMessage());
+        }
 
-                compareChildren(monitor, nodes);
+        // Read properties and children of all nodes
+        for (CompareGroup group : objectGroups) {
+            prepareProperties(group);
+        }
+        tasks.clear();
+        for (CompareGroup group : groups) {
+            for (int i = 0; i < group.line.nodes.length; i++) {
+                DBNDatabaseNode node = group.line.nodes[i];
+                if (node != null) {
+                    NodeData data = group.nodeData[i];
+                    tasks.add(taskMonitor -> readNode(monitor, taskMonitor, group, node, data));
+                }
             }
-        } finally {
-            reportObjectsCompareEnd();
         }
+        runTasks(monitor, "Read objects", tasks);
+        if (readError != null) {
+            throw readError;
+        }
+
+        // Compare
+        List<CompareGroup> nextLevel = new ArrayList<>();
+        for (CompareGroup group : groups) {
+            if (group.properties != null) {
+                for (ObjectPropertyDescriptor prop : group.properties) {
+                    reportPropertyCompare(group, prop);
+                }
+            }
+            compareChildren(group);
+            nextLevel.addAll(group.children);
+        }
+        return nextLevel;
     }
 
-    private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    /**
+     * Runs tasks on a bounded number of jobs and waits for their completion
+     */
+    private void runTasks(DBRProgressMonitor monitor, String taskName, List<CompareTask> tasks) throws InterruptedException
     {
-        boolean onlyStruct = settings.isCompareOnlyStructure();
-
-        // Clear compare singletons
-        this.initializedCount = 0;
-        this.initializeError = null;
-        this.propertyValues.clear();
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Queue<CompareTask> queue = new ConcurrentLinkedQueue<>(tasks);
+        int maxTasks = settings.getMaxParallelTasks() > 0 ? settings.getMaxParallelTasks() : DEFAULT_PARALLEL_TASKS;
+        int jobCount = Math.min(maxTasks, tasks.size());
+        JobGroup jobGroup = new JobGroup(taskName, jobCount, jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            CompareJob job = new CompareJob(taskName, monitor, queue);
+            job.setJobGroup(jobGroup);
+            job.schedule();
+        }
+        try {
+            jobGroup.join(0, monitor.getNestedMonitor());
+        } catch (OperationCanceledException e) {
+            jobGroup.cancel();
+            throw new InterruptedException();
+        } catch (InterruptedException e) {
+            jobGroup.cancel();
+            throw e;
+        }
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
+    }
 
-        StringBuilder title = new StringBuilder();
-        // Initialize nodes
-        {
-            monitor.subTask("Initialize nodes");
-            for (DBNDatabaseNode node : nodes) {
-                if (title.length() > 0) title.append(", ");
-                title.append(node.getNodeFullName());
-                node.initializeNode(null, initializeFinisher);
-                monitor.worked(1);
-            }
-            while (initializedCount != nodes.size()) {
-                if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
-                }
-                Thread.sleep(50);
-                if (monitor.isCanceled()) {
-                    throw new InterruptedException();
+    private void initializeNode(DBRProgressMonitor monitor, DBNDatabaseNode node) throws DBException, InterruptedException
+    {
+        CompletableFuture<IStatus> result = new CompletableFuture<>();
+        node.initializeNode(null, result::complete);
+        IStatus status;
+        for (;;) {
+            try {
+                status = result.get(INITIALIZE_CHECK_PERIOD, TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException e) {
+                if (monitor.isCanceled() || initializeError != null) {
+                    return;
                 }
+            } catch (ExecutionException e) {
+                status = GeneralUtils.makeExceptionStatus(e.getCause());
+                break;
             }
         }
+        if (!status.isOK()) {
+            initializeError = status;
+        }
+    }
+
+    private void prepareProperties(CompareGroup group)
+    {
+        boolean onlyStruct = settings.isCompareOnlyStructure();
 
-        monitor.subTask("Compare " + title.toString());
         boolean compareLazyProperties = false;
 
-        DBNDatabaseNode firstNode = nodes.get(0);
+        DBNDatabaseNode firstNode = group.line.structure;
         List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
             null,
             ObjectPropertyDescriptor.getObjectClass(firstNode.getObject()),
@@ -237,77 +368,87 @@ public class CompareObjectsExecutor {
             return;
         }
 
-        // Load all properties
-        for (DBNDatabaseNode node : nodes) {
-            if (monitor.isCanceled()) {
-                throw new InterruptedException();
-            }
-            DBSObject databaseObject = node.getObject();
-            Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
-            if (nodeProperties == null) {
-                nodeProperties = new IdentityHashMap<>();
-                propertyValues.put(databaseObject, nodeProperties);
-            }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
-            for (ObjectPropertyDescriptor prop : properties) {
-                boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
-                if (prop.isLazy()) {
-                    if (!compareLazyProperties) {
-                        if (compareScripts) {
-                            // Only DBPScriptObject methods
-                            if (!isScriptProperty) {
-                                continue;
-                            }
-                        } else {
+        List<ObjectPropertyDescriptor> readProperties = new ArrayList<>();
+        for (ObjectPropertyDescriptor prop : properties) {
+            boolean isScriptProperty = isScriptProperty(prop);
+            if (prop.isLazy()) {
+                if (!compareLazyProperties) {
+                    if (compareScripts) {
+                        // Only DBPScriptObject methods
+                        if (!isScriptProperty) {
                             continue;
                         }
-                    }
-                } else {
-                    if (prop.isHidden()) {
+                    } else {
                         continue;
                     }
                 }
-                if (onlyStruct && !isScriptProperty) {
+            } else {
+                if (prop.isHidden()) {
                     continue;
                 }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
-                synchronized (PROPS_LOCK) {
-                    if (propertyValue instanceof DBPNamedObject) {
-                        // Compare just object names
-                        propertyValue = ((DBPNamedObject) propertyValue).getName();
-                    }
-                    nodeProperties.put(prop, propertyValue);
+            }
+            if (onlyStruct && !isScriptProperty) {
+                continue;
+            }
+            readProperties.add(prop);
+        }
+        group.properties = properties;
+        group.readProperties = readProperties;
+        group.readLazyProperties = compareLazyProperties || compareScripts;
+    }
+
+    private void readNode(
+        DBRProgressMonitor monitor,
+        DBRProgressMonitor taskMonitor,
+        CompareGroup group,
+        DBNDatabaseNode node,
+        NodeData data
+    ) throws DBException
+    {
+        synchronized (monitor) {
+            monitor.subTask("Compare " + node.getNodeFullName());
+        }
+        DBSObject databaseObject = node.getObject();
+        if (group.readProperties != null) {
+            PropertyCollector propertySource = new PropertyCollector(databaseObject, group.readLazyProperties);
+            for (ObjectPropertyDescriptor prop : group.readProperties) {
+                if (taskMonitor.isCanceled()) {
+                    return;
+                }
+                Object propertyValue = propertySource.getPropertyValue(taskMonitor, databaseObject, prop, true);
+                if (propertyValue instanceof DBPNamedObject) {
+                    // Compare just object names
+                    propertyValue = ((DBPNamedObject) propertyValue).getName();
+                }
+                data.propertyValues.put(prop, propertyValue);
+                if (propertyValue instanceof String && isScriptProperty(prop)) {
+                    data.scriptHashes.put(prop, CompareUtils.getScriptHash((String) propertyValue));
                 }
             }
-            monitor.worked(1);
         }
 
-        // Compare properties
-        for (ObjectPropertyDescriptor prop : properties) {
-            reportPropertyCompare(prop);
+        // Cache structure if possible
+        if (databaseObject instanceof DBSObjectContainer) {
+            ((DBSObjectContainer) databaseObject).cacheStructure(taskMonitor, DBSObjectContainer.STRUCT_ALL);
+        }
+        try {
+            data.children = node.getChildren(taskMonitor);
+        } catch (Exception e) {
+            log.warn("Error reading child nodes for compare", e);
+        }
+        synchronized (monitor) {
+            monitor.worked(1);
         }
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    private void compareChildren(CompareGroup group)
     {
         // Compare children
-        int nodeCount = nodes.size();
+        int nodeCount = group.line.nodes.length;
         List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        // Use submonitor to avoid huge number of tasks
-        DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
         for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
-            }
-            try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
-            } catch (Exception e) {
-                log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
-            }
+            NodeData data = group.nodeData[i];
+            allChildren.add(data == null ? null : data.children);
         }
 
         Set<String> allChildNames = new LinkedHashSet<>();
@@ -327,43 +468,33 @@ public class CompareObjectsExecutor {
             }
         }
 
-        for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
-            for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeDisplayName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
+        List<Map<String, DBNDatabaseNode>> childrenByName = new ArrayList<>(nodeCount);
+        for (DBNDatabaseNode[] childList : allChildren) {
+            Map<String, DBNDatabaseNode> childMap = new HashMap<>();
+            if (childList != null) {
+                for (DBNDatabaseNode child : childList) {
+                    childMap.putIfAbsent(child.getNodeDisplayName(), child);
                 }
             }
+            childrenByName.add(childMap);
+        }
 
+        for (String childName : allChildNames) {
             List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
-                    }
+            for (Map<String, DBNDatabaseNode> childMap : childrenByName) {
+                DBNDatabaseNode child = childMap.get(childName);
+                if (child != null) {
+                    nodesToCompare.add(child);
                 }
             }
-            // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+            group.children.add(new CompareGroup(createReportLine(nodesToCompare, group.line.depth + 1)));
         }
     }
 
+    private static boolean isScriptProperty(ObjectPropertyDescriptor prop)
+    {
+        return prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
+    }
 
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
@@ -379,4 +510,38 @@ public class CompareObjectsExecutor {
         return filter;
     }
 
-}
\ No newline at end of file
+    /**
+     * Runs compare tasks from the shared queue
+     */
+    private class CompareJob extends AbstractJob {
+
+        private final DBRProgressMonitor compareMonitor;
+        private final Queue<CompareTask> tasks;
+
+        CompareJob(String name, DBRProgressMonitor compareMonitor, Queue<CompareTask> tasks) {
+            super(name);
+            this.compareMonitor = compareMonitor;
+            this.tasks = tasks;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            for (CompareTask task = tasks.poll(); task != null; task = tasks.poll()) {
+                if (monitor.isCanceled() || compareMonitor.isCanceled() || initializeError != null || readError != null) {
+                    break;
+                }
+                try {
+                    task.run(monitor);
+                } catch (DBException e) {
+                    readError = e;
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
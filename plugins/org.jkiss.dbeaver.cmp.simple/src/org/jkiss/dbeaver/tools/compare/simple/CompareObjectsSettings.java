@@ -49,6 +49,7 @@ public class CompareObjectsSettings {
     private boolean showOnlyDifferences = false;
     private OutputType outputType = OutputType.BROWSER;
     private String outputFolder;
+    private int maxParallelTasks = CompareObjectsExecutor.DEFAULT_PARALLEL_TASKS;
 
     public CompareObjectsSettings(List<DBNDatabaseNode> nodes) {
         this.nodes = nodes;
@@ -114,6 +115,14 @@ public class CompareObjectsSettings {
         this.outputFolder = outputFolder;
     }
 
+    public int getMaxParallelTasks() {
+        return maxParallelTasks;
+    }
+
+    public void setMaxParallelTasks(int maxParallelTasks) {
+        this.maxParallelTasks = maxParallelTasks;
+    }
+
     public void loadFrom(DBPSettingsSection dialogSettings) {
         if (dialogSettings.get("skipSystem") != null) {
             skipSystemObjects = dialogSettings.getBoolean("skipSystem");
@@ -136,6 +145,9 @@ public class CompareObjectsSettings {
         if (dialogSettings.get("outputFolder") != null) {
             outputFolder = dialogSettings.get("outputFolder");
         }
+        if (dialogSettings.get("parallelTasks") != null) {
+            maxParallelTasks = dialogSettings.getInt("parallelTasks");
+        }
     }
 
     public void saveTo(DBPSettingsSection dialogSettings) {
@@ -146,6 +158,7 @@ public class CompareObjectsSettings {
         dialogSettings.put("showDifference", showOnlyDifferences);
         dialogSettings.put("outputType", outputType.name());
         dialogSettings.put("outputFolder", outputFolder);
+        dialogSettings.put("parallelTasks", maxParallelTasks);
     }
 
 }
@@ -20,11 +20,23 @@ import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.utils.CommonUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 /**
  * Compare utils
  */
 public class CompareUtils {
 
+    private static final ThreadLocal<MessageDigest> SCRIPT_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     public static boolean equalPropertyValues(Object value1, Object value2)
     {
         if (value1 instanceof DBSObject && value2 instanceof DBSObject) {
@@ -48,4 +60,23 @@ public class CompareUtils {
         }
     }
 
+    /**
+     * Returns hash of the script text.
+     * Leading and trailing whitespaces and trailing semicolons are ignored. Whitespaces inside the script
+     * are kept: they may be a part of string literals, quoted identifiers or comments.
+     */
+    public static byte[] getScriptHash(String script)
+    {
+        int start = 0;
+        int end = script.length();
+        while (start < end && Character.isWhitespace(script.charAt(start))) {
+            start++;
+        }
+        while (end > start && (script.charAt(end - 1) == ';' || Character.isWhitespace(script.charAt(end - 1)))) {
+            end--;
+        }
+        String normalized = script.substring(start, end);
+        return SCRIPT_DIGEST.get().digest(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
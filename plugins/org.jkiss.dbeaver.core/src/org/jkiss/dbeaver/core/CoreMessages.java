@@ -299,6 +299,10 @@ public class CoreMessages extends NLS {
     public static String pref_page_database_general_group_performance;
     public static String pref_page_database_general_checkbox_disable_extra_metadata;
     public static String pref_page_database_general_checkbox_disable_extra_metadata_tip;
+    public static String pref_page_database_general_checkbox_persistent_snapshot;
+    public static String pref_page_database_general_checkbox_persistent_snapshot_tip;
+    public static String pref_page_database_general_checkbox_name_index;
+    public static String pref_page_database_general_checkbox_name_index_tip;
     public static String pref_page_database_general_checkbox_rollback_on_error;
     public static String pref_page_database_general_checkbox_show_row_count;
     public static String pref_page_database_general_group_metadata;
@@ -344,6 +348,11 @@ public class CoreMessages extends NLS {
     public static String pref_page_query_manager_checkbox_store_log_file;
     public static String pref_page_query_manager_logs_folder;
     public static String pref_page_query_manager_label_days_to_store_log;
+    public static String pref_page_query_manager_label_log_format;
+    public static String pref_page_query_manager_label_log_format_text;
+    public static String pref_page_query_manager_label_log_format_json;
+    public static String pref_page_query_manager_label_log_max_file_size;
+    public static String pref_page_query_manager_checkbox_log_compress;
     public static String pref_page_query_manager_label_entries_per_page;
     public static String pref_page_query_manager_log_file_hint;
 
@@ -46,6 +46,8 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
     private Button addExtraDDLInfo;
+    private Button persistentSnapshotCheck;
+    private Button nameIndexCheck;
 
     public PrefPageMetaData()
     {
@@ -61,7 +63,9 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
             store.contains(ModelPreferences.META_DISABLE_EXTRA_READ) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_PERSISTENT_SNAPSHOT) ||
+            store.contains(ModelPreferences.META_NAME_INDEX)
             ;
     }
 
@@ -141,6 +145,18 @@ public class PrefPageMetaData extends TargetPrefPage
                 CoreMessages.pref_page_database_general_checkbox_show_row_count_tip,
                 false,
                 1);
+            persistentSnapshotCheck = UIUtils.createCheckbox(
+                performanceGroup,
+                CoreMessages.pref_page_database_general_checkbox_persistent_snapshot,
+                CoreMessages.pref_page_database_general_checkbox_persistent_snapshot_tip,
+                false,
+                1);
+            nameIndexCheck = UIUtils.createCheckbox(
+                performanceGroup,
+                CoreMessages.pref_page_database_general_checkbox_name_index,
+                CoreMessages.pref_page_database_general_checkbox_name_index_tip,
+                false,
+                1);
         }
 
         return composite;
@@ -158,6 +174,8 @@ public class PrefPageMetaData extends TargetPrefPage
             disableExtraMetadataRead.setSelection(store.getBoolean(ModelPreferences.META_DISABLE_EXTRA_READ));
             addExtraDDLInfo.setSelection(store.getBoolean(ModelPreferences.META_EXTRA_DDL_INFO));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            persistentSnapshotCheck.setSelection(store.getBoolean(ModelPreferences.META_PERSISTENT_SNAPSHOT));
+            nameIndexCheck.setSelection(store.getBoolean(ModelPreferences.META_NAME_INDEX));
 
         } catch (Exception e) {
             log.warn(e);
@@ -177,6 +195,8 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_DISABLE_EXTRA_READ, disableExtraMetadataRead.getSelection());
             store.setValue(ModelPreferences.META_EXTRA_DDL_INFO, addExtraDDLInfo.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_PERSISTENT_SNAPSHOT, persistentSnapshotCheck.getSelection());
+            store.setValue(ModelPreferences.META_NAME_INDEX, nameIndexCheck.getSelection());
 
         } catch (Exception e) {
             log.warn(e);
@@ -193,6 +213,8 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_DISABLE_EXTRA_READ);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
         store.setToDefault(ModelPreferences.META_EXTRA_DDL_INFO);
+        store.setToDefault(ModelPreferences.META_PERSISTENT_SNAPSHOT);
+        store.setToDefault(ModelPreferences.META_NAME_INDEX);
     }
 
     @Override
@@ -206,6 +228,8 @@ public class PrefPageMetaData extends TargetPrefPage
         disableExtraMetadataRead.setSelection(store.getDefaultBoolean(ModelPreferences.META_DISABLE_EXTRA_READ));
         addExtraDDLInfo.setSelection(store.getDefaultBoolean(ModelPreferences.META_EXTRA_DDL_INFO));
         serverSideFiltersCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+        persistentSnapshotCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_PERSISTENT_SNAPSHOT));
+        nameIndexCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_NAME_INDEX));
         super.performDefaults();
     }
 
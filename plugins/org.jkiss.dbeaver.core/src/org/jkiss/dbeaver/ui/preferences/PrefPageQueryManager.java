@@ -62,6 +62,9 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
     private Text textEntriesPerPage;
     private Button checkStoreLog;
     private Text textOutputFolder;
+    private Combo comboLogFormat;
+    private Text textMaxFileSize;
+    private Button checkCompressLog;
 
 
     @Override
@@ -117,8 +120,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
                 @Override
                 public void widgetSelected(SelectionEvent e)
                 {
-                    UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-                    UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+                    enableLogControls();
                 }
             });
             textOutputFolder = DialogUtils.createOutputFolderChooser(storageSettings, CoreMessages.pref_page_query_manager_logs_folder, null, false, null);
@@ -129,6 +131,21 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
                 store.getString(QMConstants.PROP_HISTORY_DAYS),
                 SWT.BORDER,
                 new GridData(50, SWT.DEFAULT));
+            comboLogFormat = UIUtils.createLabelCombo(storageSettings, CoreMessages.pref_page_query_manager_label_log_format, SWT.DROP_DOWN | SWT.READ_ONLY);
+            comboLogFormat.add(CoreMessages.pref_page_query_manager_label_log_format_text);
+            comboLogFormat.add(CoreMessages.pref_page_query_manager_label_log_format_json);
+            textMaxFileSize = UIUtils.createLabelText(
+                storageSettings,
+                CoreMessages.pref_page_query_manager_label_log_max_file_size,
+                store.getString(QMConstants.PROP_LOG_MAX_FILE_SIZE),
+                SWT.BORDER,
+                new GridData(50, SWT.DEFAULT));
+            checkCompressLog = UIUtils.createCheckbox(
+                storageSettings,
+                CoreMessages.pref_page_query_manager_checkbox_log_compress,
+                null,
+                store.getBoolean(QMConstants.PROP_LOG_COMPRESS),
+                2);
 
             Control infoLabel = UIUtils.createInfoLabel(storageSettings, CoreMessages.pref_page_query_manager_log_file_hint);
             infoLabel.setLayoutData(new GridData(GridData.FILL, GridData.BEGINNING, true, false, 2, 1));
@@ -144,8 +161,21 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         Collection<String> queryTypes = CommonUtils.splitString(store.getString(QMConstants.PROP_QUERY_TYPES), ',');
         checkObjectTypes(objectTypes);
         checkQueryTypes(queryTypes);
-        UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-        UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+        setLogFormat(store.getString(QMConstants.PROP_LOG_FORMAT));
+        enableLogControls();
+    }
+
+    private void enableLogControls() {
+        boolean enabled = checkStoreLog.getSelection();
+        UIUtils.enableWithChildren(textOutputFolder.getParent(), enabled);
+        UIUtils.enableWithChildren(textHistoryDays, enabled);
+        comboLogFormat.setEnabled(enabled);
+        textMaxFileSize.setEnabled(enabled);
+        checkCompressLog.setEnabled(enabled);
+    }
+
+    private void setLogFormat(String format) {
+        comboLogFormat.select(QMConstants.LOG_FORMAT_JSON.equals(format) ? 1 : 0);
     }
 
     private void checkObjectTypes(Collection<QMObjectType> objectTypes) {
@@ -180,8 +210,10 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
 
         checkStoreLog.setSelection(store.getDefaultBoolean(QMConstants.PROP_STORE_LOG_FILE));
         textOutputFolder.setText(store.getDefaultString(QMConstants.PROP_LOG_DIRECTORY));
-        UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-        UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+        setLogFormat(store.getDefaultString(QMConstants.PROP_LOG_FORMAT));
+        textMaxFileSize.setText(store.getDefaultString(QMConstants.PROP_LOG_MAX_FILE_SIZE));
+        checkCompressLog.setSelection(store.getDefaultBoolean(QMConstants.PROP_LOG_COMPRESS));
+        enableLogControls();
 
         super.performDefaults();
     }
@@ -204,6 +236,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
 
         Integer historyDays = UIUtils.getTextInteger(textHistoryDays);
         Integer entriesPerPage = UIUtils.getTextInteger(textEntriesPerPage);
+        Integer maxFileSize = UIUtils.getTextInteger(textMaxFileSize);
 
         DBPPreferenceStore store = DBWorkbench.getPlatform().getPreferenceStore();
         store.setValue(QMConstants.PROP_OBJECT_TYPES, QMObjectType.toString(objectTypes));
@@ -216,6 +249,12 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         }
         store.setValue(QMConstants.PROP_STORE_LOG_FILE, checkStoreLog.getSelection());
         store.setValue(QMConstants.PROP_LOG_DIRECTORY, textOutputFolder.getText());
+        store.setValue(QMConstants.PROP_LOG_FORMAT,
+            comboLogFormat.getSelectionIndex() == 1 ? QMConstants.LOG_FORMAT_JSON : QMConstants.LOG_FORMAT_TEXT);
+        if (maxFileSize != null) {
+            store.setValue(QMConstants.PROP_LOG_MAX_FILE_SIZE, Math.max(0, maxFileSize));
+        }
+        store.setValue(QMConstants.PROP_LOG_COMPRESS, checkCompressLog.getSelection());
         PrefUtils.savePreferenceStore(store);
 
         return super.performOk();
@@ -75,6 +75,7 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 
 import java.io.*;
@@ -93,6 +94,8 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
     private static final String PROP_FLIP_COORDINATES = "gis.flipCoords";
     private static final String PROP_SRID = "gis.srid";
     private static final int UNDEFINED_SRID = -1;
+    // Map width in pixels used for the initial rendering when browser size is not known yet
+    private static final int DEFAULT_VIEWPORT_WIDTH = 1024;
 
     private volatile boolean browserCreating = false;
 
@@ -104,6 +107,7 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
 
     private Browser browser;
     private DBGeometry[] lastValue;
+    private GISViewportRenderer renderer;
     private int sourceSRID = UNDEFINED_SRID; // Explicitly set SRID
     private int actualSourceSRID; // SRID taken from geometry value
     private Path scriptFile;
@@ -168,6 +172,22 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
                 };
             }
 
+            new BrowserFunction(browser, "loadViewportGeometries") {
+                @Override
+                public Object function(Object[] arguments) {
+                    if (renderer == null) {
+                        return null;
+                    }
+                    // Arguments: west, south, east, north, map units per pixel
+                    final Envelope viewport = new Envelope(
+                        CommonUtils.toDouble(arguments[0]),
+                        CommonUtils.toDouble(arguments[2]),
+                        CommonUtils.toDouble(arguments[1]),
+                        CommonUtils.toDouble(arguments[3]));
+                    return renderer.render(viewport, CommonUtils.toDouble(arguments[4])).toJson();
+                }
+            };
+
             browser.addDisposeListener(e -> {
                 cleanupFiles();
                 GISViewerActivator.getDefault().getPreferences().removePropertyChangeListener(this);
@@ -289,16 +309,6 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
         if (!force && CommonUtils.equalObjects(lastValue, values)) {
             return;
         }
-        int maxObjects = GISViewerActivator.getDefault().getPreferences().getInt(GeometryViewerConstants.PREF_MAX_OBJECTS_RENDER);
-        if (maxObjects <= 0) {
-            maxObjects = GeometryViewerConstants.DEFAULT_MAX_OBJECTS_RENDER;
-        }
-        if (values != null && values.length > maxObjects) {
-            // Truncate value list
-            DBGeometry[] truncValues = new DBGeometry[maxObjects];
-            System.arraycopy(values, 0, truncValues, 0, maxObjects);
-            values = truncValues;
-        }
         if (browser != null) {
             try {
                 if (ArrayUtils.isEmpty(values)) {
@@ -334,8 +344,12 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
             }
         }
 
-        List<String> geomValues = new ArrayList<>();
-        List<String> geomTipValues = new ArrayList<>();
+        int maxObjects = GISViewerActivator.getDefault().getPreferences().getInt(GeometryViewerConstants.PREF_MAX_OBJECTS_RENDER);
+        if (maxObjects <= 0) {
+            maxObjects = GeometryViewerConstants.DEFAULT_MAX_OBJECTS_RENDER;
+        }
+        // All geometries are kept in the renderer, the map requests geometries of its viewport only
+        final GISViewportRenderer viewportRenderer = new GISViewportRenderer(maxObjects);
         boolean showMap = false;
         for (int i = 0; i < values.length; i++) {
             DBGeometry value = values[i];
@@ -397,20 +411,34 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
             if (targetValue == null) {
                 continue;
             }
-            geomValues.add("'" + targetValue + "'");
+            String tip = "null";
             try {
-                if (CommonUtils.isEmpty(value.getProperties())) {
-                    geomTipValues.add("null");
-                } else {
-                    geomTipValues.add(gson.toJson(value.getProperties()));
+                if (!CommonUtils.isEmpty(value.getProperties())) {
+                    tip = gson.toJson(value.getProperties());
                 }
             } catch (Exception e) {
                 log.debug(e);
             }
+            viewportRenderer.addGeometry(GisTransformUtils.getJtsGeometry(targetValue), targetValue.toString(), tip);
         }
         this.defaultSRID = actualSourceSRID;
+        this.renderer = viewportRenderer;
+
+        // Initial geometries are embedded in the page, so it also works in an external browser
+        final Envelope extent = viewportRenderer.getExtent();
+        final Envelope viewport = bounds != null ? new Envelope(bounds.west, bounds.east, bounds.south, bounds.north) : extent;
+        final int viewportWidth = browser == null ? 0 : browser.getSize().x;
+        final GISViewportRenderer.RenderResult initialResult = viewportRenderer.render(
+            viewport,
+            viewport.isNull() ? 0 : viewport.getWidth() / (viewportWidth > 0 ? viewportWidth : DEFAULT_VIEWPORT_WIDTH));
+        List<String> geomValues = new ArrayList<>(initialResult.values.size());
+        for (String geomValue : initialResult.values) {
+            geomValues.add("'" + geomValue + "'");
+        }
         String geomValuesString = String.join(",", geomValues);
-        String geomTipValuesString = String.join(",", geomTipValues);
+        String geomTipValuesString = String.join(",", initialResult.tips);
+        String geomExtent = extent.isNull() ? "undefined" :
+            new Bounds(extent.getMaxY(), extent.getMaxX(), extent.getMinY(), extent.getMinX()).toString();
         String geomCRS = actualSourceSRID == GisConstants.SRID_SIMPLE ? GisConstants.LL_CRS_SIMPLE : GisConstants.LL_CRS_3857;
         boolean isShowMap = showMap;
 
@@ -438,6 +466,8 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
                         return geomCRS;
                     case "geomBounds":
                         return CommonUtils.toString(bounds, "undefined");
+                    case "geomExtent":
+                        return geomExtent;
                     case "minZoomLevel":
                         return String.valueOf(GISViewerActivator.getDefault().getPreferences().getInt(GeometryViewerConstants.PREF_MIN_ZOOM_LEVEL));
                     case "defaultTiles":
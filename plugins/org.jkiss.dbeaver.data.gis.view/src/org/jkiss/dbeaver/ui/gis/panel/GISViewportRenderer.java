@@ -0,0 +1,273 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.gis.panel;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+import org.locationtech.jts.simplify.VWSimplifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares geometries for the Leaflet viewer.
+ * <p>
+ * Geometries are kept in an STR-tree, only geometries intersecting the map viewport are rendered.
+ * Lines and polygons are simplified with the tolerance of one screen pixel, points are clustered
+ * when there are too many of them in the viewport.
+ * <p>
+ * Geometries must be in the map CRS (EPSG:4326 or simple CRS).
+ */
+class GISViewportRenderer {
+
+    // Points are clustered only if there are more points than this in the viewport
+    private static final int CLUSTER_MIN_POINTS = 500;
+    // Clustering grid cell size in pixels
+    private static final int CLUSTER_CELL_PIXELS = 40;
+    // Viewport is extended by this part of its size, so small moves don't show empty borders
+    private static final double VIEWPORT_MARGIN = 0.1;
+
+    private static class Feature {
+        @Nullable
+        private final Geometry geometry;
+        @NotNull
+        private final String text;
+        @NotNull
+        private final String tip;
+        private int simplifiedLevel = Integer.MIN_VALUE;
+        private String simplifiedText;
+
+        Feature(@Nullable Geometry geometry, @NotNull String text, @NotNull String tip) {
+            this.geometry = geometry;
+            this.text = text;
+            this.tip = tip;
+        }
+
+        double getSize() {
+            Envelope envelope = geometry.getEnvelopeInternal();
+            return Math.max(envelope.getWidth(), envelope.getHeight());
+        }
+    }
+
+    private static class Cluster {
+        private final Feature first;
+        private int count;
+        private double sumX;
+        private double sumY;
+
+        Cluster(Feature first) {
+            this.first = first;
+        }
+    }
+
+    /**
+     * Rendered geometries as WKT strings and their tips as JSON
+     */
+    static class RenderResult {
+        final List<String> values = new ArrayList<>();
+        final List<String> tips = new ArrayList<>();
+
+        String toJson() {
+            StringBuilder json = new StringBuilder(values.size() * 64);
+            json.append("{\"values\":[");
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append('"').append(JSONUtils.escapeJsonString(values.get(i))).append('"');
+            }
+            json.append("],\"tips\":[");
+            for (int i = 0; i < tips.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append(tips.get(i));
+            }
+            json.append("]}");
+            return json.toString();
+        }
+    }
+
+    private final STRtree index = new STRtree();
+    // Geometries which can't be indexed, always rendered as is
+    private final List<Feature> unindexed = new ArrayList<>();
+    private final Envelope extent = new Envelope();
+    private final int maxObjects;
+
+    GISViewportRenderer(int maxObjects) {
+        this.maxObjects = maxObjects;
+    }
+
+    /**
+     * Adds geometry.
+     *
+     * @param geometry JTS geometry, or null if geometry can't be converted to JTS
+     * @param text WKT of the original geometry
+     * @param tip geometry tip JSON
+     */
+    void addGeometry(@Nullable Geometry geometry, @NotNull String text, @NotNull String tip) {
+        Feature feature = new Feature(geometry, text, tip);
+        if (geometry == null || geometry.isEmpty()) {
+            unindexed.add(feature);
+        } else {
+            index.insert(geometry.getEnvelopeInternal(), feature);
+            extent.expandToInclude(geometry.getEnvelopeInternal());
+        }
+    }
+
+    /**
+     * Envelope of all indexed geometries
+     */
+    @NotNull
+    Envelope getExtent() {
+        return extent;
+    }
+
+    /**
+     * Renders geometries intersecting the viewport.
+     *
+     * @param viewport   viewport bounds in map CRS
+     * @param resolution map units per screen pixel
+     */
+    @NotNull
+    synchronized RenderResult render(@NotNull Envelope viewport, double resolution) {
+        RenderResult result = new RenderResult();
+        for (Feature feature : unindexed) {
+            result.values.add(feature.text);
+            result.tips.add(feature.tip);
+        }
+        if (extent.isNull()) {
+            return result;
+        }
+
+        Envelope queryEnvelope = new Envelope(viewport);
+        queryEnvelope.expandBy(viewport.getWidth() * VIEWPORT_MARGIN, viewport.getHeight() * VIEWPORT_MARGIN);
+        List<Feature> shapes = new ArrayList<>();
+        List<Feature> points = new ArrayList<>();
+        for (Object item : index.query(queryEnvelope)) {
+            Feature feature = (Feature) item;
+            if (feature.geometry instanceof Point) {
+                points.add(feature);
+            } else {
+                shapes.add(feature);
+            }
+        }
+
+        List<Cluster> clusters = new ArrayList<>();
+        if (points.size() > CLUSTER_MIN_POINTS && resolution > 0) {
+            List<Cluster> cells = clusterPoints(points, queryEnvelope, resolution * CLUSTER_CELL_PIXELS);
+            points.clear();
+            for (Cluster cell : cells) {
+                if (cell.count == 1) {
+                    points.add(cell.first);
+                } else {
+                    clusters.add(cell);
+                }
+            }
+        }
+
+        int maxShapes = Math.max(0, maxObjects - clusters.size() - points.size());
+        if (shapes.size() > maxShapes) {
+            // Too many geometries in the viewport. Render the biggest ones, the rest appear after zooming in
+            shapes.sort(Comparator.comparingDouble(Feature::getSize).reversed());
+            shapes = shapes.subList(0, maxShapes);
+        }
+
+        // Simplification tolerance is rounded to a power of two, so results can be reused at the same zoom level
+        int level = resolution > 0 ? Math.getExponent(resolution) : Integer.MIN_VALUE;
+        for (Feature feature : shapes) {
+            result.values.add(getSimplifiedText(feature, level));
+            result.tips.add(feature.tip);
+        }
+        for (Feature feature : points) {
+            result.values.add(feature.text);
+            result.tips.add(feature.tip);
+        }
+        for (Cluster cluster : clusters) {
+            Coordinate center = new Coordinate(cluster.sumX / cluster.count, cluster.sumY / cluster.count);
+            result.values.add(cluster.first.geometry.getFactory().createPoint(center).toText());
+            result.tips.add("{\"cluster\":" + cluster.count + ",\"id\":\"" + cluster.count + " objects\"}");
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<Cluster> clusterPoints(@NotNull List<Feature> points, @NotNull Envelope envelope, double cellSize) {
+        // Grid is aligned to the cell size, so clusters don't jump when map is moved
+        double originX = Math.floor(envelope.getMinX() / cellSize) * cellSize;
+        double originY = Math.floor(envelope.getMinY() / cellSize) * cellSize;
+        long rowSize = (long) Math.ceil((envelope.getMaxX() - originX) / cellSize) + 1;
+        Map<Long, Cluster> cells = new HashMap<>();
+        List<Cluster> clusters = new ArrayList<>();
+        for (Feature feature : points) {
+            Coordinate coordinate = feature.geometry.getCoordinate();
+            long cellX = (long) ((coordinate.x - originX) / cellSize);
+            long cellY = (long) ((coordinate.y - originY) / cellSize);
+            Cluster cluster = cells.get(cellY * rowSize + cellX);
+            if (cluster == null) {
+                cluster = new Cluster(feature);
+                cells.put(cellY * rowSize + cellX, cluster);
+                clusters.add(cluster);
+            }
+            cluster.count++;
+            cluster.sumX += coordinate.x;
+            cluster.sumY += coordinate.y;
+        }
+        return clusters;
+    }
+
+    @NotNull
+    private static String getSimplifiedText(@NotNull Feature feature, int level) {
+        if (level == Integer.MIN_VALUE || feature.geometry.getNumPoints() <= 4) {
+            return feature.text;
+        }
+        if (feature.simplifiedLevel != level) {
+            double tolerance = Math.scalb(1.0, level);
+            Geometry geometry = feature.geometry;
+            Envelope envelope = geometry.getEnvelopeInternal();
+            Geometry simplified;
+            if (envelope.getWidth() < tolerance && envelope.getHeight() < tolerance) {
+                // Geometry is smaller than a pixel
+                simplified = geometry.getFactory().createPoint(envelope.centre());
+            } else if (geometry.getDimension() >= 2) {
+                // Visvalingam-Whyatt keeps shapes of areas better
+                VWSimplifier simplifier = new VWSimplifier(geometry);
+                simplifier.setDistanceTolerance(tolerance);
+                simplifier.setEnsureValid(false);
+                simplified = simplifier.getResultGeometry();
+            } else {
+                DouglasPeuckerSimplifier simplifier = new DouglasPeuckerSimplifier(geometry);
+                simplifier.setDistanceTolerance(tolerance);
+                simplifier.setEnsureValid(false);
+                simplified = simplifier.getResultGeometry();
+            }
+            if (simplified.isEmpty()) {
+                simplified = geometry.getFactory().createPoint(envelope.centre());
+            }
+            feature.simplifiedText = simplified.getNumPoints() < geometry.getNumPoints() ? simplified.toText() : feature.text;
+            feature.simplifiedLevel = level;
+        }
+        return feature.simplifiedText;
+    }
+
+}
@@ -26,13 +26,15 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.gis.DBGeometry;
+import org.jkiss.dbeaver.model.gis.GisWKBGeometry;
 import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCContentBytes;
 import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCAbstractValueHandler;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.io.*;
+import org.locationtech.jts.io.ByteOrderValues;
+import org.locationtech.jts.io.OutputStreamOutStream;
+import org.locationtech.jts.io.WKBWriter;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.sql.SQLException;
@@ -129,14 +131,20 @@ public class GISGeometryValueHandler extends JDBCAbstractValueHandler {
             } else {
                 bytes = (byte[]) object;
             }
-            try {
-                geometry = new DBGeometry(convertGeometryFromBinaryFormat(session, bytes));
-            } catch (DBCException e) {
+            GisWKBGeometry binaryGeometry = GisWKBGeometry.fromBytes(bytes, leadingSRID);
+            if (binaryGeometry != null) {
+                // Decode geometry on first access. Many fetched values are never rendered
+                geometry = new DBGeometry(binaryGeometry, binaryGeometry.getSRID());
+            } else {
                 try {
-                    // Might be a WKT
-                    geometry = new DBGeometry(new WKTReader().read(new String(bytes)));
-                } catch (Exception ignored) {
-                    throw new DBCException("Error parsing geometry value from binary", e);
+                    geometry = new DBGeometry(convertGeometryFromBinaryFormat(session, bytes));
+                } catch (DBCException e) {
+                    try {
+                        // Might be a WKT
+                        geometry = new DBGeometry(GisWKBGeometry.readWKT(new String(bytes)));
+                    } catch (Exception ignored) {
+                        throw new DBCException("Error parsing geometry value from binary", e);
+                    }
                 }
             }
         } else if (object instanceof String) {
@@ -151,24 +159,8 @@ public class GISGeometryValueHandler extends JDBCAbstractValueHandler {
     }
 
     protected Geometry convertGeometryFromBinaryFormat(DBCSession session, byte[] object) throws DBCException {
-        try (ByteArrayInputStream is = new ByteArrayInputStream(object)) {
-            int srid = 0;
-
-            if (leadingSRID) {
-                // Read SRID with little endian order (the least significant bytes come first)
-                srid |= is.read();
-                srid |= is.read() << 8;
-                srid |= is.read() << 16;
-                srid |= is.read() << 24;
-            }
-
-            final Geometry geometry = new WKBReader().read(new InputStreamInStream(is));
-
-            if (leadingSRID && srid > 0) {
-                geometry.setSRID(srid);
-            }
-
-            return geometry;
+        try {
+            return GisWKBGeometry.readGeometry(object, leadingSRID);
         } catch (Exception e) {
             throw new DBCException("Error reading geometry from binary data", e);
         }
@@ -20,11 +20,13 @@ package org.jkiss.dbeaver.model.gis;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.utils.CommonUtils;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.io.WKTReader;
 import org.locationtech.jts.io.WKTWriter;
 
 import java.util.LinkedHashMap;
@@ -32,10 +34,15 @@ import java.util.Map;
 
 /**
  * Geometry value (LOB).
+ * Geometry created from WKB is decoded on first access to the geometry value.
  */
 public class DBGeometry implements DBDValue {
 
-    private final Object rawValue;
+    private static final Log log = Log.getLog(DBGeometry.class);
+
+    private Object rawValue;
+    // Not decoded geometry. Reset after decoding
+    private volatile GisWKBGeometry binaryValue;
     private int srid;
     private Map<String, Object> properties;
 
@@ -44,7 +51,19 @@ public class DBGeometry implements DBDValue {
     }
 
     public DBGeometry(@NotNull DBGeometry source) {
-        this(source.rawValue, source.srid, source.properties);
+        GisWKBGeometry binary = source.binaryValue;
+        this.binaryValue = binary;
+        this.rawValue = binary == null ? source.rawValue : null;
+        this.srid = source.srid;
+        this.properties = source.properties == null ? null : new LinkedHashMap<>(source.properties);
+    }
+
+    /**
+     * Creates geometry which is decoded on first access
+     */
+    public DBGeometry(@NotNull GisWKBGeometry binaryValue, int srid) {
+        this(null, srid, null);
+        this.binaryValue = binaryValue;
     }
 
     public DBGeometry(@Nullable Geometry rawValue) {
@@ -63,29 +82,98 @@ public class DBGeometry implements DBDValue {
 
     @Nullable
     public Geometry getGeometry() {
-        return rawValue instanceof Geometry ? (Geometry) rawValue : null;
+        Object value = getRawValue();
+        return value instanceof Geometry ? (Geometry) value : null;
     }
 
     @Nullable
     public String getString() {
-        if (rawValue == null) {
+        Object value = getRawValue();
+        if (value == null) {
             return null;
         }
-        if (rawValue instanceof Geometry) {
+        if (value instanceof Geometry) {
             // Use all possible dimensions (4 stands for XYZM) for the most verbose output
-            return new WKTWriter(4).write((Geometry) rawValue);
+            return new WKTWriter(4).write((Geometry) value);
         }
-        return rawValue.toString();
+        if (value instanceof byte[] bytes) {
+            // Geometry which can't be decoded
+            return CommonUtils.toHexString(bytes);
+        }
+        return value.toString();
     }
 
     @Override
     public Object getRawValue() {
+        if (binaryValue != null) {
+            decodeBinaryValue();
+        }
         return rawValue;
     }
 
+    private synchronized void decodeBinaryValue() {
+        GisWKBGeometry binary = binaryValue;
+        if (binary == null) {
+            return;
+        }
+        try {
+            Geometry geometry = binary.decode();
+            if (srid != 0) {
+                geometry.setSRID(srid);
+            }
+            rawValue = geometry;
+        } catch (Exception e) {
+            // Keep original bytes, so the value is saved as is
+            log.debug("Error decoding geometry from binary data", e);
+            rawValue = binary.getBytes();
+        }
+        binaryValue = null;
+    }
+
+    /**
+     * Geometry type name (see {@link Geometry#getGeometryType()}).
+     * Doesn't decode the geometry.
+     */
+    @Nullable
+    public String getGeometryType() {
+        GisWKBGeometry binary = binaryValue;
+        if (binary != null) {
+            return binary.getGeometryType();
+        }
+        Geometry geometry = getGeometry();
+        return geometry == null ? null : geometry.getGeometryType();
+    }
+
+    /**
+     * Geometry bounding box.
+     * Doesn't decode the geometry, coordinates are read from the binary data.
+     */
+    @Nullable
+    public Envelope getEnvelope() {
+        GisWKBGeometry binary = binaryValue;
+        if (binary != null) {
+            Envelope envelope = binary.getEnvelope();
+            if (envelope != null) {
+                return envelope;
+            }
+        }
+        Geometry geometry = getGeometry();
+        return geometry == null ? null : geometry.getEnvelopeInternal();
+    }
+
+    /**
+     * Whether geometry is not decoded yet
+     */
+    public boolean isDecoded() {
+        return binaryValue == null;
+    }
+
     @Override
     public boolean isNull() {
-        return rawValue == null;
+        // Decoding sets rawValue before it resets binaryValue, so binaryValue must be read first
+        GisWKBGeometry binary = binaryValue;
+        Object value = rawValue;
+        return binary == null && value == null;
     }
 
     @Override
@@ -110,6 +198,7 @@ public class DBGeometry implements DBDValue {
 
     public void setSRID(int srid) {
         this.srid = srid;
+        // Not decoded geometry gets SRID after decoding
         if (rawValue instanceof Geometry) {
             ((Geometry) rawValue).setSRID(srid);
         }
@@ -119,7 +208,7 @@ public class DBGeometry implements DBDValue {
         Geometry jtsGeometry = getGeometry();
         if (jtsGeometry == null) {
             try {
-                jtsGeometry = new WKTReader().read(getString());
+                jtsGeometry = GisWKBGeometry.readWKT(getString());
             } catch (Exception e) {
                 throw new DBException("Error parsing geometry WKT", e);
             }
@@ -135,7 +224,7 @@ public class DBGeometry implements DBDValue {
         Geometry jtsGeometry = getGeometry();
         if (jtsGeometry == null) {
             try {
-                jtsGeometry = new WKTReader().read(getString());
+                jtsGeometry = GisWKBGeometry.readWKT(getString());
             } catch (Exception e) {
                 throw new DBException("Error parsing geometry WKT", e);
             }
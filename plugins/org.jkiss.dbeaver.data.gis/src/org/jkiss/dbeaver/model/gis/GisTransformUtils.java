@@ -45,7 +45,6 @@ import org.jkiss.utils.CommonUtils;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.io.ParseException;
-import org.locationtech.jts.io.WKTReader;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -235,7 +234,7 @@ public class GisTransformUtils {
             return (Geometry) object;
         } else if (object instanceof org.cugos.wkg.Geometry) {
             try {
-                return new WKTReader().read(object.toString());
+                return GisWKBGeometry.readWKT(object.toString());
             } catch (ParseException e) {
                 log.debug("Unable to parse geometry for CRS transformation: " + e.getMessage());
             }
@@ -0,0 +1,292 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.gis;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.InputStreamInStream;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKTReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Geometry in WKB/EWKB binary format.
+ * <p>
+ * Geometry type, dimension and SRID are read from the header, geometry is decoded on demand.
+ * Readers are reused per thread.
+ */
+public final class GisWKBGeometry {
+
+    private static final ThreadLocal<WKBReader> WKB_READER = ThreadLocal.withInitial(WKBReader::new);
+    private static final ThreadLocal<WKTReader> WKT_READER = ThreadLocal.withInitial(WKTReader::new);
+
+    private static final String[] GEOMETRY_TYPES = {
+        null, "Point", "LineString", "Polygon", "MultiPoint", "MultiLineString", "MultiPolygon", "GeometryCollection"
+    };
+
+    // EWKB flags
+    private static final int EWKB_Z = 0x80000000;
+    private static final int EWKB_M = 0x40000000;
+    private static final int EWKB_SRID = 0x20000000;
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int typeCode;
+    private final DBGeometryDimension dimension;
+    private final int srid;
+
+    private GisWKBGeometry(@NotNull byte[] bytes, int offset, int typeCode, @NotNull DBGeometryDimension dimension, int srid) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.typeCode = typeCode;
+        this.dimension = dimension;
+        this.srid = srid;
+    }
+
+    /**
+     * Reads geometry header.
+     *
+     * @param bytes       geometry bytes. Must not be changed after this call
+     * @param leadingSRID whether WKB is prefixed with little-endian SRID (MySQL format)
+     * @return geometry or null if bytes are not a WKB geometry
+     */
+    @Nullable
+    public static GisWKBGeometry fromBytes(@NotNull byte[] bytes, boolean leadingSRID) {
+        int offset = 0;
+        int srid = 0;
+        if (leadingSRID) {
+            if (bytes.length < 4) {
+                return null;
+            }
+            srid = readInt(bytes, 0, true);
+            offset = 4;
+        }
+        if (bytes.length < offset + 5 || (bytes[offset] != 0 && bytes[offset] != 1)) {
+            return null;
+        }
+        boolean littleEndian = bytes[offset] == 1;
+        int type = readInt(bytes, offset + 1, littleEndian);
+        boolean hasZ = (type & EWKB_Z) != 0;
+        boolean hasM = (type & EWKB_M) != 0;
+        if ((type & EWKB_SRID) != 0) {
+            if (bytes.length < offset + 9) {
+                return null;
+            }
+            int ewkbSRID = readInt(bytes, offset + 5, littleEndian);
+            if (!leadingSRID || srid == 0) {
+                srid = ewkbSRID;
+            }
+        }
+        type &= 0xffff;
+        // ISO WKB: 1000 - Z, 2000 - M, 3000 - ZM
+        switch (type / 1000) {
+            case 1 -> hasZ = true;
+            case 2 -> hasM = true;
+            case 3 -> {
+                hasZ = true;
+                hasM = true;
+            }
+            case 0 -> { }
+            default -> {
+                return null;
+            }
+        }
+        int typeCode = type % 1000;
+        if (typeCode < 1 || typeCode >= GEOMETRY_TYPES.length) {
+            return null;
+        }
+        DBGeometryDimension dimension = hasZ ?
+            (hasM ? DBGeometryDimension.XYZM : DBGeometryDimension.XYZ) :
+            (hasM ? DBGeometryDimension.XYM : DBGeometryDimension.XY);
+        return new GisWKBGeometry(bytes, offset, typeCode, dimension, srid);
+    }
+
+    /**
+     * Reads geometry from WKB/EWKB bytes.
+     *
+     * @param leadingSRID whether WKB is prefixed with little-endian SRID (MySQL format)
+     */
+    @NotNull
+    public static Geometry readGeometry(@NotNull byte[] bytes, boolean leadingSRID) throws ParseException {
+        int offset = leadingSRID ? 4 : 0;
+        if (bytes.length < offset) {
+            throw new ParseException("Geometry data is too short");
+        }
+        Geometry geometry;
+        try {
+            geometry = WKB_READER.get().read(
+                new InputStreamInStream(new ByteArrayInputStream(bytes, offset, bytes.length - offset)));
+        } catch (IOException e) {
+            throw new ParseException(e);
+        }
+        if (leadingSRID) {
+            int srid = readInt(bytes, 0, true);
+            if (srid > 0) {
+                geometry.setSRID(srid);
+            }
+        }
+        return geometry;
+    }
+
+    /**
+     * Reads geometry from WKT
+     */
+    @NotNull
+    public static Geometry readWKT(@NotNull String wkt) throws ParseException {
+        return WKT_READER.get().read(wkt);
+    }
+
+    /**
+     * Geometry type name, same as {@link Geometry#getGeometryType()}
+     */
+    @NotNull
+    public String getGeometryType() {
+        return GEOMETRY_TYPES[typeCode];
+    }
+
+    @NotNull
+    public DBGeometryDimension getDimension() {
+        return dimension;
+    }
+
+    /**
+     * SRID from the geometry header or 0 if not specified
+     */
+    public int getSRID() {
+        return srid;
+    }
+
+    @NotNull
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Decodes geometry
+     */
+    @NotNull
+    public Geometry decode() throws ParseException {
+        Geometry geometry = readGeometry(bytes, offset > 0);
+        if (geometry.getSRID() == 0 && srid != 0) {
+            geometry.setSRID(srid);
+        }
+        return geometry;
+    }
+
+    /**
+     * Calculates geometry bounding box. Coordinates are read directly from the binary data,
+     * geometry is not decoded.
+     *
+     * @return envelope (null envelope for empty geometry) or null if envelope can't be calculated
+     */
+    @Nullable
+    public Envelope getEnvelope() {
+        Envelope envelope = new Envelope();
+        try {
+            if (readEnvelope(offset, envelope) < 0) {
+                return null;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Truncated data
+            return null;
+        }
+        return envelope;
+    }
+
+    /**
+     * Adds coordinates of the geometry at the specified position to the envelope.
+     *
+     * @return position after the geometry or -1 if geometry type is not supported
+     */
+    private int readEnvelope(int pos, @NotNull Envelope envelope) {
+        boolean littleEndian = bytes[pos] == 1;
+        int type = readInt(bytes, pos + 1, littleEndian);
+        pos += 5;
+        int coordinates = 2;
+        if ((type & EWKB_Z) != 0) coordinates++;
+        if ((type & EWKB_M) != 0) coordinates++;
+        if ((type & EWKB_SRID) != 0) pos += 4;
+        type &= 0xffff;
+        coordinates += switch (type / 1000) {
+            case 1, 2 -> 1;
+            case 3 -> 2;
+            default -> 0;
+        };
+        switch (type % 1000) {
+            case 1 -> {
+                return readPoints(pos, 1, coordinates, littleEndian, envelope);
+            }
+            case 2 -> {
+                return readPoints(pos + 4, readInt(bytes, pos, littleEndian), coordinates, littleEndian, envelope);
+            }
+            case 3 -> {
+                int rings = readInt(bytes, pos, littleEndian);
+                pos += 4;
+                for (int i = 0; i < rings; i++) {
+                    pos = readPoints(pos + 4, readInt(bytes, pos, littleEndian), coordinates, littleEndian, envelope);
+                }
+                return pos;
+            }
+            case 4, 5, 6, 7 -> {
+                int count = readInt(bytes, pos, littleEndian);
+                pos += 4;
+                for (int i = 0; i < count && pos >= 0; i++) {
+                    pos = readEnvelope(pos, envelope);
+                }
+                return pos;
+            }
+            default -> {
+                return -1;
+            }
+        }
+    }
+
+    private int readPoints(int pos, int count, int coordinates, boolean littleEndian, @NotNull Envelope envelope) {
+        if (count < 0 || (long) pos + (long) count * coordinates * 8 > bytes.length) {
+            throw new IndexOutOfBoundsException("Invalid points count: " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            double x = Double.longBitsToDouble(readLong(bytes, pos, littleEndian));
+            double y = Double.longBitsToDouble(readLong(bytes, pos + 8, littleEndian));
+            // Empty point is encoded as NaN coordinates
+            if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                envelope.expandToInclude(x, y);
+            }
+            pos += coordinates * 8;
+        }
+        return pos;
+    }
+
+    private static int readInt(@NotNull byte[] bytes, int pos, boolean littleEndian) {
+        int b0 = bytes[pos] & 0xff, b1 = bytes[pos + 1] & 0xff, b2 = bytes[pos + 2] & 0xff, b3 = bytes[pos + 3] & 0xff;
+        return littleEndian ?
+            b0 | b1 << 8 | b2 << 16 | b3 << 24 :
+            b3 | b2 << 8 | b1 << 16 | b0 << 24;
+    }
+
+    private static long readLong(@NotNull byte[] bytes, int pos, boolean littleEndian) {
+        long low = readInt(bytes, littleEndian ? pos : pos + 4, littleEndian) & 0xffffffffL;
+        long high = readInt(bytes, littleEndian ? pos + 4 : pos, littleEndian) & 0xffffffffL;
+        return high << 32 | low;
+    }
+
+}
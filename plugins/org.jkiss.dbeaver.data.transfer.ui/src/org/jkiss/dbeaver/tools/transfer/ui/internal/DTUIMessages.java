@@ -105,6 +105,10 @@ public class DTUIMessages extends NLS {
     public static String database_producer_page_extract_settings_row_count_checkbox_tooltip;
     public static String database_producer_page_extract_settings_text_fetch_size_label;
     public static String database_producer_page_extract_settings_text_fetch_size_tooltip;
+    public static String database_producer_page_extract_settings_partition_count_tooltip;
+    public static String database_producer_page_extract_settings_partition_column_tooltip;
+    public static String database_producer_page_extract_settings_pipelined_checkbox;
+    public static String database_producer_page_extract_settings_pipelined_checkbox_tooltip;
 
     public static String database_producer_page_input_objects_name;
     public static String database_producer_page_input_objects_title;
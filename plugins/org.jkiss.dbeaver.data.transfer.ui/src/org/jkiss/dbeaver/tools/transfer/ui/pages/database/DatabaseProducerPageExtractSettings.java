@@ -50,9 +50,12 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
     private Text segmentSizeText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button pipelinedCheckbox;
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
+    private Text partitionCountText;
+    private Text partitionColumnText;
 
     public DatabaseProducerPageExtractSettings() {
         super(DTUIMessages.database_producer_page_extract_settings_name_and_title);
@@ -138,6 +141,14 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 }
             });
 
+            pipelinedCheckbox = UIUtils.createCheckbox(generalSettings, DTUIMessages.database_producer_page_extract_settings_pipelined_checkbox, DTUIMessages.database_producer_page_extract_settings_pipelined_checkbox_tooltip, false, 4);
+            pipelinedCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    getWizard().getSettings().setPipelinedTransfer(pipelinedCheckbox.getSelection());
+                }
+            });
+
             fetchSizeText = UIUtils.createLabelText(generalSettings, DTUIMessages.database_producer_page_extract_settings_text_fetch_size_label, "", SWT.BORDER);
             fetchSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             ((GridData)fetchSizeText.getLayoutData()).widthHint = UIUtils.getFontHeight(fetchSizeText) * 10;
@@ -147,6 +158,22 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 settings.setFetchSize(Integer.parseInt(fetchSizeText.getText()));
             });
 
+            partitionCountText = UIUtils.createLabelText(generalSettings, DTMessages.data_transfer_wizard_output_label_partition_count, "", SWT.BORDER);
+            partitionCountText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            ((GridData)partitionCountText.getLayoutData()).widthHint = UIUtils.getFontHeight(partitionCountText) * 10;
+            partitionCountText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_partition_count_tooltip);
+            partitionCountText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+            partitionCountText.addModifyListener(e -> {
+                settings.setPartitionCount(CommonUtils.toInt(partitionCountText.getText(), 1));
+                updatePageCompletion();
+            });
+
+            partitionColumnText = UIUtils.createLabelText(generalSettings, DTMessages.data_transfer_wizard_output_label_partition_column, "", SWT.BORDER);
+            partitionColumnText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            ((GridData)partitionColumnText.getLayoutData()).widthHint = UIUtils.getFontHeight(partitionColumnText) * 15;
+            partitionColumnText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_partition_column_tooltip);
+            partitionColumnText.addModifyListener(e -> settings.setPartitionColumn(partitionColumnText.getText().trim()));
+
             IStructuredSelection curSelection = getWizard().getCurrentSelection();
             boolean hasSelection = curSelection != null && !curSelection.isEmpty() && curSelection.getFirstElement() instanceof DBDCellValue;
 
@@ -229,6 +256,7 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
         threadsNumText.setText(String.valueOf(getWizard().getSettings().getMaxJobCount()));
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        pipelinedCheckbox.setSelection(getWizard().getSettings().isPipelinedTransfer());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
@@ -238,6 +266,8 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
             }
         }
         fetchSizeText.setText(String.valueOf(settings.getFetchSize()));
+        partitionCountText.setText(String.valueOf(settings.getPartitionCount()));
+        partitionColumnText.setText(CommonUtils.notEmpty(settings.getPartitionColumn()));
         if (selectedColumnsOnlyCheckbox != null) {
             selectedColumnsOnlyCheckbox.setSelection(settings.isSelectedColumnsOnly());
         }
@@ -262,6 +292,9 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 segmentSizeText.setEnabled(false);
             }
         }
+        if (partitionColumnText != null) {
+            partitionColumnText.setEnabled(CommonUtils.toInt(partitionCountText.getText(), 1) > 1);
+        }
         return true;
     }
 
@@ -514,6 +514,7 @@ public class DataTransferWizard extends TaskConfigurationWizard<DataTransferSett
     private Map<String, Object> saveConfiguration(Map<String, Object> config) {
         config.put("maxJobCount", settings.getMaxJobCount());
         config.put("showFinalMessage", settings.isShowFinalMessage());
+        config.put("pipelinedTransfer", settings.isPipelinedTransfer());
 
         // Save nodes' settings
         boolean isTask = getCurrentTask() != null;
@@ -69,6 +69,7 @@ public class DataTransferPipe {
         parameters.orderNumber = pipeIndex;
         parameters.totalConsumers = totalPipes;
         parameters.startTimestamp = new Date();
+        parameters.pipelined = settings.isPipelinedTransfer();
         consumer.initTransfer(
             producer.getDatabaseObject(),
             consumerSettings,
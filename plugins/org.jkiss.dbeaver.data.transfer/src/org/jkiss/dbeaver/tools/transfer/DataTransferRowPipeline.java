@@ -0,0 +1,311 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decouples data fetch from data write.
+ * Rows are collected into fixed-size batches on the fetch thread and passed to the writer job through a bounded queue.
+ * Fetch thread blocks when the queue is full (backpressure), the writer blocks when it is empty.
+ * Time spent in both waits is reported so it is easy to see which side is the bottleneck.
+ */
+public class DataTransferRowPipeline {
+
+    private static final Log log = Log.getLog(DataTransferRowPipeline.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    public static final String STAT_FETCH_WAIT_TIME = "Pipeline fetch wait (ms)";
+    public static final String STAT_WRITE_WAIT_TIME = "Pipeline write wait (ms)";
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    /**
+     * Row handler. Invoked in writer thread.
+     */
+    public interface RowWriter {
+        void writeRow(@NotNull Object[] row) throws Exception;
+    }
+
+    /**
+     * Row batch handler. Invoked in writer thread.
+     */
+    public interface BatchWriter {
+        void writeRows(@NotNull Object[][] rows, int count) throws Exception;
+
+        /**
+         * Called when writer has no more queued rows.
+         * Batch writer may defer writing of rows, but all of them must be written when this method returns.
+         */
+        default void flushRows() throws Exception {
+            // nothing to flush
+        }
+    }
+
+    private static class Batch {
+        private final Object[][] rows;
+        private int size;
+        private final boolean last;
+
+        Batch(int capacity, boolean last) {
+            this.rows = new Object[capacity][];
+            this.last = last;
+        }
+    }
+
+    private final String name;
+    private final BatchWriter writer;
+    private final int batchSize;
+    private final BlockingQueue<Batch> queue;
+    private final AtomicInteger pendingBatches = new AtomicInteger();
+    private final Object flushLock = new Object();
+    private Batch currentBatch;
+    private WriterJob writerJob;
+
+    private volatile Throwable writerError;
+    private volatile boolean aborted;
+    // Time fetch thread waited for free slot in the queue (writer is the bottleneck)
+    private long fetchWaitTime;
+    // Time writer waited for the next batch (fetch is the bottleneck)
+    private volatile long writeWaitTime;
+
+    public DataTransferRowPipeline(@NotNull String name, @NotNull RowWriter writer) {
+        this(name, writer, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public DataTransferRowPipeline(@NotNull String name, @NotNull RowWriter writer, int batchSize, int queueCapacity) {
+        this(name, (BatchWriter) (rows, count) -> {
+            for (int i = 0; i < count; i++) {
+                writer.writeRow(rows[i]);
+            }
+        }, batchSize, queueCapacity);
+    }
+
+    public DataTransferRowPipeline(@NotNull String name, @NotNull BatchWriter writer) {
+        this(name, writer, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public DataTransferRowPipeline(@NotNull String name, @NotNull BatchWriter writer, int batchSize, int queueCapacity) {
+        this.name = name;
+        this.writer = writer;
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    public void start() {
+        if (writerJob != null) {
+            return;
+        }
+        writerJob = new WriterJob();
+        writerJob.schedule();
+    }
+
+    /**
+     * Adds row to the current batch. Blocks if writer can't keep up.
+     */
+    public void addRow(@NotNull Object[] row) throws DBCException {
+        checkWriterError();
+        if (currentBatch == null) {
+            currentBatch = new Batch(batchSize, false);
+        }
+        currentBatch.rows[currentBatch.size++] = row;
+        if (currentBatch.size >= batchSize) {
+            putBatch(currentBatch);
+            currentBatch = null;
+        }
+    }
+
+    /**
+     * Waits until all queued rows are written. Rows may be added again after flush.
+     */
+    public void flush() throws DBCException {
+        if (currentBatch != null && currentBatch.size > 0) {
+            putBatch(currentBatch);
+        }
+        currentBatch = null;
+        synchronized (flushLock) {
+            while (pendingBatches.get() > 0) {
+                checkWriterError();
+                try {
+                    flushLock.wait(POLL_TIMEOUT_MS);
+                } catch (InterruptedException e) {
+                    throw new DBCException("Pipeline '" + name + "' interrupted", e);
+                }
+            }
+        }
+        checkWriterError();
+    }
+
+    /**
+     * Writes all pending rows and stops writer
+     */
+    public void finish() throws DBCException {
+        try {
+            if (currentBatch != null && currentBatch.size > 0) {
+                putBatch(currentBatch);
+            }
+            currentBatch = null;
+            putBatch(new Batch(0, true));
+            joinWriter();
+            checkWriterError();
+        } finally {
+            writerJob = null;
+        }
+    }
+
+    /**
+     * Stops writer without writing pending rows
+     */
+    public void abort() {
+        aborted = true;
+        queue.clear();
+        currentBatch = null;
+        if (writerJob != null) {
+            writerJob.cancel();
+            try {
+                joinWriter();
+            } catch (DBCException e) {
+                log.debug(e);
+            }
+            writerJob = null;
+        }
+    }
+
+    @Nullable
+    public Throwable getWriterError() {
+        return writerError;
+    }
+
+    public long getFetchWaitTime() {
+        return fetchWaitTime;
+    }
+
+    public long getWriteWaitTime() {
+        return writeWaitTime;
+    }
+
+    public void fillStatistics(@NotNull DBCStatistics statistics) {
+        statistics.addInfo(STAT_FETCH_WAIT_TIME, TimeUnit.NANOSECONDS.toMillis(fetchWaitTime));
+        statistics.addInfo(STAT_WRITE_WAIT_TIME, TimeUnit.NANOSECONDS.toMillis(writeWaitTime));
+    }
+
+    private void putBatch(@NotNull Batch batch) throws DBCException {
+        long startTime = System.nanoTime();
+        pendingBatches.incrementAndGet();
+        try {
+            while (!queue.offer(batch, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkWriterError();
+                if (aborted) {
+                    throw new DBCException("Pipeline '" + name + "' aborted");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Pipeline '" + name + "' interrupted", e);
+        } finally {
+            fetchWaitTime += System.nanoTime() - startTime;
+        }
+    }
+
+    private void joinWriter() throws DBCException {
+        try {
+            writerJob.join();
+        } catch (InterruptedException e) {
+            throw new DBCException("Pipeline '" + name + "' interrupted", e);
+        }
+    }
+
+    private void checkWriterError() throws DBCException {
+        Throwable error = writerError;
+        if (error != null) {
+            if (error instanceof DBCException) {
+                throw (DBCException) error;
+            }
+            throw new DBCException("Error writing rows in pipeline '" + name + "'", error);
+        }
+    }
+
+    private class WriterJob extends AbstractJob {
+
+        WriterJob() {
+            super("Data transfer writer: " + name);
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                for (;;) {
+                    long startTime = System.nanoTime();
+                    Batch batch = null;
+                    while (batch == null && !aborted && !monitor.isCanceled()) {
+                        batch = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    }
+                    writeWaitTime += System.nanoTime() - startTime;
+                    if (batch == null) {
+                        if (!aborted) {
+                            writerError = new DBCException("Pipeline '" + name + "' writer canceled");
+                        }
+                        break;
+                    }
+                    try {
+                        writer.writeRows(batch.rows, batch.size);
+                        if (batch.last || queue.isEmpty()) {
+                            // Writer caught up with fetch
+                            writer.flushRows();
+                        }
+                    } finally {
+                        batchDone();
+                    }
+                    if (batch.last) {
+                        break;
+                    }
+                }
+            } catch (Throwable e) {
+                writerError = e;
+                // Release fetch thread
+                queue.clear();
+                batchDone();
+            }
+            return Status.OK_STATUS;
+        }
+
+        private void batchDone() {
+            if (pendingBatches.decrementAndGet() <= 0) {
+                synchronized (flushLock) {
+                    flushLock.notifyAll();
+                }
+            }
+        }
+    }
+
+}
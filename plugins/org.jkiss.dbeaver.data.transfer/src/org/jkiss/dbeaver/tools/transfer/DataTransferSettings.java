@@ -78,6 +78,7 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     private boolean consumerOptional;
     private boolean producerOptional;
     private int maxJobCount = DEFAULT_THREADS_NUM;
+    private boolean pipelinedTransfer;
 
     private transient boolean nodeSettingsLoaded = false;
 
@@ -311,6 +312,7 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     public void loadSettings(Map<String, Object> config) {
         this.setMaxJobCount(CommonUtils.toInt(config.get("maxJobCount"), DataTransferSettings.DEFAULT_THREADS_NUM));
         this.setShowFinalMessage(CommonUtils.getBoolean(config.get("showFinalMessage"), this.isShowFinalMessage()));
+        this.setPipelinedTransfer(CommonUtils.getBoolean(config.get("pipelinedTransfer"), false));
 
         DataTransferNodeDescriptor savedConsumer = null, savedProducer = null, processorNode = null;
         {
@@ -691,6 +693,17 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
         }
     }
 
+    /**
+     * Pipelined transfer reads data and writes it to the consumer in different threads
+     */
+    public boolean isPipelinedTransfer() {
+        return pipelinedTransfer;
+    }
+
+    public void setPipelinedTransfer(boolean pipelinedTransfer) {
+        this.pipelinedTransfer = pipelinedTransfer;
+    }
+
     public boolean isShowFinalMessage() {
         return showFinalMessage;
     }
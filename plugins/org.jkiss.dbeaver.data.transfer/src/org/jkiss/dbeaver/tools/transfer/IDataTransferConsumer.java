@@ -40,6 +40,8 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
         public boolean isBinary;
         public boolean isHTML;
         public Date startTimestamp;
+        // Fetch and write data in different threads
+        public boolean pipelined;
 
         public TransferParameters() {
         }
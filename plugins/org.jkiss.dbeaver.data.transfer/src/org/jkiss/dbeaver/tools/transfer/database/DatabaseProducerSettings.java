@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.tools.transfer.database;
 
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.tools.transfer.DTUtils;
 import org.jkiss.dbeaver.tools.transfer.DataTransferSettings;
@@ -46,6 +47,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    private int partitionCount = 1;
+    private String partitionColumn;
 
     public DatabaseProducerSettings() {
     }
@@ -108,6 +111,30 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         this.extractType = extractType;
     }
 
+    /**
+     * Number of key ranges a single table is split into. Each range is read on its own connection
+     * and loaded by its own consumer. Values less than 2 disable partitioning.
+     */
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(int partitionCount) {
+        this.partitionCount = Math.max(1, partitionCount);
+    }
+
+    /**
+     * Column used to split table into key ranges. If empty then single-column unique key of the source entity is used.
+     */
+    @Nullable
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public void setPartitionColumn(@Nullable String partitionColumn) {
+        this.partitionColumn = partitionColumn;
+    }
+
     @Override
     public void loadSettings(DBRRunnableContext runnableContext, DataTransferSettings dataTransferSettings, Map<String, Object> settings) {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
@@ -117,6 +144,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
         selectedRowsOnly = CommonUtils.toBoolean(settings.get("selectedRowsOnly"));
+        partitionCount = Math.max(1, CommonUtils.toInt(settings.get("partitionCount"), 1));
+        partitionColumn = CommonUtils.toString(settings.get("partitionColumn"), null);
     }
 
     @Override
@@ -128,6 +157,10 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
         settings.put("selectedRowsOnly", selectedRowsOnly);
+        settings.put("partitionCount", partitionCount);
+        if (!CommonUtils.isEmpty(partitionColumn)) {
+            settings.put("partitionColumn", partitionColumn);
+        }
     }
 
     @Override
@@ -139,6 +172,12 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
+        if (partitionCount > 1) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_partition_count, partitionCount);
+            if (!CommonUtils.isEmpty(partitionColumn)) {
+                DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_partition_column, partitionColumn);
+            }
+        }
 
         return summary.toString();
     }
@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDAttributeBindingCustom;
+import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDInsertReplaceMethod;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
@@ -92,6 +93,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private DBSDataManipulator localTargetObject;
 
     private boolean isPreview;
+    private boolean partitionConsumer;
+    private boolean pipelined;
+    private DataTransferRowPipeline pipeline;
     private List<Object[]> previewRows;
     private DBDAttributeBinding[] rsAttributes;
     private DBSObjectContainer container;
@@ -134,6 +138,51 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         return targetObjectContainer;
     }
 
+    /**
+     * Creates consumer which loads data into the same target but uses its own connection and batch.
+     * Partition consumers never truncate target table, this must be done once by {@link #truncateTargetData}.
+     */
+    @NotNull
+    public DatabaseTransferConsumer createPartitionConsumer() {
+        DatabaseTransferConsumer consumer = new DatabaseTransferConsumer(localTargetObject);
+        consumer.settings = settings;
+        consumer.containerMapping = containerMapping;
+        consumer.container = container;
+        consumer.partitionConsumer = true;
+        consumer.pipelined = pipelined;
+        return consumer;
+    }
+
+    /**
+     * Truncates target table (if it is configured in settings) before partitioned load starts
+     */
+    public void truncateTargetData(@NotNull DBRProgressMonitor monitor) throws DBException {
+        DBSDataManipulator targetObject = getTargetObject();
+        if (targetObject == null || isPreview || !isTruncateTarget()) {
+            return;
+        }
+        DBCExecutionContext context = DBUtils.getDefaultContext(targetObject, false);
+        if (context == null) {
+            throw new DBCException("Can't obtain execution context of '" + targetObject.getName() + "'");
+        }
+        try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Truncate target table")) {
+            try {
+                targetObject.truncateData(session, new AbstractExecutionSource(getSourceObject(), context, this));
+            } catch (DBCFeatureNotSupportedException e) {
+                log.warn("Table '" + targetObject.getName() + "' doesn't support truncate operation");
+            }
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+            if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+                txnManager.commit(session);
+            }
+        }
+    }
+
+    private boolean isTruncateTarget() {
+        return settings.isTruncateBeforeLoad() &&
+            (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing);
+    }
+
     public ColumnMapping[] getColumnMappings() {
         return columnMappings;
     }
@@ -186,7 +235,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         AbstractExecutionSource executionSource = new AbstractExecutionSource(containerMapping.getSource(), targetContext, this);
 
         DBSDataManipulator targetObject = getTargetObject();
-        if (targetObject != null && !isPreview && offset <= 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
+        if (targetObject != null && !isPreview && !partitionConsumer && offset <= 0 && isTruncateTarget()) {
             // Truncate target tables
             // Note: all implementations support truncate in some way (e.g. DELETE FROM)
             // even if DBSDataManipulator.FEATURE_DATA_TRUNCATE is reported to be not supported.
@@ -289,6 +338,8 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             if (settings.isUseBulkLoad()) {
                 DBSDataBulkLoader bulkLoader = DBUtils.getAdapter(DBSDataBulkLoader.class, targetContext.getDataSource());
                 if (bulkLoader != null) {
+                    // Source may be read from the target connection (same database, no new connections)
+                    options.put(DBSDataBulkLoader.OPTION_SHARED_CONNECTION, session.getExecutionContext() == targetContext);
                     try {
                         bulkLoadManager = bulkLoader.createBulkLoad(
                             targetSession, targetObject, attributes, executionSource, settings.getCommitAfterRows(), options);
@@ -312,6 +363,12 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             previewRows = new ArrayList<>();
             executeBatch = new PreviewBatch();
         }
+
+        if (pipelined && !isPreview) {
+            // Target inserts will be performed in a separate thread
+            pipeline = new DataTransferRowPipeline(getObjectName(), row -> writeSourceRow(session, row));
+            pipeline.start();
+        }
     }
 
     private boolean isSkipColumn(DBDAttributeBinding attr) {
@@ -331,7 +388,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             document = null;
         }
 
-        Object[] rowValues = new Object[targetAttributes.size()];
+        // Source values are read in the fetch thread. Conversion to target values uses the target session,
+        // so in pipelined mode it is performed in the writer thread along with inserts.
+        // The last element is the document of dynamic metadata source
+        Object[] sourceValues = new Object[columnMappings.length + 1];
+        boolean hasContent = false;
         for (int i = 0; i < columnMappings.length; i++) {
             ColumnMapping column = columnMappings[i];
             if (column == null || column.targetIndex < 0) {
@@ -340,18 +401,48 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             Object attrValue;
             if (column.sourceValueHandler != null) {
                 if (column.sourceAttr instanceof DBDAttributeBindingCustom) {
-                    attrValue = DBUtils.getAttributeValue(column.sourceAttr, sourceBindings, rowValues);
-                } else {
-                    attrValue = column.sourceValueHandler.fetchValueObject(
-                        session,
-                        resultSet,
-                        column.sourceAttr,
-                        column.sourceAttr.getOrdinalPosition());
+                    // Evaluated from target values
+                    continue;
                 }
+                attrValue = column.sourceValueHandler.fetchValueObject(
+                    session,
+                    resultSet,
+                    column.sourceAttr,
+                    column.sourceAttr.getOrdinalPosition());
             } else {
                 // No value handler - get raw value
                 attrValue = resultSet.getAttributeValue(i);
             }
+            sourceValues[i] = attrValue;
+            hasContent |= attrValue instanceof DBDContent;
+        }
+        sourceValues[columnMappings.length] = document;
+
+        if (pipeline != null && !hasContent) {
+            pipeline.addRow(sourceValues);
+        } else {
+            if (pipeline != null) {
+                // Contents are bound to the current result set row and must be read before the next fetch
+                pipeline.flush();
+            }
+            writeSourceRow(session, sourceValues);
+        }
+    }
+
+    private void writeSourceRow(@NotNull DBCSession session, @NotNull Object[] sourceValues) throws DBCException {
+        final Object document = sourceValues[columnMappings.length];
+        Object[] rowValues = new Object[targetAttributes.size()];
+        for (int i = 0; i < columnMappings.length; i++) {
+            ColumnMapping column = columnMappings[i];
+            if (column == null || column.targetIndex < 0) {
+                continue;
+            }
+            Object attrValue;
+            if (column.sourceValueHandler != null && column.sourceAttr instanceof DBDAttributeBindingCustom) {
+                attrValue = DBUtils.getAttributeValue(column.sourceAttr, sourceBindings, rowValues);
+            } else {
+                attrValue = sourceValues[i];
+            }
 
             if (containerMapping != null && containerMapping.getTarget() instanceof DBSDocumentContainer) {
                 rowValues[column.targetIndex] = attrValue;
@@ -388,6 +479,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
         }
 
+        writeRow(rowValues);
+    }
+
+    private void writeRow(@NotNull Object[] rowValues) throws DBCException {
         if (bulkLoadManager != null) {
             bulkLoadManager.addRow(targetSession, rowValues);
         } else {
@@ -512,6 +607,14 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     @Override
     public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
         try {
+            if (pipeline != null) {
+                try {
+                    pipeline.finish();
+                } finally {
+                    pipeline.fillStatistics(statistics);
+                    pipeline = null;
+                }
+            }
             if (rowsExported > 0) {
                 insertBatch(true);
             }
@@ -535,6 +638,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
 
     @Override
     public void close() {
+        if (pipeline != null) {
+            pipeline.abort();
+            pipeline = null;
+        }
         closeExporter();
     }
 
@@ -601,6 +708,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
         }
 
+        if (executeBatch != null) {
+            // Batch wasn't finished (error or cancel). Release its statements before the session is closed.
+            executeBatch.close();
+            executeBatch = null;
+        }
         try {
             if (targetSession != null) {
                 targetSession.close();
@@ -624,6 +736,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     public void initTransfer(@NotNull DBSObject sourceObject, @Nullable DatabaseConsumerSettings settings, @NotNull TransferParameters parameters, @Nullable IDataTransferProcessor processor, @Nullable Map<String, Object> processorProperties, @Nullable DBPProject project) {
         this.settings = settings;
         this.containerMapping = settings.getDataMapping((DBSDataContainer) sourceObject);
+        this.pipelined = parameters.pipelined;
     }
 
     @Override
@@ -0,0 +1,305 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Splits single table into key ranges and reads them in parallel.
+ * Each range is read on its own isolated connection and written by its own database consumer.
+ */
+public class DatabaseTransferPartitioner {
+
+    private static final Log log = Log.getLog(DatabaseTransferPartitioner.class);
+
+    private final DBSEntity entity;
+    private final DatabaseProducerSettings settings;
+
+    public DatabaseTransferPartitioner(@NotNull DBSEntity entity, @NotNull DatabaseProducerSettings settings) {
+        this.entity = entity;
+        this.settings = settings;
+    }
+
+    /**
+     * Finds partition column. It is either a column specified in settings or a single-column numeric unique key.
+     */
+    @Nullable
+    public DBSEntityAttribute findPartitionColumn(@NotNull DBRProgressMonitor monitor) throws DBException {
+        DBSEntityAttribute column;
+        String columnName = settings.getPartitionColumn();
+        if (!CommonUtils.isEmpty(columnName)) {
+            column = entity.getAttribute(monitor, columnName);
+            if (column == null) {
+                throw new DBException("Partition column '" + columnName + "' not found in '" + entity.getName() + "'");
+            }
+        } else {
+            List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+            if (identifier.size() != 1) {
+                return null;
+            }
+            column = identifier.get(0);
+        }
+        if (column.getDataKind() != DBPDataKind.NUMERIC) {
+            log.debug("Partition column '" + column.getName() + "' is not numeric. Table will be read in a single thread.");
+            return null;
+        }
+        return column;
+    }
+
+    /**
+     * Builds data filters for each key range. Range bounds are taken from MIN/MAX of partition column.
+     * Returns empty list if table can't be split (e.g. it is empty or has too few distinct key values).
+     */
+    @NotNull
+    public List<DBDDataFilter> makePartitionFilters(
+        @NotNull DBCSession session,
+        @NotNull DBSEntityAttribute column,
+        @Nullable DBDDataFilter dataFilter
+    ) throws DBCException {
+        String columnName = DBUtils.getQuotedIdentifier(column);
+        String sourceWhere = dataFilter == null ? null : dataFilter.getWhere();
+        StringBuilder sql = new StringBuilder();
+        sql.append("SELECT MIN(").append(columnName).append("), MAX(").append(columnName).append(") FROM ")
+            .append(DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML));
+        if (!CommonUtils.isEmptyTrimmed(sourceWhere)) {
+            sql.append(" WHERE ").append(sourceWhere);
+        }
+
+        Object minValue, maxValue;
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, sql.toString(), false, false, false)) {
+            if (!dbStat.executeStatement()) {
+                return List.of();
+            }
+            try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                if (dbResult == null || !dbResult.nextRow()) {
+                    return List.of();
+                }
+                minValue = dbResult.getAttributeValue(0);
+                maxValue = dbResult.getAttributeValue(1);
+            }
+        }
+        if (!(minValue instanceof Number) || !(maxValue instanceof Number)) {
+            return List.of();
+        }
+        boolean integral = isIntegral((Number) minValue) && isIntegral((Number) maxValue);
+        List<BigDecimal> bounds = makeRangeBounds(
+            new BigDecimal(minValue.toString()),
+            new BigDecimal(maxValue.toString()),
+            settings.getPartitionCount(),
+            integral);
+        if (bounds.isEmpty()) {
+            return List.of();
+        }
+
+        // N bounds produce N+1 ranges. The first one includes NULL keys, the last one is open-ended.
+        List<DBDDataFilter> filters = new ArrayList<>(bounds.size() + 1);
+        for (int i = 0; i <= bounds.size(); i++) {
+            String condition;
+            if (i == 0) {
+                condition = columnName + " < " + bounds.get(0).toPlainString() + " OR " + columnName + " IS NULL";
+            } else if (i == bounds.size()) {
+                condition = columnName + " >= " + bounds.get(i - 1).toPlainString();
+            } else {
+                condition = columnName + " >= " + bounds.get(i - 1).toPlainString() +
+                    " AND " + columnName + " < " + bounds.get(i).toPlainString();
+            }
+            DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+            filter.setWhere(CommonUtils.isEmptyTrimmed(sourceWhere) ? condition : "(" + sourceWhere + ") AND (" + condition + ")");
+            filters.add(filter);
+        }
+        return filters;
+    }
+
+    /**
+     * Reads all partitions in parallel. Each partition gets its own isolated source connection and its own consumer.
+     * Statistics of all partitions are merged into producer and main consumer statistics.
+     */
+    public void transferPartitions(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext sourceContext,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DatabaseTransferConsumer consumer,
+        @NotNull List<DBDDataFilter> filters,
+        long readFlags,
+        @NotNull DBCStatistics producerStatistics
+    ) throws DBException {
+        consumer.truncateTargetData(monitor);
+
+        JobGroup group = new JobGroup("Partitioned transfer of " + entity.getName(), filters.size(), filters.size());
+        AtomicReference<PartitionJob> failedJob = new AtomicReference<>();
+        List<PartitionJob> jobs = new ArrayList<>(filters.size());
+        for (int i = 0; i < filters.size(); i++) {
+            PartitionJob job = new PartitionJob(
+                i, sourceContext, dataContainer, consumer.createPartitionConsumer(), filters.get(i), readFlags, failedJob);
+            job.setJobGroup(group);
+            jobs.add(job);
+        }
+        for (PartitionJob job : jobs) {
+            job.schedule();
+        }
+        try {
+            group.join(0, new ProxyProgressMonitor(monitor));
+        } catch (InterruptedException | OperationCanceledException e) {
+            group.cancel();
+            throw new DBException("Partitioned transfer canceled");
+        }
+
+        PartitionJob firstFailed = failedJob.get();
+        DBException error = firstFailed == null ? null : new DBException(
+            "Error transferring partition " + firstFailed.index + " of '" + entity.getName() + "'", getJobError(firstFailed));
+        for (PartitionJob job : jobs) {
+            producerStatistics.accumulate(job.readStatistics);
+            consumer.getStatistics().accumulate(job.consumer.getStatistics());
+            Throwable jobError = getJobError(job);
+            if (error != null && job != firstFailed && jobError != null) {
+                // Most likely caused by cancel after the first failure
+                error.addSuppressed(jobError);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Returns inner bounds splitting [min, max] into at most {@code count} ranges.
+     */
+    @NotNull
+    static List<BigDecimal> makeRangeBounds(@NotNull BigDecimal min, @NotNull BigDecimal max, int count, boolean integral) {
+        List<BigDecimal> bounds = new ArrayList<>(count);
+        if (count < 2 || min.compareTo(max) >= 0) {
+            return bounds;
+        }
+        BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+        for (int i = 1; i < count; i++) {
+            BigDecimal bound = min.add(step.multiply(BigDecimal.valueOf(i)));
+            if (integral) {
+                bound = bound.setScale(0, RoundingMode.FLOOR);
+            }
+            if (bound.compareTo(min) <= 0 || (!bounds.isEmpty() && bound.compareTo(bounds.get(bounds.size() - 1)) <= 0)) {
+                // Too few distinct key values for requested number of partitions
+                continue;
+            }
+            bounds.add(bound);
+        }
+        return bounds;
+    }
+
+    @Nullable
+    private static Throwable getJobError(@NotNull Job job) {
+        IStatus result = job.getResult();
+        return result == null ? null : result.getException();
+    }
+
+    private static boolean isIntegral(@NotNull Number value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short ||
+            value instanceof Byte || value instanceof BigInteger ||
+            (value instanceof BigDecimal && ((BigDecimal) value).scale() <= 0);
+    }
+
+    private class PartitionJob extends AbstractJob {
+
+        private final int index;
+        private final DBCExecutionContext sourceContext;
+        private final DBSDataContainer dataContainer;
+        private final DatabaseTransferConsumer consumer;
+        private final DBDDataFilter dataFilter;
+        private final long readFlags;
+        private final AtomicReference<PartitionJob> failedJob;
+        private final DBCStatistics readStatistics = new DBCStatistics();
+
+        PartitionJob(
+            int index,
+            @NotNull DBCExecutionContext sourceContext,
+            @NotNull DBSDataContainer dataContainer,
+            @NotNull DatabaseTransferConsumer consumer,
+            @NotNull DBDDataFilter dataFilter,
+            long readFlags,
+            @NotNull AtomicReference<PartitionJob> failedJob
+        ) {
+            super("Transfer partition [" + index + "] of " + entity.getName());
+            this.index = index;
+            this.sourceContext = sourceContext;
+            this.dataContainer = dataContainer;
+            this.consumer = consumer;
+            this.dataFilter = dataFilter;
+            this.readFlags = readFlags;
+            this.failedJob = failedJob;
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            DBCExecutionContext context = null;
+            try {
+                context = DBUtils.getObjectOwnerInstance(dataContainer).openIsolatedContext(
+                    monitor, "Data transfer producer (partition " + index + ")", sourceContext);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read partition " + index)) {
+                    session.enableLogging(false);
+                    AbstractExecutionSource transferSource = new AbstractExecutionSource(dataContainer, context, consumer);
+                    readStatistics.accumulate(dataContainer.readData(
+                        transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                }
+            } catch (Throwable e) {
+                if (failedJob.compareAndSet(null, this)) {
+                    // Other partitions are useless after the first failure
+                    JobGroup group = getJobGroup();
+                    if (group != null) {
+                        group.cancel();
+                    }
+                }
+                return GeneralUtils.makeExceptionStatus("Partition transfer failed", e);
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -38,6 +38,7 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -264,8 +265,32 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                         try {
                             monitor.subTask("Read data");
 
+                            DatabaseTransferPartitioner partitioner = null;
+                            List<DBDDataFilter> partitionFilters = List.of();
+                            if (!selectiveExportFromUI && newConnection && settings.getPartitionCount() > 1 &&
+                                consumer instanceof DatabaseTransferConsumer && dataContainer instanceof DBSEntity entity)
+                            {
+                                // Split table into key ranges. Each range will be read on its own connection.
+                                partitioner = new DatabaseTransferPartitioner(entity, settings);
+                                try {
+                                    DBSEntityAttribute partitionColumn = partitioner.findPartitionColumn(monitor);
+                                    if (partitionColumn != null) {
+                                        partitionFilters = partitioner.makePartitionFilters(session, partitionColumn, dataFilter);
+                                    }
+                                } catch (DBException e) {
+                                    log.warn("Can't split '" + dataContainer.getName() + "' into partitions. Read it in a single query.", e);
+                                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                                    if (txnManager != null && !txnManager.isAutoCommit()) {
+                                        txnManager.rollback(session, savepoint);
+                                    }
+                                }
+                            }
+
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            if (partitioner != null && partitionFilters.size() > 1) {
+                                partitioner.transferPartitions(
+                                    monitor, context, dataContainer, (DatabaseTransferConsumer) consumer, partitionFilters, readFlags, producerStatistics);
+                            } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
                                 producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
                             } else {
@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Writer which encodes characters into a large reusable byte block.
+ * <p>
+ * Block is written to the underlying stream only when it is full, on {@link #flush()} or on {@link #close()}.
+ * {@link #flush()} doesn't flush the underlying stream, so frequent flushes don't reach the disk or the compressor.
+ * Not thread-safe.
+ */
+public class BlockOutputWriter extends Writer {
+
+    public static final int DEFAULT_BLOCK_SIZE = 512 * 1024;
+
+    private static final int CHAR_BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    private final ByteBuffer bytes;
+    private boolean closed;
+
+    public BlockOutputWriter(@NotNull OutputStream out, @NotNull Charset charset) {
+        this(out, charset, DEFAULT_BLOCK_SIZE);
+    }
+
+    public BlockOutputWriter(@NotNull OutputStream out, @NotNull Charset charset, int blockSize) {
+        this.out = out;
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate(Math.max(blockSize, 1024));
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        if (!chars.hasRemaining()) {
+            encodeChars();
+        }
+        chars.put((char) c);
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int count = Math.min(len, chars.remaining());
+            chars.put(cbuf, off, count);
+            off += count;
+            len -= count;
+            if (!chars.hasRemaining()) {
+                encodeChars();
+            }
+        }
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int count = Math.min(len, chars.remaining());
+            chars.put(str, off, off + count);
+            off += count;
+            len -= count;
+            if (!chars.hasRemaining()) {
+                encodeChars();
+            }
+        }
+    }
+
+    /**
+     * Returns number of bytes which were written to this writer but not yet passed to the underlying stream
+     */
+    public int getPendingBytes() throws IOException {
+        ensureOpen();
+        encodeChars();
+        return bytes.position();
+    }
+
+    /**
+     * Writes the current block to the underlying stream. Doesn't flush the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        encodeChars();
+        writeBlock();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            chars.flip();
+            for (;;) {
+                CoderResult result = encoder.encode(chars, bytes, true);
+                if (result.isOverflow()) {
+                    writeBlock();
+                } else {
+                    break;
+                }
+            }
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBlock();
+            }
+            writeBlock();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    private void encodeChars() throws IOException {
+        chars.flip();
+        for (;;) {
+            CoderResult result = encoder.encode(chars, bytes, false);
+            if (result.isOverflow()) {
+                writeBlock();
+            } else {
+                break;
+            }
+        }
+        // Unpaired high surrogate remains in the buffer until the next write
+        chars.compact();
+    }
+
+    private void writeBlock() throws IOException {
+        if (bytes.position() > 0) {
+            out.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer is closed");
+        }
+    }
+
+}
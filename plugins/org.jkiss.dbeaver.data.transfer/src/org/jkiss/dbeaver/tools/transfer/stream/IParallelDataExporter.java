@@ -0,0 +1,57 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Represents an exporter which can format blocks of rows concurrently.
+ * <p>
+ * Row text depends only on the row itself and on its index, so blocks may be formatted
+ * by several threads at once and then written in the original order.
+ *
+ * @see ParallelRowFormatter
+ */
+public interface IParallelDataExporter extends IStreamDataExporter {
+
+    /**
+     * Formats rows into the specified writer.
+     * <p>
+     * This method may be called concurrently for different blocks. It must not use exporter site writer
+     * or change exporter state. Rows with contents ({@code DBDContent}) are passed only when {@code resultSet} is specified.
+     *
+     * @param firstRowIndex index of the first row of the block (since the last header)
+     */
+    void formatRows(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull List<Object[]> rows, long firstRowIndex, @NotNull PrintWriter out)
+        throws DBException, IOException;
+
+    /**
+     * Reserves indexes for the next {@code count} rows.
+     *
+     * @return index of the first reserved row
+     */
+    long advanceRowCount(int count);
+
+}
@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * IStreamDataExporter
@@ -39,6 +40,17 @@ public interface IStreamDataExporter extends IDataTransferProcessor {
     void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row)
         throws DBException, IOException;
 
+    /**
+     * Exports block of rows. Default implementation exports rows one by one.
+     */
+    default void exportRows(DBCSession session, DBCResultSet resultSet, List<Object[]> rows)
+        throws DBException, IOException
+    {
+        for (Object[] row : rows) {
+            exportRow(session, resultSet, row);
+        }
+    }
+
     void exportFooter(DBRProgressMonitor monitor)
         throws DBException, IOException;
 
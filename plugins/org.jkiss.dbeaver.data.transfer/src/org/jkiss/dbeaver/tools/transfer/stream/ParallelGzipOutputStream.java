@@ -0,0 +1,253 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * GZIP output stream which compresses data blocks in parallel.
+ * <p>
+ * Input is split into fixed-size blocks, each block is compressed on a fork-join pool into an independent
+ * GZIP member. Members are written in the original order. Concatenated members form a valid GZIP file (RFC 1952),
+ * which is readable by gzip and {@link java.util.zip.GZIPInputStream}.
+ * Each worker thread reuses its own deflater. Number of blocks in flight is limited.
+ * <p>
+ * {@link #flush()} writes completed blocks only, partially filled block is compressed on {@link #close()}.
+ * Not thread-safe.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final byte[] GZIP_HEADER = {
+        0x1f, (byte) 0x8b,  // Magic
+        Deflater.DEFLATED,  // Compression method
+        0,                  // Flags
+        0, 0, 0, 0,         // Modification time
+        0,                  // Extra flags
+        (byte) 0xff         // OS: unknown
+    };
+
+    private static final ThreadLocal<Compressor> COMPRESSORS = ThreadLocal.withInitial(Compressor::new);
+
+    /**
+     * Worker thread compression state
+     */
+    private static class Compressor {
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] buffer = new byte[64 * 1024];
+    }
+
+    private static class Block {
+        private final byte[] data;
+        private ForkJoinTask<byte[]> result;
+
+        Block(int size) {
+            this.data = new byte[size];
+        }
+    }
+
+    private final OutputStream out;
+    private final ForkJoinPool pool;
+    private final int level;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Deque<Block> pendingBlocks = new ArrayDeque<>();
+    private final Deque<Block> freeBlocks = new ArrayDeque<>();
+    private Block currentBlock;
+    private int currentLength;
+    private boolean hasMembers;
+    private boolean closed;
+
+    public ParallelGzipOutputStream(@NotNull OutputStream out) {
+        this(out, ForkJoinPool.commonPool(), Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE);
+    }
+
+    public ParallelGzipOutputStream(@NotNull OutputStream out, @NotNull ForkJoinPool pool, int level, int blockSize) {
+        this.out = out;
+        this.pool = pool;
+        this.level = level;
+        this.blockSize = Math.max(blockSize, 1024);
+        this.maxPendingBlocks = Math.max(2, pool.getParallelism() * 2);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (currentBlock == null) {
+            currentBlock = allocateBlock();
+        }
+        currentBlock.data[currentLength++] = (byte) b;
+        if (currentLength == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (currentBlock == null) {
+                currentBlock = allocateBlock();
+            }
+            int count = Math.min(len, blockSize - currentLength);
+            System.arraycopy(b, off, currentBlock.data, currentLength, count);
+            currentLength += count;
+            off += count;
+            len -= count;
+            if (currentLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes already compressed blocks and flushes the underlying stream
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        writeCompletedBlocks();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (currentLength > 0 || !hasMembers) {
+                // Empty input still must produce a valid GZIP file
+                if (currentBlock == null) {
+                    currentBlock = allocateBlock();
+                }
+                submitBlock();
+            }
+            while (!pendingBlocks.isEmpty()) {
+                writeNextBlock();
+            }
+            out.flush();
+        } finally {
+            closed = true;
+            cancelPendingBlocks();
+            out.close();
+        }
+    }
+
+    private Block allocateBlock() {
+        Block block = freeBlocks.pollFirst();
+        return block != null ? block : new Block(blockSize);
+    }
+
+    private void submitBlock() throws IOException {
+        Block block = currentBlock;
+        int length = currentLength;
+        currentBlock = null;
+        currentLength = 0;
+        hasMembers = true;
+
+        block.result = pool.submit(() -> compressBlock(block.data, length, level));
+        pendingBlocks.addLast(block);
+        if (pendingBlocks.size() > maxPendingBlocks) {
+            writeNextBlock();
+        }
+        writeCompletedBlocks();
+    }
+
+    private void writeCompletedBlocks() throws IOException {
+        while (!pendingBlocks.isEmpty() && pendingBlocks.getFirst().result.isDone()) {
+            writeNextBlock();
+        }
+    }
+
+    private void writeNextBlock() throws IOException {
+        Block block = pendingBlocks.removeFirst();
+        byte[] compressed;
+        try {
+            compressed = block.result.get();
+        } catch (InterruptedException e) {
+            cancelPendingBlocks();
+            throw new IOException("GZIP compression interrupted", e);
+        } catch (ExecutionException e) {
+            cancelPendingBlocks();
+            throw new IOException("GZIP compression error", e.getCause());
+        }
+        block.result = null;
+        freeBlocks.addLast(block);
+        out.write(compressed);
+    }
+
+    private void cancelPendingBlocks() {
+        for (Block block : pendingBlocks) {
+            block.result.cancel(false);
+        }
+        pendingBlocks.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+    }
+
+    /**
+     * Compresses data into a complete GZIP member
+     */
+    static byte[] compressBlock(@NotNull byte[] data, int length, int level) {
+        Compressor compressor = COMPRESSORS.get();
+        Deflater deflater = compressor.deflater;
+        deflater.reset();
+        deflater.setLevel(level);
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(length / 3 + GZIP_HEADER.length + 8 + 64);
+        result.writeBytes(GZIP_HEADER);
+        while (!deflater.finished()) {
+            int count = deflater.deflate(compressor.buffer);
+            result.write(compressor.buffer, 0, count);
+        }
+
+        CRC32 crc = compressor.crc;
+        crc.reset();
+        crc.update(data, 0, length);
+        writeIntLE(result, (int) crc.getValue());
+        writeIntLE(result, length);
+        return result.toByteArray();
+    }
+
+    private static void writeIntLE(@NotNull ByteArrayOutputStream out, int value) {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+        out.write((value >>> 16) & 0xff);
+        out.write((value >>> 24) & 0xff);
+    }
+
+}
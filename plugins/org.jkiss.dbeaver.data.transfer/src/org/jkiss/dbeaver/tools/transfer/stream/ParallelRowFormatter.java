@@ -0,0 +1,159 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Formats rows of {@link IParallelDataExporter} in parallel and writes them in the original order.
+ * <p>
+ * Rows are split into blocks which are formatted on a fork-join pool. Each worker thread formats
+ * into its own reusable buffer. Formatted blocks are written to the output in submission order.
+ * Number of blocks in flight is limited, so memory usage doesn't depend on output speed.
+ * <p>
+ * Not thread-safe: rows must be submitted from a single thread.
+ */
+public class ParallelRowFormatter {
+
+    public static final int DEFAULT_BLOCK_SIZE = 250;
+
+    private static final int MAX_BUFFER_CAPACITY = 4 * 1024 * 1024;
+
+    private static final ThreadLocal<FormatBuffer> BUFFERS = ThreadLocal.withInitial(FormatBuffer::new);
+
+    private static class FormatBuffer {
+        private final StringWriter text = new StringWriter(64 * 1024);
+        private final PrintWriter writer = new PrintWriter(text);
+    }
+
+    private final IParallelDataExporter exporter;
+    private final DBCSession session;
+    private final Writer output;
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Deque<ForkJoinTask<String>> pendingBlocks = new ArrayDeque<>();
+
+    public ParallelRowFormatter(@NotNull IParallelDataExporter exporter, @NotNull DBCSession session, @NotNull Writer output) {
+        this(exporter, session, output, ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE);
+    }
+
+    public ParallelRowFormatter(
+        @NotNull IParallelDataExporter exporter,
+        @NotNull DBCSession session,
+        @NotNull Writer output,
+        @NotNull ForkJoinPool pool,
+        int blockSize
+    ) {
+        this.exporter = exporter;
+        this.session = session;
+        this.output = output;
+        this.pool = pool;
+        this.blockSize = Math.max(1, blockSize);
+        this.maxPendingBlocks = Math.max(2, pool.getParallelism() * 4);
+    }
+
+    /**
+     * Submits rows for formatting. Completed blocks are written to the output,
+     * waits for the oldest block if there are too many blocks in flight.
+     */
+    public void submit(@NotNull Object[][] rows, int count) throws DBException, IOException {
+        List<Object[]> rowList = Arrays.asList(rows).subList(0, count);
+        for (int offset = 0; offset < count; offset += blockSize) {
+            List<Object[]> block = rowList.subList(offset, Math.min(count, offset + blockSize));
+            long firstRowIndex = exporter.advanceRowCount(block.size());
+            pendingBlocks.addLast(pool.submit(() -> formatBlock(block, firstRowIndex)));
+            while (!pendingBlocks.isEmpty() && (pendingBlocks.size() > maxPendingBlocks || pendingBlocks.getFirst().isDone())) {
+                writeNextBlock();
+            }
+        }
+    }
+
+    /**
+     * Waits for all submitted rows and writes them to the output
+     */
+    public void flush() throws DBException, IOException {
+        while (!pendingBlocks.isEmpty()) {
+            writeNextBlock();
+        }
+    }
+
+    /**
+     * Discards all pending blocks
+     */
+    public void cancel() {
+        for (ForkJoinTask<String> task : pendingBlocks) {
+            task.cancel(false);
+        }
+        pendingBlocks.clear();
+    }
+
+    private void writeNextBlock() throws DBException, IOException {
+        ForkJoinTask<String> task = pendingBlocks.removeFirst();
+        String text;
+        try {
+            text = task.get();
+        } catch (InterruptedException e) {
+            cancel();
+            throw new DBException("Rows formatting interrupted", e);
+        } catch (ExecutionException e) {
+            cancel();
+            Throwable cause = e.getCause();
+            while (cause instanceof RuntimeException && cause.getCause() != null) {
+                // Fork-join pool wraps checked exceptions thrown by callables
+                cause = cause.getCause();
+            }
+            if (cause instanceof DBException dbe) {
+                throw dbe;
+            } else if (cause instanceof IOException ioe) {
+                throw ioe;
+            }
+            throw new DBException("Error formatting rows", cause);
+        }
+        output.write(text);
+    }
+
+    private String formatBlock(@NotNull List<Object[]> rows, long firstRowIndex) throws DBException, IOException {
+        FormatBuffer buffer = BUFFERS.get();
+        StringBuffer text = buffer.text.getBuffer();
+        text.setLength(0);
+        exporter.formatRows(session, null, rows, firstRowIndex, buffer.writer);
+        buffer.writer.flush();
+        String result = text.toString();
+        if (text.capacity() > MAX_BUFFER_CAPACITY) {
+            // Do not keep huge buffers after rows with large values
+            text.setLength(0);
+            text.trimToSize();
+        }
+        return result;
+    }
+
+}
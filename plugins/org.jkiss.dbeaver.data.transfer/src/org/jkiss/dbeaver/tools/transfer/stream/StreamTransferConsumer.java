@@ -28,6 +28,7 @@ import org.jkiss.dbeaver.model.data.json.JSONUtils;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.fs.DBFUtils;
 import org.jkiss.dbeaver.model.meta.DBSerializable;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
@@ -44,6 +45,7 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI.UserChoiceResponse;
 import org.jkiss.dbeaver.tools.transfer.DTConstants;
 import org.jkiss.dbeaver.tools.transfer.DTUtils;
+import org.jkiss.dbeaver.tools.transfer.DataTransferRowPipeline;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferEventProcessor;
 import org.jkiss.dbeaver.tools.transfer.internal.DTActivator;
@@ -64,6 +66,7 @@ import org.jkiss.utils.IOUtils;
 import org.jkiss.utils.io.ByteOrderMark;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -133,6 +136,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private OutputStream outputStream;
     private ZipOutputStream zipStream;
     private PrintWriter writer;
+    private BlockOutputWriter blockWriter;
     private int multiFileNumber;
     private long bytesWritten = 0;
 
@@ -150,6 +154,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     private final List<Path> outputFiles = new ArrayList<>();
     private StatOutputStream statStream;
+    private final DBCStatistics statistics = new DBCStatistics();
+    private DataTransferRowPipeline pipeline;
+    private DBCSession pipelineSession;
+    private DBCResultSet pipelineResultSet;
+    private ParallelRowFormatter parallelFormatter;
     
     public StreamTransferConsumer() {
     }
@@ -192,27 +201,42 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
 
         initialized = true;
+
+        if (parameters.pipelined && !settings.isOutputClipboard()) {
+            // Rows formatting and writing will be performed in a separate thread
+            pipelineSession = session;
+            pipelineResultSet = resultSet;
+            if (processor instanceof IParallelDataExporter parallelExporter && !parameters.isBinary && !settings.isSplitOutFiles()) {
+                // Row blocks are formatted by several threads, writer job only writes formatted text in order.
+                // File split happens between rows and resets row numbering, so it requires sequential formatting.
+                parallelFormatter = new ParallelRowFormatter(parallelExporter, session, writer);
+                pipeline = new DataTransferRowPipeline(getObjectName(), new DataTransferRowPipeline.BatchWriter() {
+                    @Override
+                    public void writeRows(@NotNull Object[][] rows, int count) throws Exception {
+                        parallelFormatter.submit(rows, count);
+                        firstRow = false;
+                    }
+
+                    @Override
+                    public void flushRows() throws Exception {
+                        parallelFormatter.flush();
+                    }
+                });
+            } else {
+                pipeline = new DataTransferRowPipeline(getObjectName(), row -> writeRow(pipelineSession, pipelineResultSet, row));
+            }
+            pipeline.start();
+        }
     }
 
     @Override
     public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
         try {
-            // Check for file split
-            if (settings.isSplitOutFiles() && !parameters.isBinary && !firstRow) {
-                writer.flush();
-                if (bytesWritten >= settings.getMaxOutFileSize()) {
-                    // First add footer for the previous file
-                    exportFooterInFile(session.getProgressMonitor());
-                    // Make new file with the header
-                    createNewOutFile(session.getProgressMonitor());
-                    exportHeaderInFile(session);
-                }
-            }
-
             // Get values
             Object[] srcRow = fetchRow(session, resultSet, columnMetas);
             Object[] targetRow;
             targetRow = new Object[columnBindings.length];
+            boolean hasContent = false;
             for (int i = 0; i < columnBindings.length; i++) {
                 DBDAttributeBinding column = columnBindings[i];
                 Object value = DBUtils.getAttributeValue(column, columnMetas, srcRow);
@@ -235,12 +259,19 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                                 break;
                         }
                     }
+                    hasContent |= value instanceof DBDContent;
                 }
                 targetRow[i] = value;
             }
-            // Export row
-            processor.exportRow(session, resultSet, targetRow);
-            firstRow = false;
+            if (pipeline != null && !hasContent) {
+                pipeline.addRow(targetRow);
+            } else {
+                if (pipeline != null) {
+                    // Contents are bound to the current result set row and must be read in the fetch thread
+                    pipeline.flush();
+                }
+                writeRow(session, resultSet, targetRow);
+            }
         } catch (IOException e) {
             throw new DBCException("IO error", e);
         } catch (Throwable e) {
@@ -248,6 +279,24 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
+    private void writeRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, @NotNull Object[] targetRow) throws DBException, IOException {
+        // Check for file split
+        if (settings.isSplitOutFiles() && !parameters.isBinary && !firstRow) {
+            // Count encoded but not yet written bytes, so writer doesn't need to be flushed after each row
+            long pendingBytes = blockWriter == null ? 0 : blockWriter.getPendingBytes();
+            if (bytesWritten + pendingBytes >= settings.getMaxOutFileSize()) {
+                // First add footer for the previous file
+                exportFooterInFile(session.getProgressMonitor());
+                // Make new file with the header
+                createNewOutFile(session.getProgressMonitor());
+                exportHeaderInFile(session);
+            }
+        }
+        // Export row
+        processor.exportRow(session, resultSet, targetRow);
+        firstRow = false;
+    }
+
     private void exportHeaderInFile(@NotNull DBCSession session) throws DBCException {
         try {
             processor.exportHeader(session);
@@ -270,12 +319,37 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     @Override
     public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        if (pipeline != null) {
+            try {
+                pipeline.finish();
+            } finally {
+                pipeline.fillStatistics(statistics);
+                pipeline = null;
+                parallelFormatter = null;
+            }
+        }
     }
 
     @Override
     public void close() {
+        if (pipeline != null) {
+            pipeline.abort();
+            pipeline = null;
+        }
+        if (parallelFormatter != null) {
+            parallelFormatter.cancel();
+            parallelFormatter = null;
+        }
+        pipelineSession = null;
+        pipelineResultSet = null;
         columnBindings = null;
     }
+
+    @NotNull
+    @Override
+    public DBCStatistics getStatistics() {
+        return statistics;
+    }
     
     private boolean resolveOverwriteBlobFileConflict(@NotNull String fileName) {
         BlobFileConflictBehavior behavior = runtimeParameters.blobFileConflictBehavior;
@@ -510,10 +584,15 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         this.outputStream = this.statStream = new StatOutputStream(outputStream);
 
         if (settings.isCompressResults()) {
-            log.debug("\tUse ZIP compression");
-            this.zipStream = new ZipOutputStream(this.outputStream);
-            this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-            this.outputStream = zipStream;
+            if (settings.getCompressionFormat() == StreamConsumerSettings.CompressionFormat.GZIP) {
+                log.debug("\tUse parallel GZIP compression");
+                this.outputStream = new ParallelGzipOutputStream(this.outputStream);
+            } else {
+                log.debug("\tUse ZIP compression");
+                this.zipStream = new ZipOutputStream(this.outputStream);
+                this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
+                this.outputStream = zipStream;
+            }
         }
 
         // If we need to split files - use stream wrapper to calculate file size
@@ -534,7 +613,15 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
 
         if (!parameters.isBinary) {
-            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), true);
+            // Characters are encoded into large blocks, stream is written only when block is full or on flush
+            final Charset charset;
+            try {
+                charset = Charset.forName(settings.getOutputEncoding());
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedEncodingException(settings.getOutputEncoding());
+            }
+            this.blockWriter = new BlockOutputWriter(this.outputStream, charset);
+            this.writer = new PrintWriter(this.blockWriter, false);
         }
     }
 
@@ -543,6 +630,17 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         if (this.writer != null) {
             this.writer.flush();
         }
+        if (blockWriter != null) {
+            // Flushes the end of encoder input and closes the whole output stream chain (including zip stream)
+            try {
+                blockWriter.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            blockWriter = null;
+            zipStream = null;
+            outputStream = null;
+        }
 
         // Finish zip stream
         if (zipStream != null) {
@@ -789,7 +887,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
         String fileName = getOutputFileName(suffix);
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            fileName += settings.getCompressionFormat().extension;
         }
         return dir.resolve(fileName);
     }
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer.stream.exporter;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
@@ -47,7 +48,7 @@ import java.util.Map;
 /**
  * CSV Exporter
  */
-public class DataExporterCSV extends StreamExporterAbstract implements IAppendableDataExporter {
+public class DataExporterCSV extends StreamExporterParallelAbstract implements IAppendableDataExporter {
 
     private static final String PROP_DELIMITER = "delimiter";
     private static final String PROP_ROW_DELIMITER = "rowDelimiter";
@@ -89,8 +90,6 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
     private DBPIdentifierCase headerCase;
     private DBDAttributeBinding[] columns;
 
-    private final StringBuilder buffer = new StringBuilder();
-
     @Override
     public void init(IStreamDataExporterSite site) throws DBException
     {
@@ -157,6 +156,7 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
 
     private void printHeader()
     {
+        PrintWriter out = getWriter();
         for (int i = 0, columnsSize = columns.length; i < columnsSize; i++) {
             DBDAttributeBinding column = columns[i];
             String colName = column.getName();
@@ -180,16 +180,17 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
                     }
                 }
             }
-            writeCellValue(headerCase.transform(colName), true);
+            writeCellValue(out, headerCase.transform(colName), true);
             if (i < columnsSize - 1) {
-                writeDelimiter();
+                writeDelimiter(out);
             }
         }
-        writeRowLimit();
+        writeRowLimit(out);
     }
 
     @Override
-    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
+    protected void writeRow(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull Object[] row, long rowIndex, @NotNull PrintWriter out)
+        throws DBException, IOException
     {
         for (int i = 0; i < row.length && i < columns.length; i++) {
             DBDAttributeBinding column = columns[i];
@@ -200,9 +201,9 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
                 try {
                     DBDContentStorage cs = content.getContents(session.getProgressMonitor());
                     if (cs == null) {
-                        writeCellValue(DBConstants.NULL_VALUE_LABEL, false);
+                        writeCellValue(out, DBConstants.NULL_VALUE_LABEL, false);
                     } else if (ContentUtils.isTextContent(content)) {
-                        writeCellValue(cs.getContentReader());
+                        writeCellValue(out, cs.getContentReader());
                     } else {
 //                        out.write(quoteChar);
                         getSite().writeBinaryData(cs);
@@ -236,17 +237,17 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
                 }
                 if (DBUtils.isNullValue(row[i])) {
                     if (CommonUtils.isNotEmpty(nullString)) {
-                        writeCellValue(nullString, quote);
+                        writeCellValue(out, nullString, quote);
                     }
                 } else {
-                    writeCellValue(stringValue, quote);
+                    writeCellValue(out, stringValue, quote);
                 }
             }
             if (i < row.length - 1) {
-                writeDelimiter();
+                writeDelimiter(out);
             }
         }
-        writeRowLimit();
+        writeRowLimit(out);
     }
 
     @Override
@@ -271,7 +272,7 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
         return false;
     }
 
-    private void writeCellValue(String value, boolean quote)
+    private void writeCellValue(PrintWriter out, String value, boolean quote)
     {
         if (!useQuotes) {
             quote = false;
@@ -294,7 +295,7 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
 
         if (quote && hasQuotes) {
             // escape quotes with double quotes
-            buffer.setLength(0);
+            StringBuilder buffer = new StringBuilder(value.length() + 8);
             for (int i = 0; i < value.length(); i++) {
                 char c = value.charAt(i);
                 if (c == quoteChar) {
@@ -304,16 +305,14 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
             }
             value = buffer.toString();
         }
-        PrintWriter out = getWriter();
         if (quote && useQuotes) out.write(quoteChar);
         out.write(value);
         if (quote && useQuotes) out.write(quoteChar);
     }
 
-    private void writeCellValue(Reader reader) throws IOException
+    private void writeCellValue(PrintWriter out, Reader reader) throws IOException
     {
         try {
-            PrintWriter out = getWriter();
             if (useQuotes) out.write(quoteChar);
             // Copy reader
             char[] buffer = new char[2000];
@@ -335,14 +334,14 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
         }
     }
 
-    private void writeDelimiter()
+    private void writeDelimiter(PrintWriter out)
     {
-        getWriter().write(delimiter);
+        out.write(delimiter);
     }
 
-    private void writeRowLimit()
+    private void writeRowLimit(PrintWriter out)
     {
-        getWriter().write(rowDelimiter);
+        out.write(rowDelimiter);
     }
 
 }
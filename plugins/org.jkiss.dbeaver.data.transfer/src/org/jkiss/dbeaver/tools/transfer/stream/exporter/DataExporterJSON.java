@@ -48,14 +48,13 @@ import java.util.Date;
 /**
  * JSON Exporter
  */
-public class DataExporterJSON extends StreamExporterAbstract implements IDocumentDataExporter {
+public class DataExporterJSON extends StreamExporterParallelAbstract implements IDocumentDataExporter {
 
     public static final String PROP_FORMAT_DATE_ISO = "formatDateISO";
     public static final String PROP_PRINT_TABLE_NAME = "printTableName";
 
     private DBDAttributeBinding[] columns;
     private String tableName;
-    private int rowNum = 0;
 
     private boolean printTableName = true;
     private boolean formatDateISO = true;
@@ -90,17 +89,16 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
             out.write("\"" + JSONUtils.escapeJsonString(tableName) + "\": ");
         }
         out.write("[\n");
-        rowNum = 0;
+        resetRowCount();
     }
 
     @Override
-    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
+    protected void writeRow(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull Object[] row, long rowIndex, @NotNull PrintWriter out)
+        throws DBException, IOException
     {
-        PrintWriter out = getWriter();
-        if (rowNum > 0) {
+        if (rowIndex > 0) {
             out.write(",\n");
         }
-        rowNum++;
         if (isJsonDocumentResults(row)) {
             DBDDocument document = (DBDDocument) row[0];
             ByteArrayOutputStream buffer = new ByteArrayOutputStream();
@@ -118,7 +116,7 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
                 out.write("\t\t\"" + JSONUtils.escapeJsonString(columnName) + "\" : ");
                 Object cellValue = row[i];
                 if (DBUtils.isNullValue(cellValue)) {
-                    writeTextCell(null);
+                    writeTextCell(out, null);
                 } else if (cellValue instanceof DBDContent) {
                     // Content
                     // Inline textual content and handle binaries in some special way
@@ -129,7 +127,7 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
                             out.write("\"");
                             if (ContentUtils.isTextContent(content)) {
                                 try (Reader in = cs.getContentReader()) {
-                                    writeCellValue(in);
+                                    writeCellValue(out, in);
                                 }
                             } else {
                                 getSite().writeBinaryData(cs);
@@ -143,9 +141,9 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
                     if (cellValue instanceof Number || cellValue instanceof Boolean) {
                         out.write(cellValue.toString());
                     } else if (cellValue instanceof Date && formatDateISO) {
-                        writeTextCell(JSONUtils.formatDate((Date) cellValue));
+                        writeTextCell(out, JSONUtils.formatDate((Date) cellValue));
                     } else {
-                        writeTextCell(super.getValueDisplayString(column, cellValue));
+                        writeTextCell(out, super.getValueDisplayString(column, cellValue));
                     }
                 }
                 if (i < columns.length - 1) {
@@ -181,16 +179,16 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
         out.write("\n");
     }
 
-    private void writeTextCell(@Nullable String value)
+    private void writeTextCell(PrintWriter out, @Nullable String value)
     {
         if (value != null) {
-            getWriter().write("\"" + JSONUtils.escapeJsonString(value) + "\"");
+            out.write("\"" + JSONUtils.escapeJsonString(value) + "\"");
         } else {
-            getWriter().write("null");
+            out.write("null");
         }
     }
 
-    private void writeCellValue(Reader reader) throws IOException
+    private void writeCellValue(PrintWriter out, Reader reader) throws IOException
     {
         // Copy reader
         char buffer[] = new char[2000];
@@ -199,7 +197,7 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
             if (count <= 0) {
                 break;
             }
-            getWriter().write(JSONUtils.escapeJsonString(new String(buffer, 0, count)));
+            out.write(JSONUtils.escapeJsonString(new String(buffer, 0, count)));
         }
     }
 
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.tools.transfer.stream.exporter;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataKind;
@@ -34,12 +36,13 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.io.Reader;
 
 /**
  * Markdown Table Exporter
  */
-public class DataExporterMarkdownTable extends StreamExporterAbstract {
+public class DataExporterMarkdownTable extends StreamExporterParallelAbstract {
 
     private static final String PROP_NULL_STRING = "nullString";
     private static final String PROP_FORMAT_NUMBERS = "formatNumbers";
@@ -54,8 +57,6 @@ public class DataExporterMarkdownTable extends StreamExporterAbstract {
     private boolean confluenceFormat;
     private DBDAttributeBinding[] columns;
 
-    private final StringBuilder buffer = new StringBuilder();
-
     @Override
     public void init(IStreamDataExporterSite site) throws DBException
     {
@@ -95,8 +96,9 @@ public class DataExporterMarkdownTable extends StreamExporterAbstract {
 
     private void printHeader(boolean separator)
     {
-        if (confluenceFormat) writeDelimiter();
-        writeDelimiter();
+        PrintWriter out = getWriter();
+        if (confluenceFormat) writeDelimiter(out);
+        writeDelimiter(out);
         for (int i = 0, columnsSize = columns.length; i < columnsSize; i++) {
             DBDAttributeBinding column = columns[i];
             String colName = column.getLabel();
@@ -104,27 +106,28 @@ public class DataExporterMarkdownTable extends StreamExporterAbstract {
                 colName = column.getName();
             }
             if (!separator) {
-                writeCellValue(colName);
+                writeCellValue(out, colName);
             } else {
                 for (int k = 0; k < colName.length(); k++) {
-                    getWriter().write('-');
+                    out.write('-');
                 }
             }
-            writeDelimiter();
-            if (confluenceFormat) writeDelimiter();
+            writeDelimiter(out);
+            if (confluenceFormat) writeDelimiter(out);
         }
-        writeRowLimit();
+        writeRowLimit(out);
     }
 
     @Override
-    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
+    protected void writeRow(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull Object[] row, long rowIndex, @NotNull PrintWriter out)
+        throws DBException, IOException
     {
-        writeDelimiter();
+        writeDelimiter(out);
         for (int i = 0; i < row.length && i < columns.length; i++) {
             DBDAttributeBinding column = columns[i];
             if (DBUtils.isNullValue(row[i])) {
                 if (!CommonUtils.isEmpty(nullString)) {
-                    getWriter().write(nullString);
+                    out.write(nullString);
                 }
             } else if (row[i] instanceof DBDContent) {
                 // Content
@@ -133,9 +136,9 @@ public class DataExporterMarkdownTable extends StreamExporterAbstract {
                 try {
                     DBDContentStorage cs = content.getContents(session.getProgressMonitor());
                     if (cs == null) {
-                        writeCellValue(DBConstants.NULL_VALUE_LABEL);
+                        writeCellValue(out, DBConstants.NULL_VALUE_LABEL);
                     } else if (ContentUtils.isTextContent(content)) {
-                        writeCellValue(cs.getContentReader());
+                        writeCellValue(out, cs.getContentReader());
                     } else {
                         getSite().writeBinaryData(cs);
                     }
@@ -144,11 +147,11 @@ public class DataExporterMarkdownTable extends StreamExporterAbstract {
                     DTUtils.closeContents(resultSet, content);
                 }
             } else {
-                writeCellValue(super.getValueDisplayString(column, row[i]));
+                writeCellValue(out, super.getValueDisplayString(column, row[i]));
             }
-            writeDelimiter();
+            writeDelimiter(out);
         }
-        writeRowLimit();
+        writeRowLimit(out);
     }
 
     @Override
@@ -156,24 +159,16 @@ public class DataExporterMarkdownTable extends StreamExporterAbstract {
     {
     }
 
-    private void writeCellValue(String value)
+    private void writeCellValue(PrintWriter out, String value)
     {
-        // escape quotes with double quotes
-        buffer.setLength(0);
-        for (int i = 0; i < value.length(); i++) {
-            char c = value.charAt(i);
-            if (c == '|') {
-                buffer.append(PIPE_ESCAPE);
-            } else {
-                buffer.append(c);
-            }
+        // escape pipes
+        if (value.indexOf('|') != -1) {
+            value = value.replace("|", PIPE_ESCAPE);
         }
-        value = buffer.toString();
-
-        getWriter().write(value);
+        out.write(value);
     }
 
-    private void writeCellValue(Reader reader) throws IOException
+    private void writeCellValue(PrintWriter out, Reader reader) throws IOException
     {
         try {
             // Copy reader
@@ -185,9 +180,9 @@ public class DataExporterMarkdownTable extends StreamExporterAbstract {
                 }
                 for (int i = 0; i < count; i++) {
                     if (buffer[i] == '|') {
-                        getWriter().write(PIPE_ESCAPE);
+                        out.write(PIPE_ESCAPE);
                     } else {
-                        getWriter().write(buffer[i]);
+                        out.write(buffer[i]);
                     }
                 }
             }
@@ -196,14 +191,14 @@ public class DataExporterMarkdownTable extends StreamExporterAbstract {
         }
     }
 
-    private void writeDelimiter()
+    private void writeDelimiter(PrintWriter out)
     {
-        getWriter().write('|');
+        out.write('|');
     }
 
-    private void writeRowLimit()
+    private void writeRowLimit(PrintWriter out)
     {
-        getWriter().write(rowDelimiter);
+        out.write(rowDelimiter);
     }
 
 }
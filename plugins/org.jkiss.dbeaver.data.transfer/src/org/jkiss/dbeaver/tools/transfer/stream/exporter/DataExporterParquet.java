@@ -0,0 +1,336 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.DTUtils;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetCodec;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileWriter;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.*;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Apache Parquet exporter.
+ * Column types are mapped to native Parquet types, so values are not formatted as text.
+ */
+public class DataExporterParquet extends StreamExporterAbstract {
+
+    private static final String PROP_COMPRESSION = "compression";
+    private static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+
+    private static final int MAX_INT32_DECIMAL_PRECISION = 9;
+    private static final int MAX_INT64_DECIMAL_PRECISION = 18;
+
+    private ParquetCodec codec;
+    private long rowGroupSize;
+    private DBDAttributeBinding[] columns;
+    private ParquetColumn[] parquetColumns;
+    private ParquetFileWriter writer;
+    private Object[] rowValues;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<String, Object> properties = site.getProperties();
+        codec = "none".equals(CommonUtils.toString(properties.get(PROP_COMPRESSION))) ? ParquetCodec.UNCOMPRESSED : ParquetCodec.GZIP;
+        rowGroupSize = Math.max(1, CommonUtils.toInt(properties.get(PROP_ROW_GROUP_SIZE), 64)) * 1024L * 1024L;
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        parquetColumns = new ParquetColumn[columns.length];
+        Set<String> columnNames = new HashSet<>();
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            String columnName = column.getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = column.getName();
+            }
+            // Parquet readers don't expect duplicate column names
+            String uniqueName = columnName;
+            for (int index = 2; !columnNames.add(uniqueName); index++) {
+                uniqueName = columnName + "_" + index;
+            }
+            parquetColumns[i] = createParquetColumn(column, uniqueName);
+        }
+        rowValues = new Object[columns.length];
+        writer = new ParquetFileWriter(
+            getOutputStream(),
+            Arrays.asList(parquetColumns),
+            codec,
+            rowGroupSize,
+            ParquetFileWriter.DEFAULT_PAGE_SIZE);
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        for (int i = 0; i < columns.length; i++) {
+            rowValues[i] = toParquetValue(session, resultSet, columns[i], parquetColumns[i], row[i]);
+        }
+        writer.writeRow(rowValues);
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (writer != null) {
+            writer.finish();
+            writer = null;
+        }
+    }
+
+    @NotNull
+    private static ParquetColumn createParquetColumn(@NotNull DBDAttributeBinding column, @NotNull String name) {
+        String typeName = CommonUtils.notEmpty(column.getTypeName()).toUpperCase(Locale.ENGLISH);
+        boolean unsigned = typeName.contains("UNSIGNED");
+        switch (column.getDataKind()) {
+            case BOOLEAN:
+                return new ParquetColumn(name, ParquetColumn.PhysicalType.BOOLEAN, ParquetColumn.LogicalType.NONE);
+            case NUMERIC:
+                switch (column.getTypeID()) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.INT32, ParquetColumn.LogicalType.NONE);
+                    case Types.INTEGER:
+                        return new ParquetColumn(
+                            name,
+                            unsigned ? ParquetColumn.PhysicalType.INT64 : ParquetColumn.PhysicalType.INT32,
+                            ParquetColumn.LogicalType.NONE);
+                    case Types.BIGINT:
+                        return unsigned ?
+                            createDecimalColumn(name, 20, 0) :
+                            new ParquetColumn(name, ParquetColumn.PhysicalType.INT64, ParquetColumn.LogicalType.NONE);
+                    case Types.REAL:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.FLOAT, ParquetColumn.LogicalType.NONE);
+                    case Types.DECIMAL:
+                    case Types.NUMERIC: {
+                        Integer precision = column.getPrecision();
+                        Integer scale = column.getScale();
+                        if (precision != null && precision > 0 && scale != null && scale >= 0 && scale <= precision) {
+                            return createDecimalColumn(name, precision, scale);
+                        }
+                        // Arbitrary precision numbers can't be stored in Parquet decimals
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.STRING);
+                    }
+                    default:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.DOUBLE, ParquetColumn.LogicalType.NONE);
+                }
+            case DATETIME:
+                switch (column.getTypeID()) {
+                    case Types.DATE:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.INT32, ParquetColumn.LogicalType.DATE);
+                    case Types.TIME:
+                    case Types.TIME_WITH_TIMEZONE: {
+                        ParquetColumn parquetColumn = new ParquetColumn(name, ParquetColumn.PhysicalType.INT64, ParquetColumn.LogicalType.TIME);
+                        parquetColumn.setTime(ParquetColumn.TimeUnit.MICROS, column.getTypeID() == Types.TIME_WITH_TIMEZONE);
+                        return parquetColumn;
+                    }
+                    default: {
+                        ParquetColumn parquetColumn = new ParquetColumn(name, ParquetColumn.PhysicalType.INT64, ParquetColumn.LogicalType.TIMESTAMP);
+                        parquetColumn.setTime(ParquetColumn.TimeUnit.MICROS, column.getTypeID() == Types.TIMESTAMP_WITH_TIMEZONE);
+                        return parquetColumn;
+                    }
+                }
+            case BINARY:
+                return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.NONE);
+            case CONTENT:
+                switch (column.getTypeID()) {
+                    case Types.BLOB:
+                    case Types.BINARY:
+                    case Types.VARBINARY:
+                    case Types.LONGVARBINARY:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.NONE);
+                    default:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.STRING);
+                }
+            default:
+                // Complex values are exported as strings
+                return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.STRING);
+        }
+    }
+
+    @NotNull
+    private static ParquetColumn createDecimalColumn(@NotNull String name, int precision, int scale) {
+        ParquetColumn.PhysicalType type;
+        if (precision <= MAX_INT32_DECIMAL_PRECISION) {
+            type = ParquetColumn.PhysicalType.INT32;
+        } else if (precision <= MAX_INT64_DECIMAL_PRECISION) {
+            type = ParquetColumn.PhysicalType.INT64;
+        } else {
+            type = ParquetColumn.PhysicalType.BYTE_ARRAY;
+        }
+        ParquetColumn column = new ParquetColumn(name, type, ParquetColumn.LogicalType.DECIMAL);
+        column.setDecimal(precision, scale);
+        return column;
+    }
+
+    @Nullable
+    private Object toParquetValue(
+        @NotNull DBCSession session,
+        @NotNull DBCResultSet resultSet,
+        @NotNull DBDAttributeBinding column,
+        @NotNull ParquetColumn parquetColumn,
+        @Nullable Object value
+    ) throws DBException {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        if (value instanceof DBDContent content) {
+            try {
+                if (parquetColumn.getLogicalType() == ParquetColumn.LogicalType.NONE) {
+                    return ContentUtils.getContentBinaryValue(session.getProgressMonitor(), content);
+                }
+                value = ContentUtils.getContentStringValue(session.getProgressMonitor(), content);
+            } finally {
+                DTUtils.closeContents(resultSet, content);
+            }
+            if (value == null) {
+                return null;
+            }
+        }
+        try {
+            switch (parquetColumn.getLogicalType()) {
+                case STRING:
+                    return (value instanceof String str ? str : getValueDisplayString(column, value)).getBytes(StandardCharsets.UTF_8);
+                case DECIMAL: {
+                    BigInteger unscaled = toBigDecimal(value).setScale(parquetColumn.getScale(), RoundingMode.HALF_UP).unscaledValue();
+                    return switch (parquetColumn.getPhysicalType()) {
+                        case INT32 -> unscaled.intValueExact();
+                        case INT64 -> unscaled.longValueExact();
+                        default -> unscaled.toByteArray();
+                    };
+                }
+                case DATE:
+                    return (int) toLocalDateTime(value).toLocalDate().toEpochDay();
+                case TIME: {
+                    LocalTime localTime;
+                    if (value instanceof LocalTime lt) {
+                        localTime = lt;
+                    } else if (value instanceof OffsetTime ot) {
+                        localTime = ot.withOffsetSameInstant(ZoneOffset.UTC).toLocalTime();
+                    } else if (parquetColumn.isAdjustedToUTC()) {
+                        localTime = toInstant(value).atOffset(ZoneOffset.UTC).toLocalTime();
+                    } else {
+                        localTime = toLocalDateTime(value).toLocalTime();
+                    }
+                    return localTime.toNanoOfDay() / 1000;
+                }
+                case TIMESTAMP: {
+                    if (parquetColumn.isAdjustedToUTC()) {
+                        Instant instant = toInstant(value);
+                        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+                    }
+                    LocalDateTime dateTime = toLocalDateTime(value);
+                    return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), 1_000_000L), dateTime.getNano() / 1000);
+                }
+                default:
+                    break;
+            }
+            return switch (parquetColumn.getPhysicalType()) {
+                case BOOLEAN -> value instanceof Boolean ? value :
+                    value instanceof Number number ? number.intValue() != 0 : CommonUtils.toBoolean(value);
+                case INT32, INT64, FLOAT, DOUBLE -> value instanceof Number ? value : toBigDecimal(value);
+                default -> value instanceof byte[] ? value : getValueDisplayString(column, value).getBytes(StandardCharsets.UTF_8);
+            };
+        } catch (ArithmeticException | DateTimeException | IllegalArgumentException e) {
+            throw new DBException("Can't convert value '" + value + "' of column '" + column.getName() + "' to Parquet " + parquetColumn, e);
+        }
+    }
+
+    @NotNull
+    private static BigDecimal toBigDecimal(@NotNull Object value) {
+        if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal;
+        } else if (value instanceof BigInteger bigInteger) {
+            return new BigDecimal(bigInteger);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Number number) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        } else if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().atStartOfDay();
+        } else if (value instanceof Date date) {
+            return new Timestamp(date.getTime()).toLocalDateTime();
+        } else if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        } else if (value instanceof LocalDate localDate) {
+            return localDate.atStartOfDay();
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toLocalDateTime();
+        } else if (value instanceof ZonedDateTime zonedDateTime) {
+            return zonedDateTime.toLocalDateTime();
+        } else if (value instanceof Instant instant) {
+            return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+        }
+        String text = value.toString().trim();
+        try {
+            return Timestamp.valueOf(text).toLocalDateTime();
+        } catch (IllegalArgumentException e) {
+            try {
+                return LocalDate.parse(text).atStartOfDay();
+            } catch (DateTimeParseException e1) {
+                throw new IllegalArgumentException("Bad date/time value: " + text, e);
+            }
+        }
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        } else if (value instanceof Date date) {
+            return Instant.ofEpochMilli(date.getTime());
+        } else if (value instanceof Instant instant) {
+            return instant;
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        } else if (value instanceof ZonedDateTime zonedDateTime) {
+            return zonedDateTime.toInstant();
+        }
+        return toLocalDateTime(value).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+}
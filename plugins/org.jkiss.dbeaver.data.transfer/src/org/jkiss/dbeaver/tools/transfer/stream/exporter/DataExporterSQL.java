@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer.stream.exporter;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
@@ -49,7 +50,7 @@ import java.util.Map;
 /**
  * SQL Exporter
  */
-public class DataExporterSQL extends StreamExporterAbstract implements IAppendableDataExporter {
+public class DataExporterSQL extends StreamExporterParallelAbstract implements IAppendableDataExporter {
 
     private static final Log log = Log.getLog(DataExporterSQL.class);
 
@@ -91,8 +92,6 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
     private DBPIdentifierCase columnsAndTableNamesCase;
     private static String onConflictExpression;
 
-    private transient StringBuilder sqlBuffer = new StringBuilder(100);
-    private transient long rowCount;
     private SQLDialect dialect;
 
     enum InsertKeyword {
@@ -175,6 +174,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
 
         insertKeyword = InsertKeyword.fromValue(CommonUtils.toString(properties.get(PROP_UPSERT)));
         onConflictExpression = CommonUtils.toString(properties.get(PROP_ON_CONFLICT));
+        oneLineEntry = rowsInStatement == 1;
     }
 
     @Override
@@ -206,7 +206,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
             tableName = DTConstants.DEFAULT_TABLE_NAME_EXPORT;
         }
 
-        rowCount = 0;
+        resetRowCount();
     }
 
     private String transformTableNameCase(DBPDataSource dataSource, String tableIdentifier) {
@@ -226,17 +226,14 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
     }
 
     @Override
-    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
-        PrintWriter out = getWriter();
-        oneLineEntry = rowsInStatement == 1;
+    protected void writeRow(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull Object[] row, long rowIndex, @NotNull PrintWriter out)
+        throws DBException, IOException
+    {
         int columnsSize = columns.length;
         boolean firstRow = false;
-        if (insertKeyword == InsertKeyword.INSERT_ALL) {
-            sqlBuffer.append(identifierCase.transform(KEYWORD_INSERT_ALL));
-        }
-        if (oneLineEntry || insertKeyword == InsertKeyword.INSERT_ALL || rowCount % rowsInStatement == 0) {
-            sqlBuffer.setLength(0);
-            if (rowCount > 0) {
+        if (oneLineEntry || insertKeyword == InsertKeyword.INSERT_ALL || rowIndex % rowsInStatement == 0) {
+            StringBuilder sqlBuffer = new StringBuilder(100);
+            if (rowIndex > 0) {
                 //if (insertMode == SQLDialect.MultiValueInsertMode.PLAIN) {
                 //    sqlBuffer.append(");");
                 if (!oneLineEntry && insertKeyword != InsertKeyword.INSERT_ALL) {
@@ -244,7 +241,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
                         addOnConflictExpression(out);
                     }
                     sqlBuffer.append(";");
-                } else if (insertKeyword == InsertKeyword.INSERT_ALL && rowCount % rowsInStatement == 0) {
+                } else if (insertKeyword == InsertKeyword.INSERT_ALL && rowIndex % rowsInStatement == 0) {
                     sqlBuffer.append(rowDelimiter).append(identifierCase.transform(KEYWORD_SELECT_FROM_DUAL)).append(";");
                 }
                 if (lineBeforeRows) {
@@ -263,7 +260,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
                     break;
                 default:
                     if (insertKeyword == InsertKeyword.INSERT_ALL) {
-                        if (rowCount % rowsInStatement == 0) {
+                        if (rowIndex % rowsInStatement == 0) {
                             sqlBuffer.append(identifierCase.transform(KEYWORD_INSERT_ALL)).append("\n");
                         }
                         sqlBuffer.append("\t").append(identifierCase.transform(KEYWORD_INTO));
@@ -306,7 +303,6 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
             }
             out.write(" (");
         }
-        rowCount++;
         boolean hasValue = false;
         for (int i = 0; i < columnsSize; i++) {
             DBDAttributeBinding column = columns[i];
@@ -335,7 +331,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
                         if (cs != null) {
                             if (ContentUtils.isTextContent(content)) {
                                 try (Reader contentReader = cs.getContentReader()) {
-                                    writeStringValue(contentReader);
+                                    writeStringValue(out, contentReader);
                                 }
                             } else {
                                 getSite().writeBinaryData(cs);
@@ -398,7 +394,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
     @Override
     public void exportFooter(DBRProgressMonitor monitor) {
         PrintWriter out = getWriter();
-        if (rowCount > 0) {
+        if (getRowCount() > 0) {
         	if (insertKeyword == InsertKeyword.INSERT_ALL) {
                 out.write(rowDelimiter + identifierCase.transform(KEYWORD_SELECT_FROM_DUAL) + ";");
             } else if (!oneLineEntry) {
@@ -424,9 +420,8 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
         out.write(STRING_QUOTE);
     }
 
-    private void writeStringValue(Reader reader) throws IOException {
+    private void writeStringValue(PrintWriter out, Reader reader) throws IOException {
         try {
-            PrintWriter out = getWriter();
             out.write(STRING_QUOTE);
             // Copy reader
             char buffer[] = new char[2000];
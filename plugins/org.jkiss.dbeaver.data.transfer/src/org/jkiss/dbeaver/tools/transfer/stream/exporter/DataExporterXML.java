@@ -17,6 +17,7 @@
  */
 package org.jkiss.dbeaver.tools.transfer.stream.exporter;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -38,7 +39,7 @@ import java.io.Reader;
 /**
  * XML Exporter
  */
-public class DataExporterXML extends StreamExporterAbstract {
+public class DataExporterXML extends StreamExporterParallelAbstract {
 
     private static final String PROP_INCLUDE_DOCTYPE_DECLARATION = "includeDoctype";
 
@@ -96,16 +97,16 @@ public class DataExporterXML extends StreamExporterAbstract {
     }
 
     @Override
-    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
+    protected void writeRow(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull Object[] row, long rowIndex, @NotNull PrintWriter out)
+        throws DBException, IOException
     {
-        PrintWriter out = getWriter();
         out.write("  <DATA_RECORD>\n");
         for (int i = 0; i < row.length; i++) {
             DBDAttributeBinding column = columns[i];
             String columnName = escapeXmlElementName(column.getName());
             out.write("    <" + columnName + ">");
             if (DBUtils.isNullValue(row[i])) {
-                writeTextCell(null);
+                writeTextCell(out, null);
             } else if (row[i] instanceof DBDContent) {
                 // Content
                 // Inline textual content and handle binaries in some special way
@@ -115,7 +116,7 @@ public class DataExporterXML extends StreamExporterAbstract {
                     if (cs != null) {
                         if (ContentUtils.isTextContent(content)) {
                             try (Reader reader = cs.getContentReader()) {
-                                writeCellValue(reader);
+                                writeCellValue(out, reader);
                             }
                         } else {
                             getSite().writeBinaryData(cs);
@@ -126,7 +127,7 @@ public class DataExporterXML extends StreamExporterAbstract {
                     DTUtils.closeContents(resultSet, content);
                 }
             } else {
-                writeTextCell(super.getValueDisplayString(column, row[i]));
+                writeTextCell(out, super.getValueDisplayString(column, row[i]));
             }
             out.write("</" + columnName + ">\n");
         }
@@ -138,15 +139,15 @@ public class DataExporterXML extends StreamExporterAbstract {
         getWriter().write("</" + tableName + ">\n");
     }
 
-    private void writeTextCell(@Nullable String value)
+    private void writeTextCell(PrintWriter out, @Nullable String value)
     {
         if (value != null) {
             value = value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
-            getWriter().write(value);
+            out.write(value);
         }
     }
 
-    private void writeCellValue(Reader reader) throws IOException
+    private void writeCellValue(PrintWriter out, Reader reader) throws IOException
     {
         // Copy reader
         char buffer[] = new char[2000];
@@ -157,14 +158,14 @@ public class DataExporterXML extends StreamExporterAbstract {
             }
             for (int i = 0; i < count; i++) {
                 if (buffer[i] == '<') {
-                    getWriter().write("&lt;");
+                    out.write("&lt;");
                 }
                 else if (buffer[i] == '>') {
-                    getWriter().write("&gt;");
+                    out.write("&gt;");
                 } else if (buffer[i] == '&') {
-                    getWriter().write("&amp;");
+                    out.write("&amp;");
                 } else {
-                    getWriter().write(buffer[i]);
+                    out.write(buffer[i]);
                 }
             }
         }
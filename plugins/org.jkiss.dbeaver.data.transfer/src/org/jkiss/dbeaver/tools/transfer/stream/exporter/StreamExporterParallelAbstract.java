@@ -0,0 +1,79 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.tools.transfer.stream.IParallelDataExporter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Abstract exporter which formats each row independently of other rows
+ */
+public abstract class StreamExporterParallelAbstract extends StreamExporterAbstract implements IParallelDataExporter {
+
+    private long rowCount;
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
+    {
+        writeRow(session, resultSet, row, advanceRowCount(1), getWriter());
+    }
+
+    @Override
+    public void exportRows(DBCSession session, DBCResultSet resultSet, List<Object[]> rows) throws DBException, IOException
+    {
+        formatRows(session, resultSet, rows, advanceRowCount(rows.size()), getWriter());
+    }
+
+    @Override
+    public void formatRows(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull List<Object[]> rows, long firstRowIndex, @NotNull PrintWriter out)
+        throws DBException, IOException
+    {
+        for (int i = 0; i < rows.size(); i++) {
+            writeRow(session, resultSet, rows.get(i), firstRowIndex + i, out);
+        }
+    }
+
+    @Override
+    public long advanceRowCount(int count) {
+        long firstRowIndex = rowCount;
+        rowCount += count;
+        return firstRowIndex;
+    }
+
+    protected long getRowCount() {
+        return rowCount;
+    }
+
+    protected void resetRowCount() {
+        rowCount = 0;
+    }
+
+    /**
+     * Writes row into the specified writer. May be called concurrently, see {@link IParallelDataExporter#formatRows}.
+     */
+    protected abstract void writeRow(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull Object[] row, long rowIndex, @NotNull PrintWriter out)
+        throws DBException, IOException;
+
+}
@@ -0,0 +1,253 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileReader;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Apache Parquet importer.
+ * Parquet file is read with random access (footer first), so the input stream is not used.
+ * Only columns which are mapped to target attributes are read.
+ */
+public class DataImporterParquet extends StreamImporterAbstract {
+
+    public DataImporterParquet() {
+    }
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        Map<String, Object> processorProperties = getSite().getProcessorProperties();
+        final int columnSamplesCount = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_SAMPLES), 100), 0);
+        final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
+
+        try (ParquetFileReader reader = new ParquetFileReader(entityMapping.getInputFile())) {
+            List<ParquetColumn> columns = reader.getColumns();
+            boolean[] stringColumns = new boolean[columns.size()];
+            boolean hasStringColumns = false;
+            for (int i = 0; i < columns.size(); i++) {
+                ParquetColumn column = columns.get(i);
+                StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(
+                    entityMapping, i, column.getName(), null, columnMinimalLength, DBPDataKind.UNKNOWN);
+                columnInfo.setMappingMetadataPresent(true);
+                columnInfo.setRequired(!column.isOptional());
+                updateColumnType(columnInfo, column);
+                if (columnInfo.getDataKind() == DBPDataKind.STRING) {
+                    stringColumns[i] = true;
+                    hasStringColumns = true;
+                }
+                columnsInfo.add(columnInfo);
+            }
+
+            if (hasStringColumns && columnSamplesCount > 0) {
+                // Sample string lengths, other columns are not read at all
+                ParquetFileReader.RowReader rowReader = reader.openRows(stringColumns);
+                Object[] row = new Object[columns.size()];
+                for (int sample = 0; sample < columnSamplesCount && rowReader.next(row); sample++) {
+                    for (int i = 0; i < row.length; i++) {
+                        if (stringColumns[i] && row[i] instanceof String str) {
+                            columnsInfo.get(i).updateMaxLength(entityMapping.getDataSource(), str.length());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading Parquet file", e);
+        }
+
+        return columnsInfo;
+    }
+
+    private static void updateColumnType(@NotNull StreamDataImporterColumnInfo columnInfo, @NotNull ParquetColumn column) {
+        switch (column.getLogicalType()) {
+            case STRING, ENUM, JSON, UUID:
+                setColumnType(columnInfo, DBPDataKind.STRING, "VARCHAR");
+                return;
+            case DECIMAL:
+                setColumnType(columnInfo, DBPDataKind.NUMERIC, "NUMERIC");
+                columnInfo.setPrecision(column.getPrecision());
+                columnInfo.setScale(column.getScale());
+                return;
+            case DATE:
+                setColumnType(columnInfo, DBPDataKind.DATETIME, "DATE");
+                return;
+            case TIME:
+                setColumnType(columnInfo, DBPDataKind.DATETIME, "TIME");
+                return;
+            case TIMESTAMP:
+                setColumnType(columnInfo, DBPDataKind.DATETIME, "TIMESTAMP");
+                return;
+            case INTEGER:
+                if (column.getBitWidth() <= 16) {
+                    setColumnType(columnInfo, DBPDataKind.NUMERIC, "SMALLINT");
+                } else if (column.getBitWidth() == 32 && column.isSigned()) {
+                    setColumnType(columnInfo, DBPDataKind.NUMERIC, "INTEGER");
+                } else if (column.getBitWidth() == 64 && !column.isSigned()) {
+                    // Doesn't fit into BIGINT
+                    setColumnType(columnInfo, DBPDataKind.NUMERIC, "NUMERIC");
+                    columnInfo.setPrecision(20);
+                    columnInfo.setScale(0);
+                } else {
+                    setColumnType(columnInfo, DBPDataKind.NUMERIC, "BIGINT");
+                }
+                return;
+            default:
+                break;
+        }
+        switch (column.getPhysicalType()) {
+            case BOOLEAN -> setColumnType(columnInfo, DBPDataKind.BOOLEAN, "BOOLEAN");
+            case INT32 -> setColumnType(columnInfo, DBPDataKind.NUMERIC, "INTEGER");
+            case INT64 -> setColumnType(columnInfo, DBPDataKind.NUMERIC, "BIGINT");
+            case INT96 -> setColumnType(columnInfo, DBPDataKind.DATETIME, "TIMESTAMP");
+            case FLOAT -> setColumnType(columnInfo, DBPDataKind.NUMERIC, "REAL");
+            case DOUBLE -> setColumnType(columnInfo, DBPDataKind.NUMERIC, "DOUBLE");
+            default -> setColumnType(columnInfo, DBPDataKind.BINARY, "VARBINARY");
+        }
+    }
+
+    private static void setColumnType(@NotNull StreamDataImporterColumnInfo columnInfo, @NotNull DBPDataKind dataKind, @NotNull String typeName) {
+        // Parquet schema is exact, no need to guess the type by values
+        columnInfo.setDataKind(dataKind);
+        columnInfo.setTypeName(typeName);
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        IStreamDataImporterSite site = getSite();
+        StreamEntityMapping entityMapping = site.getSourceObject();
+        Path inputFile = entityMapping.getInputFile();
+
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+
+            try (ParquetFileReader reader = new ParquetFileReader(inputFile)) {
+                List<StreamDataImporterColumnInfo> streamColumns = entityMapping.getStreamColumns();
+                int[] fileColumnIndexes = getFileColumnIndexes(reader.getColumns(), streamColumns);
+                boolean[] projection = getProjection(consumer, fileColumnIndexes, reader.getColumns().size());
+
+                ParquetFileReader.RowReader rowReader = reader.openRows(projection);
+                Object[] fileRow = new Object[reader.getColumns().size()];
+                int maxRows = site.getSettings().getMaxRows();
+                for (long rowNum = 0; ; ) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    if (maxRows > 0 && rowNum >= maxRows) {
+                        break;
+                    }
+                    if (!rowReader.next(fileRow)) {
+                        break;
+                    }
+                    // Consumer may keep the row, so make a new one each time
+                    Object[] streamRow = new Object[streamColumns.size()];
+                    for (int i = 0; i < streamRow.length; i++) {
+                        if (fileColumnIndexes[i] >= 0) {
+                            streamRow[i] = fileRow[fileColumnIndexes[i]];
+                        }
+                    }
+
+                    resultSet.setStreamRow(streamRow);
+                    consumer.fetchRow(producerSession, resultSet);
+                    rowNum++;
+
+                    if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                        monitor.subTask(Long.toUnsignedString(rowNum) + " rows processed");
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading Parquet file", e);
+            } finally {
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns index of file column for each stream column or -1 if file doesn't have such column
+     */
+    @NotNull
+    private static int[] getFileColumnIndexes(@NotNull List<ParquetColumn> fileColumns, @NotNull List<StreamDataImporterColumnInfo> streamColumns) {
+        int[] indexes = new int[streamColumns.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = -1;
+            String name = streamColumns.get(i).getName();
+            for (int k = 0; k < fileColumns.size(); k++) {
+                if (fileColumns.get(k).getName().equals(name)) {
+                    indexes[i] = k;
+                    break;
+                }
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Skipped columns are not read from the file
+     */
+    @NotNull
+    private static boolean[] getProjection(@NotNull IDataTransferConsumer consumer, @NotNull int[] fileColumnIndexes, int fileColumnCount) {
+        boolean[] projection = new boolean[fileColumnCount];
+        DatabaseTransferConsumer.ColumnMapping[] columnMappings = null;
+        if (consumer instanceof DatabaseTransferConsumer databaseConsumer) {
+            columnMappings = databaseConsumer.getColumnMappings();
+        }
+        for (int i = 0; i < fileColumnIndexes.length; i++) {
+            if (fileColumnIndexes[i] < 0) {
+                continue;
+            }
+            if (columnMappings == null || (i < columnMappings.length && columnMappings[i] != null)) {
+                projection[fileColumnIndexes[i]] = true;
+            }
+        }
+        return projection;
+    }
+
+}
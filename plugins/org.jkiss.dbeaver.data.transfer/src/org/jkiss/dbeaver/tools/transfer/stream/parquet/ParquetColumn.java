@@ -0,0 +1,162 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Parquet column (schema leaf) descriptor
+ */
+public class ParquetColumn {
+
+    /**
+     * Physical (storage) type. Ordinal matches Parquet type id.
+     */
+    public enum PhysicalType {
+        BOOLEAN,
+        INT32,
+        INT64,
+        INT96,
+        FLOAT,
+        DOUBLE,
+        BYTE_ARRAY,
+        FIXED_LEN_BYTE_ARRAY
+    }
+
+    /**
+     * Logical type annotation
+     */
+    public enum LogicalType {
+        NONE,
+        STRING,
+        ENUM,
+        JSON,
+        BSON,
+        UUID,
+        DECIMAL,
+        DATE,
+        TIME,
+        TIMESTAMP,
+        INTEGER
+    }
+
+    public enum TimeUnit {
+        MILLIS,
+        MICROS,
+        NANOS
+    }
+
+    private final String name;
+    private final PhysicalType physicalType;
+    private final LogicalType logicalType;
+    private boolean optional = true;
+    private int typeLength;
+    private int precision;
+    private int scale;
+    private TimeUnit timeUnit = TimeUnit.MICROS;
+    private boolean adjustedToUTC;
+    private int bitWidth;
+    private boolean signed = true;
+
+    public ParquetColumn(@NotNull String name, @NotNull PhysicalType physicalType, @NotNull LogicalType logicalType) {
+        this.name = name;
+        this.physicalType = physicalType;
+        this.logicalType = logicalType;
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @NotNull
+    public PhysicalType getPhysicalType() {
+        return physicalType;
+    }
+
+    @NotNull
+    public LogicalType getLogicalType() {
+        return logicalType;
+    }
+
+    public boolean isOptional() {
+        return optional;
+    }
+
+    public void setOptional(boolean optional) {
+        this.optional = optional;
+    }
+
+    /**
+     * Value length of FIXED_LEN_BYTE_ARRAY column
+     */
+    public int getTypeLength() {
+        return typeLength;
+    }
+
+    public void setTypeLength(int typeLength) {
+        this.typeLength = typeLength;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public void setDecimal(int precision, int scale) {
+        this.precision = precision;
+        this.scale = scale;
+    }
+
+    @NotNull
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    /**
+     * UTC-adjusted TIME and TIMESTAMP values are instants. Others are local date/time values.
+     */
+    public boolean isAdjustedToUTC() {
+        return adjustedToUTC;
+    }
+
+    public void setTime(@NotNull TimeUnit timeUnit, boolean adjustedToUTC) {
+        this.timeUnit = timeUnit;
+        this.adjustedToUTC = adjustedToUTC;
+    }
+
+    public int getBitWidth() {
+        return bitWidth;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    public void setInteger(int bitWidth, boolean signed) {
+        this.bitWidth = bitWidth;
+        this.signed = signed;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + physicalType + (logicalType == LogicalType.NONE ? "" : " (" + logicalType + ")");
+    }
+}
@@ -0,0 +1,1019 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.meta.ForTest;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileWriter.*;
+
+/**
+ * Parquet file reader.
+ * <p>
+ * Reads rows of flat (non-nested) columns. Only projected columns are read from the file,
+ * column chunks are read page by page, so memory usage doesn't depend on the row group size.
+ * Supports uncompressed, GZIP and Snappy pages, PLAIN, dictionary and DELTA encodings.
+ * Values are converted according to their logical types.
+ */
+public class ParquetFileReader implements Closeable {
+
+    private static final Log log = Log.getLog(ParquetFileReader.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FOOTER_LENGTH = 256 * 1024 * 1024;
+    private static final int REPETITION_REPEATED = 2;
+    // Julian day of 1970-01-01
+    private static final long JULIAN_EPOCH_DAY = 2440588;
+
+    private final SeekableByteChannel channel;
+    private final List<ParquetColumn> columns = new ArrayList<>();
+    // Index of column chunk for each column
+    private final List<Integer> chunkIndexes = new ArrayList<>();
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private long rowCount;
+
+    public ParquetFileReader(@NotNull Path file) throws IOException {
+        this(Files.newByteChannel(file, StandardOpenOption.READ));
+    }
+
+    public ParquetFileReader(@NotNull SeekableByteChannel channel) throws IOException {
+        this.channel = channel;
+        try {
+            readFooter();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @NotNull
+    public List<ParquetColumn> getColumns() {
+        return columns;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Opens row reader.
+     *
+     * @param projection columns to read. Values of other columns are not read and are always NULL.
+     *                   Null projection means all columns.
+     */
+    @NotNull
+    public RowReader openRows(@Nullable boolean[] projection) {
+        return new RowReader(projection);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public class RowReader {
+        private final boolean[] projection;
+        private final ColumnReader[] readers = new ColumnReader[columns.size()];
+        private int rowGroupIndex = -1;
+        private long rowsLeft;
+
+        private RowReader(@Nullable boolean[] projection) {
+            this.projection = projection;
+        }
+
+        /**
+         * Reads next row into the specified array.
+         * Returns false if there are no more rows.
+         */
+        public boolean next(@NotNull Object[] row) throws IOException {
+            while (rowsLeft <= 0) {
+                if (++rowGroupIndex >= rowGroups.size()) {
+                    return false;
+                }
+                RowGroupInfo rowGroup = rowGroups.get(rowGroupIndex);
+                for (int i = 0; i < readers.length; i++) {
+                    if (projection == null || (i < projection.length && projection[i])) {
+                        readers[i] = new ColumnReader(columns.get(i), rowGroup.chunks.get(chunkIndexes.get(i)));
+                    }
+                }
+                rowsLeft = rowGroup.numRows;
+            }
+            for (int i = 0; i < readers.length; i++) {
+                row[i] = readers[i] == null ? null : readers[i].next();
+            }
+            rowsLeft--;
+            return true;
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+    // Metadata
+
+    private void readFooter() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < MAGIC.length * 2L + 4) {
+            throw new IOException("File is too small to be a Parquet file");
+        }
+        ByteBuffer tail = readFully(fileSize - 8, 8);
+        int footerLength = readIntLE(tail.array(), 0);
+        if (!Arrays.equals(tail.array(), 4, 8, MAGIC, 0, MAGIC.length) ||
+            !Arrays.equals(readFully(0, MAGIC.length).array(), MAGIC))
+        {
+            throw new IOException("Not a Parquet file (bad magic)");
+        }
+        if (footerLength <= 0 || footerLength > MAX_FOOTER_LENGTH || footerLength > fileSize - 12) {
+            throw new IOException("Bad Parquet footer length: " + footerLength);
+        }
+        ByteBuffer footer = readFully(fileSize - 8 - footerLength, footerLength);
+        readFileMetaData(new ThriftCompactReader(new ByteArrayInputStream(footer.array())));
+    }
+
+    private void readFileMetaData(@NotNull ThriftCompactReader reader) throws IOException {
+        List<SchemaElement> schema = new ArrayList<>();
+        reader.beginStruct();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 2 -> {
+                    int size = reader.readListBegin();
+                    for (int i = 0; i < size; i++) {
+                        schema.add(readSchemaElement(reader));
+                    }
+                }
+                case 3 -> rowCount = reader.readI64();
+                case 4 -> {
+                    int size = reader.readListBegin();
+                    for (int i = 0; i < size; i++) {
+                        rowGroups.add(readRowGroup(reader));
+                    }
+                }
+                default -> reader.skipField();
+            }
+        }
+        if (schema.isEmpty()) {
+            throw new IOException("Empty Parquet schema");
+        }
+        int[] position = {1};
+        int[] leafCount = {0};
+        for (int i = 0; i < schema.get(0).numChildren && position[0] < schema.size(); i++) {
+            collectColumns(schema, position, leafCount, false);
+        }
+    }
+
+    private void collectColumns(@NotNull List<SchemaElement> schema, @NotNull int[] position, @NotNull int[] leafCount, boolean nested) {
+        SchemaElement element = schema.get(position[0]++);
+        if (element.numChildren > 0) {
+            // Group
+            if (!nested) {
+                log.debug("Nested Parquet column '" + element.name + "' is not supported and will be skipped");
+            }
+            for (int i = 0; i < element.numChildren && position[0] < schema.size(); i++) {
+                collectColumns(schema, position, leafCount, true);
+            }
+            return;
+        }
+        int chunkIndex = leafCount[0]++;
+        if (nested) {
+            return;
+        }
+        if (element.repetitionType == REPETITION_REPEATED || element.type < 0) {
+            log.debug("Repeated Parquet column '" + element.name + "' is not supported and will be skipped");
+            return;
+        }
+        ParquetColumn column = new ParquetColumn(
+            element.name,
+            ParquetColumn.PhysicalType.values()[element.type],
+            element.logicalType);
+        column.setOptional(element.repetitionType != 0);
+        column.setTypeLength(element.typeLength);
+        column.setDecimal(element.precision, element.scale);
+        column.setTime(element.timeUnit, element.adjustedToUTC);
+        column.setInteger(element.bitWidth, element.signed);
+        columns.add(column);
+        chunkIndexes.add(chunkIndex);
+    }
+
+    @NotNull
+    private static SchemaElement readSchemaElement(@NotNull ThriftCompactReader reader) throws IOException {
+        SchemaElement element = new SchemaElement();
+        int convertedType = -1;
+        reader.beginStruct();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1 -> {
+                    element.type = reader.readI32();
+                    if (element.type < 0 || element.type >= ParquetColumn.PhysicalType.values().length) {
+                        throw new IOException("Bad Parquet type: " + element.type);
+                    }
+                }
+                case 2 -> element.typeLength = reader.readI32();
+                case 3 -> element.repetitionType = reader.readI32();
+                case 4 -> element.name = reader.readString();
+                case 5 -> element.numChildren = reader.readI32();
+                case 6 -> convertedType = reader.readI32();
+                case 7 -> element.scale = reader.readI32();
+                case 8 -> element.precision = reader.readI32();
+                case 10 -> readLogicalType(reader, element);
+                default -> reader.skipField();
+            }
+        }
+        if (element.logicalType == ParquetColumn.LogicalType.NONE && convertedType >= 0) {
+            applyConvertedType(element, convertedType);
+        }
+        return element;
+    }
+
+    private static void readLogicalType(@NotNull ThriftCompactReader reader, @NotNull SchemaElement element) throws IOException {
+        reader.beginStruct();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1 -> element.logicalType = ParquetColumn.LogicalType.STRING;
+                case 4 -> element.logicalType = ParquetColumn.LogicalType.ENUM;
+                case 5 -> element.logicalType = ParquetColumn.LogicalType.DECIMAL;
+                case 6 -> element.logicalType = ParquetColumn.LogicalType.DATE;
+                case 7 -> element.logicalType = ParquetColumn.LogicalType.TIME;
+                case 8 -> element.logicalType = ParquetColumn.LogicalType.TIMESTAMP;
+                case 10 -> element.logicalType = ParquetColumn.LogicalType.INTEGER;
+                case 12 -> element.logicalType = ParquetColumn.LogicalType.JSON;
+                case 13 -> element.logicalType = ParquetColumn.LogicalType.BSON;
+                case 14 -> element.logicalType = ParquetColumn.LogicalType.UUID;
+                default -> {
+                    reader.skipField();
+                    continue;
+                }
+            }
+            // Read type parameters
+            short typeId = reader.getFieldId();
+            reader.beginStruct();
+            while (reader.nextField()) {
+                switch (typeId * 100 + reader.getFieldId()) {
+                    case 501 -> element.scale = reader.readI32();
+                    case 502 -> element.precision = reader.readI32();
+                    case 701, 801 -> element.adjustedToUTC = reader.readBoolField();
+                    case 702, 802 -> element.timeUnit = readTimeUnit(reader);
+                    case 1001 -> element.bitWidth = reader.readByteValue();
+                    case 1002 -> element.signed = reader.readBoolField();
+                    default -> reader.skipField();
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static ParquetColumn.TimeUnit readTimeUnit(@NotNull ThriftCompactReader reader) throws IOException {
+        ParquetColumn.TimeUnit unit = ParquetColumn.TimeUnit.MICROS;
+        reader.beginStruct();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1 -> unit = ParquetColumn.TimeUnit.MILLIS;
+                case 2 -> unit = ParquetColumn.TimeUnit.MICROS;
+                case 3 -> unit = ParquetColumn.TimeUnit.NANOS;
+                default -> {
+                    // Unknown unit
+                }
+            }
+            reader.skipField();
+        }
+        return unit;
+    }
+
+    private static void applyConvertedType(@NotNull SchemaElement element, int convertedType) {
+        switch (convertedType) {
+            case 0 -> element.logicalType = ParquetColumn.LogicalType.STRING;
+            case 4 -> element.logicalType = ParquetColumn.LogicalType.ENUM;
+            case 5 -> element.logicalType = ParquetColumn.LogicalType.DECIMAL;
+            case 6 -> element.logicalType = ParquetColumn.LogicalType.DATE;
+            case 7, 8 -> {
+                element.logicalType = ParquetColumn.LogicalType.TIME;
+                element.timeUnit = convertedType == 7 ? ParquetColumn.TimeUnit.MILLIS : ParquetColumn.TimeUnit.MICROS;
+                element.adjustedToUTC = true;
+            }
+            case 9, 10 -> {
+                element.logicalType = ParquetColumn.LogicalType.TIMESTAMP;
+                element.timeUnit = convertedType == 9 ? ParquetColumn.TimeUnit.MILLIS : ParquetColumn.TimeUnit.MICROS;
+                element.adjustedToUTC = true;
+            }
+            case 11, 12, 13, 14, 15, 16, 17, 18 -> {
+                element.logicalType = ParquetColumn.LogicalType.INTEGER;
+                element.signed = convertedType >= 15;
+                element.bitWidth = 8 << ((convertedType - 11) % 4);
+            }
+            case 19 -> element.logicalType = ParquetColumn.LogicalType.JSON;
+            case 20 -> element.logicalType = ParquetColumn.LogicalType.BSON;
+            default -> {
+                // Ignore
+            }
+        }
+    }
+
+    @NotNull
+    private static RowGroupInfo readRowGroup(@NotNull ThriftCompactReader reader) throws IOException {
+        RowGroupInfo rowGroup = new RowGroupInfo();
+        reader.beginStruct();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1 -> {
+                    int size = reader.readListBegin();
+                    for (int i = 0; i < size; i++) {
+                        rowGroup.chunks.add(readColumnChunk(reader));
+                    }
+                }
+                case 3 -> rowGroup.numRows = reader.readI64();
+                default -> reader.skipField();
+            }
+        }
+        return rowGroup;
+    }
+
+    @NotNull
+    private static ColumnChunkInfo readColumnChunk(@NotNull ThriftCompactReader reader) throws IOException {
+        ColumnChunkInfo chunk = new ColumnChunkInfo();
+        reader.beginStruct();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1 -> chunk.filePath = reader.readString();
+                case 3 -> {
+                    reader.beginStruct();
+                    while (reader.nextField()) {
+                        switch (reader.getFieldId()) {
+                            case 4 -> chunk.codec = reader.readI32();
+                            case 5 -> chunk.numValues = reader.readI64();
+                            case 7 -> chunk.compressedSize = reader.readI64();
+                            case 9 -> chunk.dataPageOffset = reader.readI64();
+                            case 11 -> chunk.dictionaryPageOffset = reader.readI64();
+                            default -> reader.skipField();
+                        }
+                    }
+                }
+                default -> reader.skipField();
+            }
+        }
+        return chunk;
+    }
+
+    ////////////////////////////////////////////////////////
+    // Column data
+
+    private class ColumnReader {
+        private final ParquetColumn column;
+        private final ParquetCodec codec;
+        private final InputStream input;
+        private long valuesLeft;
+        private Object[] dictionary;
+        // Current page
+        private int pageValuesLeft;
+        private int[] levels;
+        private int levelIndex;
+        private Object[] values;
+        private int valueIndex;
+
+        ColumnReader(@NotNull ParquetColumn column, @NotNull ColumnChunkInfo chunk) throws IOException {
+            if (chunk.filePath != null) {
+                throw new IOException("External Parquet column chunks are not supported");
+            }
+            if (chunk.codec < 0 || chunk.codec >= ParquetCodec.values().length) {
+                throw new IOException("Unknown Parquet compression codec: " + chunk.codec);
+            }
+            this.column = column;
+            this.codec = ParquetCodec.values()[chunk.codec];
+            long start = chunk.dataPageOffset;
+            if (chunk.dictionaryPageOffset > 0 && chunk.dictionaryPageOffset < start) {
+                start = chunk.dictionaryPageOffset;
+            }
+            this.input = new BufferedInputStream(new ChannelInputStream(start, start + chunk.compressedSize), READ_BUFFER_SIZE);
+            this.valuesLeft = chunk.numValues;
+        }
+
+        @Nullable
+        Object next() throws IOException {
+            while (pageValuesLeft == 0) {
+                if (valuesLeft <= 0) {
+                    throw new IOException("Not enough values in column '" + column.getName() + "'");
+                }
+                readPage();
+            }
+            pageValuesLeft--;
+            if (levels != null && levels[levelIndex++] == 0) {
+                return null;
+            }
+            return values[valueIndex++];
+        }
+
+        private void readPage() throws IOException {
+            PageHeader header = readPageHeader(new ThriftCompactReader(input));
+            byte[] data = input.readNBytes(header.compressedSize);
+            if (data.length != header.compressedSize) {
+                throw new EOFException("Unexpected end of column '" + column.getName() + "' data");
+            }
+            switch (header.type) {
+                case PAGE_TYPE_DICTIONARY -> {
+                    data = decompress(data, header.uncompressedSize);
+                    dictionary = new Object[header.numValues];
+                    decodePlain(new DataInput(data, 0, data.length), dictionary, header.numValues);
+                }
+                case PAGE_TYPE_DATA -> {
+                    data = decompress(data, header.uncompressedSize);
+                    DataInput in = new DataInput(data, 0, data.length);
+                    int valueCount = header.numValues;
+                    if (column.isOptional()) {
+                        int levelsLength = in.readIntLE();
+                        valueCount = readLevels(in.data, in.pos, in.pos + levelsLength, header.numValues);
+                        in.pos += levelsLength;
+                    } else {
+                        levels = null;
+                    }
+                    readValues(header.encoding, in, valueCount);
+                    startPage(header.numValues);
+                }
+                case PAGE_TYPE_DATA_V2 -> {
+                    int levelsEnd = header.repetitionLevelsLength + header.definitionLevelsLength;
+                    if (column.isOptional()) {
+                        readLevels(data, header.repetitionLevelsLength, levelsEnd, header.numValues);
+                    } else {
+                        levels = null;
+                    }
+                    byte[] valuesData = Arrays.copyOfRange(data, levelsEnd, data.length);
+                    if (header.compressed) {
+                        valuesData = decompress(valuesData, header.uncompressedSize - levelsEnd);
+                    }
+                    readValues(header.encoding, new DataInput(valuesData, 0, valuesData.length), header.numValues - header.numNulls);
+                    startPage(header.numValues);
+                }
+                default -> {
+                    // Index pages are ignored
+                }
+            }
+        }
+
+        private void startPage(int valueCount) {
+            pageValuesLeft = valueCount;
+            valuesLeft -= valueCount;
+            levelIndex = 0;
+            valueIndex = 0;
+        }
+
+        /**
+         * Reads definition levels and returns number of non-null values
+         */
+        private int readLevels(@NotNull byte[] data, int start, int end, int count) throws IOException {
+            if (levels == null || levels.length < count) {
+                levels = new int[count];
+            }
+            decodeRleBitPacked(data, start, end, 1, levels, count);
+            int nonNullCount = 0;
+            for (int i = 0; i < count; i++) {
+                nonNullCount += levels[i];
+            }
+            return nonNullCount;
+        }
+
+        private void readValues(int encoding, @NotNull DataInput in, int count) throws IOException {
+            if (values == null || values.length < count) {
+                values = new Object[count];
+            }
+            switch (encoding) {
+                case ENCODING_PLAIN -> decodePlain(in, values, count);
+                case ENCODING_PLAIN_DICTIONARY, ENCODING_RLE_DICTIONARY -> {
+                    if (dictionary == null) {
+                        throw new IOException("Dictionary page is missing for column '" + column.getName() + "'");
+                    }
+                    int bitWidth = in.readByte();
+                    int[] indexes = new int[count];
+                    decodeRleBitPacked(in.data, in.pos, in.end, bitWidth, indexes, count);
+                    for (int i = 0; i < count; i++) {
+                        values[i] = dictionary[indexes[i]];
+                    }
+                }
+                case ENCODING_RLE -> {
+                    // Booleans only
+                    int length = in.readIntLE();
+                    int[] bits = new int[count];
+                    decodeRleBitPacked(in.data, in.pos, in.pos + length, 1, bits, count);
+                    for (int i = 0; i < count; i++) {
+                        values[i] = bits[i] != 0;
+                    }
+                }
+                case ENCODING_DELTA_BINARY_PACKED -> {
+                    long[] numbers = decodeDeltaBinaryPacked(in);
+                    for (int i = 0; i < count; i++) {
+                        values[i] = convertValue(column, column.getPhysicalType() == ParquetColumn.PhysicalType.INT32 ? (Object) (int) numbers[i] : (Object) numbers[i]);
+                    }
+                }
+                case ENCODING_DELTA_LENGTH_BYTE_ARRAY -> {
+                    long[] lengths = decodeDeltaBinaryPacked(in);
+                    for (int i = 0; i < count; i++) {
+                        values[i] = convertValue(column, in.readBytes((int) lengths[i]));
+                    }
+                }
+                case ENCODING_DELTA_BYTE_ARRAY -> {
+                    long[] prefixLengths = decodeDeltaBinaryPacked(in);
+                    long[] suffixLengths = decodeDeltaBinaryPacked(in);
+                    byte[] previous = new byte[0];
+                    for (int i = 0; i < count; i++) {
+                        int prefixLength = (int) prefixLengths[i];
+                        byte[] value = Arrays.copyOf(previous, prefixLength + (int) suffixLengths[i]);
+                        System.arraycopy(in.readBytes((int) suffixLengths[i]), 0, value, prefixLength, (int) suffixLengths[i]);
+                        values[i] = convertValue(column, value);
+                        previous = value;
+                    }
+                }
+                default -> throw new IOException("Parquet encoding " + encoding + " is not supported");
+            }
+        }
+
+        private void decodePlain(@NotNull DataInput in, @NotNull Object[] result, int count) throws IOException {
+            ParquetColumn.PhysicalType type = column.getPhysicalType();
+            byte[] bits = type == ParquetColumn.PhysicalType.BOOLEAN ? in.readBytes((count + 7) / 8) : null;
+            for (int i = 0; i < count; i++) {
+                Object value = switch (type) {
+                    case BOOLEAN -> ((bits[i >> 3] >> (i & 7)) & 1) != 0;
+                    case INT32 -> in.readIntLE();
+                    case INT64 -> in.readLongLE();
+                    case INT96 -> in.readBytes(12);
+                    case FLOAT -> Float.intBitsToFloat(in.readIntLE());
+                    case DOUBLE -> Double.longBitsToDouble(in.readLongLE());
+                    case BYTE_ARRAY -> in.readBytes(in.readIntLE());
+                    case FIXED_LEN_BYTE_ARRAY -> in.readBytes(column.getTypeLength());
+                };
+                result[i] = convertValue(column, value);
+            }
+        }
+
+        @NotNull
+        private byte[] decompress(@NotNull byte[] data, int uncompressedSize) throws IOException {
+            switch (codec) {
+                case UNCOMPRESSED:
+                    return data;
+                case GZIP:
+                    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                        return in.readNBytes(uncompressedSize);
+                    }
+                case SNAPPY:
+                    return decompressSnappy(data);
+                default:
+                    throw new IOException("Parquet compression codec " + codec + " is not supported");
+            }
+        }
+    }
+
+    @NotNull
+    private static PageHeader readPageHeader(@NotNull ThriftCompactReader reader) throws IOException {
+        PageHeader header = new PageHeader();
+        reader.beginStruct();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1 -> header.type = reader.readI32();
+                case 2 -> header.uncompressedSize = reader.readI32();
+                case 3 -> header.compressedSize = reader.readI32();
+                case 5, 7, 8 -> {
+                    int pageHeaderType = reader.getFieldId();
+                    reader.beginStruct();
+                    while (reader.nextField()) {
+                        switch (pageHeaderType * 100 + reader.getFieldId()) {
+                            case 501, 701, 801 -> header.numValues = reader.readI32();
+                            case 502, 702, 804 -> header.encoding = reader.readI32();
+                            case 802 -> header.numNulls = reader.readI32();
+                            case 805 -> header.definitionLevelsLength = reader.readI32();
+                            case 806 -> header.repetitionLevelsLength = reader.readI32();
+                            case 807 -> header.compressed = reader.readBoolField();
+                            default -> reader.skipField();
+                        }
+                    }
+                }
+                default -> reader.skipField();
+            }
+        }
+        if (header.compressedSize < 0 || header.uncompressedSize < 0 || header.numValues < 0) {
+            throw new IOException("Bad Parquet page header");
+        }
+        return header;
+    }
+
+    ////////////////////////////////////////////////////////
+    // Values
+
+    @NotNull
+    static Object convertValue(@NotNull ParquetColumn column, @NotNull Object value) {
+        switch (column.getLogicalType()) {
+            case STRING, ENUM, JSON:
+                return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : value;
+            case DECIMAL: {
+                BigInteger unscaled;
+                if (value instanceof byte[] bytes) {
+                    unscaled = bytes.length == 0 ? BigInteger.ZERO : new BigInteger(bytes);
+                } else {
+                    unscaled = BigInteger.valueOf(((Number) value).longValue());
+                }
+                return new BigDecimal(unscaled, column.getScale());
+            }
+            case DATE:
+                return java.sql.Date.valueOf(LocalDate.ofEpochDay(((Number) value).longValue()));
+            case TIME: {
+                long nanos = toNanos(column.getTimeUnit(), ((Number) value).longValue());
+                LocalTime localTime = LocalTime.ofNanoOfDay(Math.floorMod(nanos, 86400_000_000_000L));
+                return new Time(Timestamp.valueOf(LocalDate.ofEpochDay(0).atTime(localTime)).getTime());
+            }
+            case TIMESTAMP: {
+                long nanos = toNanos(column.getTimeUnit(), ((Number) value).longValue());
+                long seconds = Math.floorDiv(nanos, 1_000_000_000L);
+                int nanoAdjustment = (int) Math.floorMod(nanos, 1_000_000_000L);
+                if (column.isAdjustedToUTC()) {
+                    return Timestamp.from(Instant.ofEpochSecond(seconds, nanoAdjustment));
+                }
+                return Timestamp.valueOf(LocalDateTime.ofEpochSecond(seconds, nanoAdjustment, ZoneOffset.UTC));
+            }
+            case INTEGER:
+                if (!column.isSigned()) {
+                    if (value instanceof Integer intValue) {
+                        return column.getBitWidth() == 32 ? Integer.toUnsignedLong(intValue) : intValue;
+                    } else if (value instanceof Long longValue && longValue < 0) {
+                        return new BigInteger(Long.toUnsignedString(longValue));
+                    }
+                }
+                return value;
+            case UUID:
+                if (value instanceof byte[] bytes && bytes.length == 16) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    return new UUID(buffer.getLong(), buffer.getLong()).toString();
+                }
+                return value;
+            default:
+                if (column.getPhysicalType() == ParquetColumn.PhysicalType.INT96 && value instanceof byte[] bytes) {
+                    // Legacy timestamp: nanos of day and Julian day
+                    long nanosOfDay = readLongLE(bytes, 0);
+                    long epochDay = (readIntLE(bytes, 8) & 0xFFFFFFFFL) - JULIAN_EPOCH_DAY;
+                    return Timestamp.from(Instant.ofEpochSecond(epochDay * 86400, nanosOfDay));
+                }
+                return value;
+        }
+    }
+
+    private static long toNanos(@NotNull ParquetColumn.TimeUnit unit, long value) {
+        return switch (unit) {
+            case MILLIS -> value * 1_000_000L;
+            case MICROS -> value * 1_000L;
+            case NANOS -> value;
+        };
+    }
+
+    /**
+     * Decodes RLE/bit-packing hybrid encoded values
+     */
+    @ForTest
+    public static void decodeRleBitPacked(@NotNull byte[] data, int pos, int end, int bitWidth, @NotNull int[] result, int count) throws IOException {
+        int byteWidth = (bitWidth + 7) / 8;
+        int index = 0;
+        while (index < count) {
+            if (pos >= end) {
+                throw new IOException("Unexpected end of RLE data");
+            }
+            int header = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = data[pos++] & 0xFF;
+                header |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if ((header & 1) == 0) {
+                int value = 0;
+                for (int i = 0; i < byteWidth; i++) {
+                    value |= (data[pos++] & 0xFF) << (i * 8);
+                }
+                int length = Math.min(header >>> 1, count - index);
+                Arrays.fill(result, index, index + length, value);
+                index += length;
+            } else {
+                int groups = header >>> 1;
+                int length = Math.min(groups * 8, count - index);
+                long bitPos = (long) pos * 8;
+                for (int i = 0; i < length; i++) {
+                    result[index++] = (int) readBits(data, bitPos, bitWidth);
+                    bitPos += bitWidth;
+                }
+                pos += groups * bitWidth;
+            }
+        }
+    }
+
+    @NotNull
+    static long[] decodeDeltaBinaryPacked(@NotNull DataInput in) throws IOException {
+        int blockSize = (int) in.readVarLong();
+        int miniBlockCount = (int) in.readVarLong();
+        int totalCount = (int) in.readVarLong();
+        long value = in.readZigZagLong();
+        if (miniBlockCount <= 0 || blockSize % miniBlockCount != 0 || totalCount < 0) {
+            throw new IOException("Bad DELTA_BINARY_PACKED header");
+        }
+        int miniBlockSize = blockSize / miniBlockCount;
+        long[] result = new long[totalCount];
+        if (totalCount == 0) {
+            return result;
+        }
+        result[0] = value;
+        int index = 1;
+        int[] bitWidths = new int[miniBlockCount];
+        while (index < totalCount) {
+            long minDelta = in.readZigZagLong();
+            for (int i = 0; i < miniBlockCount; i++) {
+                bitWidths[i] = in.readByte();
+            }
+            for (int i = 0; i < miniBlockCount && index < totalCount; i++) {
+                int bitWidth = bitWidths[i];
+                long bitPos = (long) in.pos * 8;
+                for (int k = 0; k < miniBlockSize && index < totalCount; k++) {
+                    value += minDelta + readBits(in.data, bitPos, bitWidth);
+                    result[index++] = value;
+                    bitPos += bitWidth;
+                }
+                in.pos += miniBlockSize * bitWidth / 8;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads little-endian bit-packed value
+     */
+    private static long readBits(@NotNull byte[] data, long bitPos, int bitWidth) {
+        long result = 0;
+        int shift = 0;
+        while (shift < bitWidth) {
+            int bytePos = (int) (bitPos >>> 3);
+            if (bytePos >= data.length) {
+                break;
+            }
+            int bitOffset = (int) (bitPos & 7);
+            int bitCount = Math.min(8 - bitOffset, bitWidth - shift);
+            long bits = ((data[bytePos] & 0xFF) >>> bitOffset) & ((1 << bitCount) - 1);
+            result |= bits << shift;
+            shift += bitCount;
+            bitPos += bitCount;
+        }
+        return result;
+    }
+
+    @ForTest
+    @NotNull
+    public static byte[] decompressSnappy(@NotNull byte[] data) throws IOException {
+        try {
+            int pos = 0;
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = data[pos++] & 0xFF;
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            byte[] result = new byte[length];
+            int resultPos = 0;
+            while (pos < data.length) {
+                int tag = data[pos++] & 0xFF;
+                int copyLength;
+                int offset;
+                switch (tag & 3) {
+                    case 0 -> {
+                        int literalLength = tag >>> 2;
+                        if (literalLength >= 60) {
+                            int lengthBytes = literalLength - 59;
+                            literalLength = 0;
+                            for (int i = 0; i < lengthBytes; i++) {
+                                literalLength |= (data[pos++] & 0xFF) << (i * 8);
+                            }
+                        }
+                        literalLength++;
+                        System.arraycopy(data, pos, result, resultPos, literalLength);
+                        pos += literalLength;
+                        resultPos += literalLength;
+                        continue;
+                    }
+                    case 1 -> {
+                        copyLength = 4 + ((tag >>> 2) & 7);
+                        offset = ((tag >>> 5) << 8) | (data[pos++] & 0xFF);
+                    }
+                    case 2 -> {
+                        copyLength = (tag >>> 2) + 1;
+                        offset = (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8;
+                        pos += 2;
+                    }
+                    default -> {
+                        copyLength = (tag >>> 2) + 1;
+                        offset = readIntLE(data, pos);
+                        pos += 4;
+                    }
+                }
+                if (offset <= 0 || offset > resultPos) {
+                    throw new IOException("Bad Snappy copy offset");
+                }
+                // Copy may overlap
+                for (int i = 0; i < copyLength; i++, resultPos++) {
+                    result[resultPos] = result[resultPos - offset];
+                }
+            }
+            if (resultPos != length) {
+                throw new IOException("Bad Snappy uncompressed length");
+            }
+            return result;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted Snappy data", e);
+        }
+    }
+
+    private static int readIntLE(@NotNull byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    private static long readLongLE(@NotNull byte[] data, int pos) {
+        return (readIntLE(data, pos) & 0xFFFFFFFFL) | ((long) readIntLE(data, pos + 4) << 32);
+    }
+
+    @NotNull
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        channel.position(position);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Reads part of the file. Channel position is set before each read,
+     * so several streams can read different parts of the file.
+     */
+    private class ChannelInputStream extends InputStream {
+        private long position;
+        private final long end;
+
+        ChannelInputStream(long position, long end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            len = (int) Math.min(len, end - position);
+            channel.position(position);
+            int count = channel.read(ByteBuffer.wrap(b, off, len));
+            if (count > 0) {
+                position += count;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Page data reader
+     */
+    static class DataInput {
+        final byte[] data;
+        final int end;
+        int pos;
+
+        DataInput(@NotNull byte[] data, int pos, int end) {
+            this.data = data;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        int readByte() throws IOException {
+            checkAvailable(1);
+            return data[pos++] & 0xFF;
+        }
+
+        int readIntLE() throws IOException {
+            checkAvailable(4);
+            int value = ParquetFileReader.readIntLE(data, pos);
+            pos += 4;
+            return value;
+        }
+
+        long readLongLE() throws IOException {
+            checkAvailable(8);
+            long value = ParquetFileReader.readLongLE(data, pos);
+            pos += 8;
+            return value;
+        }
+
+        @NotNull
+        byte[] readBytes(int length) throws IOException {
+            checkAvailable(length);
+            byte[] value = Arrays.copyOfRange(data, pos, pos + length);
+            pos += length;
+            return value;
+        }
+
+        long readVarLong() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Bad varint");
+        }
+
+        long readZigZagLong() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private void checkAvailable(int length) throws IOException {
+            if (length < 0 || pos + length > end) {
+                throw new EOFException("Unexpected end of Parquet page data");
+            }
+        }
+    }
+
+    private static class SchemaElement {
+        int type = -1;
+        int typeLength;
+        int repetitionType = 1;
+        String name;
+        int numChildren;
+        int scale;
+        int precision;
+        ParquetColumn.LogicalType logicalType = ParquetColumn.LogicalType.NONE;
+        ParquetColumn.TimeUnit timeUnit = ParquetColumn.TimeUnit.MICROS;
+        boolean adjustedToUTC;
+        int bitWidth;
+        boolean signed = true;
+    }
+
+    private static class RowGroupInfo {
+        final List<ColumnChunkInfo> chunks = new ArrayList<>();
+        long numRows;
+    }
+
+    private static class ColumnChunkInfo {
+        String filePath;
+        int codec;
+        long numValues;
+        long compressedSize;
+        long dataPageOffset;
+        long dictionaryPageOffset;
+    }
+
+    private static class PageHeader {
+        int type;
+        int uncompressedSize;
+        int compressedSize;
+        int numValues;
+        int numNulls;
+        int encoding;
+        int definitionLevelsLength;
+        int repetitionLevelsLength;
+        boolean compressed = true;
+    }
+}
@@ -0,0 +1,744 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Parquet file writer.
+ * <p>
+ * Rows are buffered column by column and written as row groups. Column values are PLAIN-encoded,
+ * definition levels are RLE/bit-packed. Pages are compressed as soon as they are full, so memory usage
+ * is limited by the row group size. Writer supports flat schemas only.
+ */
+public class ParquetFileWriter {
+
+    public static final long DEFAULT_ROW_GROUP_SIZE = 64L * 1024 * 1024;
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+
+    static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    static final int PAGE_TYPE_DATA = 0;
+    static final int PAGE_TYPE_DICTIONARY = 2;
+    static final int PAGE_TYPE_DATA_V2 = 3;
+
+    static final int ENCODING_PLAIN = 0;
+    static final int ENCODING_PLAIN_DICTIONARY = 2;
+    static final int ENCODING_RLE = 3;
+    static final int ENCODING_BIT_PACKED = 4;
+    static final int ENCODING_DELTA_BINARY_PACKED = 5;
+    static final int ENCODING_DELTA_LENGTH_BYTE_ARRAY = 6;
+    static final int ENCODING_DELTA_BYTE_ARRAY = 7;
+    static final int ENCODING_RLE_DICTIONARY = 8;
+
+    private static final String CREATED_BY = "DBeaver";
+    private static final int FILE_FORMAT_VERSION = 1;
+    // Check buffered size each N rows
+    private static final int ROW_GROUP_CHECK_INTERVAL = 64;
+    private static final int MAX_PAGE_VALUES = 20000;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final OutputStream out;
+    private final List<ParquetColumn> columns;
+    private final ParquetCodec codec;
+    private final long rowGroupSize;
+    private final int pageSize;
+    private final ColumnWriter[] columnWriters;
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private final PageBuffer pageBody = new PageBuffer(64 * 1024);
+    private final PageBuffer compressedBody = new PageBuffer(64 * 1024);
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+    private Deflater deflater;
+    private CRC32 crc;
+    private long position;
+    private long rowGroupRows;
+    private long totalRows;
+
+    public ParquetFileWriter(@NotNull OutputStream out, @NotNull List<ParquetColumn> columns) {
+        this(out, columns, ParquetCodec.GZIP, DEFAULT_ROW_GROUP_SIZE, DEFAULT_PAGE_SIZE);
+    }
+
+    public ParquetFileWriter(
+        @NotNull OutputStream out,
+        @NotNull List<ParquetColumn> columns,
+        @NotNull ParquetCodec codec,
+        long rowGroupSize,
+        int pageSize
+    ) {
+        if (codec != ParquetCodec.UNCOMPRESSED && codec != ParquetCodec.GZIP) {
+            throw new IllegalArgumentException("Parquet codec " + codec + " is not supported for writing");
+        }
+        this.out = out;
+        this.columns = columns;
+        this.codec = codec;
+        this.rowGroupSize = rowGroupSize;
+        this.pageSize = pageSize;
+        this.columnWriters = new ColumnWriter[columns.size()];
+        for (int i = 0; i < columnWriters.length; i++) {
+            columnWriters[i] = new ColumnWriter(columns.get(i));
+        }
+    }
+
+    /**
+     * Writes row. Values must match column physical types: Boolean for BOOLEAN, Number for numeric types,
+     * byte[] for binary types. NULLs are allowed only in optional columns.
+     */
+    public void writeRow(@NotNull Object[] row) throws IOException {
+        if (position == 0) {
+            writeBytes(MAGIC, 0, MAGIC.length);
+        }
+        for (int i = 0; i < columnWriters.length; i++) {
+            columnWriters[i].add(row[i]);
+        }
+        rowGroupRows++;
+        if (rowGroupRows % ROW_GROUP_CHECK_INTERVAL == 0 && getBufferedSize() >= rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * Writes buffered rows and file footer. Doesn't close the output stream.
+     */
+    public void finish() throws IOException {
+        try {
+            if (position == 0) {
+                writeBytes(MAGIC, 0, MAGIC.length);
+            }
+            flushRowGroup();
+
+            PageBuffer footer = new PageBuffer(1024 + rowGroups.size() * columns.size() * 128);
+            writeFileMetaData(new ThriftCompactWriter(footer));
+            footer.writeIntLE(footer.size());
+            footer.write(MAGIC);
+            writeBytes(footer.getBuffer(), 0, footer.size());
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+                deflater = null;
+            }
+        }
+    }
+
+    private long getBufferedSize() {
+        long size = 0;
+        for (ColumnWriter writer : columnWriters) {
+            size += writer.getBufferedSize();
+        }
+        return size;
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rowGroupRows == 0) {
+            return;
+        }
+        RowGroupInfo rowGroup = new RowGroupInfo(columnWriters.length);
+        rowGroup.fileOffset = position;
+        rowGroup.numRows = rowGroupRows;
+        for (int i = 0; i < columnWriters.length; i++) {
+            ColumnWriter writer = columnWriters[i];
+            writer.sealPage();
+            ColumnChunkInfo chunk = new ColumnChunkInfo();
+            chunk.dataPageOffset = position;
+            chunk.numValues = writer.chunkValueCount;
+            chunk.nullCount = writer.chunkNullCount;
+            chunk.uncompressedSize = writer.chunkUncompressedSize;
+            chunk.compressedSize = writer.chunk.size();
+            chunk.minValue = writer.getMinValue();
+            chunk.maxValue = writer.getMaxValue();
+            writeBytes(writer.chunk.getBuffer(), 0, writer.chunk.size());
+            writer.resetChunk();
+
+            rowGroup.chunks[i] = chunk;
+            rowGroup.totalByteSize += chunk.uncompressedSize;
+            rowGroup.totalCompressedSize += chunk.compressedSize;
+        }
+        rowGroups.add(rowGroup);
+        totalRows += rowGroupRows;
+        rowGroupRows = 0;
+    }
+
+    private void writeBytes(byte[] data, int offset, int length) throws IOException {
+        out.write(data, offset, length);
+        position += length;
+    }
+
+    @NotNull
+    private PageBuffer compress(@NotNull PageBuffer data) {
+        if (codec == ParquetCodec.UNCOMPRESSED) {
+            return data;
+        }
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            crc = new CRC32();
+        }
+        PageBuffer result = compressedBody;
+        result.reset();
+        result.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        deflater.reset();
+        deflater.setInput(data.getBuffer(), 0, data.size());
+        deflater.finish();
+        while (!deflater.finished()) {
+            int length = deflater.deflate(deflateBuffer);
+            result.write(deflateBuffer, 0, length);
+        }
+        crc.reset();
+        crc.update(data.getBuffer(), 0, data.size());
+        result.writeIntLE((int) crc.getValue());
+        result.writeIntLE(data.size());
+        return result;
+    }
+
+    private void writeFileMetaData(@NotNull ThriftCompactWriter writer) throws IOException {
+        boolean hasMinMax = false;
+        for (ColumnWriter columnWriter : columnWriters) {
+            hasMinMax |= columnWriter.supportsMinMax();
+        }
+
+        writer.beginStruct();
+        writer.writeI32Field(1, FILE_FORMAT_VERSION);
+        writer.beginListField(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1);
+        {
+            // Root
+            writer.beginStruct();
+            writer.writeStringField(4, "schema");
+            writer.writeI32Field(5, columns.size());
+            writer.endStruct();
+        }
+        for (ParquetColumn column : columns) {
+            writeSchemaElement(writer, column);
+        }
+        writer.writeI64Field(3, totalRows);
+        writer.beginListField(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupInfo rowGroup : rowGroups) {
+            writeRowGroup(writer, rowGroup);
+        }
+        writer.writeStringField(6, CREATED_BY);
+        if (hasMinMax) {
+            // Min/max statistics are only used by readers if column order is defined
+            writer.beginListField(7, ThriftCompactWriter.TYPE_STRUCT, columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                writer.beginStruct();
+                writer.beginStructField(1);
+                writer.endStruct();
+                writer.endStruct();
+            }
+        }
+        writer.endStruct();
+    }
+
+    private static void writeSchemaElement(@NotNull ThriftCompactWriter writer, @NotNull ParquetColumn column) throws IOException {
+        writer.beginStruct();
+        writer.writeI32Field(1, column.getPhysicalType().ordinal());
+        if (column.getPhysicalType() == ParquetColumn.PhysicalType.FIXED_LEN_BYTE_ARRAY) {
+            writer.writeI32Field(2, column.getTypeLength());
+        }
+        writer.writeI32Field(3, column.isOptional() ? 1 : 0);
+        writer.writeStringField(4, column.getName());
+        int convertedType = getConvertedType(column);
+        if (convertedType >= 0) {
+            writer.writeI32Field(6, convertedType);
+        }
+        if (column.getLogicalType() == ParquetColumn.LogicalType.DECIMAL) {
+            writer.writeI32Field(7, column.getScale());
+            writer.writeI32Field(8, column.getPrecision());
+        }
+        if (column.getLogicalType() != ParquetColumn.LogicalType.NONE) {
+            writer.beginStructField(10);
+            writeLogicalType(writer, column);
+            writer.endStruct();
+        }
+        writer.endStruct();
+    }
+
+    private static void writeLogicalType(@NotNull ThriftCompactWriter writer, @NotNull ParquetColumn column) throws IOException {
+        switch (column.getLogicalType()) {
+            case STRING -> writeEmptyStruct(writer, 1);
+            case ENUM -> writeEmptyStruct(writer, 4);
+            case DECIMAL -> {
+                writer.beginStructField(5);
+                writer.writeI32Field(1, column.getScale());
+                writer.writeI32Field(2, column.getPrecision());
+                writer.endStruct();
+            }
+            case DATE -> writeEmptyStruct(writer, 6);
+            case TIME, TIMESTAMP -> {
+                writer.beginStructField(column.getLogicalType() == ParquetColumn.LogicalType.TIME ? 7 : 8);
+                writer.writeBoolField(1, column.isAdjustedToUTC());
+                writer.beginStructField(2);
+                writeEmptyStruct(writer, column.getTimeUnit().ordinal() + 1);
+                writer.endStruct();
+                writer.endStruct();
+            }
+            case INTEGER -> {
+                writer.beginStructField(10);
+                writer.writeByteField(1, (byte) column.getBitWidth());
+                writer.writeBoolField(2, column.isSigned());
+                writer.endStruct();
+            }
+            case JSON -> writeEmptyStruct(writer, 12);
+            case BSON -> writeEmptyStruct(writer, 13);
+            case UUID -> writeEmptyStruct(writer, 14);
+            default -> throw new IOException("Unsupported logical type " + column.getLogicalType());
+        }
+    }
+
+    private static void writeEmptyStruct(@NotNull ThriftCompactWriter writer, int fieldId) throws IOException {
+        writer.beginStructField(fieldId);
+        writer.endStruct();
+    }
+
+    /**
+     * Returns legacy converted type for old readers or -1 if there is no matching converted type
+     */
+    private static int getConvertedType(@NotNull ParquetColumn column) {
+        return switch (column.getLogicalType()) {
+            case STRING -> 0;
+            case ENUM -> 4;
+            case DECIMAL -> 5;
+            case DATE -> 6;
+            case TIME -> !column.isAdjustedToUTC() ? -1 : switch (column.getTimeUnit()) {
+                case MILLIS -> 7;
+                case MICROS -> 8;
+                default -> -1;
+            };
+            case TIMESTAMP -> !column.isAdjustedToUTC() ? -1 : switch (column.getTimeUnit()) {
+                case MILLIS -> 9;
+                case MICROS -> 10;
+                default -> -1;
+            };
+            case INTEGER -> switch (column.getBitWidth()) {
+                case 8 -> column.isSigned() ? 15 : 11;
+                case 16 -> column.isSigned() ? 16 : 12;
+                case 32 -> column.isSigned() ? 17 : 13;
+                case 64 -> column.isSigned() ? 18 : 14;
+                default -> -1;
+            };
+            case JSON -> 19;
+            case BSON -> 20;
+            default -> -1;
+        };
+    }
+
+    private void writeRowGroup(@NotNull ThriftCompactWriter writer, @NotNull RowGroupInfo rowGroup) throws IOException {
+        writer.beginStruct();
+        writer.beginListField(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.chunks.length);
+        for (int i = 0; i < rowGroup.chunks.length; i++) {
+            ParquetColumn column = columns.get(i);
+            ColumnChunkInfo chunk = rowGroup.chunks[i];
+            writer.beginStruct();
+            writer.writeI64Field(2, chunk.dataPageOffset);
+            writer.beginStructField(3);
+            {
+                writer.writeI32Field(1, column.getPhysicalType().ordinal());
+                writer.beginListField(2, ThriftCompactWriter.TYPE_I32, 2);
+                writer.writeI32(ENCODING_PLAIN);
+                writer.writeI32(ENCODING_RLE);
+                writer.beginListField(3, ThriftCompactWriter.TYPE_BINARY, 1);
+                writer.writeString(column.getName());
+                writer.writeI32Field(4, codec.ordinal());
+                writer.writeI64Field(5, chunk.numValues);
+                writer.writeI64Field(6, chunk.uncompressedSize);
+                writer.writeI64Field(7, chunk.compressedSize);
+                writer.writeI64Field(9, chunk.dataPageOffset);
+                writer.beginStructField(12);
+                writer.writeI64Field(3, chunk.nullCount);
+                if (chunk.minValue != null && chunk.maxValue != null) {
+                    writer.writeBinaryField(5, chunk.maxValue);
+                    writer.writeBinaryField(6, chunk.minValue);
+                }
+                writer.endStruct();
+            }
+            writer.endStruct();
+            writer.endStruct();
+        }
+        writer.writeI64Field(2, rowGroup.totalByteSize);
+        writer.writeI64Field(3, rowGroup.numRows);
+        writer.writeI64Field(5, rowGroup.fileOffset);
+        writer.writeI64Field(6, rowGroup.totalCompressedSize);
+        writer.endStruct();
+    }
+
+    /**
+     * Writes values using RLE/bit-packing hybrid encoding
+     */
+    static void writeRleBitPacked(@NotNull PageBuffer out, @NotNull byte[] values, int count, int bitWidth) {
+        int byteWidth = (bitWidth + 7) / 8;
+        int pos = 0;
+        while (pos < count) {
+            int runLength = getRunLength(values, pos, count);
+            if (runLength >= 8) {
+                out.writeVarInt(runLength << 1);
+                for (int i = 0; i < byteWidth; i++) {
+                    out.write((values[pos] & 0xFF) >>> (i * 8));
+                }
+                pos += runLength;
+                continue;
+            }
+            // Bit-packed run of 8-value groups. Stop on group boundary when long RLE run begins
+            int start = pos;
+            do {
+                pos += 8;
+            } while (pos < count && getRunLength(values, pos, count) < 8);
+            int groups = (pos - start) / 8;
+            out.writeVarInt((groups << 1) | 1);
+            long buffer = 0;
+            int bufferBits = 0;
+            for (int i = start; i < pos; i++) {
+                int value = i < count ? values[i] & 0xFF : 0;
+                buffer |= (long) value << bufferBits;
+                bufferBits += bitWidth;
+                while (bufferBits >= 8) {
+                    out.write((int) (buffer & 0xFF));
+                    buffer >>>= 8;
+                    bufferBits -= 8;
+                }
+            }
+        }
+    }
+
+    private static int getRunLength(byte[] values, int pos, int count) {
+        int end = pos + 1;
+        while (end < count && values[end] == values[pos]) {
+            end++;
+        }
+        return end - pos;
+    }
+
+    private final class ColumnWriter {
+        private final ParquetColumn column;
+        private final ParquetColumn.PhysicalType type;
+        private final boolean minMaxSupported;
+        // Current page
+        private final PageBuffer values = new PageBuffer(16 * 1024);
+        private byte[] levels = new byte[1024];
+        private int pageValueCount;
+        private int pageNullCount;
+        private int booleanBits;
+        private int booleanBitCount;
+        // Current row group
+        private final PageBuffer chunk = new PageBuffer(16 * 1024);
+        private long chunkValueCount;
+        private long chunkNullCount;
+        private long chunkUncompressedSize;
+        private boolean hasMinMax;
+        private long minLong;
+        private long maxLong;
+        private double minDouble;
+        private double maxDouble;
+
+        ColumnWriter(@NotNull ParquetColumn column) {
+            this.column = column;
+            this.type = column.getPhysicalType();
+            boolean unsignedInteger = column.getLogicalType() == ParquetColumn.LogicalType.INTEGER && !column.isSigned();
+            this.minMaxSupported = !unsignedInteger && switch (type) {
+                case INT32, INT64, FLOAT, DOUBLE -> true;
+                default -> false;
+            };
+        }
+
+        void add(@Nullable Object value) throws IOException {
+            if (column.isOptional()) {
+                if (pageValueCount == levels.length) {
+                    levels = Arrays.copyOf(levels, levels.length * 2);
+                }
+                levels[pageValueCount] = (byte) (value == null ? 0 : 1);
+            } else if (value == null) {
+                throw new IOException("NULL value in required column '" + column.getName() + "'");
+            }
+            pageValueCount++;
+            if (value == null) {
+                pageNullCount++;
+            } else {
+                addValue(value);
+            }
+            if (values.size() >= pageSize || pageValueCount >= MAX_PAGE_VALUES) {
+                sealPage();
+            }
+        }
+
+        private void addValue(@NotNull Object value) throws IOException {
+            switch (type) {
+                case BOOLEAN -> {
+                    if ((Boolean) value) {
+                        booleanBits |= 1 << booleanBitCount;
+                    }
+                    if (++booleanBitCount == 8) {
+                        values.write(booleanBits);
+                        booleanBits = 0;
+                        booleanBitCount = 0;
+                    }
+                }
+                case INT32 -> {
+                    int intValue = ((Number) value).intValue();
+                    values.writeIntLE(intValue);
+                    updateMinMax(intValue);
+                }
+                case INT64 -> {
+                    long longValue = ((Number) value).longValue();
+                    values.writeLongLE(longValue);
+                    updateMinMax(longValue);
+                }
+                case FLOAT -> {
+                    float floatValue = ((Number) value).floatValue();
+                    values.writeIntLE(Float.floatToIntBits(floatValue));
+                    updateMinMax(floatValue);
+                }
+                case DOUBLE -> {
+                    double doubleValue = ((Number) value).doubleValue();
+                    values.writeLongLE(Double.doubleToLongBits(doubleValue));
+                    updateMinMax(doubleValue);
+                }
+                case BYTE_ARRAY -> {
+                    byte[] bytes = (byte[]) value;
+                    values.writeIntLE(bytes.length);
+                    values.write(bytes, 0, bytes.length);
+                }
+                case FIXED_LEN_BYTE_ARRAY, INT96 -> {
+                    byte[] bytes = (byte[]) value;
+                    int length = type == ParquetColumn.PhysicalType.INT96 ? 12 : column.getTypeLength();
+                    if (bytes.length != length) {
+                        throw new IOException("Bad value length " + bytes.length + " for column '" + column.getName() + "'");
+                    }
+                    values.write(bytes, 0, bytes.length);
+                }
+            }
+        }
+
+        private void updateMinMax(long value) {
+            if (!hasMinMax) {
+                minLong = maxLong = value;
+                hasMinMax = true;
+            } else if (value < minLong) {
+                minLong = value;
+            } else if (value > maxLong) {
+                maxLong = value;
+            }
+        }
+
+        private void updateMinMax(double value) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+            if (!hasMinMax) {
+                minDouble = maxDouble = value;
+                hasMinMax = true;
+            } else if (value < minDouble) {
+                minDouble = value;
+            } else if (value > maxDouble) {
+                maxDouble = value;
+            }
+        }
+
+        boolean supportsMinMax() {
+            return minMaxSupported;
+        }
+
+        @Nullable
+        byte[] getMinValue() {
+            if (!minMaxSupported || !hasMinMax) {
+                return null;
+            }
+            // -0.0 must be used as min if zero value is present
+            return encodeStatValue(minLong, minDouble == 0 ? -0.0 : minDouble);
+        }
+
+        @Nullable
+        byte[] getMaxValue() {
+            if (!minMaxSupported || !hasMinMax) {
+                return null;
+            }
+            return encodeStatValue(maxLong, maxDouble == 0 ? 0.0 : maxDouble);
+        }
+
+        @NotNull
+        private byte[] encodeStatValue(long longValue, double doubleValue) {
+            PageBuffer buffer = new PageBuffer(8);
+            switch (type) {
+                case INT32 -> buffer.writeIntLE((int) longValue);
+                case INT64 -> buffer.writeLongLE(longValue);
+                case FLOAT -> buffer.writeIntLE(Float.floatToIntBits((float) doubleValue));
+                default -> buffer.writeLongLE(Double.doubleToLongBits(doubleValue));
+            }
+            return buffer.toByteArray();
+        }
+
+        long getBufferedSize() {
+            return chunk.size() + values.size() + pageValueCount / 8;
+        }
+
+        void sealPage() throws IOException {
+            if (pageValueCount == 0) {
+                return;
+            }
+            if (booleanBitCount > 0) {
+                values.write(booleanBits);
+                booleanBits = 0;
+                booleanBitCount = 0;
+            }
+            PageBuffer body = pageBody;
+            body.reset();
+            if (column.isOptional()) {
+                // V1 data page: length-prefixed definition levels
+                int lengthPos = body.size();
+                body.writeIntLE(0);
+                writeRleBitPacked(body, levels, pageValueCount, 1);
+                body.setIntLE(lengthPos, body.size() - lengthPos - 4);
+            }
+            body.write(values.getBuffer(), 0, values.size());
+            int uncompressedSize = body.size();
+            PageBuffer data = compress(body);
+
+            int headerStart = chunk.size();
+            ThriftCompactWriter header = new ThriftCompactWriter(chunk);
+            header.beginStruct();
+            header.writeI32Field(1, PAGE_TYPE_DATA);
+            header.writeI32Field(2, uncompressedSize);
+            header.writeI32Field(3, data.size());
+            header.beginStructField(5);
+            header.writeI32Field(1, pageValueCount);
+            header.writeI32Field(2, ENCODING_PLAIN);
+            header.writeI32Field(3, ENCODING_RLE);
+            header.writeI32Field(4, ENCODING_RLE);
+            header.endStruct();
+            header.endStruct();
+            int headerSize = chunk.size() - headerStart;
+            chunk.write(data.getBuffer(), 0, data.size());
+
+            chunkUncompressedSize += headerSize + uncompressedSize;
+            chunkValueCount += pageValueCount;
+            chunkNullCount += pageNullCount;
+
+            values.reset();
+            pageValueCount = 0;
+            pageNullCount = 0;
+        }
+
+        void resetChunk() {
+            chunk.reset();
+            chunkValueCount = 0;
+            chunkNullCount = 0;
+            chunkUncompressedSize = 0;
+            hasMinMax = false;
+        }
+    }
+
+    private static class ColumnChunkInfo {
+        long dataPageOffset;
+        long numValues;
+        long nullCount;
+        long uncompressedSize;
+        long compressedSize;
+        byte[] minValue;
+        byte[] maxValue;
+    }
+
+    private static class RowGroupInfo {
+        final ColumnChunkInfo[] chunks;
+        long fileOffset;
+        long numRows;
+        long totalByteSize;
+        long totalCompressedSize;
+
+        RowGroupInfo(int columnCount) {
+            this.chunks = new ColumnChunkInfo[columnCount];
+        }
+    }
+
+    /**
+     * Growable byte buffer with little-endian writes
+     */
+    static class PageBuffer extends OutputStream {
+        private byte[] buf;
+        private int count;
+
+        PageBuffer(int size) {
+            this.buf = new byte[size];
+        }
+
+        byte[] getBuffer() {
+            return buf;
+        }
+
+        int size() {
+            return count;
+        }
+
+        void reset() {
+            count = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) {
+            ensureCapacity(len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        void writeIntLE(int value) {
+            ensureCapacity(4);
+            setIntLE(count, value);
+            count += 4;
+        }
+
+        void writeLongLE(long value) {
+            writeIntLE((int) value);
+            writeIntLE((int) (value >>> 32));
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void setIntLE(int pos, int value) {
+            buf[pos] = (byte) value;
+            buf[pos + 1] = (byte) (value >>> 8);
+            buf[pos + 2] = (byte) (value >>> 16);
+            buf[pos + 3] = (byte) (value >>> 24);
+        }
+
+        private void ensureCapacity(int length) {
+            if (count + length > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + length));
+            }
+        }
+    }
+
+}
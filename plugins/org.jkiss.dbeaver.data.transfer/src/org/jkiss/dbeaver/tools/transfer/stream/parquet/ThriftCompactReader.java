@@ -0,0 +1,213 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.parquet.ThriftCompactWriter.*;
+
+/**
+ * Thrift compact protocol reader.
+ * <p>
+ * Structs are read field by field:
+ * <pre>
+ * reader.beginStruct();
+ * while (reader.nextField()) {
+ *     switch (reader.getFieldId()) {
+ *         case 1 -> value = reader.readI32();
+ *         default -> reader.skipField();
+ *     }
+ * }
+ * </pre>
+ */
+class ThriftCompactReader {
+
+    private static final int MAX_BINARY_LENGTH = 64 * 1024 * 1024;
+
+    private final InputStream in;
+    private short[] fieldIdStack = new short[16];
+    private int stackDepth;
+    private short lastFieldId;
+    private short fieldId;
+    private byte fieldType;
+
+    ThriftCompactReader(@NotNull InputStream in) {
+        this.in = in;
+    }
+
+    void beginStruct() {
+        if (stackDepth == fieldIdStack.length) {
+            fieldIdStack = Arrays.copyOf(fieldIdStack, stackDepth * 2);
+        }
+        fieldIdStack[stackDepth++] = lastFieldId;
+        lastFieldId = 0;
+    }
+
+    /**
+     * Reads next field header. Returns false and ends current struct if there are no more fields.
+     */
+    boolean nextField() throws IOException {
+        int header = readByte();
+        byte type = (byte) (header & 0x0F);
+        if (type == TYPE_STOP) {
+            lastFieldId = fieldIdStack[--stackDepth];
+            return false;
+        }
+        int delta = header >>> 4;
+        if (delta != 0) {
+            fieldId = (short) (lastFieldId + delta);
+        } else {
+            fieldId = (short) readI32();
+        }
+        fieldType = type;
+        lastFieldId = fieldId;
+        return true;
+    }
+
+    short getFieldId() {
+        return fieldId;
+    }
+
+    byte getFieldType() {
+        return fieldType;
+    }
+
+    /**
+     * Reads value of the current boolean field
+     */
+    boolean readBoolField() {
+        return fieldType == TYPE_TRUE;
+    }
+
+    byte readByteValue() throws IOException {
+        return (byte) readByte();
+    }
+
+    int readI32() throws IOException {
+        int value = (int) readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readI64() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @NotNull
+    byte[] readBinary() throws IOException {
+        int length = (int) readVarLong();
+        if (length < 0 || length > MAX_BINARY_LENGTH) {
+            throw new IOException("Bad thrift binary length: " + length);
+        }
+        byte[] value = in.readNBytes(length);
+        if (value.length != length) {
+            throw new EOFException();
+        }
+        return value;
+    }
+
+    @NotNull
+    String readString() throws IOException {
+        return new String(readBinary(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads list header and returns list size. Element type is available via {@link #getFieldType()}.
+     */
+    int readListBegin() throws IOException {
+        int header = readByte();
+        int size = header >>> 4;
+        if (size == 15) {
+            size = (int) readVarLong();
+        }
+        fieldType = (byte) (header & 0x0F);
+        return size;
+    }
+
+    void skipField() throws IOException {
+        skip(fieldType, false);
+    }
+
+    private void skip(byte type, boolean listElement) throws IOException {
+        switch (type) {
+            case TYPE_TRUE, TYPE_FALSE -> {
+                if (listElement) {
+                    readByte();
+                }
+            }
+            case TYPE_BYTE -> readByte();
+            case TYPE_I16, TYPE_I32, TYPE_I64 -> readVarLong();
+            case TYPE_DOUBLE -> skipBytes(8);
+            case TYPE_BINARY -> skipBytes(readVarLong());
+            case TYPE_LIST, TYPE_SET -> {
+                int size = readListBegin();
+                byte elementType = fieldType;
+                for (int i = 0; i < size; i++) {
+                    skip(elementType, true);
+                }
+            }
+            case TYPE_MAP -> {
+                int size = (int) readVarLong();
+                if (size > 0) {
+                    int types = readByte();
+                    for (int i = 0; i < size; i++) {
+                        skip((byte) (types >>> 4), true);
+                        skip((byte) (types & 0x0F), true);
+                    }
+                }
+            }
+            case TYPE_STRUCT -> {
+                beginStruct();
+                while (nextField()) {
+                    skip(fieldType, false);
+                }
+            }
+            default -> throw new IOException("Bad thrift type: " + type);
+        }
+    }
+
+    private void skipBytes(long count) throws IOException {
+        in.skipNBytes(count);
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Bad thrift varint");
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Thrift compact protocol writer. Supports subset of the protocol used by Parquet metadata.
+ */
+class ThriftCompactWriter {
+
+    static final byte TYPE_STOP = 0;
+    static final byte TYPE_TRUE = 1;
+    static final byte TYPE_FALSE = 2;
+    static final byte TYPE_BYTE = 3;
+    static final byte TYPE_I16 = 4;
+    static final byte TYPE_I32 = 5;
+    static final byte TYPE_I64 = 6;
+    static final byte TYPE_DOUBLE = 7;
+    static final byte TYPE_BINARY = 8;
+    static final byte TYPE_LIST = 9;
+    static final byte TYPE_SET = 10;
+    static final byte TYPE_MAP = 11;
+    static final byte TYPE_STRUCT = 12;
+
+    private final OutputStream out;
+    private short[] fieldIdStack = new short[16];
+    private int stackDepth;
+    private short lastFieldId;
+
+    ThriftCompactWriter(@NotNull OutputStream out) {
+        this.out = out;
+    }
+
+    void beginStruct() {
+        if (stackDepth == fieldIdStack.length) {
+            fieldIdStack = Arrays.copyOf(fieldIdStack, stackDepth * 2);
+        }
+        fieldIdStack[stackDepth++] = lastFieldId;
+        lastFieldId = 0;
+    }
+
+    void endStruct() throws IOException {
+        out.write(TYPE_STOP);
+        lastFieldId = fieldIdStack[--stackDepth];
+    }
+
+    void writeBoolField(int fieldId, boolean value) throws IOException {
+        writeFieldHeader(fieldId, value ? TYPE_TRUE : TYPE_FALSE);
+    }
+
+    void writeByteField(int fieldId, byte value) throws IOException {
+        writeFieldHeader(fieldId, TYPE_BYTE);
+        out.write(value);
+    }
+
+    void writeI32Field(int fieldId, int value) throws IOException {
+        writeFieldHeader(fieldId, TYPE_I32);
+        writeI32(value);
+    }
+
+    void writeI64Field(int fieldId, long value) throws IOException {
+        writeFieldHeader(fieldId, TYPE_I64);
+        writeI64(value);
+    }
+
+    void writeBinaryField(int fieldId, @NotNull byte[] value) throws IOException {
+        writeFieldHeader(fieldId, TYPE_BINARY);
+        writeBinary(value);
+    }
+
+    void writeStringField(int fieldId, @NotNull String value) throws IOException {
+        writeBinaryField(fieldId, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes struct field header and begins nested struct. Must be followed by {@link #endStruct()}.
+     */
+    void beginStructField(int fieldId) throws IOException {
+        writeFieldHeader(fieldId, TYPE_STRUCT);
+        beginStruct();
+    }
+
+    /**
+     * Writes list field header. List elements must be written right after the header.
+     */
+    void beginListField(int fieldId, byte elementType, int size) throws IOException {
+        writeFieldHeader(fieldId, TYPE_LIST);
+        if (size < 15) {
+            out.write((size << 4) | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            writeVarInt(size);
+        }
+    }
+
+    void writeI32(int value) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    void writeI64(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeBinary(@NotNull byte[] value) throws IOException {
+        writeVarInt(value.length);
+        out.write(value);
+    }
+
+    void writeString(@NotNull String value) throws IOException {
+        writeBinary(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeFieldHeader(int fieldId, byte type) throws IOException {
+        int delta = fieldId - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            out.write((delta << 4) | type);
+        } else {
+            out.write(type);
+            writeI32(fieldId);
+        }
+        lastFieldId = (short) fieldId;
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+}
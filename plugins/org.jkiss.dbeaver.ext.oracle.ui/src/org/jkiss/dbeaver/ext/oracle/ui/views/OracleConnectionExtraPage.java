@@ -56,6 +56,7 @@ public class OracleConnectionExtraPage extends ConnectionPageAbstract
     private Button useOptimizerHint;
     private Button useSimpleConstraints;
     private Button useAlternativeTableMetadataQuery;
+    private Button useIncrementalRefresh;
     private Button searchInSynonyms;
     private Button showDateAsDate;
 
@@ -122,6 +123,9 @@ public class OracleConnectionExtraPage extends ConnectionPageAbstract
             useAlternativeTableMetadataQuery = UIUtils.createCheckbox(performanceGroup, OracleUIMessages.edit_create_checkbox_content_group_use_another_table_query, false);
             useAlternativeTableMetadataQuery.setToolTipText(OracleUIMessages.edit_create_checkbox_content_group_use_another_table_query_description);
 
+            useIncrementalRefresh = UIUtils.createCheckbox(performanceGroup, OracleUIMessages.edit_create_checkbox_content_group_incremental_refresh, false);
+            useIncrementalRefresh.setToolTipText(OracleUIMessages.edit_create_checkbox_content_group_incremental_refresh_description);
+
             searchInSynonyms = UIUtils.createCheckbox(
                 performanceGroup,
                 OracleUIMessages.edit_create_checkbox_content_group_search_metadata_in_synonyms,
@@ -235,6 +239,10 @@ public class OracleConnectionExtraPage extends ConnectionPageAbstract
             providerProperties.get(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY),
             globalPreferences.getBoolean(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY)
         ));
+        useIncrementalRefresh.setSelection(CommonUtils.getBoolean(
+            providerProperties.get(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH),
+            globalPreferences.getBoolean(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH)
+        ));
         searchInSynonyms.setSelection(CommonUtils.getBoolean(
             providerProperties.get(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS),
             globalPreferences.getBoolean(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS)
@@ -298,6 +306,9 @@ public class OracleConnectionExtraPage extends ConnectionPageAbstract
             providerProperties.put(
                     OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY,
                     String.valueOf(useAlternativeTableMetadataQuery.getSelection()));
+            providerProperties.put(
+                OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH,
+                String.valueOf(useIncrementalRefresh.getSelection()));
             providerProperties.put(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS, String.valueOf(searchInSynonyms.getSelection()));
 
             providerProperties.put(OracleConstants.PROP_SHOW_DATE_AS_DATE, String.valueOf(showDateAsDate.getSelection()));
@@ -47,6 +47,7 @@ public class PrefPageOracle extends TargetPrefPage
     private Button useOptimizerHint;
     private Button useSimpleConstraints;
     private Button useAlternativeTableMetadataQuery;
+    private Button useIncrementalRefresh;
     private Button searchInSynonyms;
     private Button showDateAsDate;
 
@@ -69,6 +70,7 @@ public class PrefPageOracle extends TargetPrefPage
             store.contains(OracleConstants.PROP_USE_META_OPTIMIZER) ||
             store.contains(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS) ||
             store.contains(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY) ||
+            store.contains(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH) ||
             store.contains(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS) ||
             store.contains(OracleConstants.PROP_SHOW_DATE_AS_DATE)
             ;
@@ -145,6 +147,13 @@ public class PrefPageOracle extends TargetPrefPage
             );
             useAlternativeTableMetadataQuery.setToolTipText(OracleUIMessages.edit_create_checkbox_content_group_use_another_table_query_description);
 
+            useIncrementalRefresh = UIUtils.createCheckbox(
+                performanceGroup,
+                OracleUIMessages.edit_create_checkbox_content_group_incremental_refresh,
+                globalPreferences.getBoolean(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH)
+            );
+            useIncrementalRefresh.setToolTipText(OracleUIMessages.edit_create_checkbox_content_group_incremental_refresh_description);
+
             searchInSynonyms = UIUtils.createCheckbox(
                 performanceGroup,
                 OracleUIMessages.edit_create_checkbox_content_group_search_metadata_in_synonyms,
@@ -186,6 +195,7 @@ public class PrefPageOracle extends TargetPrefPage
         useOptimizerHint.setSelection(store.getBoolean(OracleConstants.PROP_USE_META_OPTIMIZER));
         useSimpleConstraints.setSelection(store.getBoolean(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS));
         useAlternativeTableMetadataQuery.setSelection(store.getBoolean(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY));
+        useIncrementalRefresh.setSelection(store.getBoolean(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH));
         searchInSynonyms.setSelection(store.getBoolean(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS));
 
         showDateAsDate.setSelection(store.getBoolean(OracleConstants.PROP_SHOW_DATE_AS_DATE));
@@ -204,6 +214,7 @@ public class PrefPageOracle extends TargetPrefPage
         store.setValue(OracleConstants.PROP_USE_META_OPTIMIZER, useOptimizerHint.getSelection());
         store.setValue(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS, useSimpleConstraints.getSelection());
         store.setValue(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY, useAlternativeTableMetadataQuery.getSelection());
+        store.setValue(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH, useIncrementalRefresh.getSelection());
         store.setValue(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS, searchInSynonyms.getSelection());
 
         store.setValue(OracleConstants.PROP_SHOW_DATE_AS_DATE, showDateAsDate.getSelection());
@@ -224,6 +235,7 @@ public class PrefPageOracle extends TargetPrefPage
         store.setToDefault(OracleConstants.PROP_USE_META_OPTIMIZER);
         store.setToDefault(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS);
         store.setToDefault(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY);
+        store.setToDefault(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH);
         store.setToDefault(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS);
 
         store.setToDefault(OracleConstants.PROP_SHOW_DATE_AS_DATE);
@@ -241,6 +253,7 @@ public class PrefPageOracle extends TargetPrefPage
         useOptimizerHint.setSelection(store.getDefaultBoolean(OracleConstants.PROP_USE_META_OPTIMIZER));
         useSimpleConstraints.setSelection(store.getDefaultBoolean(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS));
         useAlternativeTableMetadataQuery.setSelection(store.getDefaultBoolean(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY));
+        useIncrementalRefresh.setSelection(store.getDefaultBoolean(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH));
         searchInSynonyms.setSelection(store.getDefaultBoolean(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS));
         showDateAsDate.setSelection(store.getDefaultBoolean(OracleConstants.PROP_SHOW_DATE_AS_DATE));
         super.performDefaults();
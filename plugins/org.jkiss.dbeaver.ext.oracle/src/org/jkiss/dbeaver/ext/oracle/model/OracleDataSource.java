@@ -43,6 +43,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCRemoteInstance;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataChangeTracker;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.meta.Association;
@@ -68,7 +69,7 @@ import java.util.regex.Pattern;
 /**
  * GenericDataSource
  */
-public class OracleDataSource extends JDBCDataSource implements DBPObjectStatisticsCollector, DBPAdaptable {
+public class OracleDataSource extends JDBCDataSource implements DBPObjectStatisticsCollector, DBPAdaptable, JDBCMetadataChangeTracker {
     private static final Log log = Log.getLog(OracleDataSource.class);
 
     final public SchemaCache schemaCache = new SchemaCache();
@@ -885,6 +886,16 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
         }
     }
 
+    @Nullable
+    @Override
+    public String readMetadataChangeMarker(@NotNull JDBCSession session) throws SQLException {
+        // Any DDL updates object's LAST_DDL_TIME, dropped objects change objects count
+        return JDBCUtils.queryString(
+            session,
+            "SELECT TO_CHAR(MAX(LAST_DDL_TIME), 'YYYYMMDDHH24MISS') || ':' || COUNT(*) FROM " +
+                OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), this, "OBJECTS"));
+    }
+
     private class OracleOutputReader implements DBCServerOutputReader {
         @Override
         public boolean isServerOutputEnabled() {
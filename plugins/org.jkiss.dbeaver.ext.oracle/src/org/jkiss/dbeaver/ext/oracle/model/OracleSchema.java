@@ -45,6 +45,7 @@ import org.jkiss.utils.CommonUtils;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -65,6 +66,13 @@ public class OracleSchema extends OracleGlobalObject implements
     // Children are used in auto-completion which must be fast
     private static boolean SYNONYMS_AS_CHILDREN = false;
 
+    // Object types which changes are tracked by incremental refresh
+    private static final List<String> INCREMENTAL_REFRESH_TYPE_LIST = List.of("TABLE", "VIEW", "MATERIALIZED VIEW", "INDEX", "TRIGGER");
+    private static final String INCREMENTAL_REFRESH_OBJECT_TYPES = INCREMENTAL_REFRESH_TYPE_LIST.stream()
+        .map(type -> "'" + type + "'").collect(Collectors.joining(","));
+    // Full refresh is cheaper if too many tables were changed
+    private static final int MAX_INCREMENTAL_REFRESH_TABLES = 100;
+
     final public TableCache tableCache = new TableCache();
     final public ConstraintCache constraintCache = new ConstraintCache();
     final public ForeignKeyCache foreignKeyCache = new ForeignKeyCache();
@@ -434,14 +442,16 @@ public class OracleSchema extends OracleGlobalObject implements
         throws DBException
     {
         hasStatistics = false;
-        tableCache.clearCache();
-        foreignKeyCache.clearCache();
-        constraintCache.clearCache();
-        indexCache.clearCache();
+        if (!refreshTablesIncrementally(monitor)) {
+            tableCache.clearCache();
+            foreignKeyCache.clearCache();
+            constraintCache.clearCache();
+            indexCache.clearCache();
+            tableTriggerCache.clearCache();
+        }
         packageCache.clearCache();
         proceduresCache.clearCache();
         triggerCache.clearCache();
-        tableTriggerCache.clearCache();
         dataTypeCache.clearCache();
         sequenceCache.clearCache();
         synonymCache.clearCache();
@@ -451,6 +461,177 @@ public class OracleSchema extends OracleGlobalObject implements
         return this;
     }
 
+    boolean isIncrementalRefreshEnabled() {
+        return CommonUtils.toBoolean(getDataSource().getContainer().getConnectionConfiguration().getProviderProperty(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH));
+    }
+
+    /**
+     * Refreshes tables changed since the last full tables read instead of dropping all table caches.
+     * Changed tables are detected by LAST_DDL_TIME of tables, views, indexes and triggers.
+     * Dropped objects are detected by comparing object counts with counts saved at the last read.
+     *
+     * @return false if incremental refresh is disabled or not possible. All table caches must be cleared then.
+     */
+    private boolean refreshTablesIncrementally(@NotNull DBRProgressMonitor monitor) {
+        Timestamp watermark = tableCache.refreshWatermark;
+        Map<String, Integer> oldCounts = tableCache.refreshObjectCounts;
+        if (watermark == null || oldCounts == null || !tableCache.isFullyCached() ||
+            !isIncrementalRefreshEnabled() || !getDataSource().getContainer().isConnected()) {
+            return false;
+        }
+        tableCache.refreshWatermark = null;
+        tableCache.refreshObjectCounts = null;
+        try {
+            Timestamp newWatermark;
+            Map<String, Integer> newCounts;
+            Set<String> changedTables = new LinkedHashSet<>();
+            Set<String> droppedTypes = new HashSet<>();
+            Set<String> existingNames = null;
+            try (JDBCSession session = DBUtils.openMetaSession(monitor, this, "Read changed objects of " + getName())) {
+                newWatermark = readServerTime(session);
+                Map<String, Integer> createdCounts = new HashMap<>();
+                boolean hasRenames = false;
+                try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                    "SELECT" + OracleUtils.getSysCatalogHint(getDataSource()) + " O.OBJECT_NAME,O.OBJECT_TYPE,O.CREATED,\n" +
+                        "CASE O.OBJECT_TYPE\n" +
+                        "WHEN 'INDEX' THEN (SELECT I.TABLE_NAME FROM " + OracleUtils.getAdminAllViewPrefix(monitor, getDataSource(), "INDEXES") +
+                        " I WHERE I.OWNER=O.OWNER AND I.INDEX_NAME=O.OBJECT_NAME AND I.TABLE_OWNER=O.OWNER)\n" +
+                        "WHEN 'TRIGGER' THEN (SELECT T.TABLE_NAME FROM " + OracleUtils.getAdminAllViewPrefix(monitor, getDataSource(), "TRIGGERS") +
+                        " T WHERE T.OWNER=O.OWNER AND T.TRIGGER_NAME=O.OBJECT_NAME AND T.TABLE_OWNER=O.OWNER)\n" +
+                        "ELSE O.OBJECT_NAME END AS TABLE_NAME\n" +
+                        "FROM " + OracleUtils.getAdminAllViewPrefix(monitor, getDataSource(), "OBJECTS") + " O\n" +
+                        "WHERE O.OWNER=? AND O.OBJECT_TYPE IN (" + INCREMENTAL_REFRESH_OBJECT_TYPES + ") AND O.LAST_DDL_TIME>=?"))
+                {
+                    dbStat.setString(1, getName());
+                    dbStat.setTimestamp(2, watermark);
+                    try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                        while (dbResult.next()) {
+                            String objectType = JDBCUtils.safeGetString(dbResult, OracleConstants.COLUMN_OBJECT_TYPE);
+                            Timestamp created = JDBCUtils.safeGetTimestamp(dbResult, OracleConstants.COLUMN_CREATED);
+                            String tableName = JDBCUtils.safeGetString(dbResult, OracleConstants.COL_TABLE_NAME);
+                            if (created != null && !created.before(watermark)) {
+                                createdCounts.merge(objectType, 1, Integer::sum);
+                            } else if (tableName != null && tableName.equals(JDBCUtils.safeGetString(dbResult, OracleConstants.COLUMN_OBJECT_NAME)) &&
+                                tableCache.getCachedObject(tableName) == null) {
+                                // Old object which we don't know. Renamed or moved from the recycle bin
+                                hasRenames = true;
+                            }
+                            if (tableName != null) {
+                                changedTables.add(tableName);
+                            }
+                        }
+                    }
+                }
+                if (changedTables.size() > MAX_INCREMENTAL_REFRESH_TABLES) {
+                    log.debug("Too many tables changed in '" + getName() + "' (" + changedTables.size() + "). Full refresh is performed");
+                    return false;
+                }
+                newCounts = readObjectCounts(session);
+                for (String objectType : INCREMENTAL_REFRESH_TYPE_LIST) {
+                    int expected = oldCounts.getOrDefault(objectType, 0) + createdCounts.getOrDefault(objectType, 0);
+                    if (newCounts.getOrDefault(objectType, 0) != expected) {
+                        droppedTypes.add(objectType);
+                    }
+                }
+                if (hasRenames || droppedTypes.contains("TABLE") || droppedTypes.contains("VIEW") || droppedTypes.contains("MATERIALIZED VIEW")) {
+                    existingNames = new HashSet<>(JDBCUtils.queryStrings(
+                        session,
+                        "SELECT" + OracleUtils.getSysCatalogHint(getDataSource()) + " OBJECT_NAME FROM " +
+                            OracleUtils.getAdminAllViewPrefix(monitor, getDataSource(), "OBJECTS") +
+                            " WHERE OWNER=? AND OBJECT_TYPE IN ('TABLE','VIEW','MATERIALIZED VIEW')",
+                        getName()));
+                }
+            }
+
+            Set<OracleTableBase> affectedTables = new HashSet<>();
+            if (existingNames != null) {
+                for (OracleTableBase table : new ArrayList<>(tableCache.getCachedObjects())) {
+                    if (!existingNames.contains(table.getName())) {
+                        affectedTables.add(table);
+                        clearTableCaches(table);
+                        tableCache.removeObject(table, false);
+                    }
+                }
+            }
+            for (String tableName : changedTables) {
+                monitor.subTask("Refresh " + tableName);
+                OracleTableBase table = tableCache.getCachedObject(tableName);
+                if (table != null) {
+                    affectedTables.add(table);
+                    table.refreshObject(monitor);
+                }
+                if (tableCache.getCachedObject(tableName) == null) {
+                    // New table or table type was changed
+                    tableCache.loadTable(monitor, this, tableName);
+                }
+            }
+            // Foreign keys of other tables may refer constraints of changed tables
+            if (!affectedTables.isEmpty()) {
+                List<OracleTableForeignKey> foreignKeys = foreignKeyCache.getCachedObjects(null);
+                if (foreignKeys != null) {
+                    Set<OracleTable> referencingTables = new HashSet<>();
+                    for (OracleTableForeignKey foreignKey : foreignKeys) {
+                        if (affectedTables.contains(foreignKey.getReferencedTable()) && foreignKey.getTable() instanceof OracleTable table) {
+                            referencingTables.add(table);
+                        }
+                    }
+                    for (OracleTable table : referencingTables) {
+                        foreignKeyCache.clearObjectCache(table);
+                    }
+                }
+            }
+            if (droppedTypes.contains("INDEX")) {
+                indexCache.clearCache();
+            }
+            if (droppedTypes.contains("TRIGGER")) {
+                tableTriggerCache.clearCache();
+            }
+
+            tableCache.refreshWatermark = newWatermark;
+            tableCache.refreshObjectCounts = newCounts;
+            log.debug("Incremental refresh of '" + getName() + "': " + changedTables.size() + " changed object(s), dropped object types " + droppedTypes);
+            return true;
+        } catch (Exception e) {
+            log.debug("Incremental refresh of '" + getName() + "' failed. Full refresh is performed", e);
+            return false;
+        }
+    }
+
+    private void clearTableCaches(@NotNull OracleTableBase table) {
+        constraintCache.clearObjectCache(table);
+        indexCache.clearObjectCache(table);
+        tableTriggerCache.clearObjectCache(table);
+        if (table instanceof OracleTable oracleTable) {
+            foreignKeyCache.clearObjectCache(oracleTable);
+        }
+    }
+
+    private static Timestamp readServerTime(@NotNull JDBCSession session) throws SQLException {
+        try (JDBCStatement dbStat = session.createStatement()) {
+            try (JDBCResultSet dbResult = dbStat.executeQuery("SELECT SYSDATE FROM DUAL")) {
+                return dbResult.next() ? dbResult.getTimestamp(1) : null;
+            }
+        }
+    }
+
+    @NotNull
+    private Map<String, Integer> readObjectCounts(@NotNull JDBCSession session) throws SQLException {
+        Map<String, Integer> counts = new HashMap<>();
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(
+            "SELECT" + OracleUtils.getSysCatalogHint(getDataSource()) + " OBJECT_TYPE,COUNT(*) FROM " +
+                OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "OBJECTS") +
+                " WHERE OWNER=? AND OBJECT_TYPE IN (" + INCREMENTAL_REFRESH_OBJECT_TYPES + ") GROUP BY OBJECT_TYPE"))
+        {
+            dbStat.setString(1, getName());
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    counts.put(dbResult.getString(1), dbResult.getInt(2));
+                }
+            }
+        }
+        return counts;
+    }
+
     @Override
     public boolean isSystem()
     {
@@ -623,12 +804,63 @@ public class OracleSchema extends OracleGlobalObject implements
 
     public class TableCache extends JDBCStructLookupCache<OracleSchema, OracleTableBase, OracleTableColumn> {
 
+        // Server time and object counts at the moment of the last full tables read. Used by incremental refresh.
+        private volatile Timestamp refreshWatermark;
+        private volatile Map<String, Integer> refreshObjectCounts;
+
         TableCache()
         {
             super(OracleConstants.COLUMN_OBJECT_NAME);
             setListOrderComparator(DBUtils.nameComparator());
         }
 
+        @Override
+        protected synchronized void loadObjects(DBRProgressMonitor monitor, OracleSchema owner) throws DBException {
+            if (isFullyCached() || monitor.isForceCacheUsage()) {
+                return;
+            }
+            Timestamp watermark = null;
+            Map<String, Integer> objectCounts = null;
+            if (owner.isIncrementalRefreshEnabled() && owner.isPersisted()) {
+                // Read it before tables, so changes made during tables read will be caught by the next refresh
+                try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Read refresh watermark of " + owner.getName())) {
+                    watermark = readServerTime(session);
+                    objectCounts = owner.readObjectCounts(session);
+                } catch (SQLException e) {
+                    log.debug("Error reading refresh watermark of '" + owner.getName() + "'", e);
+                }
+            }
+            super.loadObjects(monitor, owner);
+            if (isFullyCached() && !isLoadedFromSnapshot()) {
+                refreshWatermark = watermark;
+                refreshObjectCounts = objectCounts;
+            } else {
+                // Tables read from the metadata snapshot may be older than the watermark.
+                // The next refresh must be a full one
+                refreshWatermark = null;
+                refreshObjectCounts = null;
+            }
+        }
+
+        void loadTable(@NotNull DBRProgressMonitor monitor, @NotNull OracleSchema owner, @NotNull String tableName) throws DBException {
+            OracleTableBase table = reloadObject(monitor, owner, null, tableName);
+            if (table != null && getCachedObject(table.getName()) == null) {
+                cacheObject(table);
+            }
+        }
+
+        @Override
+        public void clearCache() {
+            super.clearCache();
+            refreshWatermark = null;
+            refreshObjectCounts = null;
+        }
+
+        @Override
+        protected boolean isSnapshotSupported() {
+            return true;
+        }
+
         @NotNull
         @Override
         public JDBCStatement prepareLookupStatement(@NotNull JDBCSession session, @NotNull OracleSchema owner, @Nullable OracleTableBase object, @Nullable String objectName) throws SQLException {
@@ -51,6 +51,7 @@ public class PostgreConnectionPageAdvanced extends ConnectionPageAbstract
     private Button readAllDataTypes;
     private Button readKeysWithColumns;
     private Button usePreparedStatements;
+    private Button useBinaryCopy;
     private Combo ddPlainBehaviorCombo;
     private Combo ddTagBehaviorCombo;
 
@@ -111,13 +112,15 @@ public class PostgreConnectionPageAdvanced extends ConnectionPageAbstract
         final DBPDriver driver = site.getDriver();
         PostgreServerType serverType = PostgreUtils.getServerType(driver);
 
-        if (serverType.turnOffPreparedStatements())
         {
             Group performanceGroup = new Group(cfgGroup, SWT.NONE);
             performanceGroup.setText(PostgreMessages.dialog_setting_group_performance);
             performanceGroup.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             performanceGroup.setLayout(new GridLayout(2, false));
-            usePreparedStatements = UIUtils.createCheckbox(performanceGroup, PostgreMessages.dialog_setting_connection_use_prepared_statements, PostgreMessages.dialog_setting_connection_use_prepared_statements_tip, false, 2);
+            if (serverType.turnOffPreparedStatements()) {
+                usePreparedStatements = UIUtils.createCheckbox(performanceGroup, PostgreMessages.dialog_setting_connection_use_prepared_statements, PostgreMessages.dialog_setting_connection_use_prepared_statements_tip, false, 2);
+            }
+            useBinaryCopy = UIUtils.createCheckbox(performanceGroup, PostgreMessages.dialog_setting_connection_use_binary_copy, PostgreMessages.dialog_setting_connection_use_binary_copy_tip, false, 2);
         }
 
         setControl(cfgGroup);
@@ -166,6 +169,8 @@ public class PostgreConnectionPageAdvanced extends ConnectionPageAbstract
             usePreparedStatements.setSelection(
                     CommonUtils.getBoolean(connectionInfo.getProviderProperty(PostgreConstants.PROP_USE_PREPARED_STATEMENTS), false));
         }
+        useBinaryCopy.setSelection(
+            CommonUtils.getBoolean(connectionInfo.getProviderProperty(PostgreConstants.PROP_USE_BINARY_COPY), false));
 
         ddPlainBehaviorCombo.select(CommonUtils.getBoolean(
             connectionInfo.getProviderProperty(PostgreConstants.PROP_DD_PLAIN_STRING),
@@ -188,6 +193,7 @@ public class PostgreConnectionPageAdvanced extends ConnectionPageAbstract
         if (usePreparedStatements != null) {
             connectionCfg.setProviderProperty(PostgreConstants.PROP_USE_PREPARED_STATEMENTS, String.valueOf(usePreparedStatements.getSelection()));
         }
+        connectionCfg.setProviderProperty(PostgreConstants.PROP_USE_BINARY_COPY, String.valueOf(useBinaryCopy.getSelection()));
 
         connectionCfg.setProviderProperty(PostgreConstants.PROP_DD_PLAIN_STRING, String.valueOf(ddPlainBehaviorCombo.getSelectionIndex() == 0));
         connectionCfg.setProviderProperty(PostgreConstants.PROP_DD_TAG_STRING, String.valueOf(ddTagBehaviorCombo.getSelectionIndex() == 0));
@@ -744,6 +744,9 @@ public class PostgreUtils {
         @Nullable Object acl,
         boolean isDefault
     ) throws DBException {
+        if (acl instanceof String[] aclValues) {
+            return extractPermissionsFromACL(owner, aclValues, isDefault);
+        }
         if (!(acl instanceof java.sql.Array)) {
             if (acl == null) {
                 // Special case. Means ALL permissions are granted to table owner
@@ -971,6 +974,24 @@ public class PostgreUtils {
         return safeGetArray(dbResult, columnName, Function.identity(), String[]::new);
     }
 
+    /**
+     * Reads ACL column as text and splits it into ACL items.
+     * Unlike driver arrays of {@code aclitem} values, strings can be kept in the metadata snapshot.
+     */
+    @Nullable
+    public static String[] safeGetAclArray(@NotNull ResultSet dbResult, @NotNull String columnName) {
+        String value = JDBCUtils.safeGetString(dbResult, columnName);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return PostgreValueParser.parsePrimitiveArray(value, Function.identity(), String[]::new);
+        } catch (IllegalArgumentException e) {
+            log.debug("Can't parse ACL value '" + value + "': " + e.getMessage());
+            return new String[0];
+        }
+    }
+
     /**
      * Attempts to retrieve an array of shorts from the result set under the given {@code columnName}.
      *
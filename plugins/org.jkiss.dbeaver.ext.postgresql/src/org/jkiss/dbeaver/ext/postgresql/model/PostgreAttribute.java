@@ -194,7 +194,7 @@ public abstract class PostgreAttribute<OWNER extends DBSEntity & PostgreObject>
         }
 
         if (serverType.supportsAcl()) {
-            this.acl = JDBCUtils.safeGetObject(dbResult, "attacl");
+            this.acl = PostgreUtils.safeGetAclArray(dbResult, "attacl");
         }
 
         if (getTable() instanceof PostgreTableForeign) {
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.ext.postgresql.model;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -27,6 +28,8 @@ import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.meta.ForTest;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
@@ -34,52 +37,87 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
 
 /**
- * Bulk loader based on CopyManager
+ * Bulk loader based on CopyManager.
+ * Rows are encoded into a reusable buffer and streamed directly into COPY FROM STDIN,
+ * so the load runs in constant memory and doesn't need temporary files.
  *
- * //        new CopyManager((BaseConnection) conn)
- * //            .copyIn(
- * //                "COPY table1 FROM STDIN (FORMAT csv)",
- * //                new BufferedReader(new FileReader("data.csv"))
- * //            );
+ * //        CopyIn copyIn = new CopyManager((BaseConnection) conn).copyIn("COPY table1 FROM STDIN (FORMAT csv)");
+ * //        copyIn.writeToCopy(buffer, 0, length);
+ * //        copyIn.endCopy();
+ *
+ * If binary COPY is enabled in connection settings and all target columns have simple types
+ * then rows are sent in PostgreSQL binary format (no numeric/date to text conversion).
+ *
+ * If source rows are read from the same connection then COPY can't start before the read ends.
+ * In this case encoded rows are spooled into a temporary file which is sent in finishBulkLoad.
  */
 public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
 
     private static final Log log = Log.getLog(PostgreCopyLoader.class);
 
+    private static final byte[] BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final LocalDate PG_EPOCH_DATE = LocalDate.of(2000, 1, 1);
+    private static final LocalDateTime PG_EPOCH_TIMESTAMP = PG_EPOCH_DATE.atStartOfDay();
+    private static final Instant PG_EPOCH_INSTANT = PG_EPOCH_TIMESTAMP.toInstant(ZoneOffset.UTC);
+    private static final BigInteger NBASE = BigInteger.valueOf(10000);
+    // Sign words of special numeric values. Infinities are supported by PostgreSQL 14+
+    private static final int NUMERIC_NAN = 0xC000;
+    private static final int NUMERIC_PINF = 0xD000;
+    private static final int NUMERIC_NINF = 0xF000;
+
     private final PostgreDataSource dataSource;
     private PostgreTableReal table;
     private Object copyManager;
     private Method copyInMethod;
-    private Writer csvWriter;
-    private Path csvFile;
+    private Method writeToCopyMethod;
+    private Method flushCopyMethod;
+    private Method endCopyMethod;
+    private Method cancelCopyMethod;
+    private Object copyIn;
+    private boolean binaryFormat;
+    private Path spoolFile;
+    private OutputStream spoolStream;
 
     private AttrMapping[] mappings;
 
     private int copyBufferSize = 100 * 1024;
+    private byte[] copyBuffer;
+    private int copyBufferPos;
+    private long rowCount;
 
     private static class AttrMapping {
         PostgreTableColumn tableAttr;
         DBDValueHandler valueHandler;
         int srcPos;
+        int typeOid;
 
         AttrMapping(PostgreTableColumn tableAttr, DBDValueHandler valueHandler, int srcPos) {
             this.tableAttr = tableAttr;
             this.valueHandler = valueHandler;
             this.srcPos = srcPos;
+            PostgreDataType dataType = tableAttr.getDataType();
+            this.typeOid = dataType == null ? 0 : (int) dataType.getObjectId();
         }
     }
 
@@ -87,6 +125,28 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         this.dataSource = dataSource;
     }
 
+    /**
+     * Creates loader which writes encoded rows into the specified stream
+     */
+    @ForTest
+    PostgreCopyLoader(
+        @NotNull PostgreDataSource dataSource,
+        @NotNull PostgreTableColumn[] columns,
+        @NotNull DBDValueHandler valueHandler,
+        boolean binaryFormat,
+        @NotNull OutputStream output
+    ) throws DBCException {
+        this.dataSource = dataSource;
+        this.mappings = new AttrMapping[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            mappings[i] = new AttrMapping(columns[i], valueHandler, i);
+        }
+        this.binaryFormat = binaryFormat;
+        this.copyBuffer = new byte[copyBufferSize];
+        this.spoolStream = output;
+        writeHeader();
+    }
+
     @NotNull
     @Override
     public BulkLoadManager createBulkLoad(
@@ -105,25 +165,17 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
             Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
             Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
+            Class<?> copyInClass = Class.forName("org.postgresql.copy.CopyIn", true, driverClassLoader);
 
-            // Get method copyIn(final String sql, Reader from, int bufferSize)
-            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
+            // Get method copyIn(final String sql) and CopyIn operations
+            copyInMethod = copyManagerClass.getMethod("copyIn", String.class);
+            writeToCopyMethod = copyInClass.getMethod("writeToCopy", byte[].class, Integer.TYPE, Integer.TYPE);
+            flushCopyMethod = copyInClass.getMethod("flushCopy");
+            endCopyMethod = copyInClass.getMethod("endCopy");
+            cancelCopyMethod = copyInClass.getMethod("cancelCopy");
 
             copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
 
-            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
-            csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
-            try {
-                Files.createFile(csvFile);
-            } catch (IOException ex) {
-                throw new IOException("Can't create CSV file " + csvFile);
-            }
-
-            csvWriter = new BufferedWriter(
-                Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
-                copyBufferSize
-                );
-
             List<? extends PostgreTableColumn> tableAttrs = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
             tableAttrs.removeIf(a -> a.getOrdinalPosition() < 0);
             mappings = new AttrMapping[tableAttrs.size()];
@@ -141,85 +193,523 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         } catch (Exception e) {
             throw new DBCException("Can't instantiate CopyManager", e);
         }
+        binaryFormat = dataSource.isUseBinaryCopy() && isBinaryFormatSupported();
+        copyBuffer = new byte[copyBufferSize];
+        copyBufferPos = 0;
+        rowCount = 0;
+        if (options != null && CommonUtils.getBoolean(options.get(OPTION_SHARED_CONNECTION), false)) {
+            // Connection is busy with source rows read, COPY must wait until it ends
+            openSpool(session.getProgressMonitor());
+        }
         return this;
     }
 
+    private void openSpool(@NotNull DBRProgressMonitor monitor) throws DBCException {
+        try {
+            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(monitor, "postgesql-copy-datasets");
+            spoolFile = Files.createTempFile(tempFolder, CommonUtils.escapeFileName(table.getName()) + "-", ".copy");
+            spoolStream = Files.newOutputStream(spoolFile);
+        } catch (IOException e) {
+            throw new DBCException("Can't create COPY spool file", e);
+        }
+        writeHeader();
+    }
+
+    private boolean isBinaryFormatSupported() {
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos >= 0 && !isBinaryType(mapping.typeOid)) {
+                log.debug("Column '" + mapping.tableAttr.getName() + "' type is not supported by binary COPY. Use CSV format.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBinaryType(int typeOid) {
+        return switch (typeOid) {
+            case PostgreOid.INT2, PostgreOid.INT4, PostgreOid.INT8,
+                PostgreOid.FLOAT4, PostgreOid.FLOAT8, PostgreOid.NUMERIC,
+                PostgreOid.BOOL, PostgreOid.DATE, PostgreOid.TIMESTAMP, PostgreOid.TIMESTAMPTZ,
+                PostgreOid.TEXT, PostgreOid.VARCHAR, PostgreOid.BPCHAR, PostgreOid.NAME,
+                PostgreOid.BYTEA, PostgreOid.UUID -> true;
+            default -> false;
+        };
+    }
+
     @Override
     public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
-        StringBuilder line = new StringBuilder();
+        if (copyIn == null && spoolStream == null) {
+            startCopy(session);
+            writeHeader();
+        }
+        try {
+            if (binaryFormat) {
+                writeBinaryRow(attributeValues);
+            } else {
+                writeCsvRow(attributeValues);
+            }
+        } catch (DBCException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DBCException("Error encoding COPY row", e);
+        }
+        rowCount++;
+    }
+
+    private void startCopy(@NotNull DBCSession session) throws DBCException {
+        String tableFQN = table.getFullyQualifiedName(DBPEvaluationContext.DML);
+        session.getProgressMonitor().subTask("Copy into " + tableFQN);
+
+        StringBuilder queryText = new StringBuilder();
+        queryText.append("COPY ").append(tableFQN).append(" (");
+        boolean hasColumn = false;
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos >= 0) {
+                if (hasColumn) {
+                    queryText.append(",");
+                }
+                queryText.append(DBUtils.getQuotedIdentifier(mapping.tableAttr));
+                hasColumn = true;
+            }
+        }
+        queryText.append(") FROM STDIN ");
+        if (binaryFormat) {
+            queryText.append("(FORMAT BINARY)");
+        } else {
+            queryText.append("(FORMAT CSV, ESCAPE '\\')");
+        }
+
+        copyIn = invokeCopy(copyInMethod, copyManager, queryText.toString());
+    }
+
+    private void writeHeader() throws DBCException {
+        if (binaryFormat) {
+            // Header: signature, flags field, header extension length
+            writeBytes(BINARY_SIGNATURE, 0, BINARY_SIGNATURE.length);
+            writeInt(0);
+            writeInt(0);
+        }
+    }
+
+    private void writeCsvRow(@NotNull Object[] attributeValues) throws DBCException {
         boolean hasCell = false;
         for (AttrMapping mapping : mappings) {
             if (mapping.srcPos >= 0) {
                 if (hasCell) {
-                    line.append(",");
+                    writeByte(',');
                 }
                 Object srcValue = attributeValues[mapping.srcPos];
                 if (!DBUtils.isNullValue(srcValue)) {
                     if (srcValue instanceof Number) {
-                        line.append(srcValue);
+                        writeChars(srcValue.toString(), false);
                     } else {
-                        String strValue = mapping.valueHandler.getValueDisplayString(
+                        String strValue = srcValue instanceof String s ? s : mapping.valueHandler.getValueDisplayString(
                             mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
-                        strValue = convertStringValueToCell(strValue);
-                        line.append(strValue);
+                        writeByte('"');
+                        writeChars(strValue, true);
+                        writeByte('"');
                     }
                 }
                 hasCell = true;
             }
         }
-        line.append("\n");
-        try {
-            csvWriter.write(line.toString());
-        } catch (IOException e) {
-            throw new DBCException("Error writing CSV line", e);
+        writeByte('\n');
+    }
+
+    private void writeBinaryRow(@NotNull Object[] attributeValues) throws DBCException {
+        int fieldCount = 0;
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos >= 0) {
+                fieldCount++;
+            }
+        }
+        writeShort(fieldCount);
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos < 0) {
+                continue;
+            }
+            Object value = attributeValues[mapping.srcPos];
+            if (DBUtils.isNullValue(value)) {
+                writeInt(-1);
+                continue;
+            }
+            switch (mapping.typeOid) {
+                case PostgreOid.INT2 -> {
+                    writeInt(2);
+                    writeShort((int) toLong(mapping, value, Short.MIN_VALUE, Short.MAX_VALUE));
+                }
+                case PostgreOid.INT4 -> {
+                    writeInt(4);
+                    writeInt((int) toLong(mapping, value, Integer.MIN_VALUE, Integer.MAX_VALUE));
+                }
+                case PostgreOid.INT8 -> {
+                    writeInt(8);
+                    writeLong(toLong(mapping, value, Long.MIN_VALUE, Long.MAX_VALUE));
+                }
+                case PostgreOid.FLOAT4 -> {
+                    writeInt(4);
+                    writeInt(Float.floatToIntBits(toNumber(mapping, value).floatValue()));
+                }
+                case PostgreOid.FLOAT8 -> {
+                    writeInt(8);
+                    writeLong(Double.doubleToLongBits(toNumber(mapping, value).doubleValue()));
+                }
+                case PostgreOid.NUMERIC -> writeNumeric(mapping, value);
+                case PostgreOid.BOOL -> {
+                    writeInt(1);
+                    writeByte(toBoolean(mapping, value) ? 1 : 0);
+                }
+                case PostgreOid.DATE -> {
+                    writeInt(4);
+                    writeInt((int) ChronoUnit.DAYS.between(PG_EPOCH_DATE, toLocalDate(mapping, value)));
+                }
+                case PostgreOid.TIMESTAMP -> {
+                    writeInt(8);
+                    writeLong(ChronoUnit.MICROS.between(PG_EPOCH_TIMESTAMP, toLocalDateTime(mapping, value)));
+                }
+                case PostgreOid.TIMESTAMPTZ -> {
+                    writeInt(8);
+                    writeLong(ChronoUnit.MICROS.between(PG_EPOCH_INSTANT, toInstant(mapping, value)));
+                }
+                case PostgreOid.BYTEA -> {
+                    if (!(value instanceof byte[] bytes)) {
+                        throw unsupportedValue(mapping, value);
+                    }
+                    writeInt(bytes.length);
+                    writeBytes(bytes, 0, bytes.length);
+                }
+                case PostgreOid.UUID -> {
+                    UUID uuid = value instanceof UUID u ? u : UUID.fromString(value.toString());
+                    writeInt(16);
+                    writeLong(uuid.getMostSignificantBits());
+                    writeLong(uuid.getLeastSignificantBits());
+                }
+                default -> {
+                    // Text types
+                    String strValue = value instanceof String s ? s : mapping.valueHandler.getValueDisplayString(
+                        mapping.tableAttr, value, DBDDisplayFormat.NATIVE);
+                    writeTextField(strValue);
+                }
+            }
         }
     }
 
-    private String convertStringValueToCell(String strValue) {
-        return '"' +
-            strValue.replace("\"", "\\\"") +
-            '"';
+    private void writeTextField(@NotNull String value) throws DBCException {
+        int length = utf8Length(value);
+        writeInt(length);
+        writeChars(value, false);
+    }
+
+    /**
+     * Writes numeric in PostgreSQL binary format: ndigits, weight, sign, dscale and base-10000 digits.
+     */
+    private void writeNumeric(@NotNull AttrMapping mapping, @NotNull Object value) throws DBCException {
+        int specialSign = getSpecialNumericSign(value);
+        if (specialSign != 0) {
+            // NaN or infinity, no digits
+            writeInt(8);
+            writeShort(0);
+            writeShort(0);
+            writeShort(specialSign);
+            writeShort(0);
+            return;
+        }
+        BigDecimal decimal;
+        if (value instanceof BigDecimal bd) {
+            decimal = bd;
+        } else if (value instanceof BigInteger bi) {
+            decimal = new BigDecimal(bi);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            decimal = BigDecimal.valueOf(((Number) value).longValue());
+        } else {
+            try {
+                decimal = new BigDecimal(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw unsupportedValue(mapping, value);
+            }
+        }
+        int dscale = Math.max(0, decimal.scale());
+        BigInteger unscaled = decimal.unscaledValue().abs();
+        int scale = decimal.scale();
+        if (scale < 0) {
+            unscaled = unscaled.multiply(BigInteger.TEN.pow(-scale));
+            scale = 0;
+        }
+        // Align fractional part to whole base-10000 digits
+        int pad = (4 - scale % 4) % 4;
+        if (pad > 0) {
+            unscaled = unscaled.multiply(BigInteger.TEN.pow(pad));
+            scale += pad;
+        }
+        List<Integer> digits = new ArrayList<>();
+        while (unscaled.signum() > 0) {
+            BigInteger[] qr = unscaled.divideAndRemainder(NBASE);
+            digits.add(0, qr[1].intValue());
+            unscaled = qr[0];
+        }
+        int weight = digits.size() - scale / 4 - 1;
+        while (!digits.isEmpty() && digits.get(digits.size() - 1) == 0) {
+            digits.remove(digits.size() - 1);
+        }
+        if (digits.isEmpty()) {
+            weight = 0;
+        }
+        writeInt(8 + digits.size() * 2);
+        writeShort(digits.size());
+        writeShort(weight);
+        writeShort(decimal.signum() < 0 ? 0x4000 : 0);
+        writeShort(dscale);
+        for (int digit : digits) {
+            writeShort(digit);
+        }
+    }
+
+    /**
+     * Returns sign word of special numeric value (NaN, Infinity or -Infinity) or 0 for regular numbers.
+     */
+    private static int getSpecialNumericSign(@NotNull Object value) {
+        double number;
+        if (value instanceof Double || value instanceof Float) {
+            number = ((Number) value).doubleValue();
+        } else if (value instanceof String str) {
+            switch (str.trim().toLowerCase(Locale.ENGLISH)) {
+                case "nan" -> number = Double.NaN;
+                case "infinity", "+infinity", "inf", "+inf" -> number = Double.POSITIVE_INFINITY;
+                case "-infinity", "-inf" -> number = Double.NEGATIVE_INFINITY;
+                default -> {
+                    return 0;
+                }
+            }
+        } else {
+            return 0;
+        }
+        if (Double.isNaN(number)) {
+            return NUMERIC_NAN;
+        } else if (number == Double.POSITIVE_INFINITY) {
+            return NUMERIC_PINF;
+        } else if (number == Double.NEGATIVE_INFINITY) {
+            return NUMERIC_NINF;
+        }
+        return 0;
     }
 
     @Override
     public void flushRows(@NotNull DBCSession session) throws DBCException {
-        try {
-            csvWriter.flush();
-        } catch (IOException e) {
-            throw new DBCException("Error saving CSV data", e);
+        if (spoolStream != null) {
+            flushBuffer();
+            return;
+        }
+        if (copyIn == null) {
+            return;
         }
+        flushBuffer();
+        invokeCopy(flushCopyMethod, copyIn);
     }
 
     @Override
     public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        if (spoolStream != null) {
+            if (binaryFormat) {
+                // File trailer
+                writeShort(-1);
+            }
+            flushBuffer();
+            closeSpoolStream();
+            if (rowCount == 0) {
+                return;
+            }
+            startCopy(session);
+            sendSpoolFile();
+        } else {
+            if (copyIn == null) {
+                if (rowCount == 0) {
+                    return;
+                }
+                startCopy(session);
+                writeHeader();
+            }
+            if (binaryFormat) {
+                // File trailer
+                writeShort(-1);
+            }
+            flushBuffer();
+        }
+        Object copiedRows = invokeCopy(endCopyMethod, copyIn);
+        copyIn = null;
+
         try {
-            csvWriter.flush();
-            csvWriter.close();
+            // Commit changes
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+            if (txnManager != null && !txnManager.isAutoCommit()) {
+                session.getProgressMonitor().subTask("Commit COPY");
+                txnManager.commit(session);
+            }
+        } catch (Throwable e) {
+            throw new DBCException("Error committing COPY", e);
+        }
+
+        log.debug((binaryFormat ? "Binary" : "CSV") + " data has been imported (" + copiedRows + ")");
+    }
+
+    @Override
+
+    public void close() {
+        if (copyIn != null) {
+            // Copy wasn't finished (error or cancel). Connection must leave COPY mode.
+            try {
+                invokeCopy(cancelCopyMethod, copyIn);
+            } catch (DBCException e) {
+                log.debug("Error canceling COPY", e);
+            }
+            copyIn = null;
+        }
+        closeSpoolStream();
+        if (spoolFile != null) {
+            try {
+                Files.deleteIfExists(spoolFile);
+            } catch (IOException e) {
+                log.debug("Error deleting COPY spool file " + spoolFile, e);
+                spoolFile.toFile().deleteOnExit();
+            }
+            spoolFile = null;
+        }
+        copyBuffer = null;
+    }
+
+    private void closeSpoolStream() {
+        if (spoolStream != null) {
+            try {
+                spoolStream.close();
+            } catch (IOException e) {
+                log.debug("Error closing COPY spool file", e);
+            }
+            spoolStream = null;
+        }
+    }
+
+    private void sendSpoolFile() throws DBCException {
+        try (InputStream spoolInput = Files.newInputStream(spoolFile)) {
+            for (int count; (count = spoolInput.read(copyBuffer)) > 0; ) {
+                invokeCopy(writeToCopyMethod, copyIn, copyBuffer, 0, count);
+            }
         } catch (IOException e) {
-            log.debug(e);
+            throw new DBCException("Error reading COPY spool file", e);
         }
-        csvWriter = null;
+    }
 
-        String tableFQN = table.getFullyQualifiedName(DBPEvaluationContext.DML);
+    ///////////////////////////////////////////////////////////////////////
+    // Encoding
 
-        session.getProgressMonitor().subTask("Copy into " + tableFQN);
+    private void writeByte(int b) throws DBCException {
+        if (copyBufferPos >= copyBuffer.length) {
+            flushBuffer();
+        }
+        copyBuffer[copyBufferPos++] = (byte) b;
+    }
 
-        String queryText = "COPY " + tableFQN + " FROM STDIN (FORMAT CSV, ESCAPE '\\')";
+    private void writeShort(int value) throws DBCException {
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
 
-        try {
-            Object rowCount;
-            try (Reader csvReader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
-                rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+    private void writeInt(int value) throws DBCException {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    private void writeLong(long value) throws DBCException {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    private void writeBytes(@NotNull byte[] bytes, int offset, int length) throws DBCException {
+        while (length > 0) {
+            if (copyBufferPos >= copyBuffer.length) {
+                flushBuffer();
             }
+            int count = Math.min(length, copyBuffer.length - copyBufferPos);
+            System.arraycopy(bytes, offset, copyBuffer, copyBufferPos, count);
+            copyBufferPos += count;
+            offset += count;
+            length -= count;
+        }
+    }
 
-            // Commit changes
-            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
-            if (txnManager != null && !txnManager.isAutoCommit()) {
-                session.getProgressMonitor().subTask("Commit COPY");
-                txnManager.commit(session);
+    /**
+     * Encodes string in UTF-8 directly into copy buffer.
+     * In CSV mode quotes and escape characters are escaped with backslash.
+     */
+    private void writeChars(@NotNull CharSequence str, boolean csvEscape) throws DBCException {
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                if (csvEscape && (c == '"' || c == '\\')) {
+                    writeByte('\\');
+                }
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, str.charAt(++i));
+                writeByte(0xF0 | (cp >> 18));
+                writeByte(0x80 | ((cp >> 12) & 0x3F));
+                writeByte(0x80 | ((cp >> 6) & 0x3F));
+                writeByte(0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate
+                writeByte('?');
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(@NotNull CharSequence str) {
+        int length = str.length();
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                result++;
+            } else if (c < 0x800) {
+                result += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                result += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                result++;
+            } else {
+                result += 3;
+            }
+        }
+        return result;
+    }
+
+    private void flushBuffer() throws DBCException {
+        if (copyBufferPos > 0) {
+            if (spoolStream != null) {
+                try {
+                    spoolStream.write(copyBuffer, 0, copyBufferPos);
+                } catch (IOException e) {
+                    throw new DBCException("Error writing COPY spool file", e);
+                }
+            } else {
+                invokeCopy(writeToCopyMethod, copyIn, copyBuffer, 0, copyBufferPos);
             }
+            copyBufferPos = 0;
+        }
+    }
 
-            log.debug("CSV has been imported (" + rowCount + ")");
+    @Nullable
+    private static Object invokeCopy(@NotNull Method method, @NotNull Object target, Object... args) throws DBCException {
+        try {
+            return method.invoke(target, args);
         } catch (Throwable e) {
             if (e instanceof InvocationTargetException) {
                 e = ((InvocationTargetException) e).getTargetException();
@@ -228,16 +718,110 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         }
     }
 
-    @Override
+    ///////////////////////////////////////////////////////////////////////
+    // Value conversion (binary format)
 
-    public void close() {
-        if (csvFile != null && Files.exists(csvFile)) {
+    @NotNull
+    private static Number toNumber(@NotNull AttrMapping mapping, @NotNull Object value) throws DBCException {
+        if (value instanceof Number n) {
+            return n;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw unsupportedValue(mapping, value);
+        }
+    }
+
+    private static long toLong(@NotNull AttrMapping mapping, @NotNull Object value, long minValue, long maxValue) throws DBCException {
+        Number number = toNumber(mapping, value);
+        long result;
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            result = number.longValue();
+        } else {
             try {
-                Files.delete(csvFile);
-            } catch (IOException e) {
-                log.debug("Error deleting CSV file " + csvFile, e);
-                csvFile.toFile().deleteOnExit();
+                result = new BigDecimal(number.toString()).longValueExact();
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw unsupportedValue(mapping, value);
             }
         }
+        if (result < minValue || result > maxValue) {
+            throw unsupportedValue(mapping, value);
+        }
+        return result;
+    }
+
+    private static boolean toBoolean(@NotNull AttrMapping mapping, @NotNull Object value) throws DBCException {
+        if (value instanceof Boolean b) {
+            return b;
+        }
+        if (value instanceof Number n) {
+            return n.intValue() != 0;
+        }
+        String str = value.toString().trim();
+        if (str.equalsIgnoreCase("true") || str.equalsIgnoreCase("t") || str.equals("1")) {
+            return true;
+        } else if (str.equalsIgnoreCase("false") || str.equalsIgnoreCase("f") || str.equals("0")) {
+            return false;
+        }
+        throw unsupportedValue(mapping, value);
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull AttrMapping mapping, @NotNull Object value) throws DBCException {
+        if (value instanceof LocalDate ld) {
+            return ld;
+        } else if (value instanceof java.sql.Date sd) {
+            return sd.toLocalDate();
+        } else if (value instanceof LocalDateTime ldt) {
+            return ldt.toLocalDate();
+        } else if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()).toLocalDate();
+        }
+        throw unsupportedValue(mapping, value);
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull AttrMapping mapping, @NotNull Object value) throws DBCException {
+        if (value instanceof LocalDateTime ldt) {
+            return ldt;
+        } else if (value instanceof Timestamp ts) {
+            return ts.toLocalDateTime();
+        } else if (value instanceof LocalDate ld) {
+            return ld.atStartOfDay();
+        } else if (value instanceof java.sql.Date sd) {
+            return sd.toLocalDate().atStartOfDay();
+        } else if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        } else if (value instanceof OffsetDateTime odt) {
+            return odt.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (value instanceof ZonedDateTime zdt) {
+            return zdt.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+        throw unsupportedValue(mapping, value);
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull AttrMapping mapping, @NotNull Object value) throws DBCException {
+        if (value instanceof Instant instant) {
+            return instant;
+        } else if (value instanceof OffsetDateTime odt) {
+            return odt.toInstant();
+        } else if (value instanceof ZonedDateTime zdt) {
+            return zdt.toInstant();
+        } else if (value instanceof LocalDateTime ldt) {
+            return ldt.atZone(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof Timestamp ts) {
+            return ts.toInstant();
+        } else if (value instanceof Date date && !(value instanceof java.sql.Date)) {
+            return date.toInstant();
+        }
+        return toLocalDateTime(mapping, value).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    @NotNull
+    private static DBCException unsupportedValue(@NotNull AttrMapping mapping, @NotNull Object value) {
+        return new DBCException("Value '" + value + "' (" + value.getClass().getName() + ") can't be written into column '" +
+            mapping.tableAttr.getName() + "' of type " + mapping.tableAttr.getTypeName() + " in binary COPY format");
     }
 }
@@ -40,6 +40,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.*;
 import org.jkiss.dbeaver.model.exec.output.DBCServerOutputReader;
 import org.jkiss.dbeaver.model.exec.plan.DBCQueryPlanner;
 import org.jkiss.dbeaver.model.impl.jdbc.*;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataChangeTracker;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectLookupCache;
 import org.jkiss.dbeaver.model.impl.net.SSLHandlerTrustStoreImpl;
 import org.jkiss.dbeaver.model.impl.sql.QueryTransformerLimit;
@@ -72,7 +73,7 @@ import java.util.regex.Pattern;
  * PostgreDataSource
  */
 public class PostgreDataSource extends JDBCDataSource implements DBSInstanceContainer, DBPAdaptable,
-    DBPObjectStatisticsCollector {
+    DBPObjectStatisticsCollector, JDBCMetadataChangeTracker {
 
     private static final Log log = Log.getLog(PostgreDataSource.class);
     private static final PostgrePrivilegeType[] SUPPORTED_PRIVILEGE_TYPES = new PostgrePrivilegeType[]{
@@ -792,6 +793,22 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
         }
     }
 
+    @Nullable
+    @Override
+    public String readMetadataChangeMarker(@NotNull JDBCSession session) throws SQLException {
+        if (isReadDatabaseList(getContainer().getConnectionConfiguration())) {
+            // Catalog of the default database doesn't reflect changes in other databases
+            return null;
+        }
+        // Any DDL inserts, updates or deletes system catalog rows. Updated rows get new xmin.
+        return JDBCUtils.queryString(
+            session,
+            "SELECT current_database()" +
+                " || '/' || (SELECT count(*) || ':' || coalesce(max(xmin::text::bigint), 0) FROM pg_catalog.pg_class)" +
+                " || '/' || (SELECT count(*) || ':' || coalesce(max(xmin::text::bigint), 0) FROM pg_catalog.pg_attribute)" +
+                " || '/' || (SELECT count(*) || ':' || coalesce(max(xmin::text::bigint), 0) FROM pg_catalog.pg_constraint)");
+    }
+
     private static class DatabaseCache extends SimpleObjectCache<PostgreDataSource, PostgreDatabase> {
     }
 
@@ -901,6 +918,11 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
             getContainer().getActualConnectionConfiguration().getProviderProperty(PostgreConstants.PROP_READ_KEYS_WITH_COLUMNS));
     }
 
+    public boolean isUseBinaryCopy() {
+        return CommonUtils.toBoolean(
+            getContainer().getActualConnectionConfiguration().getProviderProperty(PostgreConstants.PROP_USE_BINARY_COPY));
+    }
+
     public boolean isSupportsEnumTable() {
         return supportsEnumTable;
     }
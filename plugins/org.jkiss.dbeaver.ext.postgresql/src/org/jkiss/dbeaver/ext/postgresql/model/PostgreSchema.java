@@ -836,6 +836,11 @@ public class PostgreSchema implements
             setListOrderComparator(DBUtils.nameComparator());
         }
 
+        @Override
+        protected boolean isSnapshotSupported() {
+            return true;
+        }
+
         @NotNull
         @Override
         public JDBCStatement prepareLookupStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container, @Nullable PostgreTableBase object, @Nullable String objectName) throws SQLException {
@@ -924,6 +929,11 @@ public class PostgreSchema implements
             super(getTableCache(), PostgreTableBase.class, "tabrelname", "conname");
         }
 
+        @Override
+        protected boolean isSnapshotSupported() {
+            return true;
+        }
+
         @NotNull
         @Override
         protected JDBCStatement prepareObjectsStatement(JDBCSession session, PostgreTableContainer container, PostgreTableBase forParent) throws SQLException {
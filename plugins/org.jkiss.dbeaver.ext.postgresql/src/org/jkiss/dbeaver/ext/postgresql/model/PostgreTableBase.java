@@ -86,7 +86,7 @@ public abstract class PostgreTableBase extends JDBCTable<PostgreDataSource, Post
         this.isPartition =
             getDataSource().isServerVersionAtLeast(10, 0) &&
             JDBCUtils.safeGetBoolean(dbResult, "relispartition");
-        this.acl = JDBCUtils.safeGetObject(dbResult, "relacl");
+        this.acl = PostgreUtils.safeGetAclArray(dbResult, "relacl");
         if (getDataSource().isServerVersionAtLeast(8, 2)) {
             this.relOptions = PostgreUtils.safeGetStringArray(dbResult, "reloptions");
         }
@@ -297,94 +297,35 @@ public abstract class JDBCCompositeCache<
         DBPDataSource dataSource = owner.getDataSource();
         assert (dataSource != null);
         monitor.beginTask("Load composite cache", 1);
+        JDBCMetadataSnapshot snapshot = isSnapshotSupported() ? JDBCMetadataSnapshot.getSnapshot(dataSource) : null;
+        String snapshotKey = snapshot == null ? null :
+            JDBCMetadataSnapshot.makeKey(this, owner, forParent == null ? "objects" : "objects/" + forParent.getName());
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load composite objects")) {
-
-            JDBCStatement dbStat = prepareObjectsStatement(session, owner, forParent);
-            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-            try {
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
-                if (dbResult != null) try {
-                    while (dbResult.next()) {
-                        if (monitor.isCanceled()) {
-                            return;
-                        }
-                        String parentName = forParent != null ?
-                            forParent.getName() :
-                            (parentColumnName instanceof Number ?
-                                JDBCUtils.safeGetString(dbResult, ((Number)parentColumnName).intValue()) :
-                                JDBCUtils.safeGetStringTrimmed(dbResult, parentColumnName.toString()));
-                        String objectName = objectColumnName instanceof Number ?
-                            JDBCUtils.safeGetString(dbResult, ((Number)objectColumnName).intValue()) :
-                            JDBCUtils.safeGetStringTrimmed(dbResult, objectColumnName.toString());
-
-                        if (CommonUtils.isEmpty(objectName)) {
-                            // Use default name
-                            objectName = getDefaultObjectName(dbResult, parentName);
-                        }
-
-                        if (forParent == null && CommonUtils.isEmpty(parentName)) {
-                            // No parent - can't evaluate it
-                            log.debug("Empty parent name in " + this);
-                            continue;
-                        }
-
-                        PARENT parent = forParent;
-                        if (parent == null) {
-                            parent = parentCache.getObject(monitor, owner, parentName, parentType);
-                            if (parent == null) {
-                                log.debug("Object '" + objectName + "' owner '" + parentName + "' not found");
-                                continue;
-                            }
-                        }
-                        synchronized (objectCache) {
-                            if (objectCache.containsKey(parent)) {
-                                // Already cached
-                                continue;
-                            }
-                        }
-                        // Add to map
-                        Map<String, ObjectInfo> objectMap = parentObjectMap.get(parent);
-                        if (objectMap == null) {
-                            objectMap = new TreeMap<>();
-                            parentObjectMap.put(parent, objectMap);
-                        }
-
-                        ObjectInfo objectInfo = objectMap.get(objectName);
-                        if (objectInfo == null) {
-                            OBJECT object = fetchObject(session, owner, parent, objectName, dbResult);
-                            if (object == null || !isValidObject(monitor, owner, object)) {
-                                // Can't fetch object
-                                continue;
-                            }
-                            objectName = object.getName();
-                            objectInfo = new ObjectInfo(object);
-                            objectMap.put(objectName, objectInfo);
-                        }
-                        ROW_REF[] rowRef = fetchObjectRow(session, parent, objectInfo.object, dbResult);
-                        if (rowRef == null || rowRef.length == 0) {
-                            if (!isEmptyObjectRowsAllowed()) {
-                                // At least one of rows is broken.
-                                // So entire object is broken, let's just skip it.
-                                objectInfo.broken = true;
-                                //log.debug("Object '" + objectName + "' metadata corrupted - NULL child returned");
-                            }
-                            continue;
+            boolean loaded = false;
+            if (snapshot != null) {
+                loaded = loadSnapshotObjects(monitor, session, owner, forParent, snapshot, snapshotKey, parentObjectMap);
+            }
+            if (!loaded) {
+                JDBCStatement dbStat = prepareObjectsStatement(session, owner, forParent);
+                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                try {
+                    dbStat.executeStatement();
+                    JDBCResultSet dbResult = dbStat.getResultSet();
+                    if (dbResult != null) {
+                        if (snapshot != null) {
+                            dbResult = snapshot.recordResultSet(session, dbStat, dbResult, snapshotKey);
                         }
-                        for (ROW_REF row : rowRef) {
-                            if (row != null) {
-                                objectInfo.rows.add(row);
-                            }
+                        try {
+                            fetchObjects(monitor, session, owner, forParent, dbResult, parentObjectMap);
+                        } finally {
+                            dbResult.close();
                         }
                     }
                 }
                 finally {
-                    dbResult.close();
+                    dbStat.close();
                 }
             }
-            finally {
-                dbStat.close();
-            }
         }
         catch (SQLException ex) {
             if (ex instanceof SQLFeatureNotSupportedException) {
@@ -474,6 +415,128 @@ public abstract class JDBCCompositeCache<
 
     }
 
+    /**
+     * Reads objects and their rows from the result set
+     */
+    private void fetchObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @Nullable PARENT forParent,
+        @NotNull JDBCResultSet dbResult,
+        @NotNull Map<PARENT, Map<String, ObjectInfo>> parentObjectMap
+    ) throws SQLException, DBException {
+        while (dbResult.next()) {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            String parentName = forParent != null ?
+                forParent.getName() :
+                (parentColumnName instanceof Number ?
+                    JDBCUtils.safeGetString(dbResult, ((Number)parentColumnName).intValue()) :
+                    JDBCUtils.safeGetStringTrimmed(dbResult, parentColumnName.toString()));
+            String objectName = objectColumnName instanceof Number ?
+                JDBCUtils.safeGetString(dbResult, ((Number)objectColumnName).intValue()) :
+                JDBCUtils.safeGetStringTrimmed(dbResult, objectColumnName.toString());
+
+            if (CommonUtils.isEmpty(objectName)) {
+                // Use default name
+                objectName = getDefaultObjectName(dbResult, parentName);
+            }
+
+            if (forParent == null && CommonUtils.isEmpty(parentName)) {
+                // No parent - can't evaluate it
+                log.debug("Empty parent name in " + this);
+                continue;
+            }
+
+            PARENT parent = forParent;
+            if (parent == null) {
+                parent = parentCache.getObject(monitor, owner, parentName, parentType);
+                if (parent == null) {
+                    log.debug("Object '" + objectName + "' owner '" + parentName + "' not found");
+                    continue;
+                }
+            }
+            synchronized (objectCache) {
+                if (objectCache.containsKey(parent)) {
+                    // Already cached
+                    continue;
+                }
+            }
+            // Add to map
+            Map<String, ObjectInfo> objectMap = parentObjectMap.get(parent);
+            if (objectMap == null) {
+                objectMap = new TreeMap<>();
+                parentObjectMap.put(parent, objectMap);
+            }
+
+            ObjectInfo objectInfo = objectMap.get(objectName);
+            if (objectInfo == null) {
+                OBJECT object = fetchObject(session, owner, parent, objectName, dbResult);
+                if (object == null || !isValidObject(monitor, owner, object)) {
+                    // Can't fetch object
+                    continue;
+                }
+                objectName = object.getName();
+                objectInfo = new ObjectInfo(object);
+                objectMap.put(objectName, objectInfo);
+            }
+            ROW_REF[] rowRef = fetchObjectRow(session, parent, objectInfo.object, dbResult);
+            if (rowRef == null || rowRef.length == 0) {
+                if (!isEmptyObjectRowsAllowed()) {
+                    // At least one of rows is broken.
+                    // So entire object is broken, let's just skip it.
+                    objectInfo.broken = true;
+                    //log.debug("Object '" + objectName + "' metadata corrupted - NULL child returned");
+                }
+                continue;
+            }
+            for (ROW_REF row : rowRef) {
+                if (row != null) {
+                    objectInfo.rows.add(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads objects from the metadata snapshot.
+     *
+     * @return false if there is no recorded result or it can't be replayed
+     */
+    private boolean loadSnapshotObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @Nullable PARENT forParent,
+        @NotNull JDBCMetadataSnapshot snapshot,
+        @NotNull String snapshotKey,
+        @NotNull Map<PARENT, Map<String, ObjectInfo>> parentObjectMap
+    ) {
+        try (JDBCResultSet dbResult = snapshot.openResultSet(session, owner, snapshotKey)) {
+            if (dbResult == null) {
+                return false;
+            }
+            fetchObjects(monitor, session, owner, forParent, dbResult, parentObjectMap);
+            if (monitor.isCanceled() || snapshot.isReplayComplete(dbResult)) {
+                return true;
+            }
+        } catch (Exception e) {
+            log.debug("Error reading " + getClass().getSimpleName() + " from metadata snapshot: " + e.getMessage());
+        }
+        parentObjectMap.clear();
+        snapshot.removeResult(snapshotKey);
+        return false;
+    }
+
+    /**
+     * Enables {@link JDBCMetadataSnapshot} for this cache. See {@link JDBCObjectCache#isSnapshotSupported()}
+     */
+    protected boolean isSnapshotSupported() {
+        return false;
+    }
+
     protected String getDefaultObjectName(JDBCResultSet dbResult, String parentName) {
         return parentName == null ? DEFAULT_OBJECT_NAME : parentName.toUpperCase() + "_" + DEFAULT_OBJECT_NAME;
     }
@@ -0,0 +1,432 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPRefreshableObject;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.meta.ForTest;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.io.*;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent metadata snapshot of a data source container.
+ * <p>
+ * Caches record results of their metadata queries into the snapshot. Snapshot is saved in the project metadata folder
+ * and on the next connect each recorded result is replayed once instead of running the query,
+ * so cache objects are created immediately.
+ * Snapshot is validated in background with {@link JDBCMetadataChangeTracker} change marker.
+ * If marker was changed then snapshot is dropped and objects read from it are refreshed.
+ * <p>
+ * Snapshot is enabled with {@link ModelPreferences#META_PERSISTENT_SNAPSHOT} and is available only for
+ * data sources which implement {@link JDBCMetadataChangeTracker}.
+ */
+public class JDBCMetadataSnapshot {
+
+    private static final Log log = Log.getLog(JDBCMetadataSnapshot.class);
+
+    private static final String SNAPSHOT_FOLDER = "metadata-snapshots"; //$NON-NLS-1$
+    private static final String SNAPSHOT_FILE_EXT = ".dbsnap"; //$NON-NLS-1$
+
+    private static final int FILE_MAGIC = 0x44425353;
+    private static final int FILE_VERSION = 1;
+    private static final long SAVE_DELAY_MS = 5000;
+
+    private static final Map<DBPDataSourceContainer, JDBCMetadataSnapshot> snapshots = new WeakHashMap<>();
+
+    private final DBPDataSourceContainer container;
+    private final Map<String, JDBCSnapshotResult> results = new ConcurrentHashMap<>();
+    // Results which may be replayed in the current connection
+    private final Set<String> replayableKeys = ConcurrentHashMap.newKeySet();
+    // Results loaded from file and not re-read yet
+    private final Set<String> loadedKeys = ConcurrentHashMap.newKeySet();
+    // Objects which were read from snapshot before it was validated
+    private final Set<DBSObject> servedObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final SaveJob saveJob = new SaveJob();
+
+    private WeakReference<DBPDataSource> activeDataSource = new WeakReference<>(null);
+    private volatile String changeMarker;
+    private volatile boolean validated;
+    private boolean loaded;
+
+    @ForTest
+    public JDBCMetadataSnapshot(@NotNull DBPDataSourceContainer container) {
+        this.container = container;
+    }
+
+    /**
+     * Returns metadata snapshot of the data source or null if snapshot is disabled or not supported.
+     */
+    @Nullable
+    public static JDBCMetadataSnapshot getSnapshot(@NotNull DBPDataSource dataSource) {
+        if (!(dataSource instanceof JDBCMetadataChangeTracker)) {
+            return null;
+        }
+        DBPDataSourceContainer container = dataSource.getContainer();
+        if (!container.getPreferenceStore().getBoolean(ModelPreferences.META_PERSISTENT_SNAPSHOT)) {
+            return null;
+        }
+        JDBCMetadataSnapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.computeIfAbsent(container, JDBCMetadataSnapshot::new);
+        }
+        snapshot.activate(dataSource);
+        return snapshot;
+    }
+
+    /**
+     * Makes result key for the cache query
+     *
+     * @param suffix distinguishes different queries of the same cache
+     */
+    @NotNull
+    public static String makeKey(@NotNull Object cache, @NotNull DBSObject owner, @NotNull String suffix) {
+        return cache.getClass().getName() + "|" + DBUtils.getObjectFullId(owner) + "|" + suffix;
+    }
+
+    /**
+     * Opens result set which replays recorded result.
+     * Each result is replayed only once per connection, subsequent reads must go to the database.
+     *
+     * @return result set or null if there is no recorded result
+     */
+    @Nullable
+    public JDBCResultSet openResultSet(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull String key) throws SQLException {
+        JDBCSnapshotResult result;
+        synchronized (servedObjects) {
+            if (!replayableKeys.remove(key)) {
+                return null;
+            }
+            result = results.get(key);
+            if (result == null) {
+                return null;
+            }
+            if (!validated) {
+                servedObjects.add(owner);
+            }
+        }
+        return JDBCResultSetImpl.makeResultSet(session, null, JDBCSnapshotResultSet.replay(result), "Metadata snapshot", true);
+    }
+
+    /**
+     * Checks that replayed result set provided all values requested by the reader.
+     * Otherwise objects read from it are incomplete and must be read from the database.
+     */
+    public boolean isReplayComplete(@NotNull ResultSet resultSet) {
+        if (resultSet instanceof JDBCResultSet jdbcResultSet) {
+            resultSet = jdbcResultSet.getOriginal();
+        }
+        return JDBCSnapshotResultSet.isReplayComplete(resultSet);
+    }
+
+    /**
+     * Wraps the result set of metadata query. All read values are recorded to the snapshot when
+     * the result set is closed after reading all rows.
+     */
+    @NotNull
+    public JDBCResultSet recordResultSet(
+        @NotNull JDBCSession session,
+        @NotNull JDBCStatement statement,
+        @NotNull JDBCResultSet resultSet,
+        @NotNull String key
+    ) throws SQLException {
+        ResultSet recorder = recordResult(resultSet, key);
+        if (recorder == null) {
+            return resultSet;
+        }
+        return JDBCResultSetImpl.makeResultSet(session, statement, recorder, "Metadata snapshot recording", true);
+    }
+
+    /**
+     * Wraps the result set with recorder which puts the result to the snapshot.
+     *
+     * @return recording result set or null if the result set can't be recorded
+     */
+    @ForTest
+    @Nullable
+    public ResultSet recordResult(@NotNull ResultSet resultSet, @NotNull String key) {
+        return JDBCSnapshotResultSet.record(resultSet, result -> putResult(key, result));
+    }
+
+    /**
+     * Opens result set which replays recorded result regardless of the connection state.
+     */
+    @ForTest
+    @Nullable
+    public ResultSet replayResult(@NotNull String key) {
+        JDBCSnapshotResult result = results.get(key);
+        return result == null ? null : JDBCSnapshotResultSet.replay(result);
+    }
+
+    /**
+     * Removes recorded result. Called when recorded result can't be used.
+     */
+    public void removeResult(@NotNull String key) {
+        replayableKeys.remove(key);
+        loadedKeys.remove(key);
+        if (results.remove(key) != null) {
+            saveJob.schedule(SAVE_DELAY_MS);
+        }
+    }
+
+    private void putResult(@NotNull String key, @NotNull JDBCSnapshotResult result) {
+        results.put(key, result);
+        replayableKeys.remove(key);
+        loadedKeys.remove(key);
+        saveJob.schedule(SAVE_DELAY_MS);
+    }
+
+    private synchronized void activate(@NotNull DBPDataSource dataSource) {
+        if (activeDataSource.get() == dataSource) {
+            return;
+        }
+        // New connection
+        activeDataSource = new WeakReference<>(dataSource);
+        if (!loaded) {
+            loaded = true;
+            loadSnapshot();
+        }
+        synchronized (servedObjects) {
+            validated = false;
+            servedObjects.clear();
+            replayableKeys.clear();
+            replayableKeys.addAll(results.keySet());
+        }
+        new ValidateJob(dataSource).schedule();
+    }
+
+    private void finishValidation(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource dataSource, @Nullable String marker) {
+        List<DBSObject> staleObjects;
+        synchronized (this) {
+            if (activeDataSource.get() != dataSource) {
+                // Reconnected during validation
+                return;
+            }
+            staleObjects = applyChangeMarker(marker);
+        }
+        if (staleObjects == null) {
+            return;
+        }
+        saveJob.schedule(SAVE_DELAY_MS);
+        if (staleObjects.isEmpty()) {
+            return;
+        }
+        log.debug("Metadata snapshot of '" + container.getName() + "' is outdated. Refresh " + staleObjects.size() + " object(s)");
+        for (DBSObject object : staleObjects) {
+            try {
+                DBNDatabaseNode node = DBNUtils.getNodeByObject(object);
+                if (node != null) {
+                    node.refreshNode(monitor, this);
+                } else if (object instanceof DBPRefreshableObject refreshableObject) {
+                    refreshableObject.refreshObject(monitor);
+                }
+            } catch (Exception e) {
+                log.debug("Error refreshing outdated object '" + object.getName() + "'", e);
+            }
+        }
+    }
+
+    /**
+     * Validates snapshot with the change marker read from the database.
+     * If marker was changed then results loaded from file are dropped.
+     *
+     * @return objects read from the snapshot before validation, which must be refreshed,
+     * or null if snapshot is valid
+     */
+    @ForTest
+    @Nullable
+    public synchronized List<DBSObject> applyChangeMarker(@Nullable String marker) {
+        boolean valid = marker != null && marker.equals(changeMarker);
+        synchronized (servedObjects) {
+            changeMarker = marker;
+            validated = true;
+            List<DBSObject> staleObjects = new ArrayList<>(servedObjects);
+            servedObjects.clear();
+            if (valid) {
+                return null;
+            }
+            for (String key : loadedKeys) {
+                replayableKeys.remove(key);
+                results.remove(key);
+            }
+            loadedKeys.clear();
+            return staleObjects;
+        }
+    }
+
+    @Nullable
+    private Path getSnapshotFile(boolean create) {
+        DBPProject project = container.getProject();
+        Path metadataFolder = project.getMetadataFolder(create);
+        if (metadataFolder == null) {
+            return null;
+        }
+        return metadataFolder.resolve(SNAPSHOT_FOLDER)
+            .resolve(container.getId().replaceAll("[^\\w.\\-]", "_") + SNAPSHOT_FILE_EXT);
+    }
+
+    private void loadSnapshot() {
+        Path file = getSnapshotFile(false);
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            readSnapshot(in);
+        } catch (Exception e) {
+            log.debug("Error reading metadata snapshot '" + file + "'", e);
+        }
+    }
+
+    private void saveSnapshot() {
+        Path file = getSnapshotFile(true);
+        if (file == null) {
+            return;
+        }
+        String marker = changeMarker;
+        try {
+            if (marker == null || results.isEmpty()) {
+                // Snapshot without marker can't be trusted
+                Files.deleteIfExists(file);
+                return;
+            }
+            Files.createDirectories(file.getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                writeSnapshot(out, marker);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Error saving metadata snapshot '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Reads snapshot contents. Loaded results are dropped on validation if change marker differs.
+     * Snapshot of another container is ignored.
+     */
+    @ForTest
+    public void readSnapshot(@NotNull InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream, 64 * 1024)));
+        if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+            throw new IOException("Unsupported metadata snapshot format");
+        }
+        JDBCSnapshotResult.Input input = new JDBCSnapshotResult.Input(in);
+        if (!container.getId().equals(input.readString())) {
+            return;
+        }
+        String marker = input.readString();
+        Map<String, JDBCSnapshotResult> fileResults = new LinkedHashMap<>();
+        int resultCount = input.readVarInt();
+        for (int i = 0; i < resultCount; i++) {
+            String key = input.readString();
+            JDBCSnapshotResult result = input.readResult();
+            if (key != null) {
+                fileResults.put(key, result);
+            }
+        }
+        changeMarker = marker;
+        results.putAll(fileResults);
+        loadedKeys.addAll(fileResults.keySet());
+    }
+
+    /**
+     * Writes all results with the specified change marker
+     */
+    @ForTest
+    public void writeSnapshot(@NotNull OutputStream stream, @NotNull String marker) throws IOException {
+        GZIPOutputStream gzipStream = new GZIPOutputStream(stream, 64 * 1024);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzipStream));
+        out.writeInt(FILE_MAGIC);
+        out.writeInt(FILE_VERSION);
+        JDBCSnapshotResult.Output output = new JDBCSnapshotResult.Output(out);
+        output.writeString(container.getId());
+        output.writeString(marker);
+        Map<String, JDBCSnapshotResult> savedResults = new LinkedHashMap<>(results);
+        output.writeVarInt(savedResults.size());
+        for (Map.Entry<String, JDBCSnapshotResult> entry : savedResults.entrySet()) {
+            output.writeString(entry.getKey());
+            output.writeResult(entry.getValue());
+        }
+        out.flush();
+        gzipStream.finish();
+    }
+
+    private class ValidateJob extends AbstractJob {
+        private final DBPDataSource dataSource;
+
+        ValidateJob(@NotNull DBPDataSource dataSource) {
+            super("Validate metadata snapshot of '" + dataSource.getContainer().getName() + "'");
+            this.dataSource = dataSource;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            String marker = null;
+            try (JDBCSession session = DBUtils.openMetaSession(monitor, dataSource, "Read metadata change marker")) {
+                marker = ((JDBCMetadataChangeTracker) dataSource).readMetadataChangeMarker(session);
+            } catch (Exception e) {
+                log.debug("Error reading metadata change marker", e);
+            }
+            finishValidation(monitor, dataSource, marker);
+            return Status.OK_STATUS;
+        }
+    }
+
+    private class SaveJob extends AbstractJob {
+        SaveJob() {
+            super("Save metadata snapshot");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            saveSnapshot();
+            return Status.OK_STATUS;
+        }
+    }
+
+}
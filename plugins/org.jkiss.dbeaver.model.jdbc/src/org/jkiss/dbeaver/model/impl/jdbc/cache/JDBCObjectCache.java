@@ -50,6 +50,8 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    // Objects were read by the last load from the metadata snapshot
+    private volatile boolean loadedFromSnapshot;
 
     protected JDBCObjectCache() {
     }
@@ -95,6 +97,7 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         }
 
         List<OBJECT> tmpObjectList = new ArrayList<>();
+        loadedFromSnapshot = false;
 
         DBPDataSource dataSource = owner.getDataSource();
         if (dataSource == null) {
@@ -102,36 +105,38 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         }
         if (owner.isPersisted()) {
             // Load cache from database only for persisted objects
+            JDBCMetadataSnapshot snapshot = isSnapshotSupported() ? JDBCMetadataSnapshot.getSnapshot(dataSource) : null;
+            String snapshotKey = snapshot == null ? null : JDBCMetadataSnapshot.makeKey(this, owner, "objects");
             try {
                 try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
                     beforeCacheLoading(session, owner);
-                    try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
-                        monitor.subTask("Load " + getCacheName());
-                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
-                        if (dbResult != null) {
-                            try {
-                                while (dbResult.next()) {
-                                    if (monitor.isCanceled()) {
-                                        return;
-                                    }
-
-                                    OBJECT object = fetchObject(session, owner, dbResult);
-                                    if (object == null || !isValidObject(monitor, owner, object)) {
-                                        continue;
+                    try {
+                        boolean loaded = false;
+                        if (snapshot != null) {
+                            loaded = loadSnapshotObjects(monitor, session, owner, snapshot, snapshotKey, tmpObjectList);
+                            loadedFromSnapshot = loaded;
+                            if (monitor.isCanceled()) {
+                                return;
+                            }
+                        }
+                        if (!loaded) {
+                            try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
+                                monitor.subTask("Load " + getCacheName());
+                                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                                dbStat.executeStatement();
+                                JDBCResultSet dbResult = dbStat.getResultSet();
+                                if (dbResult != null) {
+                                    if (snapshot != null) {
+                                        dbResult = snapshot.recordResultSet(session, dbStat, dbResult, snapshotKey);
                                     }
-                                    tmpObjectList.add(object);
-
-                                    // Do not log every object load. This overheats UI in case of long lists
-                                    //monitor.subTask(object.getName());
-                                    if (tmpObjectList.size() == maximumCacheSize) {
-                                        log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
-                                        break;
+                                    try {
+                                        if (!fetchObjects(monitor, session, owner, dbResult, tmpObjectList)) {
+                                            return;
+                                        }
+                                    } finally {
+                                        dbResult.close();
                                     }
                                 }
-                            } finally {
-                                dbResult.close();
                             }
                         }
                     } finally {
@@ -163,6 +168,84 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         this.invalidateObjects(monitor, owner, new CacheIterator());
     }
 
+    /**
+     * Reads objects from the result set.
+     *
+     * @return false if reading was canceled
+     */
+    private boolean fetchObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @NotNull JDBCResultSet dbResult,
+        @NotNull List<OBJECT> objects
+    ) throws SQLException, DBException {
+        while (dbResult.next()) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+
+            OBJECT object = fetchObject(session, owner, dbResult);
+            if (object == null || !isValidObject(monitor, owner, object)) {
+                continue;
+            }
+            objects.add(object);
+
+            // Do not log every object load. This overheats UI in case of long lists
+            //monitor.subTask(object.getName());
+            if (objects.size() == maximumCacheSize) {
+                log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads objects from the metadata snapshot.
+     *
+     * @return false if there is no recorded result or it can't be replayed
+     */
+    private boolean loadSnapshotObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @NotNull JDBCMetadataSnapshot snapshot,
+        @NotNull String snapshotKey,
+        @NotNull List<OBJECT> objects
+    ) {
+        try (JDBCResultSet dbResult = snapshot.openResultSet(session, owner, snapshotKey)) {
+            if (dbResult == null) {
+                return false;
+            }
+            if (fetchObjects(monitor, session, owner, dbResult, objects) && snapshot.isReplayComplete(dbResult)) {
+                return true;
+            }
+        } catch (Exception e) {
+            log.debug("Error reading " + getCacheName() + " from metadata snapshot: " + e.getMessage());
+        }
+        objects.clear();
+        snapshot.removeResult(snapshotKey);
+        return false;
+    }
+
+    /**
+     * Enables {@link JDBCMetadataSnapshot} for this cache.
+     * Cache must read objects only from the result set columns,
+     * so objects read from the recorded result are the same as read from the database.
+     */
+    protected boolean isSnapshotSupported() {
+        return false;
+    }
+
+    /**
+     * Returns true if objects were read by the last load from the metadata snapshot instead of the database.
+     * Such objects may be older than the database state until the snapshot is validated.
+     */
+    protected boolean isLoadedFromSnapshot() {
+        return loadedFromSnapshot;
+    }
+
     public void beforeCacheLoading(JDBCSession session, OWNER owner) throws DBException {
         // Do nothing
     }
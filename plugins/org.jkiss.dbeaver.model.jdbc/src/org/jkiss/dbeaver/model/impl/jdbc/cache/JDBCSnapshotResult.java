@@ -0,0 +1,481 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Recorded metadata query result.
+ * Keeps column descriptions and values returned by result set getters, row by row.
+ * Each distinct getter call (method and column) gets an index, row values are stored by this index.
+ */
+final class JDBCSnapshotResult {
+
+    // Getter wasn't called for this row
+    static final Object NOT_READ = new Object();
+    // Primitive getter returned SQL NULL
+    static final Object NULL_VALUE = new Object();
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_STRING_REF = 2;
+    private static final byte TAG_BOOLEAN = 3;
+    private static final byte TAG_BYTE = 4;
+    private static final byte TAG_SHORT = 5;
+    private static final byte TAG_INTEGER = 6;
+    private static final byte TAG_LONG = 7;
+    private static final byte TAG_FLOAT = 8;
+    private static final byte TAG_DOUBLE = 9;
+    private static final byte TAG_BIG_DECIMAL = 10;
+    private static final byte TAG_BIG_INTEGER = 11;
+    private static final byte TAG_DATE = 12;
+    private static final byte TAG_TIME = 13;
+    private static final byte TAG_TIMESTAMP = 14;
+    private static final byte TAG_BYTES = 15;
+    private static final byte TAG_ARRAY = 16;
+    private static final byte TAG_ERROR = 17;
+    private static final byte TAG_NULL_VALUE = 18;
+
+    // Array component types. Index is the type code.
+    private static final Class<?>[] ARRAY_COMPONENT_TYPES = {
+        Object.class, String.class, Boolean.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigDecimal.class
+    };
+
+    /**
+     * Error thrown by the getter
+     */
+    static final class RecordedError {
+        final String message;
+        final String sqlState;
+        final int errorCode;
+
+        RecordedError(@NotNull SQLException error) {
+            this(error.getMessage(), error.getSQLState(), error.getErrorCode());
+        }
+
+        RecordedError(String message, String sqlState, int errorCode) {
+            this.message = message;
+            this.sqlState = sqlState;
+            this.errorCode = errorCode;
+        }
+
+        SQLException toException() {
+            return new SQLException(message, sqlState, errorCode);
+        }
+    }
+
+    /**
+     * Contents of the SQL array
+     */
+    static final class RecordedArray {
+        final Object[] elements;
+
+        RecordedArray(@NotNull Object[] elements) {
+            this.elements = elements;
+        }
+
+        Object[] copyElements() {
+            return elements.clone();
+        }
+    }
+
+    final String[] columnLabels;
+    final String[] columnNames;
+    final int[] columnTypes;
+    final String[] columnTypeNames;
+
+    private final List<String> calls = new ArrayList<>();
+    private final Map<String, Integer> callIndexes = new HashMap<>();
+    final List<Object[]> rows = new ArrayList<>();
+
+    JDBCSnapshotResult(@NotNull String[] columnLabels, @NotNull String[] columnNames, @NotNull int[] columnTypes, @NotNull String[] columnTypeNames) {
+        this.columnLabels = columnLabels;
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.columnTypeNames = columnTypeNames;
+    }
+
+    int getColumnCount() {
+        return columnLabels.length;
+    }
+
+    @NotNull
+    static String makeCallKey(@NotNull String methodName, @NotNull Object column) {
+        return column instanceof Integer ? methodName + "#" + column : methodName + ":" + column;
+    }
+
+    int getCallIndex(@NotNull String callKey) {
+        Integer index = callIndexes.get(callKey);
+        return index == null ? -1 : index;
+    }
+
+    int addCall(@NotNull String callKey) {
+        Integer index = callIndexes.get(callKey);
+        if (index == null) {
+            index = calls.size();
+            calls.add(callKey);
+            callIndexes.put(callKey, index);
+        }
+        return index;
+    }
+
+    @NotNull
+    static Object[] newRow(int size) {
+        Object[] row = new Object[size];
+        Arrays.fill(row, NOT_READ);
+        return row;
+    }
+
+    @NotNull
+    static Object getValue(@Nullable Object[] row, int index) {
+        if (row == null || index < 0 || index >= row.length) {
+            return NOT_READ;
+        }
+        return row[index];
+    }
+
+    /**
+     * Checks that value can be stored in snapshot
+     */
+    static boolean isSupportedValue(@Nullable Object value) {
+        return value == null || value == NULL_VALUE ||
+            value instanceof String || value instanceof Boolean ||
+            value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long ||
+            value instanceof Float || value instanceof Double ||
+            value instanceof BigDecimal || value instanceof BigInteger ||
+            value instanceof Date || value instanceof Time || value instanceof Timestamp ||
+            value instanceof byte[] || value instanceof RecordedError || value instanceof RecordedArray;
+    }
+
+    /**
+     * Makes recorded array. Returns null if array elements can't be stored in snapshot.
+     */
+    @Nullable
+    static RecordedArray makeArray(@Nullable Object array) {
+        if (!(array instanceof Object[] elements) || getArrayComponentType(elements.getClass().getComponentType()) < 0) {
+            return null;
+        }
+        for (Object element : elements) {
+            if (element instanceof RecordedArray || element instanceof RecordedError || !isSupportedValue(element)) {
+                return null;
+            }
+        }
+        return new RecordedArray(elements.clone());
+    }
+
+    private static int getArrayComponentType(@NotNull Class<?> componentType) {
+        for (int i = 0; i < ARRAY_COMPONENT_TYPES.length; i++) {
+            if (ARRAY_COMPONENT_TYPES[i] == componentType) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Serialization
+
+    /**
+     * Snapshot writer. Strings are written once, repeated strings refer to the first occurrence.
+     */
+    static final class Output {
+        private final DataOutput out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Output(@NotNull DataOutput out) {
+            this.out = out;
+        }
+
+        void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+
+        void writeString(@Nullable String value) throws IOException {
+            writeValue(value);
+        }
+
+        void writeResult(@NotNull JDBCSnapshotResult result) throws IOException {
+            int columnCount = result.getColumnCount();
+            writeVarInt(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                writeString(result.columnLabels[i]);
+                writeString(result.columnNames[i]);
+                writeVarInt(result.columnTypes[i]);
+                writeString(result.columnTypeNames[i]);
+            }
+            writeVarInt(result.calls.size());
+            for (String call : result.calls) {
+                writeString(call);
+            }
+            writeVarInt(result.rows.size());
+            for (Object[] row : result.rows) {
+                int valueCount = 0;
+                for (Object value : row) {
+                    if (value != NOT_READ) {
+                        valueCount++;
+                    }
+                }
+                writeVarInt(valueCount);
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] != NOT_READ) {
+                        writeVarInt(i);
+                        writeValue(row[i]);
+                    }
+                }
+            }
+        }
+
+        private void writeValue(@Nullable Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(TAG_NULL);
+            } else if (value == NULL_VALUE) {
+                out.writeByte(TAG_NULL_VALUE);
+            } else if (value instanceof String str) {
+                Integer index = strings.get(str);
+                if (index != null) {
+                    out.writeByte(TAG_STRING_REF);
+                    writeVarInt(index);
+                } else {
+                    strings.put(str, strings.size());
+                    out.writeByte(TAG_STRING);
+                    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(bytes.length);
+                    out.write(bytes);
+                }
+            } else if (value instanceof Boolean bool) {
+                out.writeByte(TAG_BOOLEAN);
+                out.writeBoolean(bool);
+            } else if (value instanceof Byte num) {
+                out.writeByte(TAG_BYTE);
+                out.writeByte(num);
+            } else if (value instanceof Short num) {
+                out.writeByte(TAG_SHORT);
+                out.writeShort(num);
+            } else if (value instanceof Integer num) {
+                out.writeByte(TAG_INTEGER);
+                out.writeInt(num);
+            } else if (value instanceof Long num) {
+                out.writeByte(TAG_LONG);
+                out.writeLong(num);
+            } else if (value instanceof Float num) {
+                out.writeByte(TAG_FLOAT);
+                out.writeFloat(num);
+            } else if (value instanceof Double num) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(num);
+            } else if (value instanceof BigDecimal num) {
+                out.writeByte(TAG_BIG_DECIMAL);
+                writeValue(num.toString());
+            } else if (value instanceof BigInteger num) {
+                out.writeByte(TAG_BIG_INTEGER);
+                writeValue(num.toString());
+            } else if (value instanceof Timestamp ts) {
+                out.writeByte(TAG_TIMESTAMP);
+                out.writeLong(ts.getTime());
+                out.writeInt(ts.getNanos());
+            } else if (value instanceof Date date) {
+                out.writeByte(TAG_DATE);
+                out.writeLong(date.getTime());
+            } else if (value instanceof Time time) {
+                out.writeByte(TAG_TIME);
+                out.writeLong(time.getTime());
+            } else if (value instanceof byte[] bytes) {
+                out.writeByte(TAG_BYTES);
+                writeVarInt(bytes.length);
+                out.write(bytes);
+            } else if (value instanceof RecordedArray array) {
+                out.writeByte(TAG_ARRAY);
+                writeVarInt(getArrayComponentType(array.elements.getClass().getComponentType()));
+                writeVarInt(array.elements.length);
+                for (Object element : array.elements) {
+                    writeValue(element);
+                }
+            } else if (value instanceof RecordedError error) {
+                out.writeByte(TAG_ERROR);
+                writeValue(error.message);
+                writeValue(error.sqlState);
+                out.writeInt(error.errorCode);
+            } else {
+                throw new IOException("Unsupported snapshot value type: " + value.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * Snapshot reader
+     */
+    static final class Input {
+        private final DataInput in;
+        private final List<String> strings = new ArrayList<>();
+
+        Input(@NotNull DataInput in) {
+            this.in = in;
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed snapshot integer");
+        }
+
+        @Nullable
+        String readString() throws IOException {
+            Object value = readValue();
+            if (value != null && !(value instanceof String)) {
+                throw new IOException("String expected in snapshot");
+            }
+            return (String) value;
+        }
+
+        @NotNull
+        JDBCSnapshotResult readResult() throws IOException {
+            int columnCount = readVarInt();
+            String[] labels = new String[columnCount];
+            String[] names = new String[columnCount];
+            int[] types = new int[columnCount];
+            String[] typeNames = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                labels[i] = readString();
+                names[i] = readString();
+                types[i] = readVarInt();
+                typeNames[i] = readString();
+            }
+            JDBCSnapshotResult result = new JDBCSnapshotResult(labels, names, types, typeNames);
+            int callCount = readVarInt();
+            for (int i = 0; i < callCount; i++) {
+                String call = readString();
+                if (call == null) {
+                    throw new IOException("Empty call in snapshot");
+                }
+                result.addCall(call);
+            }
+            int rowCount = readVarInt();
+            for (int i = 0; i < rowCount; i++) {
+                Object[] row = newRow(callCount);
+                int valueCount = readVarInt();
+                for (int k = 0; k < valueCount; k++) {
+                    int index = readVarInt();
+                    if (index >= callCount) {
+                        throw new IOException("Bad value index in snapshot: " + index);
+                    }
+                    row[index] = readValue();
+                }
+                result.rows.add(row);
+            }
+            return result;
+        }
+
+        @Nullable
+        private Object readValue() throws IOException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_NULL_VALUE:
+                    return NULL_VALUE;
+                case TAG_STRING: {
+                    byte[] bytes = new byte[readVarInt()];
+                    in.readFully(bytes);
+                    String str = new String(bytes, StandardCharsets.UTF_8);
+                    strings.add(str);
+                    return str;
+                }
+                case TAG_STRING_REF: {
+                    int index = readVarInt();
+                    if (index >= strings.size()) {
+                        throw new IOException("Bad string reference in snapshot: " + index);
+                    }
+                    return strings.get(index);
+                }
+                case TAG_BOOLEAN:
+                    return in.readBoolean();
+                case TAG_BYTE:
+                    return in.readByte();
+                case TAG_SHORT:
+                    return in.readShort();
+                case TAG_INTEGER:
+                    return in.readInt();
+                case TAG_LONG:
+                    return in.readLong();
+                case TAG_FLOAT:
+                    return in.readFloat();
+                case TAG_DOUBLE:
+                    return in.readDouble();
+                case TAG_BIG_DECIMAL:
+                    return new BigDecimal(readString());
+                case TAG_BIG_INTEGER:
+                    return new BigInteger(readString());
+                case TAG_DATE:
+                    return new Date(in.readLong());
+                case TAG_TIME:
+                    return new Time(in.readLong());
+                case TAG_TIMESTAMP: {
+                    Timestamp ts = new Timestamp(in.readLong());
+                    ts.setNanos(in.readInt());
+                    return ts;
+                }
+                case TAG_BYTES: {
+                    byte[] bytes = new byte[readVarInt()];
+                    in.readFully(bytes);
+                    return bytes;
+                }
+                case TAG_ARRAY: {
+                    int componentType = readVarInt();
+                    if (componentType >= ARRAY_COMPONENT_TYPES.length) {
+                        throw new IOException("Bad array type in snapshot: " + componentType);
+                    }
+                    Object[] elements = (Object[]) java.lang.reflect.Array.newInstance(ARRAY_COMPONENT_TYPES[componentType], readVarInt());
+                    for (int i = 0; i < elements.length; i++) {
+                        elements[i] = readValue();
+                    }
+                    return new RecordedArray(elements);
+                }
+                case TAG_ERROR: {
+                    String message = readString();
+                    String sqlState = readString();
+                    return new RecordedError(message, sqlState, in.readInt());
+                }
+                default:
+                    throw new IOException("Bad value tag in snapshot: " + tag);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,411 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Result sets which record metadata query results to {@link JDBCSnapshotResult} and replay them back.
+ * <p>
+ * Recording result set passes all calls to the original result set and remembers values returned by column getters.
+ * Replaying result set returns the same values for the same getter calls, so cache fetch functions
+ * produce the same objects without running the query.
+ */
+final class JDBCSnapshotResultSet {
+
+    private static final Set<String> STREAM_GETTERS = Set.of(
+        "getAsciiStream", "getBinaryStream", "getCharacterStream", "getNCharacterStream", "getUnicodeStream",
+        "getBlob", "getClob", "getNClob", "getRef", "getRowId", "getSQLXML", "getURL");
+
+    private JDBCSnapshotResultSet() {
+    }
+
+    /**
+     * Creates recording result set.
+     * Result is passed to the consumer when result set is closed after reading all rows.
+     *
+     * @return recording result set or null if results of the original result set can't be recorded
+     */
+    @Nullable
+    static ResultSet record(@NotNull ResultSet original, @NotNull Consumer<JDBCSnapshotResult> onComplete) {
+        JDBCSnapshotResult result;
+        try {
+            ResultSetMetaData metaData = original.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            String[] labels = new String[columnCount];
+            String[] names = new String[columnCount];
+            int[] types = new int[columnCount];
+            String[] typeNames = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+                names[i] = metaData.getColumnName(i + 1);
+                types[i] = metaData.getColumnType(i + 1);
+                typeNames[i] = metaData.getColumnTypeName(i + 1);
+            }
+            result = new JDBCSnapshotResult(labels, names, types, typeNames);
+        } catch (Exception e) {
+            return null;
+        }
+        return makeProxy(ResultSet.class, new RecordHandler(original, result, onComplete));
+    }
+
+    /**
+     * Creates result set which replays recorded results
+     */
+    @NotNull
+    static ResultSet replay(@NotNull JDBCSnapshotResult result) {
+        return makeProxy(ResultSet.class, new ReplayHandler(result));
+    }
+
+    /**
+     * Checks that all rows were replayed and all values requested by the reader were found in the snapshot
+     */
+    static boolean isReplayComplete(@NotNull ResultSet resultSet) {
+        return Proxy.isProxyClass(resultSet.getClass()) &&
+            Proxy.getInvocationHandler(resultSet) instanceof ReplayHandler handler &&
+            handler.exhausted && !handler.broken;
+    }
+
+    private static boolean isColumnCall(@NotNull String name, @Nullable Object[] args) {
+        return args != null && args.length == 1 &&
+            (args[0] instanceof String || args[0] instanceof Integer) &&
+            (name.startsWith("get") || name.equals("findColumn"));
+    }
+
+    @Nullable
+    private static Object getDefaultValue(@NotNull Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        } else if (type == Boolean.TYPE) {
+            return false;
+        } else if (type == Byte.TYPE) {
+            return (byte) 0;
+        } else if (type == Short.TYPE) {
+            return (short) 0;
+        } else if (type == Integer.TYPE) {
+            return 0;
+        } else if (type == Long.TYPE) {
+            return 0L;
+        } else if (type == Float.TYPE) {
+            return 0f;
+        } else if (type == Double.TYPE) {
+            return 0d;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Object handleObjectMethod(@NotNull Object proxy, @NotNull Method method, @Nullable Object[] args) {
+        return switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> args != null && proxy == args[0];
+            case "toString" -> "Metadata snapshot " + method.getDeclaringClass().getSimpleName();
+            default -> null;
+        };
+    }
+
+    private static boolean isObjectMethod(@NotNull Method method) {
+        return method.getDeclaringClass() == Object.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T makeProxy(@NotNull Class<T> type, @NotNull InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JDBCSnapshotResultSet.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    private static class RecordHandler implements InvocationHandler {
+        private final ResultSet original;
+        private final JDBCSnapshotResult result;
+        private final Consumer<JDBCSnapshotResult> onComplete;
+        private Object[] currentRow;
+        private boolean exhausted;
+        private boolean failed;
+        private boolean closed;
+
+        RecordHandler(@NotNull ResultSet original, @NotNull JDBCSnapshotResult result, @NotNull Consumer<JDBCSnapshotResult> onComplete) {
+            this.original = original;
+            this.result = result;
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            try {
+                switch (name) {
+                    case "next" -> {
+                        boolean hasRow = original.next();
+                        if (hasRow) {
+                            currentRow = failed ? null : JDBCSnapshotResult.newRow(0);
+                            if (currentRow != null) {
+                                result.rows.add(currentRow);
+                            }
+                        } else {
+                            currentRow = null;
+                            exhausted = true;
+                        }
+                        return hasRow;
+                    }
+                    case "close" -> {
+                        original.close();
+                        if (!closed) {
+                            closed = true;
+                            if (exhausted && !failed) {
+                                onComplete.accept(result);
+                            }
+                        }
+                        return null;
+                    }
+                }
+                if (isColumnCall(name, args) && !STREAM_GETTERS.contains(name)) {
+                    return recordValue(method, args);
+                }
+                if (name.startsWith("get") && args != null && args.length > 0) {
+                    // Some value we can't record
+                    failed = true;
+                }
+                return method.invoke(original, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Nullable
+        private Object recordValue(@NotNull Method method, @NotNull Object[] args) throws Throwable {
+            String callKey = JDBCSnapshotResult.makeCallKey(method.getName(), args[0]);
+            Object value;
+            try {
+                value = method.invoke(original, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException error) {
+                    storeValue(callKey, new JDBCSnapshotResult.RecordedError(error));
+                } else {
+                    failed = true;
+                }
+                throw e.getCause();
+            }
+            if (value instanceof Array array) {
+                JDBCSnapshotResult.RecordedArray recordedArray;
+                try {
+                    recordedArray = JDBCSnapshotResult.makeArray(array.getArray());
+                } catch (SQLException e) {
+                    recordedArray = null;
+                }
+                if (recordedArray == null) {
+                    failed = true;
+                    return value;
+                }
+                storeValue(callKey, recordedArray);
+                return makeProxy(Array.class, new ArrayHandler(recordedArray));
+            }
+            Object storedValue = value;
+            if (method.getReturnType().isPrimitive() && !method.getName().equals("findColumn") && original.wasNull()) {
+                storedValue = JDBCSnapshotResult.NULL_VALUE;
+            }
+            if (JDBCSnapshotResult.isSupportedValue(storedValue)) {
+                storeValue(callKey, storedValue instanceof byte[] bytes ? bytes.clone() : storedValue);
+            } else {
+                failed = true;
+            }
+            return value;
+        }
+
+        private void storeValue(@NotNull String callKey, @Nullable Object value) {
+            if (failed || currentRow == null) {
+                return;
+            }
+            int index = result.addCall(callKey);
+            if (index >= currentRow.length) {
+                int oldLength = currentRow.length;
+                currentRow = Arrays.copyOf(currentRow, index + 1);
+                Arrays.fill(currentRow, oldLength, currentRow.length, JDBCSnapshotResult.NOT_READ);
+                result.rows.set(result.rows.size() - 1, currentRow);
+            }
+            currentRow[index] = value;
+        }
+    }
+
+    private static class ReplayHandler implements InvocationHandler {
+        private final JDBCSnapshotResult result;
+        private int rowIndex = -1;
+        private Object[] currentRow;
+        private boolean wasNull;
+        private boolean closed;
+        private volatile boolean exhausted;
+        private volatile boolean broken;
+
+        ReplayHandler(@NotNull JDBCSnapshotResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return handleObjectMethod(proxy, method, args);
+            }
+            String name = method.getName();
+            switch (name) {
+                case "next":
+                    if (closed || exhausted) {
+                        return false;
+                    }
+                    rowIndex++;
+                    if (rowIndex < result.rows.size()) {
+                        currentRow = result.rows.get(rowIndex);
+                        return true;
+                    }
+                    currentRow = null;
+                    exhausted = true;
+                    return false;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getMetaData":
+                    return makeProxy(ResultSetMetaData.class, new MetaDataHandler(result));
+                case "wasNull":
+                    return wasNull;
+                case "getType":
+                    return ResultSet.TYPE_FORWARD_ONLY;
+                case "getConcurrency":
+                    return ResultSet.CONCUR_READ_ONLY;
+                case "getFetchSize":
+                    return 0;
+                case "getStatement":
+                case "getWarnings":
+                case "clearWarnings":
+                case "setFetchSize":
+                    return null;
+            }
+            if (isColumnCall(name, args)) {
+                return replayValue(method, args);
+            }
+            throw new SQLFeatureNotSupportedException("Metadata snapshot doesn't support " + name);
+        }
+
+        @Nullable
+        private Object replayValue(@NotNull Method method, @NotNull Object[] args) throws SQLException {
+            int index = result.getCallIndex(JDBCSnapshotResult.makeCallKey(method.getName(), args[0]));
+            Object value = JDBCSnapshotResult.getValue(currentRow, index);
+            if (value == JDBCSnapshotResult.NOT_READ) {
+                // Reader requested value which wasn't read during recording. Results can't be trusted.
+                broken = true;
+                wasNull = true;
+                return getDefaultValue(method.getReturnType());
+            }
+            if (value instanceof JDBCSnapshotResult.RecordedError error) {
+                wasNull = true;
+                throw error.toException();
+            }
+            if (value == JDBCSnapshotResult.NULL_VALUE) {
+                wasNull = true;
+                return getDefaultValue(method.getReturnType());
+            }
+            wasNull = value == null;
+            if (value instanceof JDBCSnapshotResult.RecordedArray array) {
+                return makeProxy(Array.class, new ArrayHandler(array));
+            } else if (value instanceof byte[] bytes) {
+                return bytes.clone();
+            } else if (value instanceof java.util.Date date) {
+                return date.clone();
+            }
+            return value;
+        }
+    }
+
+    private static class MetaDataHandler implements InvocationHandler {
+        private final JDBCSnapshotResult result;
+
+        MetaDataHandler(@NotNull JDBCSnapshotResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return handleObjectMethod(proxy, method, args);
+            }
+            String name = method.getName();
+            if (name.equals("getColumnCount")) {
+                return result.getColumnCount();
+            } else if (name.equals("isWrapperFor")) {
+                return false;
+            } else if (name.equals("unwrap")) {
+                throw new SQLException("Metadata snapshot is not a wrapper");
+            } else if (name.equals("isNullable")) {
+                return ResultSetMetaData.columnNullableUnknown;
+            }
+            if (args != null && args.length == 1 && args[0] instanceof Integer column) {
+                if (column < 1 || column > result.getColumnCount()) {
+                    throw new SQLException("Column index out of range: " + column);
+                }
+                switch (name) {
+                    case "getColumnLabel":
+                        return result.columnLabels[column - 1];
+                    case "getColumnName":
+                        return result.columnNames[column - 1];
+                    case "getColumnType":
+                        return result.columnTypes[column - 1];
+                    case "getColumnTypeName":
+                        return result.columnTypeNames[column - 1];
+                }
+            }
+            return getDefaultValue(method.getReturnType());
+        }
+    }
+
+    private static class ArrayHandler implements InvocationHandler {
+        private final JDBCSnapshotResult.RecordedArray array;
+
+        ArrayHandler(@NotNull JDBCSnapshotResult.RecordedArray array) {
+            this.array = array;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return handleObjectMethod(proxy, method, args);
+            }
+            switch (method.getName()) {
+                case "getArray":
+                    if (args == null || args.length == 0) {
+                        return array.copyElements();
+                    }
+                    break;
+                case "getBaseType":
+                    return Types.OTHER;
+                case "getBaseTypeName":
+                    return null;
+                case "free":
+                    return null;
+            }
+            throw new SQLFeatureNotSupportedException("Metadata snapshot array doesn't support " + method.getName());
+        }
+    }
+
+}
@@ -88,91 +88,148 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         if (dataSource == null) {
             throw new DBException(ModelMessages.error_not_connected_to_database);
         }
+        JDBCMetadataSnapshot snapshot = isSnapshotSupported() ? JDBCMetadataSnapshot.getSnapshot(dataSource) : null;
+        String snapshotKey = snapshot == null ? null :
+            JDBCMetadataSnapshot.makeKey(this, owner, forObject == null ? "children" : "children/" + forObject.getName());
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load child objects")) {
             Map<OBJECT, List<CHILD>> objectMap = new HashMap<>();
 
-            // Load columns
-            try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
-                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
-                if (dbResult != null) {
+            boolean loaded = false;
+            if (snapshot != null) {
+                loaded = loadSnapshotChildren(monitor, session, owner, forObject, snapshot, snapshotKey, objectMap);
+            }
+            if (!loaded) {
+                // Load columns
+                try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
+                    dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                    dbStat.executeStatement();
+                    JDBCResultSet dbResult = dbStat.getResultSet();
+                    if (dbResult == null) {
+                        return;
+                    }
+                    if (snapshot != null) {
+                        dbResult = snapshot.recordResultSet(session, dbStat, dbResult, snapshotKey);
+                    }
                     try {
-                        while (dbResult.next()) {
-                            if (monitor.isCanceled()) {
-                                return;
-                            }
-                            OBJECT object = forObject;
-                            if (object == null) {
-                                String objectName;
-                                if (objectNameColumn instanceof Number) {
-                                    objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
-                                } else {
-                                    objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
-                                }
-                                if (objectName == null) {
-                                    log.debug("NULL object name in " + this);
-                                    continue;
-                                }
-
-                                object = super.getCachedObject(objectName);
-                                if (object == null) {
-                                    log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
-                                    continue;
-                                }
-                            }
-                            if (isChildrenCached(object)) {
-                                // Already read
-                                continue;
-                            }
-                            CHILD child = fetchChild(session, owner, object, dbResult);
-                            if (child == null) {
-                                continue;
-                            }
-
-                            // Add to map
-                            List<CHILD> children = objectMap.computeIfAbsent(object, k -> new ArrayList<>());
-                            children.add(child);
-                        }
+                        fetchChildren(monitor, session, owner, forObject, dbResult, objectMap);
+                    } finally {
+                        dbResult.close();
+                    }
+                }
+            }
 
-                        if (monitor.isCanceled()) {
-                            return;
-                        }
+            if (monitor.isCanceled()) {
+                return;
+            }
 
-                        // All children are read. Now assign them to parents
-                        for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
-                            if (!isChildrenCached(colEntry.getKey())) {
-                                // isChildrenCached may return true if the same cache was read in other thread
-                                // just skip
-                                cacheChildren(colEntry.getKey(), colEntry.getValue());
-                            }
-                        }
-                        if (forObject == null) {
-                            if (objectMap.isEmpty()) {
-                                // Nothing was read. May be it means empty list of children
-                                // but possibly this feature is not supported [JDBC: SQLite]
-                            } else {
-                                // Now set empty column list for other tables
-                                for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
-                                    if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
-                                        cacheChildren(tmpObject, new ArrayList<>());
-                                    }
-                                }
-                                this.childrenCached = true;
-                            }
-                        } else if (!objectMap.containsKey(forObject)) {
-                            cacheChildren(forObject, new ArrayList<>());
+            // All children are read. Now assign them to parents
+            for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
+                if (!isChildrenCached(colEntry.getKey())) {
+                    // isChildrenCached may return true if the same cache was read in other thread
+                    // just skip
+                    cacheChildren(colEntry.getKey(), colEntry.getValue());
+                }
+            }
+            if (forObject == null) {
+                if (objectMap.isEmpty()) {
+                    // Nothing was read. May be it means empty list of children
+                    // but possibly this feature is not supported [JDBC: SQLite]
+                } else {
+                    // Now set empty column list for other tables
+                    for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
+                        if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
+                            cacheChildren(tmpObject, new ArrayList<>());
                         }
-                    } finally {
-                        dbResult.close();
                     }
+                    this.childrenCached = true;
                 }
+            } else if (!objectMap.containsKey(forObject)) {
+                cacheChildren(forObject, new ArrayList<>());
             }
         } catch (SQLException ex) {
             throw new DBDatabaseException(ex, dataSource);
         }
     }
 
+    /**
+     * Reads children from the result set
+     */
+    private void fetchChildren(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @Nullable OBJECT forObject,
+        @NotNull JDBCResultSet dbResult,
+        @NotNull Map<OBJECT, List<CHILD>> objectMap
+    ) throws SQLException, DBException {
+        while (dbResult.next()) {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            OBJECT object = forObject;
+            if (object == null) {
+                String objectName;
+                if (objectNameColumn instanceof Number) {
+                    objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
+                } else {
+                    objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
+                }
+                if (objectName == null) {
+                    log.debug("NULL object name in " + this);
+                    continue;
+                }
+
+                object = super.getCachedObject(objectName);
+                if (object == null) {
+                    log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
+                    continue;
+                }
+            }
+            if (isChildrenCached(object)) {
+                // Already read
+                continue;
+            }
+            CHILD child = fetchChild(session, owner, object, dbResult);
+            if (child == null) {
+                continue;
+            }
+
+            // Add to map
+            List<CHILD> children = objectMap.computeIfAbsent(object, k -> new ArrayList<>());
+            children.add(child);
+        }
+    }
+
+    /**
+     * Reads children from the metadata snapshot.
+     *
+     * @return false if there is no recorded result or it can't be replayed
+     */
+    private boolean loadSnapshotChildren(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @Nullable OBJECT forObject,
+        @NotNull JDBCMetadataSnapshot snapshot,
+        @NotNull String snapshotKey,
+        @NotNull Map<OBJECT, List<CHILD>> objectMap
+    ) {
+        try (JDBCResultSet dbResult = snapshot.openResultSet(session, owner, snapshotKey)) {
+            if (dbResult == null) {
+                return false;
+            }
+            fetchChildren(monitor, session, owner, forObject, dbResult, objectMap);
+            if (monitor.isCanceled() || snapshot.isReplayComplete(dbResult)) {
+                return true;
+            }
+        } catch (Exception e) {
+            log.debug("Error reading " + getCacheName() + " children from metadata snapshot: " + e.getMessage());
+        }
+        objectMap.clear();
+        snapshot.removeResult(snapshotKey);
+        return false;
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache) {
         super.removeObject(object, resetFullCache);
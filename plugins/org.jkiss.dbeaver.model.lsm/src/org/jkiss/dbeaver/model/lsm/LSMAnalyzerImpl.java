@@ -16,10 +16,9 @@
  */
 package org.jkiss.dbeaver.model.lsm;
 
-import org.antlr.v4.runtime.ConsoleErrorListener;
-import org.antlr.v4.runtime.Lexer;
-import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
@@ -30,6 +29,18 @@ import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base analyzer implementation.
+ *
+ * Query is parsed in two stages. First stage uses fast SLL prediction with bail-out error strategy,
+ * which is enough for the vast majority of well-formed queries.
+ * If it fails (syntax error or SLL ambiguity) then query is re-parsed with full LL prediction and regular error recovery.
+ * Prediction DFA and context cache are static in generated parsers, so they are shared by all analyzers of the same grammar
+ * and may be warmed up in advance (see {@link org.jkiss.dbeaver.model.lsm.sql.dialect.LSMDialectRegistry#warmUpAnalyzers()}).
+ */
 public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMParserOverrides> implements LSMAnalyzer {
 
     private static final Log log = Log.getLog(LSMAnalyzerImpl.class);
@@ -69,7 +80,7 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     public STMTreeRuleNode parseSqlQueryTree(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
         try {
             TParser parser = prepareParser(source, errorListener);
-            STMTreeRuleNode result = parseSqlQueryImpl(parser);
+            STMTreeRuleNode result = parseTwoStage(parser);
             result.fixup(parser);
             return result;
         } catch (RecognitionException e) {
@@ -78,4 +89,29 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
         }
     }
 
+    @NotNull
+    private STMTreeRuleNode parseTwoStage(@NotNull TParser parser) {
+        // Stage 1: SLL without error reporting and recovery
+        List<ANTLRErrorListener> errorListeners = new ArrayList<>(parser.getErrorListeners());
+        ANTLRErrorStrategy errorHandler = parser.getErrorHandler();
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        STMTreeRuleNode result;
+        try {
+            result = parseSqlQueryImpl(parser);
+        } catch (ParseCancellationException e) {
+            result = null;
+        }
+        parser.setErrorHandler(errorHandler);
+        errorListeners.forEach(parser::addErrorListener);
+        if (result == null) {
+            // Stage 2: full LL. Tokens are already buffered, so lexer doesn't run again.
+            parser.reset();
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            result = parseSqlQueryImpl(parser);
+        }
+        return result;
+    }
+
 }
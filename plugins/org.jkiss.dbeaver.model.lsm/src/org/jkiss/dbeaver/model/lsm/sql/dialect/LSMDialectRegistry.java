@@ -19,16 +19,22 @@ package org.jkiss.dbeaver.model.lsm.sql.dialect;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.impl.AbstractDescriptor;
 import org.jkiss.dbeaver.model.lsm.LSMAnalyzer;
 import org.jkiss.dbeaver.model.lsm.LSMAnalyzerFactory;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
 import org.osgi.framework.Bundle;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Stream;
 
 
@@ -38,6 +44,18 @@ public class LSMDialectRegistry {
     
     private static final Log log = Log.getLog(LSMDialectRegistry.class);
 
+    // Typical queries used to populate parser prediction caches
+    private static final String[] WARM_UP_QUERIES = {
+        "SELECT a.id, b.name AS n, count(*) FROM schema1.table1 a LEFT OUTER JOIN table2 b ON a.id = b.id " +
+            "WHERE a.x > 10 AND b.y IN (1, 2, 3) OR a.z LIKE 'abc%' GROUP BY a.id, b.name HAVING count(*) > 1 ORDER BY 1 DESC",
+        "SELECT * FROM (SELECT t.* FROM t WHERE t.c IS NOT NULL) s WHERE EXISTS (SELECT 1 FROM u WHERE u.id = s.id) " +
+            "UNION ALL SELECT * FROM v",
+        "WITH cte AS (SELECT x FROM y) SELECT CASE WHEN x = ? THEN 'a' ELSE 'b' END FROM cte",
+        "INSERT INTO table1 (a, b, c) VALUES (1, 'text', NULL)",
+        "UPDATE table1 SET a = a + 1, b = 'x' WHERE c BETWEEN 1 AND 10",
+        "DELETE FROM table1 WHERE id = 1",
+    };
+
     private static LSMDialectRegistry instance = null;
     
     private final Map<Class<? extends SQLDialect>, LSMAnalyzerFactory> knownLsmAnalyzerByDialects = new HashMap<>();
@@ -92,4 +110,38 @@ public class LSMDialectRegistry {
             return analyzerFactory;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Parses a few typical queries with each registered analyzer in background.
+     * Generated parsers share prediction DFA between all instances of the same grammar,
+     * so warm-up makes the first real analysis as fast as the subsequent ones.
+     */
+    public void warmUpAnalyzers() {
+        Set<LSMAnalyzerFactory> factories = Collections.newSetFromMap(new IdentityHashMap<>());
+        factories.addAll(knownLsmAnalyzerByDialects.values());
+        AbstractJob warmUpJob = new AbstractJob("Warm up SQL analyzers") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                LSMAnalyzerParameters parameters = new LSMAnalyzerParameters(
+                    Map.of("\"", "\""), true, true, '?', List.of(Map.entry(1, Set.of(":"))), false
+                );
+                for (LSMAnalyzerFactory factory : factories) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    try {
+                        LSMAnalyzer analyzer = factory.createAnalyzer(parameters);
+                        for (String query : WARM_UP_QUERIES) {
+                            analyzer.parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener());
+                        }
+                    } catch (Throwable e) {
+                        log.debug("Error warming up SQL analyzer " + factory.getClass().getName(), e);
+                    }
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        warmUpJob.setSystem(true);
+        warmUpJob.schedule();
+    }
+}
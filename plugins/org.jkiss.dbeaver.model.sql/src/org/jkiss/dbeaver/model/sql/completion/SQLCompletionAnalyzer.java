@@ -48,6 +48,7 @@ import org.jkiss.dbeaver.model.sql.completion.hippie.HippieProposalProcessor;
 import org.jkiss.dbeaver.model.sql.parser.SQLParserPartitions;
 import org.jkiss.dbeaver.model.sql.parser.SQLWordPartDetector;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.cache.ObjectNameIndex;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedure;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureContainer;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTableColumn;
@@ -1172,8 +1173,21 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         assistantParams.setCaseSensitive(request.getWordDetector().isQuoted(objectName));
         assistantParams.setGlobalSearch(request.getContext().isSearchGlobally());
         assistantParams.setMaxResults(MAX_STRUCT_PROPOSALS);
-        Collection<DBSObjectReference> references = assistant.findObjectsByMask(monitor, request.getContext().getExecutionContext(), assistantParams);
-        for (DBSObjectReference reference : references) {
+        // Indexed names go first. Index may miss objects which were not read yet, so the database is searched
+        // if nothing was found or the search parent wasn't fully read
+        Map<String, DBSObjectReference> references = new LinkedHashMap<>();
+        DBPDataSource dataSource = request.getContext().getDataSource();
+        List<DBSObjectReference> indexedReferences = ObjectNameIndex.findObjects(dataSource, assistantParams);
+        if (indexedReferences != null) {
+            addObjectReferences(references, indexedReferences);
+        }
+        if (references.isEmpty() ||
+            (references.size() < MAX_STRUCT_PROPOSALS && !ObjectNameIndex.isFullyIndexed(dataSource, assistantParams))) {
+            addObjectReferences(
+                references,
+                assistant.findObjectsByMask(monitor, request.getContext().getExecutionContext(), assistantParams));
+        }
+        for (DBSObjectReference reference : references.values()) {
             proposals.add(
                 makeProposalsFromObject(
                     reference,
@@ -1183,6 +1197,18 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         }
     }
 
+    private static void addObjectReferences(
+        @NotNull Map<String, DBSObjectReference> references,
+        @NotNull Collection<DBSObjectReference> newReferences
+    ) {
+        for (DBSObjectReference reference : newReferences) {
+            if (references.size() >= MAX_STRUCT_PROPOSALS) {
+                break;
+            }
+            references.putIfAbsent(reference.getFullyQualifiedName(DBPEvaluationContext.DML), reference);
+        }
+    }
+
     private String makeObjectNameMask(String objectName, @Nullable DBSObjectContainer rootSC) {
         SQLWordPartDetector wordDetector = request.getWordDetector();
         if (wordDetector.containsSeparator(objectName)) {
@@ -732,7 +732,11 @@ public class SQLQueryModelRecognizer {
     @Nullable
     public static SQLQueryModel recognizeQuery(@NotNull SQLQueryRecognitionContext recognitionContext, @NotNull String queryText) {
         SQLQueryModelRecognizer recognizer = new SQLQueryModelRecognizer(recognitionContext);
-        return recognizer.recognizeQuery(queryText);
+        SQLQueryModel model = recognizer.recognizeQuery(queryText);
+        if (model != null) {
+            model.seal();
+        }
+        return model;
     }
 
     /**
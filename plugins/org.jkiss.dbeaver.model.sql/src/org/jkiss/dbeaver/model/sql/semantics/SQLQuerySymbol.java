@@ -20,6 +20,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -29,6 +30,7 @@ public class SQLQuerySymbol {
     
     private SQLQuerySymbolClass symbolClass = SQLQuerySymbolClass.UNKNOWN;
     private SQLQuerySymbolDefinition definition = null;
+    private boolean sealed = false;
 
     public SQLQuerySymbol(@NotNull String name) {
         this.name = name;
@@ -49,6 +51,7 @@ public class SQLQuerySymbol {
      * Throws IllegalStateException, if symbol has been already classified
      */
     public void setSymbolClass(@NotNull SQLQuerySymbolClass symbolClass) {
+        this.checkNotSealed();
         if (this.symbolClass != SQLQuerySymbolClass.UNKNOWN) {
             throw new IllegalStateException("Symbol already classified");
         } else {
@@ -58,7 +61,7 @@ public class SQLQuerySymbol {
 
     @NotNull
     public Collection<SQLQuerySymbolEntry> getEntries() {
-        return this.entries;
+        return Collections.unmodifiableSet(this.entries);
     }
 
     @Nullable
@@ -71,6 +74,7 @@ public class SQLQuerySymbol {
      * Throws IllegalStateException, if symbol definition has already been set
      */
     public void setDefinition(@Nullable SQLQuerySymbolDefinition definition) {
+        this.checkNotSealed();
         if (this.definition != null) {
             throw new IllegalStateException("Symbol definition has already been set");
         } else if (definition != null) {
@@ -84,6 +88,7 @@ public class SQLQuerySymbol {
      * Throws IllegalStateException, if symbol has already been registered
      */
     public void registerEntry(@NotNull SQLQuerySymbolEntry entry) {
+        this.checkNotSealed();
         if (!entry.getName().equals(this.name)) {
             throw new IllegalStateException("Cannot treat symbols '" + entry.getName() + "' as an instance of '" + this.name + "'");
         }
@@ -99,6 +104,8 @@ public class SQLQuerySymbol {
         if (!other.name.equals(this.name)) {
             throw new UnsupportedOperationException("Cannot treat different symbols as one ('" + this.name + "' and '" + other.name + "')");
         }
+        this.checkNotSealed();
+        other.checkNotSealed();
         
         SQLQuerySymbol result = new SQLQuerySymbol(this.name);
         result.entries.addAll(this.entries);
@@ -107,6 +114,22 @@ public class SQLQuerySymbol {
         return this;
     }
     
+    /**
+     * Forbid further changes of the symbol when the query model is recognized
+     */
+    public void seal() {
+        this.sealed = true;
+    }
+
+    /**
+     * Throws IllegalStateException, if symbol has been sealed
+     */
+    void checkNotSealed() {
+        if (this.sealed) {
+            throw new IllegalStateException("Symbol '" + this.name + "' cannot be changed after query recognition");
+        }
+    }
+
     @Override
     public String toString() {
         return super.toString() + "[" + this.name + "]";
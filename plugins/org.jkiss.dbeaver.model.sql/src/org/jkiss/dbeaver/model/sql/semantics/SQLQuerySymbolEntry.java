@@ -34,6 +34,7 @@ public class SQLQuerySymbolEntry extends SQLQueryLexicalScopeItem implements SQL
     private SQLQuerySymbol symbol = null;
     @Nullable
     private SQLQuerySymbolDefinition definition = null;
+    private boolean sealed = false;
     
     public SQLQuerySymbolEntry(@NotNull STMTreeNode syntaxNode, @NotNull String name, @NotNull String rawName) {
         super(syntaxNode);
@@ -72,6 +73,7 @@ public class SQLQuerySymbolEntry extends SQLQueryLexicalScopeItem implements SQL
      * Set symbol definition to the token
      */
     public void setDefinition(@Nullable SQLQuerySymbolDefinition definition) {
+        this.checkNotSealed();
         if (this.definition != null) {
             throw new UnsupportedOperationException("Symbol entry definition has already been set");
         } else {
@@ -105,6 +107,7 @@ public class SQLQuerySymbolEntry extends SQLQueryLexicalScopeItem implements SQL
      * Merge the other symbol with this one
      */
     public void merge(@NotNull SQLQuerySymbol symbol) {
+        this.checkNotSealed();
         if (this.symbol != null) {
             // TODO: illegal operation?
         } else {
@@ -118,6 +121,8 @@ public class SQLQuerySymbolEntry extends SQLQueryLexicalScopeItem implements SQL
      */
     @NotNull
     public SQLQuerySymbol merge(@NotNull SQLQuerySymbolEntry other) {
+        this.checkNotSealed();
+        other.checkNotSealed();
         SQLQuerySymbol symbol;
         if (this.symbol != null && other.symbol != null) {
             symbol = this.symbol.merge(other.symbol);
@@ -143,9 +148,25 @@ public class SQLQuerySymbolEntry extends SQLQueryLexicalScopeItem implements SQL
     
     // private operation for symbol merging
     static void updateSymbol(@NotNull SQLQuerySymbolEntry entry, @NotNull SQLQuerySymbol newSymbol) {
+        entry.checkNotSealed();
         entry.symbol = newSymbol;
     }
 
+    /**
+     * Forbid further changes of the entry and its symbol when the query model is recognized,
+     * so the model can be shared between threads and script items
+     */
+    public void seal() {
+        this.getSymbol().seal();
+        this.sealed = true;
+    }
+
+    private void checkNotSealed() {
+        if (this.sealed) {
+            throw new IllegalStateException("Symbol entry '" + this.name + "' cannot be changed after query recognition");
+        }
+    }
+
     @Override
     public String toString() {
         return this.name + " (" + this.getSymbolClass() + ")";
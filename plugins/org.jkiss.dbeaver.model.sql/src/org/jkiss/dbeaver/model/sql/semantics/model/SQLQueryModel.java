@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.model.sql.semantics.context.SQLQueryDataContext;
 import org.jkiss.dbeaver.model.stm.STMTreeNode;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -48,7 +49,16 @@ public class SQLQueryModel extends SQLQueryNodeModel {
 
     @NotNull
     public Collection<SQLQuerySymbolEntry> getAllSymbols() {
-        return symbolEntries;
+        return Collections.unmodifiableSet(symbolEntries);
+    }
+
+    /**
+     * Complete recognition of the query model. Symbol entries cannot be changed after that.
+     */
+    public void seal() {
+        for (SQLQuerySymbolEntry entry : this.symbolEntries) {
+            entry.seal();
+        }
     }
 
     @Nullable
@@ -0,0 +1,38 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Approximate count of distinct values.
+ * Uses HyperLogLog estimator which needs fixed amount of memory regardless of the number of values.
+ */
+public class FunctionCountDistinctApprox implements IAggregateFunction {
+
+    private final HyperLogLog estimator = new HyperLogLog();
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        Number num = FunctionNumeric.getNumeric(value);
+        estimator.add(num != null ? num : value);
+        return true;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        return estimator.estimate();
+    }
+}
@@ -22,26 +22,65 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Median
+ * Median.
+ * Numbers are kept in a primitive buffer and median is found with quickselect.
+ * Other comparable values (or mixed values) are sorted.
  */
 public class FunctionMedian implements IAggregateFunction {
 
     private static final Log log = Log.getLog(FunctionMedian.class);
 
-    private final List<Comparable<?>> cache = new ArrayList<>();
+    private final NumericValueBuffer numbers = new NumericValueBuffer();
+    // Type of all accumulated numbers. Values of other types go to the cache
+    private Class<?> numberType;
+    // Non-numeric values. Once it is created all numbers go here as well.
+    private List<Comparable<?>> cache;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
         value = FunctionNumeric.getComparable(value, aggregateAsStrings);
-        if (value != null) {
-            cache.add((Comparable<?>) value);
+        if (value == null) {
+            return false;
+        }
+        if (cache == null && isBufferedNumber(value) && (numberType == null || numberType == value.getClass())) {
+            numbers.add(((Number) value).doubleValue());
+            numberType = value.getClass();
             return true;
         }
-        return false;
+        if (cache == null) {
+            cache = new ArrayList<>(numbers.size() + 16);
+            for (int i = 0; i < numbers.size(); i++) {
+                cache.add(toNumberType(numbers.get(i)));
+            }
+        }
+        cache.add((Comparable<?>) value);
+        return true;
     }
 
     @Override
     public Object getResult(int valueCount) {
+        if (cache != null) {
+            return getSortedResult();
+        }
+        int size = numbers.size();
+        if (size == 0) {
+            return null;
+        }
+        int middle = size / 2;
+        if (size % 2 == 1) {
+            return toNumberType(numbers.select(middle));
+        } else {
+            double val2 = numbers.select(middle);
+            // All values below middle are not greater than val2. So the lower middle value is the max of them.
+            double val1 = numbers.get(0);
+            for (int i = 1; i < middle; i++) {
+                val1 = Math.max(val1, numbers.get(i));
+            }
+            return (val1 + val2) / 2.0;
+        }
+    }
+
+    private Object getSortedResult() {
         try {
             cache.sort(AggregateUtils::compareValues);
         } catch (Exception e) {
@@ -64,4 +103,34 @@ public class FunctionMedian implements IAggregateFunction {
             return val1;
         }
     }
+
+    /**
+     * Numbers which are represented as double without loss.
+     * Other numbers (e.g. big decimals) are kept as is.
+     */
+    private static boolean isBufferedNumber(Object value) {
+        if (value instanceof Long l) {
+            return Math.abs(l) <= (1L << 53);
+        }
+        return value instanceof Integer || value instanceof Short || value instanceof Byte ||
+            value instanceof Double || value instanceof Float;
+    }
+
+    /**
+     * Converts buffered number back to the type of source values
+     */
+    private Comparable<?> toNumberType(double value) {
+        if (numberType == Integer.class) {
+            return (int) value;
+        } else if (numberType == Long.class) {
+            return (long) value;
+        } else if (numberType == Short.class) {
+            return (short) value;
+        } else if (numberType == Byte.class) {
+            return (byte) value;
+        } else if (numberType == Float.class) {
+            return (float) value;
+        }
+        return value;
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Approximate median.
+ * Uses bounded-memory quantile sketch, so it is suitable for huge selections.
+ */
+public class FunctionMedianApprox implements IAggregateFunction {
+
+    private final QuantileSketch sketch = new QuantileSketch();
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        Number num = FunctionNumeric.getNumeric(value);
+        if (num != null) {
+            sketch.add(num.doubleValue());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        if (sketch.getCount() == 0) {
+            return null;
+        }
+        return sketch.quantile(0.5);
+    }
+}
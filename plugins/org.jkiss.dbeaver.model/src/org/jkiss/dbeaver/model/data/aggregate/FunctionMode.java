@@ -16,15 +16,17 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Mode
+ * Mode.
+ * Values are counted in a hash map, so the result is evaluated in a single pass.
  */
 public class FunctionMode implements IAggregateFunction {
 
-    private final List<Object> cache = new ArrayList<>();
+    // Keeps order of first occurrence
+    private final Map<Object, int[]> counters = new LinkedHashMap<>();
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
@@ -33,7 +35,7 @@ public class FunctionMode implements IAggregateFunction {
             value = num;
         }
         if (value != null) {
-            cache.add(value);
+            counters.computeIfAbsent(value, v -> new int[1])[0]++;
             return true;
         }
         return false;
@@ -43,22 +45,13 @@ public class FunctionMode implements IAggregateFunction {
     public Object getResult(int valueCount) {
         Object maxValue = null;
         int maxCount = 0;
-
-        for (int i = 0; i < cache.size(); ++i) {
-            int count = 0;
-            for (int j = 0; j < cache.size(); ++j) {
-                if (cache.get(j).equals(cache.get(i))) {
-                    count++;
-                }
-            }
-            if (count > maxCount) {
-                maxCount = count;
-                maxValue = cache.get(i);
+        // On tie the value which occurred first wins
+        for (Map.Entry<Object, int[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] > maxCount) {
+                maxCount = entry.getValue()[0];
+                maxValue = entry.getKey();
             }
         }
-//        if (maxCount <= 1) {
-//            return null;
-//        }
         return maxValue;
     }
 }
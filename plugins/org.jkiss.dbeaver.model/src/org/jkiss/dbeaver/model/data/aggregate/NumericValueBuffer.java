@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of primitive doubles.
+ * Supports order statistics via quickselect (expected linear time, no full sort).
+ */
+public class NumericValueBuffer {
+
+    private double[] values;
+    private int size;
+
+    public NumericValueBuffer() {
+        this(64);
+    }
+
+    public NumericValueBuffer(int initialCapacity) {
+        this.values = new double[Math.max(initialCapacity, 8)];
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length + (values.length >> 1));
+        }
+        values[size++] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns k-th smallest value (zero-based). Reorders buffer contents.
+     * Uses three-way partitioning, so many equal values do not degrade it to quadratic time.
+     */
+    public double select(int k) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Index " + k + " is out of range [0, " + size + ")");
+        }
+        int left = 0, right = size - 1;
+        while (right > left) {
+            double pivot = values[medianOfThree(left, (left + right) >>> 1, right)];
+            // After partitioning: [left, lower) < pivot, [lower, upper] == pivot, (upper, right] > pivot
+            int lower = left, upper = right;
+            for (int i = left; i <= upper; ) {
+                int cmp = Double.compare(values[i], pivot);
+                if (cmp < 0) {
+                    swap(lower++, i++);
+                } else if (cmp > 0) {
+                    swap(i, upper--);
+                } else {
+                    i++;
+                }
+            }
+            if (k < lower) {
+                right = lower - 1;
+            } else if (k > upper) {
+                left = upper + 1;
+            } else {
+                return pivot;
+            }
+        }
+        return values[k];
+    }
+
+    private int medianOfThree(int a, int b, int c) {
+        double va = values[a], vb = values[b], vc = values[c];
+        if (Double.compare(va, vb) < 0) {
+            return Double.compare(vb, vc) < 0 ? b : (Double.compare(va, vc) < 0 ? c : a);
+        } else {
+            return Double.compare(va, vc) < 0 ? a : (Double.compare(vb, vc) < 0 ? c : b);
+        }
+    }
+
+    private void swap(int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
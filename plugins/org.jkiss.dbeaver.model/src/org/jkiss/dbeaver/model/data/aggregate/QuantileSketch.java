@@ -0,0 +1,183 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Bounded-memory quantile estimator (merging t-digest).
+ * Incoming values are buffered and periodically merged into a sorted list of centroids.
+ * Centroid size is limited by the arcsine scale function, so estimates are more precise near the tails.
+ * While the number of values fits into the buffer the result is exact.
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private final double[] buffer;
+    private int bufferSize;
+
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public QuantileSketch(int compression) {
+        this.compression = Math.max(compression, 10);
+        this.buffer = new double[this.compression > 100 ? (int) (this.compression * 5) : 500];
+        this.means = new double[0];
+        this.weights = new double[0];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferSize == buffer.length) {
+            merge();
+        }
+        buffer[bufferSize++] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns estimated value of the quantile q (0..1) or NaN if sketch is empty
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 0) {
+            return exactQuantile(q);
+        }
+        merge();
+        if (centroidCount == 1) {
+            return means[0];
+        }
+        double index = q * count;
+        // Centroid "centers" are placed in the middle of their weight
+        double firstCenter = weights[0] / 2;
+        if (index <= firstCenter) {
+            return interpolate(min, means[0], firstCenter <= 0 ? 1 : index / firstCenter);
+        }
+        double cumulative = 0;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double center = cumulative + weights[i] / 2;
+            double nextCenter = cumulative + weights[i] + weights[i + 1] / 2;
+            if (index < nextCenter) {
+                return interpolate(means[i], means[i + 1], (index - center) / (nextCenter - center));
+            }
+            cumulative += weights[i];
+        }
+        double lastCenter = count - weights[centroidCount - 1] / 2;
+        double tail = count - lastCenter;
+        return interpolate(means[centroidCount - 1], max, tail <= 0 ? 1 : (index - lastCenter) / tail);
+    }
+
+    private double exactQuantile(double q) {
+        Arrays.sort(buffer, 0, bufferSize);
+        double index = q * (bufferSize - 1);
+        int lower = (int) Math.floor(index);
+        int upper = (int) Math.ceil(index);
+        return interpolate(buffer[lower], buffer[upper], index - lower);
+    }
+
+    private void merge() {
+        if (bufferSize == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferSize);
+
+        int total = centroidCount + bufferSize;
+        double[] newMeans = new double[total];
+        double[] newWeights = new double[total];
+        int newCount = 0;
+
+        double totalWeight = count;
+        double weightSoFar = 0;
+        double weightLimit = totalWeight * inverseScale(scale(0) + 1);
+
+        int ci = 0, bi = 0;
+        double curMean = 0, curWeight = 0;
+        while (ci < centroidCount || bi < bufferSize) {
+            double mean, weight;
+            if (bi >= bufferSize || (ci < centroidCount && means[ci] <= buffer[bi])) {
+                mean = means[ci];
+                weight = weights[ci];
+                ci++;
+            } else {
+                mean = buffer[bi];
+                weight = 1;
+                bi++;
+            }
+            if (curWeight == 0) {
+                curMean = mean;
+                curWeight = weight;
+            } else if (weightSoFar + curWeight + weight <= weightLimit) {
+                curWeight += weight;
+                curMean += (mean - curMean) * weight / curWeight;
+            } else {
+                newMeans[newCount] = curMean;
+                newWeights[newCount] = curWeight;
+                newCount++;
+                weightSoFar += curWeight;
+                weightLimit = totalWeight * inverseScale(scale(weightSoFar / totalWeight) + 1);
+                curMean = mean;
+                curWeight = weight;
+            }
+        }
+        if (curWeight > 0) {
+            newMeans[newCount] = curMean;
+            newWeights[newCount] = curWeight;
+            newCount++;
+        }
+
+        means = newMeans;
+        weights = newWeights;
+        centroidCount = newCount;
+        bufferSize = 0;
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private double inverseScale(double k) {
+        if (k >= compression / 4) {
+            return 1;
+        }
+        return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+    }
+
+    private static double interpolate(double from, double to, double fraction) {
+        return from + (to - from) * Math.max(0, Math.min(1, fraction));
+    }
+}
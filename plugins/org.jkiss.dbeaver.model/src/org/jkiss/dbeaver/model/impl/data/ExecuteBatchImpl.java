@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDInsertReplaceMethod;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
@@ -33,10 +34,7 @@ import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Execute batch.
@@ -47,11 +45,30 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
     private static final Log log = Log.getLog(ExecuteBatchImpl.class);
 
+    // Max number of distinct null patterns with open statements
+    private static final int MAX_POOLED_STATEMENTS = 8;
+
+    private static class PooledStatement {
+        final DBCStatement statement;
+        // Rows added to the statement batch but not executed yet
+        int pendingRows;
+
+        PooledStatement(DBCStatement statement) {
+            this.statement = statement;
+        }
+    }
+
     protected final DBSAttributeBase[] attributes;
     protected final List<Object[]> values = new ArrayList<>();
     protected final DBDDataReceiver keysReceiver;
     protected final boolean reuseStatement;
 
+    // Prepared statements by row null pattern. Access-ordered, so the eldest entry is the least recently used one.
+    // Statements are kept open between executions (e.g. data transfer executes batch after each commit) until close.
+    private final Map<BitSet, PooledStatement> pooledStatements = new LinkedHashMap<>(MAX_POOLED_STATEMENTS * 2, 0.75f, true);
+    private DBCSession pooledSession;
+    private Map<String, Object> pooledOptions;
+
     /**
      * Constructs new batch
      * @param attributes array of attributes used in batch
@@ -117,6 +134,10 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             useBatch = false;
         }
 
+        if (useBatch && actions == null) {
+            return executePooledBatch(session, handlers, options);
+        }
+
         DBCStatistics statistics = new DBCStatistics();
         DBCStatement statement = null;
 
@@ -226,8 +247,119 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return statistics;
     }
 
-    protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
-        return paramIndex + 1;
+    /**
+     * Executes batch using separate prepared statement for each row null pattern.
+     * Rows with different nulls produce different queries. Instead of re-preparing a statement each time
+     * the pattern changes we keep a small LRU pool of prepared statements, each one with its own pending batch.
+     * So sparse data doesn't split the batch into tiny pieces.
+     * Rows with the same null pattern are executed in their original order. Batches of different patterns
+     * are executed in order of their first rows. Least recently used statement is executed and closed
+     * when the pool is full.
+     * The pool is kept until the batch is closed, or until session or options change.
+     */
+    @NotNull
+    private DBCStatistics executePooledBatch(@NotNull DBCSession session, DBDValueHandler[] handlers, Map<String, Object> options) throws DBCException {
+        if (session != pooledSession || !isSameOptions(options, pooledOptions)) {
+            closePooledStatements();
+            pooledSession = session;
+            pooledOptions = options == null ? null : new HashMap<>(options);
+        }
+        DBCStatistics statistics = new DBCStatistics();
+        BitSet nulls = new BitSet(attributes.length);
+        // Statements with not executed batches, in order of their first rows
+        List<PooledStatement> pendingStatements = new ArrayList<>();
+        boolean success = false;
+        try {
+            for (Object[] rowValues : values) {
+                if (session.getProgressMonitor().isCanceled()) {
+                    break;
+                }
+                nulls.clear();
+                for (int i = 0; i < rowValues.length; i++) {
+                    if (DBUtils.isNullValue(rowValues[i])) {
+                        nulls.set(i);
+                    }
+                }
+                PooledStatement pooled = pooledStatements.get(nulls);
+                if (pooled == null) {
+                    if (pooledStatements.size() >= MAX_POOLED_STATEMENTS) {
+                        Iterator<PooledStatement> iterator = pooledStatements.values().iterator();
+                        PooledStatement eldest = iterator.next();
+                        iterator.remove();
+                        if (eldest.pendingRows > 0) {
+                            flushBatch(statistics, eldest.statement);
+                            pendingStatements.remove(eldest);
+                        }
+                        eldest.statement.close();
+                    }
+                    DBCStatement statement = prepareStatement(session, handlers, rowValues, options);
+                    statistics.addStatementsCount();
+                    pooled = new PooledStatement(statement);
+                    pooledStatements.put((BitSet) nulls.clone(), pooled);
+                }
+                bindStatement(handlers, pooled.statement, rowValues);
+                pooled.statement.addToBatch();
+                if (pooled.pendingRows++ == 0) {
+                    pendingStatements.add(pooled);
+                    statistics.setQueryText(pooled.statement.getQueryString());
+                }
+            }
+
+            for (PooledStatement pending : pendingStatements) {
+                flushBatch(statistics, pending.statement);
+                pending.pendingRows = 0;
+            }
+            values.clear();
+            success = true;
+        } finally {
+            if (!success) {
+                // Statements may have not executed batches or may be broken
+                closePooledStatements();
+            }
+        }
+        return statistics;
+    }
+
+    private static boolean isSameOptions(@Nullable Map<String, Object> options1, @Nullable Map<String, Object> options2) {
+        if (options1 == null || options2 == null) {
+            return options1 == options2;
+        }
+        if (!options1.keySet().equals(options2.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, Object> entry : options1.entrySet()) {
+            Object value1 = entry.getValue();
+            Object value2 = options2.get(entry.getKey());
+            if (Objects.equals(value1, value2)) {
+                continue;
+            }
+            // Insert method is created for each execution, but it has no state
+            if (!(value1 instanceof DBDInsertReplaceMethod) || value2 == null || value1.getClass() != value2.getClass()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void closePooledStatements() {
+        for (PooledStatement pooled : pooledStatements.values()) {
+            pooled.statement.close();
+        }
+        pooledStatements.clear();
+        pooledSession = null;
+        pooledOptions = null;
+    }
+
+    /**
+     * Returns indexes of attributes bound to the statement parameters, in order of parameters
+     */
+    @NotNull
+    protected int[] getUsedParamIndexes(@NotNull Object[] attributeValues) {
+        int[] indexes = new int[attributes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
     }
 
     String formatQueryParameters(DBCSession session, String queryString, DBDValueHandler[] handlers, Object[] rowValues) {
@@ -239,17 +371,18 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         }
         int length = queryString.length();
         StringBuilder formatted = new StringBuilder(length * 2);
-        int paramIndex = -1;
+        int[] paramIndexes = getUsedParamIndexes(rowValues);
+        int paramNumber = 0;
 
         for (int i = 0; i < length; i++) {
             char c = queryString.charAt(i);
             switch (c) {
                 case '?': {
-                    paramIndex = getNextUsedParamIndex(rowValues, paramIndex);
-                    if (paramIndex >= handlers.length) {
-                        log.error("Parameter index out of range (" + paramIndex + " > " + handlers.length + ")");
+                    if (paramNumber >= paramIndexes.length) {
+                        log.error("Parameter index out of range (" + paramNumber + " >= " + paramIndexes.length + ")");
                         continue;
                     }
+                    int paramIndex = paramIndexes[paramNumber++];
                     Object paramValue = SQLUtils.convertValueToSQL(
                         session.getDataSource(),
                         attributes[paramIndex],
@@ -323,6 +456,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
     @Override
     public void close()
     {
+        closePooledStatements();
     }
 
     private void readKeys(@NotNull DBCSession session, @NotNull DBCStatement dbStat, @NotNull DBDDataReceiver keysReceiver)
@@ -29,6 +29,12 @@ import java.util.Map;
  */
 public interface DBSDataBulkLoader {
 
+    /**
+     * Boolean option. True if the target session uses the same connection the source rows are read from.
+     * Loader must not block the connection until all rows are read.
+     */
+    String OPTION_SHARED_CONNECTION = "data.bulkLoad.sharedConnection";//$NON-NLS-1$
+
     interface BulkLoadManager extends AutoCloseable {
         void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException;
 
@@ -115,6 +115,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
                 }
             }
         }
+        ObjectNameIndex.updateObjects(null, Collections.singletonList(object));
     }
 
     @Override
@@ -131,10 +132,12 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
                 fullCache = false;
             }
         }
+        ObjectNameIndex.updateObjects(Collections.singletonList(object), null);
     }
 
     @Override
     public void renameObject(@NotNull OBJECT object, @NotNull String oldName, @NotNull String newName) {
+        ObjectNameIndex.renameObject(object, oldName);
         synchronized (cacheSync) {
             if (this.objectMap != null) {
                 if (!caseSensitive) {
@@ -169,19 +172,26 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     @Override
     public void clearCache() {
+        List<OBJECT> oldObjects;
         synchronized (cacheSync) {
+            oldObjects = this.objectList;
             this.objectList = null;
             this.objectMap = null;
             this.fullCache = false;
         }
+        ObjectNameIndex.detachObjects(oldObjects);
     }
 
     public void setCache(@NotNull List<OBJECT> objects) {
+        List<OBJECT> oldObjects;
         synchronized (cacheSync) {
+            oldObjects = this.objectList;
             this.objectList = objects;
             this.objectMap = null;
             this.fullCache = true;
         }
+        ObjectNameIndex.updateObjects(oldObjects, objects);
+        ObjectNameIndex.markFullyIndexed(objects);
     }
 
     /**
@@ -276,6 +286,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     }
 
     public void clearChildrenOf(DBSObject parent) {
+        List<OBJECT> removedObjects = new ArrayList<>();
         synchronized (cacheSync) {
             if (objectList == null) {
                 return;
@@ -283,6 +294,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             for (int i = 0; i < objectList.size(); ) {
                 OBJECT object = objectList.get(i);
                 if (object.getParentObject() == parent) {
+                    removedObjects.add(object);
                     this.objectList.remove(object);
                     if (this.objectMap != null) {
                         this.objectMap.remove(getObjectName(object));
@@ -293,6 +305,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
                 }
             }
         }
+        ObjectNameIndex.detachObjects(removedObjects);
     }
 
     @NotNull
@@ -0,0 +1,656 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.*;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Index of database object names of a data source container.
+ * <p>
+ * Object caches add their objects to the index when they are read and remove them when they are dropped
+ * or renamed. So the index also follows DDL made with object editors. Names of refreshed objects are kept
+ * until the objects are read again.
+ * Parents whose objects were read by a full cache load in the current connection are fully indexed, searches
+ * in them don't need the database.
+ * Names are saved in the project metadata folder and loaded on the next connect. Objects which were not
+ * read in the current session are resolved by their path on first use, names which can't be resolved
+ * are removed.
+ * <p>
+ * Index is enabled with {@link ModelPreferences#META_NAME_INDEX}.
+ */
+public class ObjectNameIndex {
+
+    private static final Log log = Log.getLog(ObjectNameIndex.class);
+
+    private static final String INDEX_FOLDER = "metadata-index"; //$NON-NLS-1$
+    private static final String INDEX_FILE_EXT = ".dbidx"; //$NON-NLS-1$
+
+    private static final int FILE_MAGIC = 0x44424E49;
+    private static final int FILE_VERSION = 1;
+    private static final long SAVE_DELAY_MS = 10000;
+    private static final int MAX_ENTRIES = 500_000;
+
+    // Indexed object types. Object gets the first type it is an instance of
+    private static final DBSObjectType[] INDEXED_TYPES = {
+        RelationalObjectType.TYPE_VIEW,
+        RelationalObjectType.TYPE_TABLE,
+        RelationalObjectType.TYPE_TABLE_COLUMN,
+        RelationalObjectType.TYPE_PROCEDURE,
+        RelationalObjectType.TYPE_SEQUENCE,
+        RelationalObjectType.TYPE_PACKAGE,
+        RelationalObjectType.TYPE_SYNONYM,
+    };
+
+    private static final Map<DBPDataSourceContainer, ObjectNameIndex> indexes = new WeakHashMap<>();
+
+    private final DBPDataSourceContainer container;
+    private final TrigramNameIndex<IndexedObject> names = new TrigramNameIndex<>();
+    private final SaveJob saveJob = new SaveJob();
+    private volatile boolean loaded;
+    // Paths of parents fully read in the current connection and indexed types of their objects
+    private final Map<List<String>, Set<DBSObjectType>> fullyIndexedScopes = new HashMap<>();
+    private WeakReference<DBPDataSource> fullyIndexedDataSource = new WeakReference<>(null);
+
+    private ObjectNameIndex(@NotNull DBPDataSourceContainer container) {
+        this.container = container;
+    }
+
+    /**
+     * Returns name index of the data source or null if index is disabled
+     */
+    @Nullable
+    public static ObjectNameIndex getIndex(@Nullable DBPDataSource dataSource) {
+        DBPDataSourceContainer container = dataSource == null ? null : dataSource.getContainer();
+        if (container == null || !container.getPreferenceStore().getBoolean(ModelPreferences.META_NAME_INDEX)) {
+            return null;
+        }
+        synchronized (indexes) {
+            ObjectNameIndex index = indexes.get(container);
+            if (index == null) {
+                index = new ObjectNameIndex(container);
+                indexes.put(container, index);
+                new LoadJob(index).schedule();
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Updates index with the cache changes. Objects of not indexed types are ignored.
+     *
+     * @param removed objects removed from the cache
+     * @param added   objects added to the cache
+     */
+    public static void updateObjects(@Nullable Collection<? extends DBSObject> removed, @Nullable Collection<? extends DBSObject> added) {
+        DBSObject firstObject = !CommonUtils.isEmpty(added) ? added.iterator().next() :
+            !CommonUtils.isEmpty(removed) ? removed.iterator().next() : null;
+        ObjectNameIndex index = firstObject == null ? null : getIndex(firstObject.getDataSource());
+        if (index == null) {
+            return;
+        }
+        boolean changed = false;
+        // Objects which are still in the cache are just replaced, removed objects are the rest
+        Set<String> addedKeys = new HashSet<>();
+        if (added != null) {
+            for (DBSObject object : added) {
+                String key = index.addObject(object);
+                if (key != null) {
+                    addedKeys.add(key);
+                    changed = true;
+                }
+            }
+        }
+        if (removed != null) {
+            for (DBSObject object : removed) {
+                changed |= index.removeObject(object, object.getName(), addedKeys);
+            }
+        }
+        if (changed) {
+            index.saveJob.schedule(SAVE_DELAY_MS);
+        }
+    }
+
+    /**
+     * Marks parents of objects read by a full cache load as fully indexed for the types of these objects
+     */
+    public static void markFullyIndexed(@Nullable Collection<? extends DBSObject> objects) {
+        if (CommonUtils.isEmpty(objects)) {
+            return;
+        }
+        DBPDataSource dataSource = objects.iterator().next().getDataSource();
+        ObjectNameIndex index = getIndex(dataSource);
+        if (index == null || index.names.size() >= MAX_ENTRIES) {
+            // Some names may be not indexed
+            return;
+        }
+        Map<DBSObject, List<String>> parentPaths = new IdentityHashMap<>();
+        synchronized (index.fullyIndexedScopes) {
+            if (index.fullyIndexedDataSource.get() != dataSource) {
+                // New connection
+                index.fullyIndexedScopes.clear();
+                index.fullyIndexedDataSource = new WeakReference<>(dataSource);
+            }
+            for (DBSObject object : objects) {
+                DBSObjectType type = getIndexedType(object);
+                if (type != null) {
+                    List<String> path = parentPaths.computeIfAbsent(object.getParentObject(), parent -> getObjectPath(object));
+                    index.fullyIndexedScopes.computeIfAbsent(path, scope -> new HashSet<>()).add(type);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that the search parent was fully read in the current connection with objects of the requested types.
+     * Then objects found in the index are enough and the database search may be skipped.
+     */
+    public static boolean isFullyIndexed(
+        @Nullable DBPDataSource dataSource,
+        @NotNull DBSStructureAssistant.ObjectsSearchParams params
+    ) {
+        ObjectNameIndex index = getIndex(dataSource);
+        DBSObject parentObject = params.getParentObject();
+        if (index == null || !index.loaded || params.isGlobalSearch() || parentObject == null ||
+            params.isSearchInComments() || params.isSearchInDefinitions()) {
+            return false;
+        }
+        List<String> scopePath = new ArrayList<>();
+        if (!(parentObject instanceof DBPDataSource)) {
+            scopePath = getObjectPath(parentObject);
+            scopePath.add(parentObject.getName());
+        }
+        synchronized (index.fullyIndexedScopes) {
+            if (index.fullyIndexedDataSource.get() != dataSource) {
+                return false;
+            }
+            Set<DBSObjectType> indexedTypes = index.fullyIndexedScopes.get(scopePath);
+            if (indexedTypes == null) {
+                return false;
+            }
+            for (DBSObjectType objectType : params.getObjectTypes()) {
+                DBSObjectType indexedType = getIndexedType(objectType.getTypeClass());
+                if (indexedType != null && indexedTypes.contains(indexedType)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keeps names of objects removed from the cache on refresh, but releases the objects.
+     * Names are resolved again on the next use. Parents of these objects are not fully indexed anymore.
+     */
+    public static void detachObjects(@Nullable Collection<? extends DBSObject> objects) {
+        if (CommonUtils.isEmpty(objects)) {
+            return;
+        }
+        ObjectNameIndex index = getIndex(objects.iterator().next().getDataSource());
+        if (index == null) {
+            return;
+        }
+        synchronized (index.fullyIndexedScopes) {
+            Set<DBSObject> parents = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (DBSObject object : objects) {
+                if (parents.add(object.getParentObject())) {
+                    index.fullyIndexedScopes.remove(getObjectPath(object));
+                }
+            }
+        }
+        for (DBSObject object : objects) {
+            DBSObjectType type = getIndexedType(object);
+            String name = object.getName();
+            if (type == null || CommonUtils.isEmpty(name)) {
+                continue;
+            }
+            String key = makeKey(type, getObjectPath(object), name);
+            synchronized (index.names) {
+                IndexedObject indexed = index.names.get(key);
+                if (indexed != null && indexed.object != null && indexed.object.get() == object) {
+                    index.names.put(key, name, new IndexedObject(index, type, indexed.path, name, null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates index after object rename
+     */
+    public static void renameObject(@NotNull DBSObject object, @NotNull String oldName) {
+        ObjectNameIndex index = getIndex(object.getDataSource());
+        if (index != null && (index.removeObject(object, oldName, Collections.emptySet()) | index.addObject(object) != null)) {
+            index.saveJob.schedule(SAVE_DELAY_MS);
+        }
+    }
+
+    /**
+     * Finds objects in the name index.
+     * Supports only name mask search in the whole data source or in the parent object.
+     *
+     * @return found objects or null if the index is not available or can't handle search parameters
+     */
+    @Nullable
+    public static List<DBSObjectReference> findObjects(
+        @Nullable DBPDataSource dataSource,
+        @NotNull DBSStructureAssistant.ObjectsSearchParams params
+    ) {
+        ObjectNameIndex index = getIndex(dataSource);
+        if (index == null || !index.loaded || params.isSearchInComments() || params.isSearchInDefinitions()) {
+            return null;
+        }
+        DBSObject parentObject = params.getParentObject();
+        List<String> parentPath = null;
+        if (!params.isGlobalSearch()) {
+            if (parentObject == null) {
+                // Search in the active schema, index doesn't know it
+                return null;
+            }
+            if (!(parentObject instanceof DBPDataSource)) {
+                parentPath = getObjectPath(parentObject);
+                parentPath.add(parentObject.getName());
+            }
+        }
+        DBSObjectType[] objectTypes = params.getObjectTypes();
+        List<String> scopePath = parentPath;
+        Predicate<IndexedObject> filter = indexed -> indexed.isInScope(scopePath) && indexed.isOfType(objectTypes);
+        return new ArrayList<>(index.names.find(
+            SQLUtils.makeSQLLike(params.getMask()),
+            params.isCaseSensitive(),
+            filter,
+            params.getMaxResults()));
+    }
+
+    /**
+     * @return key of the added object or null if object is not indexed
+     */
+    @Nullable
+    private String addObject(@NotNull DBSObject object) {
+        DBSObjectType type = getIndexedType(object);
+        String name = object.getName();
+        if (type == null || CommonUtils.isEmpty(name)) {
+            return null;
+        }
+        IndexedObject indexed = new IndexedObject(this, type, getObjectPath(object), name, object);
+        String key = indexed.getKey();
+        synchronized (names) {
+            if (names.size() >= MAX_ENTRIES && !names.containsKey(key)) {
+                return null;
+            }
+            names.put(key, name, indexed);
+        }
+        return key;
+    }
+
+    private boolean removeObject(@NotNull DBSObject object, @Nullable String name, @NotNull Set<String> keepKeys) {
+        DBSObjectType type = getIndexedType(object);
+        if (type == null || CommonUtils.isEmpty(name)) {
+            return false;
+        }
+        String key = makeKey(type, getObjectPath(object), name);
+        return !keepKeys.contains(key) && names.remove(key) != null;
+    }
+
+    @Nullable
+    private static DBSObjectType getIndexedType(@NotNull DBSObject object) {
+        for (DBSObjectType type : INDEXED_TYPES) {
+            if (type.getTypeClass().isInstance(object)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static DBSObjectType getIndexedType(@NotNull Class<?> objectClass) {
+        for (DBSObjectType type : INDEXED_TYPES) {
+            if (type.getTypeClass().isAssignableFrom(objectClass)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Names of object parents, from the data source child down to the direct parent
+     */
+    @NotNull
+    private static List<String> getObjectPath(@NotNull DBSObject object) {
+        List<String> path = new ArrayList<>();
+        for (DBSObject parent = object.getParentObject();
+             parent != null && !(parent instanceof DBPDataSource) && !(parent instanceof DBPDataSourceContainer);
+             parent = parent.getParentObject()) {
+            path.add(0, parent.getName());
+        }
+        return path;
+    }
+
+    @NotNull
+    private static String makeKey(@NotNull DBSObjectType type, @NotNull List<String> path, @NotNull String name) {
+        StringBuilder key = new StringBuilder(type.getTypeName());
+        for (String part : path) {
+            key.append('\n').append(part);
+        }
+        return key.append('\n').append(name).toString();
+    }
+
+    @Nullable
+    private Path getIndexFile(boolean create) {
+        DBPProject project = container.getProject();
+        Path metadataFolder = project.getMetadataFolder(create);
+        if (metadataFolder == null) {
+            return null;
+        }
+        return metadataFolder.resolve(INDEX_FOLDER)
+            .resolve(container.getId().replaceAll("[^\\w.\\-]", "_") + INDEX_FILE_EXT);
+    }
+
+    /**
+     * Loads names saved in the project metadata folder. Index is searchable after that.
+     */
+    void loadIndex() {
+        readIndexFile();
+        loaded = true;
+    }
+
+    private void readIndexFile() {
+        Path file = getIndexFile(false);
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        Map<String, DBSObjectType> typesByName = new HashMap<>();
+        for (DBSObjectType type : INDEXED_TYPES) {
+            typesByName.put(type.getTypeName(), type);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file), 64 * 1024)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                log.debug("Unsupported object name index format '" + file + "'");
+                return;
+            }
+            if (!container.getId().equals(in.readUTF())) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                DBSObjectType type = typesByName.get(in.readUTF());
+                int pathLength = in.readUnsignedShort();
+                List<String> path = new ArrayList<>(pathLength);
+                for (int k = 0; k < pathLength; k++) {
+                    path.add(in.readUTF());
+                }
+                String name = in.readUTF();
+                if (type == null) {
+                    continue;
+                }
+                IndexedObject indexed = new IndexedObject(this, type, path, name, null);
+                synchronized (names) {
+                    // Objects read in the current session are more recent
+                    if (names.size() < MAX_ENTRIES && !names.containsKey(indexed.getKey())) {
+                        names.put(indexed.getKey(), name, indexed);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Error reading object name index '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Saves names to the project metadata folder
+     */
+    void saveIndex() {
+        Path file = getIndexFile(true);
+        if (file == null) {
+            return;
+        }
+        List<IndexedObject> objects = names.getValues();
+        try {
+            if (objects.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            Files.createDirectories(file.getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile), 64 * 1024)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeUTF(container.getId());
+                out.writeInt(objects.size());
+                for (IndexedObject indexed : objects) {
+                    out.writeUTF(indexed.type.getTypeName());
+                    out.writeShort(indexed.path.size());
+                    for (String part : indexed.path) {
+                        out.writeUTF(part);
+                    }
+                    out.writeUTF(indexed.name);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Error saving object name index '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Index entry. Keeps weak reference to the object if it was read in the current session.
+     */
+    private static class IndexedObject implements DBSObjectReference {
+        @NotNull
+        private final ObjectNameIndex index;
+        @NotNull
+        private final DBSObjectType type;
+        @NotNull
+        private final List<String> path;
+        @NotNull
+        private final String name;
+        @Nullable
+        private final WeakReference<DBSObject> object;
+
+        IndexedObject(
+            @NotNull ObjectNameIndex index,
+            @NotNull DBSObjectType type,
+            @NotNull List<String> path,
+            @NotNull String name,
+            @Nullable DBSObject object
+        ) {
+            this.index = index;
+            this.type = type;
+            this.path = path;
+            this.name = name;
+            this.object = object == null ? null : new WeakReference<>(object);
+        }
+
+        @NotNull
+        String getKey() {
+            return makeKey(type, path, name);
+        }
+
+        boolean isInScope(@Nullable List<String> scopePath) {
+            return scopePath == null || (path.size() >= scopePath.size() && path.subList(0, scopePath.size()).equals(scopePath));
+        }
+
+        boolean isOfType(@NotNull DBSObjectType[] objectTypes) {
+            DBSObject liveObject = getLiveObject();
+            for (DBSObjectType objectType : objectTypes) {
+                Class<? extends DBSObject> typeClass = objectType.getTypeClass();
+                if (liveObject != null ? typeClass.isInstance(liveObject) :
+                    typeClass.isAssignableFrom(type.getTypeClass()) || type.getTypeClass().isAssignableFrom(typeClass)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the object if it belongs to the current connection
+         */
+        @Nullable
+        private DBSObject getLiveObject() {
+            DBSObject liveObject = object == null ? null : object.get();
+            if (liveObject == null || liveObject.getDataSource() == null || liveObject.getDataSource() != index.container.getDataSource()) {
+                return null;
+            }
+            return liveObject;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public DBSObject getContainer() {
+            DBSObject liveObject = getLiveObject();
+            return liveObject == null ? null : liveObject.getParentObject();
+        }
+
+        @Override
+        public Class<?> getObjectClass() {
+            DBSObject liveObject = getLiveObject();
+            return liveObject == null ? type.getTypeClass() : liveObject.getClass();
+        }
+
+        @Override
+        public DBSObjectType getObjectType() {
+            return type;
+        }
+
+        @Override
+        public String getObjectDescription() {
+            DBSObject liveObject = getLiveObject();
+            return liveObject == null ? null : liveObject.getDescription();
+        }
+
+        @Override
+        public DBSObject resolveObject(DBRProgressMonitor monitor) throws DBException {
+            DBSObject liveObject = getLiveObject();
+            if (liveObject != null) {
+                return liveObject;
+            }
+            DBPDataSource dataSource = index.container.getDataSource();
+            if (dataSource == null) {
+                throw new DBException("Not connected to '" + index.container.getName() + "'");
+            }
+            DBSObject resolved = dataSource;
+            for (String part : path) {
+                resolved = resolved instanceof DBSObjectContainer objectContainer ? objectContainer.getChild(monitor, part) : null;
+                if (resolved == null) {
+                    break;
+                }
+            }
+            if (type == RelationalObjectType.TYPE_TABLE_COLUMN && resolved instanceof DBSEntity entity) {
+                resolved = entity.getAttribute(monitor, name);
+            } else {
+                resolved = resolved instanceof DBSObjectContainer objectContainer ? objectContainer.getChild(monitor, name) : null;
+            }
+            if (resolved == null && !monitor.isCanceled()) {
+                // Object doesn't exist anymore
+                synchronized (index.names) {
+                    if (index.names.get(getKey()) == this) {
+                        index.names.remove(getKey());
+                        index.saveJob.schedule(SAVE_DELAY_MS);
+                    }
+                }
+            }
+            return resolved;
+        }
+
+        @NotNull
+        @Override
+        public String getFullyQualifiedName(DBPEvaluationContext context) {
+            DBSObject liveObject = getLiveObject();
+            if (liveObject != null) {
+                return DBUtils.getObjectFullName(liveObject, context);
+            }
+            DBPDataSource dataSource = index.container.getDataSource();
+            if (dataSource == null) {
+                return name;
+            }
+            StringBuilder fqName = new StringBuilder();
+            for (String part : path) {
+                fqName.append(DBUtils.getQuotedIdentifier(dataSource, part)).append(dataSource.getSQLDialect().getCatalogSeparator());
+            }
+            return fqName.append(DBUtils.getQuotedIdentifier(dataSource, name)).toString();
+        }
+
+        @Override
+        public String toString() {
+            return getFullyQualifiedName(DBPEvaluationContext.UI);
+        }
+    }
+
+    private static class LoadJob extends AbstractJob {
+        private final ObjectNameIndex index;
+
+        LoadJob(@NotNull ObjectNameIndex index) {
+            super("Load object name index of '" + index.container.getName() + "'");
+            this.index = index;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            index.loadIndex();
+            return Status.OK_STATUS;
+        }
+    }
+
+    private class SaveJob extends AbstractJob {
+        SaveJob() {
+            super("Save object name index");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (!loaded) {
+                // Do not overwrite names which were not loaded yet
+                schedule(SAVE_DELAY_MS);
+                return Status.OK_STATUS;
+            }
+            saveIndex();
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -0,0 +1,330 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of names with LIKE mask search.
+ * <p>
+ * Each value is stored under a unique key. Names are split into lower-case trigrams, a mask is matched only against
+ * the names which contain the rarest trigram of its longest literal part. Masks with a shorter literal prefix are
+ * matched against the names with the same first one or two characters, other masks are matched against all names.
+ * Results are ranked by similarity to the mask: exact matches first, then prefix matches, then other names
+ * by the number of shared trigrams.
+ * <p>
+ * Removed values are skipped on search and dropped from the trigram lists on compaction.
+ * Thread-safe.
+ */
+public class TrigramNameIndex<T> {
+
+    private static final int COMPACT_MIN_REMOVED = 10_000;
+
+    private static class Item<T> {
+        @NotNull
+        private final String key;
+        @NotNull
+        private final String name;
+        @NotNull
+        private final String lowerName;
+        @NotNull
+        private final T value;
+
+        Item(@NotNull String key, @NotNull String name, @NotNull T value) {
+            this.key = key;
+            this.name = name;
+            this.lowerName = name.toLowerCase(Locale.ENGLISH);
+            this.value = value;
+        }
+    }
+
+    private static class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+    }
+
+    /**
+     * Orders matches from the best to the worst
+     */
+    private record Match<T>(@NotNull Item<T> item, double score) implements Comparable<Match<T>> {
+        @Override
+        public int compareTo(@NotNull Match<T> other) {
+            int result = Double.compare(other.score, score);
+            if (result == 0) {
+                result = Integer.compare(item.name.length(), other.item.name.length());
+            }
+            return result != 0 ? result : item.name.compareTo(other.item.name);
+        }
+    }
+
+    // Removed items are null
+    private final List<Item<T>> items = new ArrayList<>();
+    private final Map<String, Integer> keyIds = new HashMap<>();
+    private final Map<Long, IntList> trigramIds = new HashMap<>();
+    // Names by their first one and two characters
+    private final Map<String, IntList> prefixIds = new HashMap<>();
+    private int removedCount;
+
+    public synchronized int size() {
+        return keyIds.size();
+    }
+
+    public synchronized boolean containsKey(@NotNull String key) {
+        return keyIds.containsKey(key);
+    }
+
+    @Nullable
+    public synchronized T get(@NotNull String key) {
+        Integer id = keyIds.get(key);
+        return id == null ? null : items.get(id).value;
+    }
+
+    /**
+     * Adds value or replaces the value with the same key
+     */
+    public synchronized void put(@NotNull String key, @NotNull String name, @NotNull T value) {
+        Integer id = keyIds.get(key);
+        if (id != null) {
+            if (items.get(id).name.equals(name)) {
+                // Same trigrams, just replace the value
+                items.set(id, new Item<>(key, name, value));
+                return;
+            }
+            removeItem(id);
+        }
+        Item<T> item = new Item<>(key, name, value);
+        int newId = items.size();
+        items.add(item);
+        keyIds.put(key, newId);
+        for (int length = 1; length <= 2 && length <= item.lowerName.length(); length++) {
+            prefixIds.computeIfAbsent(item.lowerName.substring(0, length), p -> new IntList()).add(newId);
+        }
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= item.lowerName.length(); i++) {
+            long trigram = getTrigram(item.lowerName, i);
+            if (trigrams.add(trigram)) {
+                trigramIds.computeIfAbsent(trigram, t -> new IntList()).add(newId);
+            }
+        }
+    }
+
+    @Nullable
+    public synchronized T remove(@NotNull String key) {
+        Integer id = keyIds.get(key);
+        if (id == null) {
+            return null;
+        }
+        T value = items.get(id).value;
+        removeItem(id);
+        if (removedCount > COMPACT_MIN_REMOVED && removedCount > keyIds.size()) {
+            compact();
+        }
+        return value;
+    }
+
+    public synchronized void clear() {
+        items.clear();
+        keyIds.clear();
+        trigramIds.clear();
+        prefixIds.clear();
+        removedCount = 0;
+    }
+
+    @NotNull
+    public synchronized List<T> getValues() {
+        List<T> values = new ArrayList<>(keyIds.size());
+        for (Item<T> item : items) {
+            if (item != null) {
+                values.add(item.value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Finds values by name mask.
+     *
+     * @param mask          name mask, '%' matches any number of characters and '_' matches one character
+     * @param caseSensitive case-sensitive matching
+     * @param filter        value filter, applied to matching names only
+     * @param maxResults    maximum number of results
+     * @return values ordered by rank
+     */
+    @NotNull
+    public List<T> find(@NotNull String mask, boolean caseSensitive, @Nullable Predicate<T> filter, int maxResults) {
+        Matcher matcher = Pattern.compile(makeMaskRegex(mask), caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE).matcher("");
+        String literal = getLongestLiteral(mask).toLowerCase(Locale.ENGLISH);
+        String query = mask.replace("%", "").replace("_", "").toLowerCase(Locale.ENGLISH);
+        String prefix = getLiteralPrefix(mask).toLowerCase(Locale.ENGLISH);
+
+        // Worst match on top, so only the best results are kept
+        PriorityQueue<Match<T>> matches = new PriorityQueue<>(Comparator.reverseOrder());
+        synchronized (this) {
+            IntList candidates = null;
+            for (int i = 0; i + 3 <= literal.length(); i++) {
+                IntList ids = trigramIds.get(getTrigram(literal, i));
+                if (ids == null) {
+                    return Collections.emptyList();
+                }
+                if (candidates == null || ids.size < candidates.size) {
+                    candidates = ids;
+                }
+            }
+            if (candidates == null && !prefix.isEmpty()) {
+                candidates = prefixIds.get(prefix.substring(0, Math.min(2, prefix.length())));
+                if (candidates == null) {
+                    return Collections.emptyList();
+                }
+            }
+            if (candidates != null) {
+                for (int i = 0; i < candidates.size; i++) {
+                    matchItem(items.get(candidates.data[i]), matcher, query, filter, maxResults, matches);
+                }
+            } else {
+                for (Item<T> item : items) {
+                    matchItem(item, matcher, query, filter, maxResults, matches);
+                }
+            }
+        }
+        List<Match<T>> ranked = new ArrayList<>(matches);
+        Collections.sort(ranked);
+        List<T> result = new ArrayList<>(ranked.size());
+        for (Match<T> match : ranked) {
+            result.add(match.item.value);
+        }
+        return result;
+    }
+
+    private void matchItem(
+        @Nullable Item<T> item,
+        @NotNull Matcher matcher,
+        @NotNull String query,
+        @Nullable Predicate<T> filter,
+        int maxResults,
+        @NotNull PriorityQueue<Match<T>> matches
+    ) {
+        if (item == null || !matcher.reset(item.name).matches() || (filter != null && !filter.test(item.value))) {
+            return;
+        }
+        Match<T> match = new Match<>(item, getScore(item.lowerName, query));
+        if (matches.size() < maxResults) {
+            matches.add(match);
+        } else if (maxResults > 0 && match.compareTo(matches.peek()) < 0) {
+            matches.poll();
+            matches.add(match);
+        }
+    }
+
+    private void removeItem(int id) {
+        Item<T> item = items.set(id, null);
+        if (item != null) {
+            keyIds.remove(item.key);
+            removedCount++;
+        }
+    }
+
+    private void compact() {
+        List<Item<T>> liveItems = new ArrayList<>(items);
+        clear();
+        for (Item<T> item : liveItems) {
+            if (item != null) {
+                put(item.key, item.name, item.value);
+            }
+        }
+    }
+
+    private static double getScore(@NotNull String lowerName, @NotNull String query) {
+        if (query.isEmpty()) {
+            return 0;
+        }
+        if (lowerName.equals(query)) {
+            return 3;
+        }
+        double score = lowerName.startsWith(query) ? 1 : 0;
+        int queryTrigrams = query.length() - 2;
+        if (queryTrigrams > 0) {
+            int shared = 0;
+            for (int i = 0; i < queryTrigrams; i++) {
+                if (lowerName.contains(query.substring(i, i + 3))) {
+                    shared++;
+                }
+            }
+            score += (double) shared / Math.max(queryTrigrams, lowerName.length() - 2);
+        }
+        return score;
+    }
+
+    private static long getTrigram(@NotNull String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    @NotNull
+    private static String getLongestLiteral(@NotNull String mask) {
+        String longest = "";
+        for (String part : mask.split("[%_]")) {
+            if (part.length() > longest.length()) {
+                longest = part;
+            }
+        }
+        return longest;
+    }
+
+    @NotNull
+    private static String getLiteralPrefix(@NotNull String mask) {
+        for (int i = 0; i < mask.length(); i++) {
+            char c = mask.charAt(i);
+            if (c == '%' || c == '_') {
+                return mask.substring(0, i);
+            }
+        }
+        return mask;
+    }
+
+    @NotNull
+    private static String makeMaskRegex(@NotNull String mask) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < mask.length(); i++) {
+            char c = mask.charAt(i);
+            if (c == '%' || c == '_') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(mask.substring(literalStart, i)));
+                }
+                regex.append(c == '%' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < mask.length()) {
+            regex.append(Pattern.quote(mask.substring(literalStart)));
+        }
+        return regex.toString();
+    }
+
+}
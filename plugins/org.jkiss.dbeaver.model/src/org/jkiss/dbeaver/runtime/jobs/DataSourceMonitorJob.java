@@ -20,11 +20,14 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
 import org.jkiss.dbeaver.model.DBPMessageType;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.app.*;
@@ -34,6 +37,7 @@ import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
 import org.jkiss.dbeaver.model.exec.DBExecUtils;
+import org.jkiss.dbeaver.model.meta.ForTest;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMTransactionState;
 import org.jkiss.dbeaver.model.qm.QMUtils;
@@ -51,6 +55,10 @@ import java.util.*;
  *
  * Performs connection keep-alive ping.
  * Ends idle transactions.
+ * <p>
+ * Checks of connected data sources are kept in a queue ordered by deadline, each run handles only the due checks.
+ * Data sources are added and removed on connect and disconnect events of the data source registries.
+ * Idle deadlines depend on the user activity, they are moved forward when the check finds that the user was active.
  */
 public class DataSourceMonitorJob extends AbstractJob {
     private static final int MONITOR_INTERVAL = 3000; // once per 3 seconds
@@ -63,10 +71,28 @@ public class DataSourceMonitorJob extends AbstractJob {
     // Disabled because we use different approach - close connections on sleep
     private static final boolean INVALIDATE_AFTER_SLEEP = true;
     private static final long SYSTEM_SUSPEND_INTERVAL = 20000; // 20 seconds of inactivity - most likely a system suspend
+    // Connection settings and timeouts may be changed while connected, so each check is repeated at least once per minute
+    private static final long SETTINGS_CHECK_INTERVAL = 60000;
+    private static final int MAX_PARALLEL_PINGS = 4;
+
+    private enum CheckType {
+        KEEP_ALIVE,
+        IDLE_TIMEOUT
+    }
+
+    private record Check(@NotNull DBPDataSourceContainer container, @NotNull CheckType type, long deadline) {
+    }
 
     private final DBPPlatform platform;
-    private final Map<String, Long> checkCache = new HashMap<>();
+    private final PriorityQueue<Check> checkQueue = new PriorityQueue<>(Comparator.comparingLong(Check::deadline));
+    // Queued check of each type per data source
+    private final Map<CheckType, Map<DBPDataSourceContainer, Check>> activeChecks = new EnumMap<>(CheckType.class);
+    private final Set<DBPDataSourceContainer> watchedDataSources = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Registries we listen to, with their workspaces
+    private final Map<DBPDataSourceRegistry, DBPWorkspace> watchedRegistries = new IdentityHashMap<>();
+    private final DBPEventListener registryListener = this::handleRegistryEvent;
     private final Set<String> pingCache = new HashSet<>();
+    private final JobGroup pingGroup = new JobGroup("Keep-alive ping", MAX_PARALLEL_PINGS, 0);
     private long lastPingTime = -1;
     private boolean isSleeping = false;
 
@@ -75,6 +101,9 @@ public class DataSourceMonitorJob extends AbstractJob {
         setUser(false);
         setSystem(true);
         this.platform = platform;
+        for (CheckType type : CheckType.values()) {
+            activeChecks.put(type, new IdentityHashMap<>());
+        }
     }
 
     @Override
@@ -164,92 +193,249 @@ public class DataSourceMonitorJob extends AbstractJob {
         checkDataSourceAliveInWorkspace(workspace, getLastUserActivityTime(lastPingTime));
     }
 
+    /**
+     * Checks connected data sources of the workspace.
+     * Starts listening to data source registries loaded since the last check and performs due checks.
+     */
     protected void checkDataSourceAliveInWorkspace(DBPWorkspace workspace, long lastUserActivityTime) {
-        List<DBPProject> projects = new ArrayList<>(workspace.getProjects());
-        for (DBPProject project : projects) {
+        Set<DBPDataSourceRegistry> registries = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DBPProject project : new ArrayList<>(workspace.getProjects())) {
             if (project.isOpen() && project.isRegistryLoaded()) {
-                DBPDataSourceRegistry dataSourceRegistry = project.getDataSourceRegistry();
-                List<DBPDataSourceContainer> dataSources = new ArrayList<>(dataSourceRegistry.getDataSources());
-                for (DBPDataSourceContainer ds : dataSources) {
-                    checkDataSourceAlive(ds, lastUserActivityTime);
+                registries.add(project.getDataSourceRegistry());
+            }
+        }
+        List<DBPDataSourceRegistry> addedRegistries = new ArrayList<>();
+        List<DBPDataSourceRegistry> removedRegistries = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Map.Entry<DBPDataSourceRegistry, DBPWorkspace>> it = watchedRegistries.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<DBPDataSourceRegistry, DBPWorkspace> entry = it.next();
+                if (entry.getValue() == workspace && !registries.contains(entry.getKey())) {
+                    // Project was closed or deleted
+                    removedRegistries.add(entry.getKey());
+                    watchedDataSources.removeIf(container -> {
+                        if (container.getRegistry() == entry.getKey()) {
+                            removeChecks(container);
+                            return true;
+                        }
+                        return false;
+                    });
+                    it.remove();
+                }
+            }
+            for (DBPDataSourceRegistry registry : registries) {
+                if (!watchedRegistries.containsKey(registry)) {
+                    watchedRegistries.put(registry, workspace);
+                    addedRegistries.add(registry);
+                }
+            }
+        }
+        for (DBPDataSourceRegistry registry : removedRegistries) {
+            registry.removeDataSourceListener(registryListener);
+        }
+        for (DBPDataSourceRegistry registry : addedRegistries) {
+            // Listen first, so data sources connected during the scan are not missed
+            registry.addDataSourceListener(registryListener);
+            for (DBPDataSourceContainer ds : new ArrayList<>(registry.getDataSources())) {
+                if (ds.isConnected()) {
+                    addDataSource(ds);
+                }
+            }
+        }
+        checkDueDataSources(lastUserActivityTime);
+    }
+
+    private void handleRegistryEvent(@NotNull DBPEvent event) {
+        if (!(event.getObject() instanceof DBPDataSourceContainer container)) {
+            return;
+        }
+        switch (event.getAction()) {
+            case AFTER_CONNECT, OBJECT_UPDATE -> {
+                if (container.isConnected()) {
+                    addDataSource(container);
+                } else {
+                    removeDataSource(container);
                 }
             }
+            case OBJECT_REMOVE -> removeDataSource(container);
+            default -> {
+                // ignore
+            }
         }
     }
 
-    private void checkDataSourceAlive(final DBPDataSourceContainer dataSourceDescriptor, long lastUserActivityTime) {
-        if (!dataSourceDescriptor.isConnected()) {
+    @ForTest
+    synchronized boolean isWatched(@NotNull DBPDataSourceContainer container) {
+        return watchedDataSources.contains(container);
+    }
+
+    @ForTest
+    synchronized int getQueuedCheckCount() {
+        return checkQueue.size();
+    }
+
+    private synchronized void addDataSource(@NotNull DBPDataSourceContainer container) {
+        if (!watchedDataSources.add(container)) {
             return;
         }
+        long curTime = System.currentTimeMillis();
+        Date connectTime = container.getConnectTime();
+        long keepAliveInterval = container.getConnectionConfiguration().getKeepAliveInterval() * 1000L;
+        scheduleCheck(
+            container,
+            CheckType.KEEP_ALIVE,
+            keepAliveInterval > 0 ? (connectTime == null ? curTime : connectTime.getTime()) + keepAliveInterval : curTime + SETTINGS_CHECK_INTERVAL);
+        scheduleCheck(container, CheckType.IDLE_TIMEOUT, curTime);
+    }
 
-        final String dsId = dataSourceDescriptor.getId();
+    private synchronized void removeDataSource(@NotNull DBPDataSourceContainer container) {
+        if (watchedDataSources.remove(container)) {
+            removeChecks(container);
+        }
+    }
+
+    private void removeChecks(@NotNull DBPDataSourceContainer container) {
+        for (CheckType type : CheckType.values()) {
+            Check check = activeChecks.get(type).remove(container);
+            if (check != null) {
+                checkQueue.remove(check);
+            }
+        }
+    }
+
+    private synchronized void scheduleCheck(@NotNull DBPDataSourceContainer container, @NotNull CheckType type, long deadline) {
+        if (!watchedDataSources.contains(container)) {
+            // Disconnected while the check was running
+            return;
+        }
+        Check check = new Check(container, type, deadline);
+        Check oldCheck = activeChecks.get(type).put(container, check);
+        if (oldCheck != null) {
+            checkQueue.remove(oldCheck);
+        }
+        checkQueue.add(check);
+    }
+
+    private void checkDueDataSources(long lastUserActivityTime) {
+        long curTime = System.currentTimeMillis();
+        // Due check types of each data source, so every data source is handled once
+        Map<DBPDataSourceContainer, Set<CheckType>> dueChecks = new LinkedHashMap<>();
         synchronized (this) {
-            if (pingCache.contains(dsId)) {
-                // Ping is still in progress. Hanged?
-                // Anyway - just skip it
-                return;
+            while (!checkQueue.isEmpty() && checkQueue.peek().deadline() <= curTime) {
+                Check check = checkQueue.poll();
+                activeChecks.get(check.type()).remove(check.container());
+                dueChecks.computeIfAbsent(check.container(), c -> EnumSet.noneOf(CheckType.class)).add(check.type());
             }
         }
+        for (Map.Entry<DBPDataSourceContainer, Set<CheckType>> entry : dueChecks.entrySet()) {
+            DBPDataSourceContainer container = entry.getKey();
+            if (!container.isConnected()) {
+                removeDataSource(container);
+                continue;
+            }
+            boolean connectionClosed = false;
+            if (entry.getValue().contains(CheckType.IDLE_TIMEOUT)) {
+                connectionClosed = checkIdleTimeouts(container, curTime, lastUserActivityTime);
+            }
+            if (entry.getValue().contains(CheckType.KEEP_ALIVE)) {
+                if (connectionClosed) {
+                    // No need to ping a connection which is being closed
+                    scheduleCheck(container, CheckType.KEEP_ALIVE, curTime + SETTINGS_CHECK_INTERVAL);
+                } else {
+                    checkDataSourceAlive(container, curTime);
+                }
+            }
+        }
+    }
 
-        // End long transactions or connections
-        if (getDisconnectTimeoutSeconds(dataSourceDescriptor) > 0 || getTransactionTimeoutSeconds(dataSourceDescriptor) > 0) {
-            if (endIdleTransactionOrConnection(dataSourceDescriptor, lastUserActivityTime)) {
-                return;
+    /**
+     * Ends idle transaction or connection if any of idle timeouts is expired and schedules the next check.
+     * Returns true if the connection is being closed.
+     */
+    private boolean checkIdleTimeouts(@NotNull DBPDataSourceContainer container, long curTime, long lastUserActivityTime) {
+        final long disconnectTimeoutSeconds = getDisconnectTimeoutSeconds(container);
+        final long rollbackTimeoutSeconds = getTransactionTimeoutSeconds(container);
+        long nextCheckTime = curTime + SETTINGS_CHECK_INTERVAL;
+        boolean connectionClosed = false;
+        if (lastUserActivityTime >= 0) {
+            final long idleInterval = (curTime - lastUserActivityTime) / 1000;
+            boolean timeoutExpired = false;
+            for (long timeoutSeconds : new long[] { disconnectTimeoutSeconds, rollbackTimeoutSeconds }) {
+                if (timeoutSeconds <= 0) {
+                    continue;
+                }
+                if (idleInterval > timeoutSeconds) {
+                    timeoutExpired = true;
+                    // Check again after the same idle period
+                    nextCheckTime = Math.min(nextCheckTime, curTime + timeoutSeconds * 1000);
+                } else {
+                    nextCheckTime = Math.min(nextCheckTime, lastUserActivityTime + (timeoutSeconds + 1) * 1000);
+                }
+            }
+            if (timeoutExpired) {
+                // Disconnect timeout is handled first, transactions are ended only if connection stays open
+                if (endIdleTransactionOrConnection(container, lastUserActivityTime)) {
+                    connectionClosed = disconnectTimeoutSeconds > 0 && idleInterval > disconnectTimeoutSeconds;
+                } else {
+                    // Execution or disconnect is in progress, try again soon
+                    nextCheckTime = curTime + MONITOR_INTERVAL;
+                }
             }
         }
+        scheduleCheck(container, CheckType.IDLE_TIMEOUT, nextCheckTime);
+        return connectionClosed;
+    }
 
+    private void checkDataSourceAlive(final DBPDataSourceContainer dataSourceDescriptor, long curTime) {
         // Perform keep alive request
         final int keepAliveInterval = dataSourceDescriptor.getConnectionConfiguration().getKeepAliveInterval();
-        if (keepAliveInterval <= 0) {
-            return;
-        }
-
         final DBPDataSource dataSource = dataSourceDescriptor.getDataSource();
-        if (dataSource == null) {
+        if (keepAliveInterval <= 0 || dataSource == null) {
+            scheduleCheck(dataSourceDescriptor, CheckType.KEEP_ALIVE, curTime + SETTINGS_CHECK_INTERVAL);
             return;
         }
-        Long lastCheckTime;
+
+        final String dsId = dataSourceDescriptor.getId();
         synchronized (this) {
-            lastCheckTime = checkCache.get(dsId);
-        }
-        if (lastCheckTime == null) {
-            final Date connectTime = dataSourceDescriptor.getConnectTime();
-            if (connectTime != null) {
-                lastCheckTime = connectTime.getTime();
+            if (pingCache.contains(dsId)) {
+                // Ping is still in progress. Hanged?
+                // Anyway - check it later
+                scheduleCheck(dataSourceDescriptor, CheckType.KEEP_ALIVE, curTime + keepAliveInterval * 1000L);
+                return;
             }
         }
-        if (lastCheckTime == null) {
-            log.debug("Can't determine last check time for " + dsId);
+
+        boolean disconnectOnError = false;
+        int failedAttemptCount = KeepAlivePingJob.getFailedAttemptCount(dataSource);
+        if (failedAttemptCount >= MAX_FAILED_ATTEMPTS_BEFORE_IGNORE) {
+            scheduleCheck(dataSourceDescriptor, CheckType.KEEP_ALIVE, curTime + keepAliveInterval * 1000L);
             return;
         }
-        long curTime = System.currentTimeMillis();
-        if ((curTime - lastCheckTime) / 1000 > keepAliveInterval) {
-            boolean disconnectOnError = false;
-            int failedAttemptCount = KeepAlivePingJob.getFailedAttemptCount(dataSource);
-            if (failedAttemptCount >= MAX_FAILED_ATTEMPTS_BEFORE_IGNORE) {
-                return;
-            }
-            if (failedAttemptCount > MAX_FAILED_ATTEMPTS_BEFORE_DISCONNECT) {
-                disconnectOnError = true;
-            }
-            final KeepAlivePingJob pingJob = new KeepAlivePingJob(dataSource, disconnectOnError);
-            pingJob.addJobChangeListener(new JobChangeAdapter() {
-                @Override
-                public void done(IJobChangeEvent event) {
-                    synchronized (DataSourceMonitorJob.this) {
-                        checkCache.put(dsId, System.currentTimeMillis());
-                        pingCache.remove(dsId);
-                    }
+        if (failedAttemptCount > MAX_FAILED_ATTEMPTS_BEFORE_DISCONNECT) {
+            disconnectOnError = true;
+        }
+        final KeepAlivePingJob pingJob = new KeepAlivePingJob(dataSource, disconnectOnError);
+        // Limit number of simultaneous pings
+        pingJob.setJobGroup(pingGroup);
+        pingJob.addJobChangeListener(new JobChangeAdapter() {
+            @Override
+            public void done(IJobChangeEvent event) {
+                synchronized (DataSourceMonitorJob.this) {
+                    pingCache.remove(dsId);
+                    scheduleCheck(dataSourceDescriptor, CheckType.KEEP_ALIVE, System.currentTimeMillis() + keepAliveInterval * 1000L);
                 }
-            });
-            synchronized (this) {
-                pingCache.add(dsId);
             }
-            pingJob.schedule();
+        });
+        synchronized (this) {
+            pingCache.add(dsId);
         }
+        pingJob.schedule();
     }
 
-    private boolean endIdleTransactionOrConnection(DBPDataSourceContainer dsDescriptor, long lastUserActivityTime) {
+    /**
+     * Closes idle connection or ends its idle transactions.
+     * Returns false if nothing was done because execution or disconnect is in progress.
+     */
+    protected boolean endIdleTransactionOrConnection(DBPDataSourceContainer dsDescriptor, long lastUserActivityTime) {
         if (!dsDescriptor.isConnected()) {
             return false;
         }
@@ -0,0 +1,302 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Background QM log file writer.
+ *
+ * Formatted log chunks are queued and written by a background job through a file channel,
+ * so event dispatcher waits for disk IO only when the queue is full.
+ * Log file is rotated when date changes or when it exceeds the maximum size.
+ * Rotated files are named {@code dbeaver_sql_<date>.<n>.<ext>} and may be gzipped.
+ */
+class QMLogFileChannel {
+
+    private static final Log log = Log.getLog(QMLogFileChannel.class);
+
+    static final String LOG_FILE_PREFIX = "dbeaver_sql_";
+    static final String GZIP_EXTENSION = ".gz";
+    private static final DateTimeFormatter LOG_DATE_FORMATTER = DateTimeFormatter.ofPattern(GeneralUtils.DEFAULT_DATE_PATTERN, Locale.ENGLISH);
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_QUEUE_SIZE = 10000;
+    private static final long FLUSH_PERIOD_MS = 1000;
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private final Path logFolder;
+    private final String extension;
+    private final long maxFileSize;
+    private final boolean compress;
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(MAX_QUEUE_SIZE);
+    private final WriterJob writerJob;
+    private volatile boolean closed;
+    private volatile boolean writerStopped;
+
+    // Writer job state
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private FileChannel channel;
+    private Path currentFile;
+    private LocalDate currentDate;
+
+    /**
+     * @param extension   log file extension (without dot)
+     * @param maxFileSize max file size in bytes. Zero means no size limit.
+     * @param compress    gzip rotated files
+     */
+    QMLogFileChannel(@NotNull Path logFolder, @NotNull String extension, long maxFileSize, boolean compress) {
+        this.logFolder = logFolder;
+        this.extension = extension;
+        this.maxFileSize = maxFileSize;
+        this.compress = compress;
+
+        this.writerJob = new WriterJob();
+        this.writerJob.schedule();
+    }
+
+    /**
+     * Queues log chunk. Blocks while the queue is full, so no history is lost if writer can't keep up.
+     */
+    void write(@NotNull String chunk) {
+        if (closed || chunk.isEmpty()) {
+            return;
+        }
+        try {
+            while (!queue.offer(chunk, FLUSH_PERIOD_MS, TimeUnit.MILLISECONDS)) {
+                if (writerStopped) {
+                    log.warn("QM log writer is stopped, log chunk skipped");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes all queued chunks and closes the file
+     */
+    void close() {
+        closed = true;
+        try {
+            writerJob.join(CLOSE_TIMEOUT_MS, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        try {
+            while (true) {
+                String chunk;
+                try {
+                    chunk = queue.poll(FLUSH_PERIOD_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                try {
+                    for (; chunk != null; chunk = queue.poll()) {
+                        encode(chunk);
+                    }
+                    flushBuffer();
+                    checkRotation();
+                } catch (IOException e) {
+                    log.warn("IO error writing QM log file '" + currentFile + "'", e);
+                    buffer.clear();
+                    closeChannel();
+                }
+                if (closed && queue.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            writerStopped = true;
+            closeChannel();
+        }
+    }
+
+    private class WriterJob extends AbstractJob {
+        WriterJob() {
+            super("QM log writer");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            runWriter();
+            return Status.OK_STATUS;
+        }
+    }
+
+    private void encode(@NotNull String chunk) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(chunk);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flushBuffer();
+            } else {
+                break;
+            }
+        }
+        encoder.reset();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        ensureChannel();
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensureChannel() throws IOException {
+        LocalDate today = LocalDate.now();
+        if (channel != null && !today.equals(currentDate)) {
+            // New day - new file
+            Path oldFile = currentFile;
+            closeChannel();
+            if (compress) {
+                compressFile(oldFile, oldFile.resolveSibling(oldFile.getFileName() + GZIP_EXTENSION));
+            }
+        }
+        if (channel == null) {
+            if (!Files.exists(logFolder)) {
+                Files.createDirectories(logFolder);
+            }
+            currentDate = today;
+            currentFile = logFolder.resolve(LOG_FILE_PREFIX + LOG_DATE_FORMATTER.format(today) + "." + extension);
+            channel = FileChannel.open(currentFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private void checkRotation() throws IOException {
+        if (channel == null || maxFileSize <= 0 || channel.size() < maxFileSize) {
+            return;
+        }
+        Path oldFile = currentFile;
+        closeChannel();
+        String baseName = LOG_FILE_PREFIX + LOG_DATE_FORMATTER.format(currentDate);
+        for (int index = 1; ; index++) {
+            Path rotatedFile = oldFile.resolveSibling(baseName + "." + index + "." + extension);
+            Path compressedFile = rotatedFile.resolveSibling(rotatedFile.getFileName() + GZIP_EXTENSION);
+            if (!Files.exists(rotatedFile) && !Files.exists(compressedFile)) {
+                Files.move(oldFile, rotatedFile);
+                if (compress) {
+                    compressFile(rotatedFile, compressedFile);
+                }
+                break;
+            }
+        }
+    }
+
+    private static void compressFile(@NotNull Path file, @NotNull Path targetFile) {
+        try {
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(targetFile), 64 * 1024))
+            {
+                in.transferTo(out);
+            }
+            Files.delete(file);
+        } catch (IOException e) {
+            log.warn("Error compressing QM log file '" + file + "'", e);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Error closing QM log file: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Returns log file date or null if file is not a QM log file
+     */
+    @Nullable
+    static LocalDate getLogFileDate(@NotNull String fileName) {
+        if (!fileName.startsWith(LOG_FILE_PREFIX)) {
+            return null;
+        }
+        int dotPos = fileName.indexOf('.', LOG_FILE_PREFIX.length());
+        if (dotPos < 0) {
+            return null;
+        }
+        try {
+            return LOG_DATE_FORMATTER.parse(fileName.substring(LOG_FILE_PREFIX.length(), dotPos), LocalDate::from);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns rotation index of the log file. Active (not rotated) file has the max index.
+     */
+    static int getLogFileRotation(@NotNull String fileName) {
+        String[] parts = fileName.split("\\.");
+        if (parts.length > 2) {
+            try {
+                return Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                // Not rotated
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMObject;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Query history browser over QM log files in JSON lines format.
+ *
+ * Each file is indexed once (offset of every {@link #INDEX_STEP}-th line) and then re-indexed incrementally
+ * as it grows. Cursor reads log by pages using the index, so it never loads the whole file.
+ * Compressed (rotated) files are skipped. Transaction events are not restored.
+ */
+public class QMLogFileEventBrowser implements QMEventBrowser {
+
+    private static final Log log = Log.getLog(QMLogFileEventBrowser.class);
+
+    static final int INDEX_STEP = 128;
+    // Max number of log files with cached index
+    private static final int MAX_CACHED_INDEXES = 64;
+
+    private final Path logFolder;
+    // Access-ordered, least recently used indexes are evicted
+    private final Map<Path, LogFileIndex> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, LogFileIndex> eldest) {
+            return size() > MAX_CACHED_INDEXES;
+        }
+    };
+
+    public QMLogFileEventBrowser(@NotNull Path logFolder) {
+        this.logFolder = logFolder;
+    }
+
+    @NotNull
+    public Path getLogFolder() {
+        return logFolder;
+    }
+
+    @NotNull
+    @Override
+    public QMEventCursor getQueryHistoryCursor(@NotNull QMCursorFilter cursorFilter) throws DBException {
+        List<LogFileIndex> files = new ArrayList<>();
+        try {
+            List<Path> logFiles = listLogFiles();
+            synchronized (indexes) {
+                // Forget rotated and deleted files
+                indexes.keySet().retainAll(new HashSet<>(logFiles));
+            }
+            for (Path file : logFiles) {
+                LogFileIndex index;
+                synchronized (indexes) {
+                    index = indexes.computeIfAbsent(file, LogFileIndex::new);
+                }
+                index.update();
+                files.add(index);
+            }
+        } catch (IOException e) {
+            throw new DBException("Error reading QM log files", e);
+        }
+        return new LogFileCursor(files, cursorFilter);
+    }
+
+    /**
+     * Returns log files ordered from the newest to the oldest
+     */
+    private List<Path> listLogFiles() throws IOException {
+        if (!Files.isDirectory(logFolder)) {
+            return Collections.emptyList();
+        }
+        String extension = "." + QMConstants.LOG_FORMAT_JSON;
+        try (Stream<Path> list = Files.list(logFolder)) {
+            return list
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.endsWith(extension) && QMLogFileChannel.getLogFileDate(name) != null;
+                })
+                .sorted(Comparator
+                    .comparing((Path file) -> QMLogFileChannel.getLogFileDate(file.getFileName().toString()))
+                    .thenComparingInt(file -> QMLogFileChannel.getLogFileRotation(file.getFileName().toString()))
+                    .reversed())
+                .toList();
+        }
+    }
+
+    /**
+     * Sparse line index of a single log file
+     */
+    static class LogFileIndex {
+        private final Path file;
+        // Offsets of lines 0, INDEX_STEP, 2*INDEX_STEP, ...
+        private long[] checkpoints = new long[16];
+        private int lineCount;
+        // Position right after the last indexed line feed
+        private long indexedLength;
+
+        LogFileIndex(@NotNull Path file) {
+            this.file = file;
+        }
+
+        synchronized int getLineCount() {
+            return lineCount;
+        }
+
+        synchronized void update() throws IOException {
+            long fileSize = Files.exists(file) ? Files.size(file) : 0;
+            if (fileSize < indexedLength) {
+                // File was replaced
+                lineCount = 0;
+                indexedLength = 0;
+            }
+            if (fileSize == indexedLength) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                channel.position(indexedLength);
+                InputStream in = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+                long position = indexedLength;
+                long lineStart = indexedLength;
+                for (int b = in.read(); b != -1; b = in.read()) {
+                    position++;
+                    if (b == '\n') {
+                        if (lineCount % INDEX_STEP == 0) {
+                            int checkpoint = lineCount / INDEX_STEP;
+                            if (checkpoint >= checkpoints.length) {
+                                checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+                            }
+                            checkpoints[checkpoint] = lineStart;
+                        }
+                        lineCount++;
+                        lineStart = position;
+                    }
+                }
+                // Incomplete last line is indexed on the next update
+                indexedLength = lineStart;
+            }
+        }
+
+        /**
+         * Reads lines [firstLine, firstLine + count)
+         */
+        synchronized List<String> readLines(int firstLine, int count) throws IOException {
+            count = Math.min(count, lineCount - firstLine);
+            if (count <= 0) {
+                return Collections.emptyList();
+            }
+            List<String> lines = new ArrayList<>(count);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                int line = firstLine - firstLine % INDEX_STEP;
+                channel.position(checkpoints[line / INDEX_STEP]);
+                InputStream in = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+                ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream(1024);
+                for (int b = in.read(); b != -1 && lines.size() < count; b = in.read()) {
+                    if (b == '\n') {
+                        if (line >= firstLine) {
+                            lines.add(lineBuffer.toString(StandardCharsets.UTF_8));
+                        }
+                        lineBuffer.reset();
+                        line++;
+                    } else if (line >= firstLine) {
+                        lineBuffer.write(b);
+                    }
+                }
+            }
+            return lines;
+        }
+    }
+
+    private static class LogFileCursor implements QMEventCursor {
+        private final List<LogFileIndex> files;
+        private final QMEventCriteria criteria;
+        private final QMEventFilter filter;
+        private final String searchString;
+        private final long totalSize;
+
+        private int fileIndex;
+        // Next line to read in the current file (in reading direction)
+        private int lineIndex;
+        private final Deque<String> page = new ArrayDeque<>();
+        private QMMetaEventEntity nextEvent;
+        private long eventId;
+
+        LogFileCursor(@NotNull List<LogFileIndex> files, @NotNull QMCursorFilter cursorFilter) {
+            this.criteria = cursorFilter.getCriteria();
+            this.filter = cursorFilter.getFilter();
+            this.searchString = CommonUtils.isEmpty(criteria.getSearchString()) ? null : criteria.getSearchString().toLowerCase();
+            if (!criteria.isDesc()) {
+                files = new ArrayList<>(files);
+                Collections.reverse(files);
+            }
+            this.files = files;
+            long total = 0;
+            for (LogFileIndex file : files) {
+                total += file.getLineCount();
+            }
+            this.totalSize = total;
+            this.lineIndex = files.isEmpty() ? 0 : startLine(files.get(0));
+        }
+
+        @Override
+        public long getTotalSize() {
+            return totalSize;
+        }
+
+        @Override
+        public void scroll(int position, DBRProgressMonitor monitor) throws DBException {
+            if (position < 0 || position >= totalSize) {
+                throw new DBException("Position is out of range (" + getTotalSize() + ")");
+            }
+            page.clear();
+            nextEvent = null;
+            for (fileIndex = 0; fileIndex < files.size(); fileIndex++) {
+                int lineCount = files.get(fileIndex).getLineCount();
+                if (position < lineCount) {
+                    lineIndex = criteria.isDesc() ? lineCount - 1 - position : position;
+                    eventId = position;
+                    return;
+                }
+                position -= lineCount;
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent(DBRProgressMonitor monitor) throws DBException {
+            while (nextEvent == null) {
+                String line = nextLine();
+                if (line == null) {
+                    return false;
+                }
+                eventId++;
+                QMMetaEvent event = parseEvent(line);
+                if (event != null && matches(event)) {
+                    nextEvent = new QMMetaEventEntity(event.getObject(), event.getAction(), eventId, "", null);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public QMMetaEventEntity nextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (!hasNextEvent(monitor)) {
+                throw new DBException("No more events");
+            }
+            QMMetaEventEntity event = nextEvent;
+            nextEvent = null;
+            return event;
+        }
+
+        @Override
+        public void close() {
+            page.clear();
+        }
+
+        private int startLine(@NotNull LogFileIndex file) {
+            return criteria.isDesc() ? file.getLineCount() - 1 : 0;
+        }
+
+        @Nullable
+        private String nextLine() throws DBException {
+            while (page.isEmpty()) {
+                if (fileIndex >= files.size()) {
+                    return null;
+                }
+                LogFileIndex file = files.get(fileIndex);
+                if (lineIndex < 0 || lineIndex >= file.getLineCount()) {
+                    fileIndex++;
+                    if (fileIndex < files.size()) {
+                        lineIndex = startLine(files.get(fileIndex));
+                    }
+                    continue;
+                }
+                try {
+                    if (criteria.isDesc()) {
+                        // Read the whole index block which ends with the current line
+                        int firstLine = lineIndex - lineIndex % INDEX_STEP;
+                        List<String> lines = file.readLines(firstLine, lineIndex - firstLine + 1);
+                        for (String line : lines) {
+                            page.addFirst(line);
+                        }
+                        lineIndex = firstLine - 1;
+                    } else {
+                        page.addAll(file.readLines(lineIndex, INDEX_STEP));
+                        lineIndex += INDEX_STEP;
+                    }
+                } catch (IOException e) {
+                    throw new DBException("Error reading QM log file", e);
+                }
+            }
+            return page.pollFirst();
+        }
+
+        private boolean matches(@NotNull QMMetaEvent event) {
+            QMMObject object = event.getObject();
+            if (criteria.hasObjectTypes()) {
+                QMObjectType objectType = object instanceof QMMConnectionInfo ? QMObjectType.session : QMObjectType.query;
+                if (!criteria.hasObjectType(objectType)) {
+                    return false;
+                }
+            }
+            if (criteria.hasQueryTypes() && object instanceof QMMStatementExecuteInfo executeInfo &&
+                !ArrayUtils.contains(criteria.getQueryTypes(), executeInfo.getStatement().getPurpose())) {
+                return false;
+            }
+            if (searchString != null && !CommonUtils.notEmpty(object.getText()).toLowerCase().contains(searchString)) {
+                return false;
+            }
+            return filter == null || filter.accept(event);
+        }
+    }
+
+    @Nullable
+    static QMMetaEvent parseEvent(@NotNull String line) {
+        try {
+            JsonElement element = JsonParser.parseString(line);
+            if (!element.isJsonObject()) {
+                return null;
+            }
+            JsonObject json = element.getAsJsonObject();
+            String type = getString(json, "type");
+            QMEventAction action = CommonUtils.valueOf(QMEventAction.class, getString(json, "action"), QMEventAction.END);
+            long openTime = getLong(json, "openTime");
+            long closeTime = getLong(json, "closeTime");
+            QMMConnectionInfo connection = QMMConnectionInfo.builder()
+                .setContainerId(getString(json, "containerId"))
+                .setContainerName(getString(json, "containerName"))
+                .setDriverId(getString(json, "driverId"))
+                .setContextName(getString(json, "contextName"))
+                .setOpenTime(openTime)
+                .setCloseTime(closeTime)
+                .build();
+            if (QMLogFileWriter.JSON_TYPE_SESSION.equals(type)) {
+                return new QMMetaEvent(connection, action, null);
+            } else if (QMLogFileWriter.JSON_TYPE_QUERY.equals(type)) {
+                DBCExecutionPurpose purpose = CommonUtils.valueOf(DBCExecutionPurpose.class, getString(json, "purpose"), DBCExecutionPurpose.USER);
+                QMMStatementInfo statement = new QMMStatementInfo(openTime, closeTime, connection, purpose);
+                QMMStatementExecuteInfo executeInfo = new QMMStatementExecuteInfo(
+                    openTime,
+                    closeTime,
+                    statement,
+                    getString(json, "query"),
+                    getLong(json, "rows"),
+                    (int) getLong(json, "errorCode"),
+                    getString(json, "errorMessage"),
+                    getLong(json, "fetchBeginTime"),
+                    getLong(json, "fetchEndTime"),
+                    json.has("transactional") && json.get("transactional").getAsBoolean(),
+                    getString(json, "schema"),
+                    getString(json, "catalog"));
+                return new QMMetaEvent(executeInfo, action, null);
+            }
+            // Transactions can't be restored from the log
+            return null;
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            log.debug("Bad QM log line: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String getString(@NotNull JsonObject json, @NotNull String name) {
+        JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    private static long getLong(@NotNull JsonObject json, @NotNull String name) {
+        JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? 0 : element.getAsLong();
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.runtime.qm;
 
+import com.google.gson.stream.JsonWriter;
 import org.eclipse.core.runtime.IStatus;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
@@ -26,36 +27,34 @@ import org.jkiss.dbeaver.model.qm.*;
 import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
-import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.Calendar;
 import java.util.List;
-import java.util.Locale;
 import java.util.stream.Stream;
 
 /**
- * Query manager log writer
+ * Query manager log writer.
+ * Events are formatted on the dispatcher thread and written to disk by {@link QMLogFileChannel} in background.
  */
 public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
 
     private static final Log log = Log.getLog(QMLogFileWriter.class);
-    private static final DateTimeFormatter LOG_FILENAME_FORMATTER = DateTimeFormatter
-        .ofPattern("'dbeaver_sql_'" + GeneralUtils.DEFAULT_DATE_PATTERN + "'.log'", Locale.ENGLISH);
 
-    private File logFile;
+    static final String JSON_TYPE_SESSION = "session";
+    static final String JSON_TYPE_TRANSACTION = "transaction";
+    static final String JSON_TYPE_QUERY = "query";
+
     private boolean enabled;
+    private boolean jsonFormat;
 
-    private Writer logWriter;
+    private QMLogFileChannel logChannel;
     private QMEventFilter eventFilter;
     private final String lineSeparator;
 
@@ -66,15 +65,23 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
         initLogFile();
     }
 
-    public void dispose()
+    public synchronized void dispose()
     {
         DBWorkbench.getPlatform().getPreferenceStore().removePropertyChangeListener(this);
+        if (logChannel != null) {
+            logChannel.close();
+            logChannel = null;
+        }
     }
 
     private synchronized void initLogFile()
     {
         final DBPPreferenceStore preferences = DBWorkbench.getPlatform().getPreferenceStore();
         enabled = preferences.getBoolean(QMConstants.PROP_STORE_LOG_FILE);
+        if (logChannel != null) {
+            logChannel.close();
+            logChannel = null;
+        }
         if (enabled) {
             final int daysToKeepLogs = preferences.getInt(QMConstants.PROP_HISTORY_DAYS);
             final String logFolderPath = preferences.getString(QMConstants.PROP_LOG_DIRECTORY);
@@ -85,23 +92,13 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
                 log.debug("Error purging old logs: " + e.getMessage());
             }
 
-            File logFolder = new File(logFolderPath);
-            if (!logFolder.exists()) {
-                if (!logFolder.mkdirs()) {
-                    log.error("Can't create log folder '" + logFolderPath + "'");
-                }
-            }
-            logFile = new File(logFolder, LOG_FILENAME_FORMATTER.format(LocalDate.now()));
-            try {
-                logWriter = new FileWriter(logFile, true);
-            } catch (IOException e) {
-                log.error("Can't open log writer", e);
-            }
-        } else {
-            if (logWriter != null) {
-                ContentUtils.close(logWriter);
-                logWriter = null;
-            }
+            jsonFormat = QMConstants.LOG_FORMAT_JSON.equals(preferences.getString(QMConstants.PROP_LOG_FORMAT));
+            long maxFileSize = preferences.getLong(QMConstants.PROP_LOG_MAX_FILE_SIZE) * 1024 * 1024;
+            logChannel = new QMLogFileChannel(
+                Path.of(logFolderPath),
+                jsonFormat ? QMConstants.LOG_FORMAT_JSON : "log",
+                maxFileSize,
+                preferences.getBoolean(QMConstants.PROP_LOG_COMPRESS));
         }
         eventFilter = new DefaultEventFilter();
     }
@@ -113,12 +110,8 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
         try (Stream<Path> list = Files.list(logDirectory)) {
             list
                 .filter(file -> {
-                    try {
-                        final LocalDate date = LOG_FILENAME_FORMATTER.parse(file.getFileName().toString(), LocalDate::from);
-                        return judgementDay.isAfter(date);
-                    } catch (DateTimeParseException e) {
-                        return false;
-                    }
+                    final LocalDate date = QMLogFileChannel.getLogFileDate(file.getFileName().toString());
+                    return date != null && judgementDay.isAfter(date);
                 })
                 .forEach(file -> {
                     try {
@@ -133,25 +126,21 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
     @Override
     public synchronized void metaInfoChanged(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events)
     {
-        if (!enabled || logWriter == null) {
+        if (!enabled || logChannel == null) {
             return;
         }
 
         StringBuilder logBuffer = new StringBuilder(4000);
         for (QMMetaEvent event : events) {
             if (eventFilter.accept(event)) {
-                writeEvent(logBuffer, event);
+                if (jsonFormat) {
+                    writeJsonEvent(logBuffer, event);
+                } else {
+                    writeEvent(logBuffer, event);
+                }
             }
         }
-
-        try {
-            logWriter.write(logBuffer.toString());
-            logWriter.flush();
-        } catch (IOException e) {
-            log.warn("IO error writing QM log. Disable log file writer", e);
-            ContentUtils.close(logWriter);
-            logWriter = null;
-        }
+        logChannel.write(logBuffer.toString());
     }
 
     @Override
@@ -209,6 +198,67 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
         buffer.append(lineSeparator);
     }
 
+    /**
+     * Writes event as a single line JSON object
+     */
+    private void writeJsonEvent(StringBuilder buffer, QMMetaEvent event)
+    {
+        QMMObject object = event.getObject();
+        QMEventAction action = event.getAction();
+        if (object instanceof QMMStatementInfo || object instanceof QMMTransactionSavepointInfo ||
+            (object instanceof QMMStatementExecuteInfo && action != QMEventAction.END)) {
+            return;
+        }
+        StringWriter out = new StringWriter(256);
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginObject();
+            json.name("id").value(object.getObjectId());
+            json.name("action").value(action.name());
+            json.name("openTime").value(object.getOpenTime());
+            json.name("closeTime").value(object.getCloseTime());
+            QMMConnectionInfo connection = object.getConnection();
+            if (connection != null) {
+                json.name("containerId").value(connection.getContainerId());
+                json.name("containerName").value(connection.getContainerName());
+                json.name("driverId").value(connection.getDriverId());
+                json.name("contextName").value(connection.getContextName());
+            }
+            if (object instanceof QMMStatementExecuteInfo executeInfo) {
+                json.name("type").value(JSON_TYPE_QUERY);
+                json.name("query").value(executeInfo.getQueryString());
+                if (executeInfo.getStatement() != null && executeInfo.getStatement().getPurpose() != null) {
+                    json.name("purpose").value(executeInfo.getStatement().getPurpose().name());
+                }
+                json.name("rows").value(executeInfo.getUpdateRowCount());
+                json.name("fetchBeginTime").value(executeInfo.getFetchBeginTime());
+                json.name("fetchEndTime").value(executeInfo.getFetchEndTime());
+                json.name("transactional").value(executeInfo.isTransactional());
+                if (executeInfo.hasError()) {
+                    json.name("errorCode").value(executeInfo.getErrorCode());
+                    json.name("errorMessage").value(executeInfo.getErrorMessage());
+                }
+                if (!CommonUtils.isEmpty(executeInfo.getSchema())) {
+                    json.name("schema").value(executeInfo.getSchema());
+                }
+                if (!CommonUtils.isEmpty(executeInfo.getCatalog())) {
+                    json.name("catalog").value(executeInfo.getCatalog());
+                }
+            } else if (object instanceof QMMTransactionInfo transactionInfo) {
+                json.name("type").value(JSON_TYPE_TRANSACTION);
+                json.name("committed").value(transactionInfo.isCommitted());
+            } else if (object instanceof QMMConnectionInfo) {
+                json.name("type").value(JSON_TYPE_SESSION);
+            }
+            json.endObject();
+        } catch (IOException e) {
+            // Not possible for string writer
+            log.debug(e);
+            return;
+        }
+        // JSON writer escapes line feeds, so each event takes exactly one line
+        buffer.append(out).append('\n');
+    }
+
     private void appendEntryInfo(StringBuilder buffer, int severity, long code, long time)
     {
         buffer.append(DBConstants.MODEL_BUNDLE_ID).append(" ").append(severity).append(" ").append(code).append(" ");
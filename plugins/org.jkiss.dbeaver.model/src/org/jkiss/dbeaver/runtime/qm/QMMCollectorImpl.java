@@ -31,14 +31,21 @@ import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
-import org.jkiss.utils.LongKeyMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ *
+ * Handlers are called from many connections simultaneously, so there is no global lock.
+ * Meta info of each connection is guarded by its own monitor, events are collected in a lock-free queue
+ * which is drained by the dispatcher job.
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
@@ -47,19 +54,23 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     private static final int MAX_HISTORY_EVENTS = 10000;
 
     // Session map
-    private LongKeyMap<QMMConnectionInfo> connectionMap = new LongKeyMap<>();
-    private List<Long> closedConnections = new ArrayList<>();
+    private final Map<Long, QMMConnectionInfo> connectionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedConnections = new ConcurrentLinkedQueue<>();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
 
-    // Temporary event pool
+    // Events fired by handlers
+    private final Queue<QMMetaEvent> eventQueue = new ConcurrentLinkedQueue<>();
+    // Events taken from queue but not dispatched yet. Accessed by dispatcher only.
     private List<QMMetaEvent> eventPool = new ArrayList<>();
     // Sync object
     private final Object historySync = new Object();
-    // History (may be purged when limit reached)
-    private List<QMMetaEvent> pastEvents = new ArrayList<>();
-    private boolean running = true;
+    // History ring buffer (oldest events are overwritten when limit reached)
+    private final QMMetaEvent[] pastEvents = new QMMetaEvent[MAX_HISTORY_EVENTS];
+    private int pastEventsStart;
+    private int pastEventsCount;
+    private volatile boolean running = true;
     private long eventDispatchPeriod = 250;
 
     public QMMCollectorImpl() {
@@ -71,7 +82,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         new EventDispatcher().schedule(eventDispatchPeriod);
     }
 
-    public synchronized void dispose() {
+    public void dispose() {
         if (!connectionMap.isEmpty()) {
             List<QMMConnectionInfo> openSessions = new ArrayList<>();
             for (QMMConnectionInfo connection : connectionMap.values()) {
@@ -128,16 +139,19 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
+    private void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
         try {
             String sessionId = QMUtils.getQmSessionId(context);
-            eventPool.add(new QMMetaEvent(object, action, sessionId));
+            eventQueue.add(new QMMetaEvent(object, action, sessionId));
         } catch (DBException e) {
             log.error("Failed to fire qm meta event", e);
         }
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents() {
+    private List<QMMetaEvent> obtainEvents() {
+        for (QMMetaEvent event = eventQueue.poll(); event != null; event = eventQueue.poll()) {
+            eventPool.add(event);
+        }
         if (eventPool.isEmpty()) {
             return Collections.emptyList();
         }
@@ -163,7 +177,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         return events;
     }
 
-    public synchronized QMMConnectionInfo getConnectionInfo(DBCExecutionContext context) {
+    public QMMConnectionInfo getConnectionInfo(DBCExecutionContext context) {
         QMMConnectionInfo connectionInfo = connectionMap.get(context.getContextId());
         if (connectionInfo == null) {
             log.debug("Can't find connectionInfo meta information: " + context.getContextId() + " (" + context.getContextName() + ")");
@@ -173,24 +187,45 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     public List<QMMetaEvent> getPastEvents() {
         synchronized (historySync) {
-            return new ArrayList<>(pastEvents);
+            List<QMMetaEvent> result = new ArrayList<>(pastEventsCount);
+            for (int i = 0; i < pastEventsCount; i++) {
+                result.add(pastEvents[(pastEventsStart + i) % pastEvents.length]);
+            }
+            return result;
+        }
+    }
+
+    private void addPastEvents(List<QMMetaEvent> events) {
+        synchronized (historySync) {
+            for (QMMetaEvent event : events) {
+                if (pastEventsCount < pastEvents.length) {
+                    pastEvents[(pastEventsStart + pastEventsCount) % pastEvents.length] = event;
+                    pastEventsCount++;
+                } else {
+                    // Overwrite the oldest event
+                    pastEvents[pastEventsStart] = event;
+                    pastEventsStart = (pastEventsStart + 1) % pastEvents.length;
+                }
+            }
         }
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
         final long contextId = context.getContextId();
-        QMMConnectionInfo connection = connectionMap.get(contextId);
-        if (connection == null) {
-            connection = new QMMConnectionInfo(
-                context,
-                transactional);
-            connectionMap.put(contextId, connection);
-        } else {
+        QMMConnectionInfo connection = connectionMap.compute(contextId, (id, oldConnection) -> {
+            if (oldConnection == null) {
+                return new QMMConnectionInfo(
+                    context,
+                    transactional);
+            }
             // This session may already be in cache in case of reconnect/invalidate
             // (when context closed and reopened without new context object creation)
-            connection.reopen(context);
-        }
+            synchronized (oldConnection) {
+                oldConnection.reopen(context);
+            }
+            return oldConnection;
+        });
 
         // Remove from closed sessions (in case of re-opened connection)
         closedConnections.remove(contextId);
@@ -199,20 +234,25 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context) {
+    public void handleContextClose(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            session.close();
+            synchronized (session) {
+                session.close();
+            }
             tryFireMetaEvent(session, QMEventAction.END, context);
         }
         closedConnections.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+            final QMMTransactionInfo oldTxn;
+            synchronized (sessionInfo) {
+                oldTxn = sessionInfo.changeTransactional(!autoCommit);
+            }
             if (oldTxn != null) {
                 tryFireMetaEvent(oldTxn, QMEventAction.END, context);
             }
@@ -221,10 +261,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context) {
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
+            final QMMTransactionInfo oldTxn;
+            synchronized (sessionInfo) {
+                oldTxn = sessionInfo.commit();
+            }
             if (oldTxn != null) {
                 tryFireMetaEvent(oldTxn, QMEventAction.END, context);
             }
@@ -232,10 +275,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
+            final QMMObject oldTxn;
+            synchronized (sessionInfo) {
+                oldTxn = sessionInfo.rollback(savepoint);
+            }
             if (oldTxn != null) {
                 tryFireMetaEvent(oldTxn, QMEventAction.END, context);
             }
@@ -243,19 +289,25 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement) {
+    public void handleStatementOpen(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
+            final QMMStatementInfo stat;
+            synchronized (session) {
+                stat = session.openStatement(statement);
+            }
             tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows) {
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
+            final QMMStatementInfo stat;
+            synchronized (session) {
+                stat = session.closeStatement(statement, rows);
+            }
             if (stat == null) {
                 log.warn("Can't properly handle statement close");
             } else {
@@ -265,10 +317,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
+            final QMMStatementExecuteInfo exec;
+            synchronized (session) {
+                exec = session.beginExecution(statement);
+            }
             if (exec != null) {
                 tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
             }
@@ -276,10 +331,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+            final QMMStatementExecuteInfo exec;
+            synchronized (session) {
+                exec = session.endExecution(statement, rows, error);
+            }
             if (exec != null) {
                 tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
             }
@@ -287,10 +345,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+            final QMMStatementExecuteInfo exec;
+            synchronized (session) {
+                exec = session.beginFetch(resultSet);
+            }
             if (exec != null) {
                 tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
             }
@@ -298,10 +359,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+            final QMMStatementExecuteInfo exec;
+            synchronized (session) {
+                exec = session.endFetch(resultSet, rowCount);
+            }
             if (exec != null) {
                 tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
             }
@@ -318,13 +382,11 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
         @Override
         protected IStatus run(DBRProgressMonitor monitor) {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedConnections;
-                closedConnections.clear();
+            List<Long> sessionsToClose = new ArrayList<>();
+            for (Long sessionId = closedConnections.poll(); sessionId != null; sessionId = closedConnections.poll()) {
+                sessionsToClose.add(sessionId);
             }
+            final List<QMMetaEvent> events = obtainEvents();
             if (!events.isEmpty()) {
                 final List<QMMetaListener> listeners = getListeners();
                 if (!listeners.isEmpty() && !events.isEmpty()) {
@@ -337,26 +399,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                         }
                     }
                 }
-                synchronized (historySync) {
-                    pastEvents.addAll(events);
-                    int size = pastEvents.size();
-                    if (size > MAX_HISTORY_EVENTS) {
-                        pastEvents = new ArrayList<>(pastEvents.subList(
-                            size - MAX_HISTORY_EVENTS,
-                            size));
-                    }
-                }
+                addPastEvents(events);
             }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
-                    final QMMConnectionInfo session = connectionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
-                        // It is possible (rarely) that session was reopened before event dispatcher run
-                        // In that case just ignore it
-                        connectionMap.remove(sessionId);
-                    }
-                }
+            for (Long sessionId : sessionsToClose) {
+                // It is possible (rarely) that session was reopened before event dispatcher run
+                // In that case just ignore it
+                connectionMap.computeIfPresent(sessionId, (id, session) -> session.isClosed() ? null : session);
             }
             if (isRunning()) {
                 this.schedule(eventDispatchPeriod);
@@ -17,11 +17,14 @@
 package org.jkiss.dbeaver.runtime.qm;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.*;
 import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
 import org.jkiss.dbeaver.model.qm.meta.*;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
@@ -30,6 +33,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -47,6 +51,7 @@ public class QMRegistryImpl implements QMRegistry {
     private final List<QMExecutionHandler> handlers = new ArrayList<>();
     private QMEventBrowser eventBrowser;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
+    private QMLogFileEventBrowser logFileEventBrowser;
 
     public QMRegistryImpl() {
         defaultHandler = (QMExecutionHandler) Proxy.newProxyInstance(
@@ -98,10 +103,32 @@ public class QMRegistryImpl implements QMRegistry {
                 this.eventBrowser = defaultEventBrowser;
             }
         }
+        if (eventBrowser == defaultEventBrowser) {
+            // Query history may be read from log files
+            QMEventBrowser logBrowser = getLogFileEventBrowser();
+            if (logBrowser != null) {
+                return logBrowser;
+            }
+        }
 
         return eventBrowser;
     }
 
+    @Nullable
+    private QMEventBrowser getLogFileEventBrowser() {
+        DBPPreferenceStore store = DBWorkbench.getPlatform().getPreferenceStore();
+        if (!store.getBoolean(QMConstants.PROP_STORE_LOG_FILE) ||
+            !QMConstants.LOG_FORMAT_JSON.equals(store.getString(QMConstants.PROP_LOG_FORMAT)))
+        {
+            return null;
+        }
+        Path logFolder = Path.of(store.getString(QMConstants.PROP_LOG_DIRECTORY));
+        if (logFileEventBrowser == null || !logFileEventBrowser.getLogFolder().equals(logFolder)) {
+            logFileEventBrowser = new QMLogFileEventBrowser(logFolder);
+        }
+        return logFileEventBrowser;
+    }
+
     @Override
     public void registerHandler(QMExecutionHandler handler) {
         synchronized (handlers) {
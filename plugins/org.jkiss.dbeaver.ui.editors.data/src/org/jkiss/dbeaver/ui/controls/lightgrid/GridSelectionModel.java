@@ -0,0 +1,368 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.jkiss.code.NotNull;
+
+import java.util.*;
+
+/**
+ * Compact cell selection.
+ * Selection is kept as a sorted map of row bands. Each band is a continuous range of rows
+ * with the same set of selected columns, so a selected rectangle (e.g. all cells) takes a single band
+ * no matter how many cells it contains.
+ * Cells are iterated lazily in natural order (first by rows then by columns), see {@link GridPos.PosComparator}.
+ */
+class GridSelectionModel extends AbstractSet<GridPos> {
+
+    private static class Band {
+        final int firstRow;
+        int lastRow;
+        final BitSet columns;
+
+        Band(int firstRow, int lastRow, BitSet columns) {
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+            this.columns = columns;
+        }
+
+        long getRowCount() {
+            return (long) lastRow - firstRow + 1;
+        }
+    }
+
+    // Bands by first row. Bands never overlap, are never empty and adjacent bands always have different columns.
+    private final TreeMap<Integer, Band> bands = new TreeMap<>();
+    private long cellCount;
+    private long rowCount;
+
+    GridSelectionModel() {
+    }
+
+    GridSelectionModel(@NotNull GridSelectionModel source) {
+        setSelection(source);
+    }
+
+    void setSelection(@NotNull GridSelectionModel source) {
+        if (source == this) {
+            return;
+        }
+        bands.clear();
+        for (Band band : source.bands.values()) {
+            bands.put(band.firstRow, new Band(band.firstRow, band.lastRow, (BitSet) band.columns.clone()));
+        }
+        cellCount = source.cellCount;
+        rowCount = source.rowCount;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, cellCount);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bands.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof GridPos pos) || pos.col < 0) {
+            return false;
+        }
+        Band band = findBand(pos.row);
+        return band != null && band.columns.get(pos.col);
+    }
+
+    @Override
+    public boolean add(GridPos pos) {
+        if (pos.col < 0 || contains(pos)) {
+            return false;
+        }
+        BitSet columns = new BitSet();
+        columns.set(pos.col);
+        update(pos.row, pos.row, columns, true);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+        GridPos pos = (GridPos) o;
+        BitSet columns = new BitSet();
+        columns.set(pos.col);
+        update(pos.row, pos.row, columns, false);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean modified = false;
+        for (Object o : c) {
+            modified |= remove(o);
+        }
+        return modified;
+    }
+
+    @Override
+    public void clear() {
+        bands.clear();
+        cellCount = 0;
+        rowCount = 0;
+    }
+
+    /**
+     * Selects all cells in the rectangle. Bounds are inclusive.
+     */
+    void addRange(int firstColumn, int firstRow, int lastColumn, int lastRow) {
+        if (firstColumn < 0 || firstRow > lastRow || firstColumn > lastColumn) {
+            return;
+        }
+        BitSet columns = new BitSet();
+        columns.set(firstColumn, lastColumn + 1);
+        update(firstRow, lastRow, columns, true);
+    }
+
+    /**
+     * Deselects all cells in rows starting from the specified one.
+     */
+    void removeRowsFrom(int firstRow) {
+        splitAt(firstRow);
+        NavigableMap<Integer, Band> tail = bands.tailMap(firstRow, true);
+        for (Band tailBand : tail.values()) {
+            cellCount -= tailBand.getRowCount() * tailBand.columns.cardinality();
+            rowCount -= tailBand.getRowCount();
+        }
+        tail.clear();
+    }
+
+    boolean containsRow(int row) {
+        return findBand(row) != null;
+    }
+
+    int getRowCount() {
+        return (int) Math.min(Integer.MAX_VALUE, rowCount);
+    }
+
+    /**
+     * Returns indexes of all columns which have at least one selected cell
+     */
+    @NotNull
+    BitSet getSelectedColumns() {
+        BitSet result = new BitSet();
+        for (Band band : bands.values()) {
+            result.or(band.columns);
+        }
+        return result;
+    }
+
+    /**
+     * Returns live view of selected row indexes (in ascending order).
+     */
+    @NotNull
+    Collection<Integer> getSelectedRows() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new RowIterator();
+            }
+
+            @Override
+            public int size() {
+                return getRowCount();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer row && containsRow(row);
+            }
+        };
+    }
+
+    /**
+     * Compares selection with another one without iterating cells
+     */
+    boolean isSameSelection(@NotNull GridSelectionModel other) {
+        if (cellCount != other.cellCount || bands.size() != other.bands.size()) {
+            return false;
+        }
+        Iterator<Band> otherIterator = other.bands.values().iterator();
+        for (Band band : bands.values()) {
+            Band otherBand = otherIterator.next();
+            if (band.firstRow != otherBand.firstRow || band.lastRow != otherBand.lastRow || !band.columns.equals(otherBand.columns)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<GridPos> iterator() {
+        return new CellIterator();
+    }
+
+    private Band findBand(int row) {
+        Map.Entry<Integer, Band> entry = bands.floorEntry(row);
+        if (entry == null || entry.getValue().lastRow < row) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Makes sure that no band crosses the boundary between row-1 and row
+     */
+    private void splitAt(int row) {
+        Band band = findBand(row);
+        if (band == null || band.firstRow == row) {
+            return;
+        }
+        Band tail = new Band(row, band.lastRow, (BitSet) band.columns.clone());
+        band.lastRow = row - 1;
+        bands.put(tail.firstRow, tail);
+    }
+
+    private void update(int firstRow, int lastRow, @NotNull BitSet columns, boolean select) {
+        splitAt(firstRow);
+        if (lastRow < Integer.MAX_VALUE) {
+            splitAt(lastRow + 1);
+        }
+        List<Band> affected = new ArrayList<>(bands.subMap(firstRow, true, lastRow, true).values());
+        int nextRow = firstRow;
+        for (Band band : affected) {
+            if (select && band.firstRow > nextRow) {
+                addBand(new Band(nextRow, band.firstRow - 1, (BitSet) columns.clone()));
+            }
+            int oldCardinality = band.columns.cardinality();
+            if (select) {
+                band.columns.or(columns);
+            } else {
+                band.columns.andNot(columns);
+            }
+            cellCount += (band.columns.cardinality() - oldCardinality) * band.getRowCount();
+            if (band.columns.isEmpty()) {
+                bands.remove(band.firstRow);
+                rowCount -= band.getRowCount();
+            }
+            nextRow = band.lastRow + 1;
+        }
+        if (select && nextRow <= lastRow) {
+            addBand(new Band(nextRow, lastRow, (BitSet) columns.clone()));
+        }
+        mergeBands(firstRow, lastRow);
+    }
+
+    private void addBand(@NotNull Band band) {
+        bands.put(band.firstRow, band);
+        cellCount += band.getRowCount() * band.columns.cardinality();
+        rowCount += band.getRowCount();
+    }
+
+    /**
+     * Merges adjacent bands with equal columns in the changed rows range (including its borders).
+     */
+    private void mergeBands(int firstRow, int lastRow) {
+        Integer fromKey = bands.floorKey(firstRow > Integer.MIN_VALUE ? firstRow - 1 : firstRow);
+        if (fromKey == null) {
+            fromKey = firstRow;
+        }
+        Iterator<Band> iterator = bands.tailMap(fromKey, true).values().iterator();
+        Band prev = null;
+        while (iterator.hasNext()) {
+            Band band = iterator.next();
+            if (prev != null && prev.lastRow + 1 == band.firstRow && prev.columns.equals(band.columns)) {
+                prev.lastRow = band.lastRow;
+                iterator.remove();
+                continue;
+            }
+            if (band.firstRow > lastRow && (lastRow == Integer.MAX_VALUE || band.firstRow > lastRow + 1)) {
+                break;
+            }
+            prev = band;
+        }
+    }
+
+    private class CellIterator implements Iterator<GridPos> {
+        private final Iterator<Band> bandIterator = bands.values().iterator();
+        private Band band;
+        private int row;
+        private int col = -1;
+
+        CellIterator() {
+            advance();
+        }
+
+        private void advance() {
+            if (band != null) {
+                col = band.columns.nextSetBit(col + 1);
+                if (col >= 0) {
+                    return;
+                }
+                if (row < band.lastRow) {
+                    row++;
+                    col = band.columns.nextSetBit(0);
+                    return;
+                }
+            }
+            band = bandIterator.hasNext() ? bandIterator.next() : null;
+            if (band != null) {
+                row = band.firstRow;
+                col = band.columns.nextSetBit(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return band != null;
+        }
+
+        @Override
+        public GridPos next() {
+            if (band == null) {
+                throw new NoSuchElementException();
+            }
+            GridPos pos = new GridPos(col, row);
+            advance();
+            return pos;
+        }
+    }
+
+    private class RowIterator implements Iterator<Integer> {
+        private final Iterator<Band> bandIterator = bands.values().iterator();
+        private Band band;
+        private int row;
+
+        @Override
+        public boolean hasNext() {
+            return (band != null && row < band.lastRow) || bandIterator.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            if (band != null && row < band.lastRow) {
+                row++;
+            } else {
+                band = bandIterator.next();
+                row = band.firstRow;
+            }
+            return row;
+        }
+    }
+}
@@ -35,7 +35,6 @@ import org.jkiss.dbeaver.ui.editors.data.internal.DataEditorsMessages;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
-import org.jkiss.utils.IntKeyMap;
 
 import java.util.List;
 import java.util.*;
@@ -190,10 +189,9 @@ public abstract class LightGrid extends Canvas {
      */
     private int focusItem = -1;
 
-    private final Set<GridPos> selectedCells = new TreeSet<>(new GridPos.PosComparator());
-    private final List<GridPos> selectedCellsBeforeRangeSelect = new ArrayList<>();
+    private final GridSelectionModel selectedCells = new GridSelectionModel();
+    private final GridSelectionModel selectedCellsBeforeRangeSelect = new GridSelectionModel();
     private final List<GridColumn> selectedColumns = new ArrayList<>();
-    private final IntKeyMap<Boolean> selectedRows = new IntKeyMap<>();
 
     private boolean cellDragSelectionOccurring = false;
     private boolean cellRowDragSelectionOccurring = false;
@@ -2383,7 +2381,7 @@ public abstract class LightGrid extends Canvas {
             // get the item to draw
             if (row >= 0 && row < getItemCount()) {
 
-                boolean cellInRowSelected = selectedRows.containsKey(row);
+                boolean cellInRowSelected = selectedCells.containsRow(row);
 
                 if (rowHeaderVisible) {
                     // row header is actually painted later
@@ -2843,7 +2841,7 @@ public abstract class LightGrid extends Canvas {
             shiftSelectionAnchorItem = -1;
         }
 
-        List<GridPos> oldSelection = null;
+        GridSelectionModel oldSelection = null;
         if (!shift && !ctrl) {
             if (newCells.size() == 1 &&
                 newCells.size() == selectedCells.size() &&
@@ -2860,7 +2858,7 @@ public abstract class LightGrid extends Canvas {
         } else if (shift) {
 
             GridPos newCell = newCells.get(0); //shift selection should only occur with one cell, ignoring others
-            oldSelection = new ArrayList<>(selectedCells);
+            oldSelection = new GridSelectionModel(selectedCells);
 
             if ((focusColumn == null) || (focusItem < 0)) {
                 return null;
@@ -2870,8 +2868,7 @@ public abstract class LightGrid extends Canvas {
             shiftSelectionAnchorItem = newCell.row;
 
             if (ctrl) {
-                selectedCells.clear();
-                selectedCells.addAll(selectedCellsBeforeRangeSelect);
+                selectedCells.setSelection(selectedCellsBeforeRangeSelect);
             } else {
                 selectedCells.clear();
             }
@@ -2888,49 +2885,20 @@ public abstract class LightGrid extends Canvas {
             currentColumn = getColumn(newRange.x);
             endColumn = getColumn(newRange.y);
 
-            GridColumn startCol = currentColumn;
-
             if (currentItem > endItem) {
                 int temp = currentItem;
                 currentItem = endItem;
                 endItem = temp;
             }
 
-            boolean firstLoop = true;
-            do {
-                if (!firstLoop) {
-                    currentItem++;
-                }
-
-                firstLoop = false;
-
-                boolean firstLoop2 = true;
-
-                currentColumn = startCol;
-
-                do {
-                    if (!firstLoop2) {
-                        int index = indexOf(currentColumn) + 1;
-
-                        if (index < columns.size()) {
-                            currentColumn = columns.get(index);
-                        } else {
-                            currentColumn = null;
-                        }
-
-                        if (currentColumn != null)
-                            if (indexOf(currentColumn) > indexOf(endColumn))
-                                currentColumn = null;
-                    }
-
-                    firstLoop2 = false;
-
-                    if (currentColumn != null) {
-                        GridPos cell = new GridPos(indexOf(currentColumn), currentItem);
-                        addToCellSelection(cell);
-                    }
-                } while (currentColumn != endColumn && currentColumn != null);
-            } while (currentItem != endItem);
+            // Select the whole rectangle at once (it doesn't matter how many cells it contains)
+            if (currentColumn != null && endColumn != null) {
+                selectedCells.addRange(
+                    indexOf(currentColumn),
+                    currentItem,
+                    Math.min(indexOf(endColumn), columns.size() - 1),
+                    endItem);
+            }
 
             if (selectedCells.equals(newCells)) {
                 return null;
@@ -2944,8 +2912,7 @@ public abstract class LightGrid extends Canvas {
                 reverse = false;
 
             if (dragging) {
-                selectedCells.clear();
-                selectedCells.addAll(selectedCellsBeforeRangeSelect);
+                selectedCells.setSelection(selectedCellsBeforeRangeSelect);
             }
 
             if (reverse) {
@@ -2972,7 +2939,7 @@ public abstract class LightGrid extends Canvas {
                 }
             }
         }
-        if (oldSelection != null && oldSelection.size() == selectedCells.size() && selectedCells.containsAll(oldSelection)) {
+        if (oldSelection != null && selectedCells.isSameSelection(oldSelection)) {
             return null;
         }
 
@@ -3004,20 +2971,11 @@ public abstract class LightGrid extends Canvas {
 
     private void updateSelectionCache()
     {
-        //Update the list of which columns have all their cells selected
+        //Update the list of columns which have selected cells. Selected rows are resolved by selection model itself.
         selectedColumns.clear();
-        selectedRows.clear();
 
-        IntKeyMap<Boolean> columnIndices = new IntKeyMap<>();
-        for (GridPos cell : selectedCells) {
-            if (cell.col >= 0) {
-                columnIndices.put(cell.col, Boolean.TRUE);
-            }
-            if (cell.row >= 0) {
-                selectedRows.put(cell.row, Boolean.TRUE);
-            }
-        }
-        for (Integer columnIndex : columnIndices.keySet()) {
+        BitSet columnIndices = selectedCells.getSelectedColumns();
+        for (int columnIndex = columnIndices.nextSetBit(0); columnIndex >= 0 && columnIndex < columns.size(); columnIndex = columnIndices.nextSetBit(columnIndex + 1)) {
             selectedColumns.add(columns.get(columnIndex));
         }
         selectedColumns.sort(Comparator.comparingInt(GridColumn::getIndex));
@@ -3226,7 +3184,7 @@ public abstract class LightGrid extends Canvas {
                     }
                 }
             } else if (hoveringOnRowHeader && hoveringRow != null) {
-                if (e.button == 1 && selectedRows.containsKey(hoveringRow) && dragDetect(e)) {
+                if (e.button == 1 && selectedCells.containsRow(hoveringRow) && dragDetect(e)) {
                     rowHeaderDragStarted = true;
                     return;
                 }
@@ -3463,7 +3421,7 @@ public abstract class LightGrid extends Canvas {
         if (focusItem > row) {
             focusItem = row;
         }
-        selectedCells.removeIf(pos -> pos.row > row);
+        selectedCells.removeRowsFrom(row + 1);
         updateSelectionCache();
         computeHeaderSizes();
         this.scrollValuesObsolete = true;
@@ -3629,8 +3587,7 @@ public abstract class LightGrid extends Canvas {
                     setCursor(getDisplay().getSystemCursor(SWT.CURSOR_CROSS));
                     cellDragCTRL = ((e.stateMask & SWT.MOD1) != 0);
                     if (cellDragCTRL) {
-                        selectedCellsBeforeRangeSelect.clear();
-                        selectedCellsBeforeRangeSelect.addAll(selectedCells);
+                        selectedCellsBeforeRangeSelect.setSelection(selectedCells);
                     }
                 }
                 if (!cellRowDragSelectionOccurring && cellRowSelectedOnLastMouseDown) {
@@ -3638,8 +3595,7 @@ public abstract class LightGrid extends Canvas {
                     setCursor(getDisplay().getSystemCursor(SWT.CURSOR_CROSS));
                     cellDragCTRL = ((e.stateMask & SWT.MOD1) != 0);
                     if (cellDragCTRL) {
-                        selectedCellsBeforeRangeSelect.clear();
-                        selectedCellsBeforeRangeSelect.addAll(selectedCells);
+                        selectedCellsBeforeRangeSelect.setSelection(selectedCells);
                     }
                 }
 
@@ -3648,8 +3604,7 @@ public abstract class LightGrid extends Canvas {
                     setCursor(getDisplay().getSystemCursor(SWT.CURSOR_CROSS));
                     cellDragCTRL = ((e.stateMask & SWT.MOD1) != 0);
                     if (cellDragCTRL) {
-                        selectedCellsBeforeRangeSelect.clear();
-                        selectedCellsBeforeRangeSelect.addAll(selectedCells);
+                        selectedCellsBeforeRangeSelect.setSelection(selectedCells);
                     }
                 }
 
@@ -4449,6 +4404,16 @@ public abstract class LightGrid extends Canvas {
         if (getItemCount() == 0)
             return null;
 
+        if ((stateMask & SWT.MODIFIER_MASK) == 0) {
+            // Plain select all (no modifiers). Just a single range, no need to enumerate cells.
+            // Modifiers (Ctrl toggle, Shift, macOS Ctrl+click) are handled by updateCellSelection.
+            selectedCells.clear();
+            selectedCells.addRange(0, 0, columns.size() - 1, getItemCount() - 1);
+            updateSelectionCache();
+            redraw();
+            return new Event();
+        }
+
         GridColumn oldFocusColumn = focusColumn;
         int oldFocusItem = focusItem;
 
@@ -4507,18 +4472,55 @@ public abstract class LightGrid extends Canvas {
         return Collections.unmodifiableCollection(selectedCells);
     }
 
-    public List<GridCell> getCellSelection()
+    /**
+     * Returns selected cells. Cells are resolved lazily during iteration, so the result is cheap even for huge selections.
+     */
+    @NotNull
+    public Collection<GridCell> getCellSelection()
     {
         if (isDisposed() || selectedCells.isEmpty()) {
             return Collections.emptyList();
         }
-        List<GridCell> cells = new ArrayList<>(selectedCells.size());
-        for (GridPos pos : selectedCells) {
-        	GridCell cell = posToCell(pos);
-        	if (cell != null)
-        		cells.add(cell);
-        }
-        return cells;
+        return new AbstractCollection<>() {
+            @NotNull
+            @Override
+            public Iterator<GridCell> iterator() {
+                Iterator<GridPos> posIterator = selectedCells.iterator();
+                return new Iterator<>() {
+                    private GridCell next = findNext();
+
+                    private GridCell findNext() {
+                        while (posIterator.hasNext()) {
+                            GridCell cell = posToCell(posIterator.next());
+                            if (cell != null) {
+                                return cell;
+                            }
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public GridCell next() {
+                        if (next == null) {
+                            throw new NoSuchElementException();
+                        }
+                        GridCell cell = next;
+                        next = findNext();
+                        return cell;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return selectedCells.size();
+            }
+        };
     }
 
     public int getCellSelectionSize() {
@@ -4542,7 +4544,7 @@ public abstract class LightGrid extends Canvas {
     }
 
     public boolean isRowSelected(int row) {
-        return selectedRows.containsKey(row);
+        return selectedCells.containsRow(row);
     }
 
     /**
@@ -4551,11 +4553,11 @@ public abstract class LightGrid extends Canvas {
      */
     public Collection<Integer> getRowSelection()
     {
-        return Collections.unmodifiableCollection(selectedRows.keySet());
+        return Collections.unmodifiableCollection(selectedCells.getSelectedRows());
     }
 
     public int getRowSelectionSize() {
-        return selectedRows.size();
+        return selectedCells.getRowCount();
     }
 
     private void getCells(GridColumn col, List<GridPos> cells)
@@ -4985,7 +4987,7 @@ public abstract class LightGrid extends Canvas {
                         if (isDragSingleRow()) {
                             elements.add(getRowElement(draggingRow));
                         } else {
-                            for (Integer row : selectedRows.keySet()) {
+                            for (Integer row : selectedCells.getSelectedRows()) {
                                 elements.add(getRowElement(row));
                             }
                         }
@@ -4995,7 +4997,7 @@ public abstract class LightGrid extends Canvas {
                         if (columns.isEmpty()) {
                             columns = LightGrid.this.columns;
                         }
-                        Set<Integer> rows = selectedRows.keySet();
+                        Collection<Integer> rows = selectedCells.getSelectedRows();
                         if (rows.isEmpty()) {
                             rows = Collections.singleton(draggingRow);
                         }
@@ -5126,7 +5128,7 @@ public abstract class LightGrid extends Canvas {
     }
 
     private boolean isDragSingleRow() {
-        return draggingRow != null && !selectedRows.containsKey(draggingRow);
+        return draggingRow != null && !selectedCells.containsRow(draggingRow);
     }
 
     public final static class GridColumnTransfer extends LocalObjectTransfer<List<Object>> {
@@ -29,12 +29,17 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.trace.DBCTrace;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.jobs.DataSourceJob;
 import org.jkiss.dbeaver.ui.UIUtils;
+import org.jkiss.dbeaver.ui.controls.resultset.storage.ColumnarRowStorage;
+import org.jkiss.dbeaver.ui.controls.resultset.storage.HeapRowStorage;
+import org.jkiss.dbeaver.ui.controls.resultset.storage.ResultSetRowStorage;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
@@ -58,6 +63,8 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    @Nullable
+    private ResultSetRowStorage rowStorage;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -362,7 +369,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -380,28 +387,27 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull ResultSetCellLocation cellLocation) {
-        return DBUtils.getAttributeValue(
+        return getCellValue(
             cellLocation.getAttribute(),
-            attributes,
-            cellLocation.getRow().values,
+            cellLocation.getRow(),
             cellLocation.getRowIndexes());
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(
-            attribute,
-            attributes,
-            row.values,
-            null);
+        return getCellValue(attribute, row, null);
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row, @Nullable int[] rowIndexes) {
+        if (attribute.getLevel() == 0 && !attribute.isCustom() && attribute.getTopParent() == attribute) {
+            // Plain top-level value, do not read the whole row
+            return row.getValue(attribute.getOrdinalPosition());
+        }
         return DBUtils.getAttributeValue(
             attribute,
             attributes,
-            row.values,
+            row.getValues(),
             rowIndexes);
     }
 
@@ -446,7 +452,7 @@ public class ResultSetModel {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
         int rowIndex = 0;
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -557,7 +563,7 @@ public class ResultSetModel {
                     log.debug("Error setting attribute value", e);
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -866,13 +872,16 @@ public class ResultSetModel {
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            resetRowStorage();
         }
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
+            Object[] rowValues = rows.get(i);
+            ResultSetRowStorage storage = getRowStorage(rowValues.length);
             newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+                new ResultSetRow(firstRowNum + i, storage, storage.addRow(rowValues)));
         }
         curRows.addAll(newRows);
 
@@ -882,6 +891,7 @@ public class ResultSetModel {
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        resetRowStorage();
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -908,9 +918,34 @@ public class ResultSetModel {
         this.updateInProgress = updateService;
     }
 
+    @NotNull
+    private ResultSetRowStorage getRowStorage(int columnCount) {
+        if (rowStorage == null) {
+            DBPPreferenceStore store = DBWorkbench.getPlatform().getPreferenceStore();
+            if (store.getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE)) {
+                rowStorage = new ColumnarRowStorage(
+                    columnCount,
+                    store.getLong(ResultSetPreferences.RESULT_SET_STORAGE_HEAP_BUDGET) * 1024 * 1024,
+                    null);
+            } else {
+                rowStorage = new HeapRowStorage();
+            }
+        }
+        return rowStorage;
+    }
+
+    /**
+     * Starts a new storage for the next rows. The old storage is not closed: its rows may still be referenced
+     * by viewers, selection or edit state. It frees its resources when it becomes unreachable.
+     */
+    private void resetRowStorage() {
+        rowStorage = null;
+    }
+
     @NotNull
     ResultSetRow addNewRow(int rowNum, @NotNull Object[] data) {
-        ResultSetRow newRow = new ResultSetRow(curRows.size(), data);
+        ResultSetRowStorage storage = getRowStorage(data.length);
+        ResultSetRow newRow = new ResultSetRow(curRows.size(), storage, storage.addRow(data));
         newRow.setVisualNumber(rowNum);
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
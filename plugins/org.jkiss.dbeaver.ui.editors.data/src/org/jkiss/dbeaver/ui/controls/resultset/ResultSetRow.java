@@ -21,6 +21,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.ui.controls.resultset.storage.ResultSetRowStorage;
 
 import java.util.IdentityHashMap;
 import java.util.Map;
@@ -51,7 +52,8 @@ public class ResultSetRow {
     private int visualNumber;
     // Column values
     @NotNull
-    public Object[] values;
+    private final ResultSetRowStorage storage;
+    private final int storageIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -59,16 +61,36 @@ public class ResultSetRow {
     @Nullable
     public ColorInfo colorInfo;
 
-    ResultSetRow(int rowNumber, @NotNull Object[] values) {
+    ResultSetRow(int rowNumber, @NotNull ResultSetRowStorage storage, int storageIndex) {
         this.rowNumber = rowNumber;
         this.visualNumber = rowNumber;
-        this.values = values;
+        this.storage = storage;
+        this.storageIndex = storageIndex;
         this.state = STATE_NORMAL;
     }
 
+    /**
+     * Returns row values. Depending on row storage this may be a copy,
+     * use {@link #setValue(int, Object)} to change values.
+     */
     @NotNull
     public Object[] getValues() {
-        return values;
+        return storage.getRow(storageIndex);
+    }
+
+    @Nullable
+    public Object getValue(int index) {
+        return storage.getValue(storageIndex, index);
+    }
+
+    public void setValue(int index, @Nullable Object value) {
+        storage.setValue(storageIndex, index, value);
+    }
+
+    public void setValues(@NotNull Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            storage.setValue(storageIndex, i, values[i]);
+        }
     }
 
     public boolean isChanged() {
@@ -127,9 +149,7 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
-        }
+        storage.releaseRow(storageIndex);
         if (changes != null) {
             for (Object oldValue : changes.values()) {
                 DBUtils.releaseValue(oldValue);
@@ -76,6 +76,8 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
     private boolean featureTracked;
+    // State of the last (non-grouped) aggregation. Reused if selection was extended.
+    private AggregateState lastState;
 
     public AggregateColumnsPanel() {
     }
@@ -93,6 +95,20 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         new TreeColumn(this.aggregateTable, SWT.LEFT).setText(ResultSetMessages.aggregate_columns_function_text);
         new TreeColumn(this.aggregateTable, SWT.LEFT).setText(ResultSetMessages.aggregate_columns_value_text);
 
+        IResultSetListener dataListener = new ResultSetListenerAdapter() {
+            @Override
+            public void handleResultSetLoad() {
+                lastState = null;
+            }
+
+            @Override
+            public void handleResultSetChange() {
+                lastState = null;
+            }
+        };
+        presentation.getController().addListener(dataListener);
+        presentation.getControl().addDisposeListener(e -> presentation.getController().removeListener(dataListener));
+
         if (this.presentation instanceof ISelectionProvider) {
             ((ISelectionProvider) this.presentation).addSelectionChangedListener(event -> {
                 if (presentation.getController().getVisiblePanel() == AggregateColumnsPanel.this) {
@@ -199,6 +215,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     @Override
     public void refresh(boolean force) {
+        if (force) {
+            lastState = null;
+        }
         aggregateTable.setRedraw(false);
         try {
             aggregateTable.removeAll();
@@ -231,6 +250,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
         ResultSetModel model = presentation.getController().getModel();
         if (groupByColumns) {
+            lastState = null;
             Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
             for (Object element : selection.toList()) {
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
@@ -250,23 +270,53 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                 attrItem.setExpanded(true);
             }
         } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
-            for (Object element : selection.toList()) {
+            List<?> elements = selection.toList();
+            AggregateState state = lastState;
+            List<?> newElements = null;
+            if (state != null && state.canContinue(elements.size(), enabledFunctions, aggregateAsStrings) && !model.isDirty()) {
+                // Selection was extended - aggregate new values only
+                List<Object> addedElements = new ArrayList<>();
+                int aggregatedCount = 0;
+                for (Object element : elements) {
+                    if (state.elements.contains(element)) {
+                        aggregatedCount++;
+                    } else {
+                        addedElements.add(element);
+                    }
+                }
+                // Otherwise some aggregated elements are not selected anymore
+                if (aggregatedCount == state.elements.size()) {
+                    newElements = addedElements;
+                }
+            }
+            if (newElements == null) {
+                state = new AggregateState(enabledFunctions, aggregateAsStrings);
+                newElements = elements;
+            }
+            for (Object element : newElements) {
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
                 if (row != null) {
-                    Object cellValue = model.getCellValue(attr, row);
-                    allValues.add(cellValue);
+                    state.accumulate(model.getCellValue(attr, row));
                 }
+                state.elements.add(element);
             }
-            aggregateValues(null, allValues);
+            lastState = state;
+            showResults(null, state);
         }
     }
 
     private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
+        AggregateState state = new AggregateState(enabledFunctions, aggregateAsStrings);
+        for (Object value : values) {
+            state.accumulate(value);
+        }
+        showResults(parentItem, state);
+    }
+
+    private void showResults(TreeItem parentItem, AggregateState state) {
+        for (int i = 0; i < state.functions.size(); i++) {
+            AggregateFunctionDescriptor funcDesc = state.functions.get(i);
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
                 new TreeItem(parentItem, SWT.NONE);
@@ -276,31 +326,12 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             if (icon != null) {
                 funcItem.setImage(0, DBeaverIcons.getImage(icon));
             }
-            try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
-            } catch (DBException e) {
-                log.error(e);
-            }
-        }
-
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
-                }
-            }
-        }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
+            IAggregateFunction func = state.funcs[i];
+            if (func == null || state.funcCount[i] <= 0) {
                 continue;
             }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
+            Object result = func.getResult(state.funcCount[i]);
             if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
                 String strValue;
                 if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
                     strValue = DOUBLE_FORMAT.format(result);
@@ -310,7 +341,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                     strValue = result.toString();
                 }
                 if (strValue != null) {
-                    treeItem.setText(1, strValue);
+                    funcItem.setText(1, strValue);
                 }
             }
         }
@@ -318,9 +349,53 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     public void clearValue()
     {
+        lastState = null;
         aggregateTable.removeAll();
     }
 
+    /**
+     * Accumulated functions state
+     */
+    private static class AggregateState {
+        private final List<AggregateFunctionDescriptor> functions;
+        private final boolean aggregateAsStrings;
+        private final IAggregateFunction[] funcs;
+        private final int[] funcCount;
+        // Aggregated selection elements
+        private final Set<Object> elements = new HashSet<>();
+
+        AggregateState(List<AggregateFunctionDescriptor> functions, boolean aggregateAsStrings) {
+            this.functions = new ArrayList<>(functions);
+            this.aggregateAsStrings = aggregateAsStrings;
+            this.funcs = new IAggregateFunction[functions.size()];
+            this.funcCount = new int[functions.size()];
+            for (int i = 0; i < funcs.length; i++) {
+                try {
+                    funcs[i] = this.functions.get(i).createFunction();
+                } catch (DBException e) {
+                    log.error(e);
+                }
+            }
+        }
+
+        void accumulate(Object value) {
+            for (int i = 0; i < funcs.length; i++) {
+                if (funcs[i] != null && funcs[i].accumulate(value, aggregateAsStrings)) {
+                    funcCount[i]++;
+                }
+            }
+        }
+
+        /**
+         * State can be reused if functions are the same and new selection may contain all aggregated elements
+         */
+        boolean canContinue(int newElementCount, List<AggregateFunctionDescriptor> newFunctions, boolean newAggregateAsStrings) {
+            return aggregateAsStrings == newAggregateAsStrings &&
+                functions.equals(newFunctions) &&
+                newElementCount >= elements.size();
+        }
+    }
+
     private void fillToolBar(IContributionManager contributionManager)
     {
         contributionManager.add(new AddFunctionAction());
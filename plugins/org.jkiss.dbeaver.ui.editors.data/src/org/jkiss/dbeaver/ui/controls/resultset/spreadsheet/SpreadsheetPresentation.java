@@ -522,7 +522,7 @@ public class SpreadsheetPresentation extends AbstractPresentation
 
         if (copyHTML) html.append("<tbody>");
 
-        List<GridCell> selectedCells = spreadsheet.getCellSelection();
+        Collection<GridCell> selectedCells = spreadsheet.getCellSelection();
         boolean quoteCells = settings.isQuoteCells() && selectedCells.size() > 1;
         boolean forceQuotes = settings.isForceQuotes();
 
@@ -1906,10 +1906,12 @@ public class SpreadsheetPresentation extends AbstractPresentation
                         }
                     }
                 } else {
+                    // Row selection is ordered and nested grid rows of the same record are adjacent,
+                    // so it is enough to compare with the last added row
                     for (Integer row : spreadsheet.getRowSelection()) {
                         IGridRow gridRow = spreadsheet.getRow(row);
                         ResultSetRow rsr = (ResultSetRow) gridRow.getElement();
-                        if (!rows.contains(rsr)) {
+                        if (rows.isEmpty() || !rows.get(rows.size() - 1).equals(rsr)) {
                             rows.add(rsr);
                         }
                     }
@@ -0,0 +1,740 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.storage;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Columnar rows storage.
+ * <p>
+ * Rows are kept in chunks of {@link #CHUNK_SIZE} rows. Each chunk keeps column values in primitive arrays:
+ * numbers, booleans and dates are stored as longs, strings are dictionary-encoded.
+ * Values of other types (LOBs, complex values, etc.) are kept as objects.
+ * Type of a column is chosen per chunk, column with mixed value types falls back to objects.
+ * <p>
+ * When estimated heap size of full chunks exceeds the heap budget, least recently accessed chunks are
+ * written to a temporary file and read back through memory mapping. Object columns are never spilled.
+ * <p>
+ * Rows handed out by the result set model keep a reference to their storage, so the storage is not closed
+ * when the model drops it: the temporary file is closed by a cleaner once the storage becomes unreachable.
+ */
+public class ColumnarRowStorage implements ResultSetRowStorage {
+
+    private static final Log log = Log.getLog(ColumnarRowStorage.class);
+
+    public static final int CHUNK_SIZE = 4096;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static final int NULL_WORDS = CHUNK_SIZE / Long.SIZE;
+
+    private enum ValueKind {
+        NONE,
+        BOOLEAN,
+        BYTE,
+        SHORT,
+        INTEGER,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        DATE,
+        SQL_DATE,
+        SQL_TIME,
+        TIMESTAMP,
+        STRING,
+        OBJECT;
+
+        @NotNull
+        static ValueKind of(@NotNull Object value) {
+            // Exact classes only: subclasses may have additional state
+            Class<?> valueClass = value.getClass();
+            if (valueClass == String.class) {
+                return STRING;
+            } else if (valueClass == Integer.class) {
+                return INTEGER;
+            } else if (valueClass == Long.class) {
+                return LONG;
+            } else if (valueClass == Double.class) {
+                return DOUBLE;
+            } else if (valueClass == Boolean.class) {
+                return BOOLEAN;
+            } else if (valueClass == Timestamp.class) {
+                return TIMESTAMP;
+            } else if (valueClass == java.sql.Date.class) {
+                return SQL_DATE;
+            } else if (valueClass == Short.class) {
+                return SHORT;
+            } else if (valueClass == Byte.class) {
+                return BYTE;
+            } else if (valueClass == Float.class) {
+                return FLOAT;
+            } else if (valueClass == Time.class) {
+                return SQL_TIME;
+            } else if (valueClass == Date.class) {
+                return DATE;
+            }
+            return OBJECT;
+        }
+    }
+
+    private final int columnCount;
+    private final long heapBudget;
+    @Nullable
+    private final Path spillFolder;
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    // Rows with unexpected number of values are kept as is
+    private final Map<Integer, Object[]> irregularRows = new HashMap<>();
+    private int rowCount;
+    // Estimated heap size of full in-memory chunks
+    private long heapSize;
+    private long accessCounter;
+    private final SpillFile spillFile = new SpillFile();
+    private final Cleaner.Cleanable spillFileCleanup;
+    private boolean closed;
+
+    /**
+     * @param heapBudget  max heap size of full chunks in bytes. Negative value means no limit.
+     * @param spillFolder folder for temporary files. Null means default temp folder.
+     */
+    public ColumnarRowStorage(int columnCount, long heapBudget, @Nullable Path spillFolder) {
+        this.columnCount = columnCount;
+        this.heapBudget = heapBudget;
+        this.spillFolder = spillFolder;
+        this.spillFileCleanup = CLEANER.register(this, spillFile);
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns estimated heap size of full chunks
+     */
+    public synchronized long getHeapSize() {
+        return heapSize;
+    }
+
+    public synchronized int getSpilledChunkCount() {
+        int count = 0;
+        for (Chunk chunk : chunks) {
+            if (chunk.spilled != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized int addRow(@NotNull Object[] values) {
+        if (closed) {
+            throw new IllegalStateException("Row storage is closed");
+        }
+        Chunk chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunk.size >= CHUNK_SIZE) {
+            chunk = new Chunk(columnCount);
+            chunks.add(chunk);
+        }
+        int index = rowCount++;
+        int chunkRow = chunk.size++;
+        if (values.length == columnCount) {
+            for (int i = 0; i < columnCount; i++) {
+                chunk.columns[i].set(chunkRow, values[i]);
+            }
+        } else {
+            irregularRows.put(index, values);
+            for (int i = 0; i < columnCount; i++) {
+                chunk.columns[i].set(chunkRow, null);
+            }
+        }
+        if (chunk.size == CHUNK_SIZE) {
+            chunk.seal();
+            chunk.lastAccess = ++accessCounter;
+            heapSize += chunk.heapSize;
+            spillChunks();
+        }
+        return index;
+    }
+
+    @Override
+    public synchronized int getRowCount() {
+        return rowCount;
+    }
+
+    @NotNull
+    @Override
+    public synchronized Object[] getRow(int index) {
+        Object[] irregularRow = irregularRows.get(index);
+        if (irregularRow != null) {
+            return irregularRow;
+        }
+        Object[] values = new Object[columnCount];
+        Chunk chunk = getChunk(index);
+        if (chunk != null) {
+            int chunkRow = index % CHUNK_SIZE;
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = chunk.get(chunkRow, i);
+            }
+        }
+        return values;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Object getValue(int index, int column) {
+        Object[] irregularRow = irregularRows.get(index);
+        if (irregularRow != null) {
+            return column < irregularRow.length ? irregularRow[column] : null;
+        }
+        Chunk chunk = getChunk(index);
+        if (chunk == null || column >= columnCount) {
+            return null;
+        }
+        return chunk.get(index % CHUNK_SIZE, column);
+    }
+
+    @Override
+    public synchronized void setValue(int index, int column, @Nullable Object value) {
+        Object[] irregularRow = irregularRows.get(index);
+        if (irregularRow != null) {
+            irregularRow[column] = value;
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("Row storage is closed");
+        }
+        Chunk chunk = getChunk(index);
+        if (chunk == null) {
+            throw new IndexOutOfBoundsException("Bad row index: " + index);
+        }
+        if (chunk.sealed) {
+            if (chunk.spilled != null) {
+                chunk.load();
+            }
+            heapSize -= chunk.heapSize;
+            chunk.columns[column].set(index % CHUNK_SIZE, value);
+            chunk.heapSize = chunk.estimateHeapSize();
+            heapSize += chunk.heapSize;
+            spillChunks();
+        } else {
+            chunk.columns[column].set(index % CHUNK_SIZE, value);
+        }
+    }
+
+    @Override
+    public synchronized void releaseRow(int index) {
+        Object[] irregularRow = irregularRows.get(index);
+        if (irregularRow != null) {
+            for (Object value : irregularRow) {
+                DBUtils.releaseValue(value);
+            }
+            return;
+        }
+        Chunk chunk = getChunk(index);
+        if (chunk != null) {
+            // Only objects may hold resources
+            for (ColumnVector column : chunk.columns) {
+                if (column.kind == ValueKind.OBJECT) {
+                    DBUtils.releaseValue(column.get(index % CHUNK_SIZE));
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        chunks.clear();
+        irregularRows.clear();
+        heapSize = 0;
+        spillFileCleanup.clean();
+    }
+
+    @Nullable
+    private Chunk getChunk(int index) {
+        int chunkIndex = index / CHUNK_SIZE;
+        if (index < 0 || chunkIndex >= chunks.size()) {
+            return null;
+        }
+        Chunk chunk = chunks.get(chunkIndex);
+        chunk.lastAccess = ++accessCounter;
+        return chunk;
+    }
+
+    private void spillChunks() {
+        if (heapBudget < 0) {
+            return;
+        }
+        while (heapSize > heapBudget) {
+            Chunk victim = null;
+            for (Chunk chunk : chunks) {
+                if (chunk.sealed && chunk.spilled == null && chunk.isSpillable() &&
+                    (victim == null || chunk.lastAccess < victim.lastAccess)) {
+                    victim = chunk;
+                }
+            }
+            if (victim == null) {
+                break;
+            }
+            try {
+                heapSize -= victim.heapSize;
+                spillChunk(victim);
+                victim.heapSize = victim.estimateHeapSize();
+                heapSize += victim.heapSize;
+            } catch (IOException e) {
+                log.warn("Error spilling result set rows to disk, keeping them in memory", e);
+                heapSize += victim.heapSize;
+                // Do not try again
+                break;
+            }
+        }
+    }
+
+    private void spillChunk(@NotNull Chunk chunk) throws IOException {
+        if (spillFile.channel == null) {
+            Path file = spillFolder == null ?
+                Files.createTempFile("dbeaver-rows-", ".tmp") :
+                Files.createTempFile(spillFolder, "dbeaver-rows-", ".tmp");
+            spillFile.channel = FileChannel.open(
+                file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            spillFile.size = 0;
+        }
+        int[] offsets = new int[chunk.columns.length];
+        ByteBuffer data = chunk.serialize(offsets);
+        long position = spillFile.size;
+        int size = data.remaining();
+        while (data.hasRemaining()) {
+            spillFile.channel.write(data, position + data.position());
+        }
+        spillFile.size += size;
+        chunk.spilled = spillFile.channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                chunk.columns[i].release(offsets[i]);
+            }
+        }
+    }
+
+    /**
+     * Temporary file of spilled chunks. Must not reference the storage, it is the storage cleanup action.
+     */
+    private static final class SpillFile implements Runnable {
+        @Nullable
+        private FileChannel channel;
+        private long size;
+
+        @Override
+        public void run() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug("Error closing result set spill file: " + e.getMessage());
+                }
+                channel = null;
+            }
+        }
+    }
+
+    private static final class Chunk {
+        private final ColumnVector[] columns;
+        private int size;
+        private boolean sealed;
+        private long heapSize;
+        private long lastAccess;
+        // Memory mapped data of spilled columns
+        @Nullable
+        private ByteBuffer spilled;
+
+        Chunk(int columnCount) {
+            columns = new ColumnVector[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = new ColumnVector();
+            }
+        }
+
+        @Nullable
+        Object get(int row, int column) {
+            ColumnVector vector = columns[column];
+            return vector.spilledOffset >= 0 ? vector.getSpilled(spilled, row) : vector.get(row);
+        }
+
+        void seal() {
+            sealed = true;
+            for (ColumnVector column : columns) {
+                column.dictionaryIndex = null;
+            }
+            heapSize = estimateHeapSize();
+        }
+
+        boolean isSpillable() {
+            for (ColumnVector column : columns) {
+                if (column.isSpillable()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long estimateHeapSize() {
+            long result = 64;
+            for (ColumnVector column : columns) {
+                result += column.estimateHeapSize();
+            }
+            return result;
+        }
+
+        /**
+         * Serializes spillable columns. Fills offsets of serialized columns, -1 for other columns.
+         */
+        @NotNull
+        ByteBuffer serialize(@NotNull int[] offsets) {
+            int totalSize = 0;
+            for (ColumnVector column : columns) {
+                if (column.isSpillable()) {
+                    totalSize += column.getSerializedSize();
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(totalSize);
+            for (int i = 0; i < columns.length; i++) {
+                offsets[i] = -1;
+                if (columns[i].isSpillable()) {
+                    offsets[i] = buffer.position();
+                    columns[i].serialize(buffer);
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        void load() {
+            assert spilled != null;
+            for (ColumnVector column : columns) {
+                if (column.spilledOffset >= 0) {
+                    column.deserialize(spilled);
+                }
+            }
+            spilled = null;
+        }
+    }
+
+    /**
+     * Values of one column in a chunk.
+     * Spilled data layout: null bitmap, values, timestamp nanos or strings dictionary.
+     * Dictionary strings are kept as UTF-16 chars, so any string (even one with unpaired surrogates) is read back as is.
+     */
+    private static final class ColumnVector {
+        private ValueKind kind = ValueKind.NONE;
+        private final long[] nulls = new long[NULL_WORDS];
+        @Nullable
+        private long[] values;
+        @Nullable
+        private int[] nanos;
+        @Nullable
+        private List<String> dictionary;
+        @Nullable
+        private Map<String, Integer> dictionaryIndex;
+        @Nullable
+        private Object[] objects;
+        // Offset in chunk spilled data or -1 if column is on heap
+        private int spilledOffset = -1;
+        private int dictionarySize;
+
+        void set(int row, @Nullable Object value) {
+            if (value == null) {
+                nulls[row / Long.SIZE] |= 1L << row;
+                if (objects != null) {
+                    objects[row] = null;
+                }
+                return;
+            }
+            nulls[row / Long.SIZE] &= ~(1L << row);
+            ValueKind valueKind = ValueKind.of(value);
+            if (kind == ValueKind.NONE) {
+                init(valueKind);
+            } else if (kind != valueKind && kind != ValueKind.OBJECT) {
+                convertToObjects();
+            }
+            if (kind == ValueKind.OBJECT) {
+                objects[row] = value;
+                return;
+            }
+            values[row] = encode(row, value);
+        }
+
+        @Nullable
+        Object get(int row) {
+            if ((nulls[row / Long.SIZE] & (1L << row)) != 0) {
+                return null;
+            }
+            return switch (kind) {
+                case NONE -> null;
+                case OBJECT -> objects[row];
+                case STRING -> dictionary.get((int) values[row]);
+                case TIMESTAMP -> decode(kind, values[row], nanos[row]);
+                default -> decode(kind, values[row], 0);
+            };
+        }
+
+        @Nullable
+        Object getSpilled(@NotNull ByteBuffer data, int row) {
+            if ((data.getLong(spilledOffset + (row / Long.SIZE) * Long.BYTES) & (1L << row)) != 0) {
+                return null;
+            }
+            int valuesOffset = spilledOffset + NULL_WORDS * Long.BYTES;
+            long value = data.getLong(valuesOffset + row * Long.BYTES);
+            int extraOffset = valuesOffset + CHUNK_SIZE * Long.BYTES;
+            if (kind == ValueKind.TIMESTAMP) {
+                return decode(kind, value, data.getInt(extraOffset + row * Integer.BYTES));
+            } else if (kind == ValueKind.STRING) {
+                return readString(data, extraOffset, (int) value);
+            }
+            return decode(kind, value, 0);
+        }
+
+        private void init(@NotNull ValueKind valueKind) {
+            kind = valueKind;
+            if (valueKind == ValueKind.OBJECT) {
+                objects = new Object[CHUNK_SIZE];
+                return;
+            }
+            values = new long[CHUNK_SIZE];
+            if (valueKind == ValueKind.TIMESTAMP) {
+                nanos = new int[CHUNK_SIZE];
+            } else if (valueKind == ValueKind.STRING) {
+                dictionary = new ArrayList<>();
+                dictionaryIndex = new HashMap<>();
+            }
+        }
+
+        private void convertToObjects() {
+            Object[] result = new Object[CHUNK_SIZE];
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                result[i] = get(i);
+            }
+            values = null;
+            nanos = null;
+            dictionary = null;
+            dictionaryIndex = null;
+            kind = ValueKind.OBJECT;
+            objects = result;
+        }
+
+        private long encode(int row, @NotNull Object value) {
+            switch (kind) {
+                case BOOLEAN:
+                    return (Boolean) value ? 1 : 0;
+                case BYTE:
+                case SHORT:
+                case INTEGER:
+                case LONG:
+                    return ((Number) value).longValue();
+                case FLOAT:
+                    return Float.floatToRawIntBits((Float) value);
+                case DOUBLE:
+                    return Double.doubleToRawLongBits((Double) value);
+                case TIMESTAMP:
+                    nanos[row] = ((Timestamp) value).getNanos();
+                    return ((Timestamp) value).getTime();
+                case DATE:
+                case SQL_DATE:
+                case SQL_TIME:
+                    return ((Date) value).getTime();
+                case STRING: {
+                    String str = (String) value;
+                    if (dictionaryIndex == null) {
+                        // Chunk is full, do not rebuild the index for a few edited values
+                        dictionary.add(str);
+                        return dictionary.size() - 1;
+                    }
+                    return dictionaryIndex.computeIfAbsent(str, s -> {
+                        dictionary.add(s);
+                        return dictionary.size() - 1;
+                    });
+                }
+                default:
+                    throw new IllegalStateException("Bad value kind: " + kind);
+            }
+        }
+
+        @NotNull
+        private static Object decode(@NotNull ValueKind kind, long value, int nanos) {
+            switch (kind) {
+                case BOOLEAN:
+                    return value != 0;
+                case BYTE:
+                    return (byte) value;
+                case SHORT:
+                    return (short) value;
+                case INTEGER:
+                    return (int) value;
+                case LONG:
+                    return value;
+                case FLOAT:
+                    return Float.intBitsToFloat((int) value);
+                case DOUBLE:
+                    return Double.longBitsToDouble(value);
+                case TIMESTAMP: {
+                    Timestamp timestamp = new Timestamp(value);
+                    timestamp.setNanos(nanos);
+                    return timestamp;
+                }
+                case DATE:
+                    return new Date(value);
+                case SQL_DATE:
+                    return new java.sql.Date(value);
+                case SQL_TIME:
+                    return new Time(value);
+                default:
+                    throw new IllegalStateException("Bad value kind: " + kind);
+            }
+        }
+
+        boolean isSpillable() {
+            return spilledOffset < 0 && kind != ValueKind.NONE && kind != ValueKind.OBJECT;
+        }
+
+        int getSerializedSize() {
+            int size = (NULL_WORDS + CHUNK_SIZE) * Long.BYTES;
+            if (kind == ValueKind.TIMESTAMP) {
+                size += CHUNK_SIZE * Integer.BYTES;
+            } else if (kind == ValueKind.STRING) {
+                size += (dictionary.size() + 1) * Integer.BYTES;
+                for (String str : dictionary) {
+                    size += str.length() * Character.BYTES;
+                }
+            }
+            return size;
+        }
+
+        void serialize(@NotNull ByteBuffer buffer) {
+            for (long word : nulls) {
+                buffer.putLong(word);
+            }
+            for (long value : values) {
+                buffer.putLong(value);
+            }
+            if (kind == ValueKind.TIMESTAMP) {
+                for (int value : nanos) {
+                    buffer.putInt(value);
+                }
+            } else if (kind == ValueKind.STRING) {
+                dictionarySize = dictionary.size();
+                // Offsets in chars
+                int offset = 0;
+                buffer.putInt(offset);
+                for (String str : dictionary) {
+                    offset += str.length();
+                    buffer.putInt(offset);
+                }
+                for (String str : dictionary) {
+                    for (int i = 0; i < str.length(); i++) {
+                        buffer.putChar(str.charAt(i));
+                    }
+                }
+            }
+        }
+
+        void deserialize(@NotNull ByteBuffer data) {
+            for (int i = 0; i < NULL_WORDS; i++) {
+                nulls[i] = data.getLong(spilledOffset + i * Long.BYTES);
+            }
+            ValueKind spilledKind = kind;
+            kind = ValueKind.NONE;
+            init(spilledKind);
+            dictionaryIndex = null;
+            int valuesOffset = spilledOffset + NULL_WORDS * Long.BYTES;
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                values[i] = data.getLong(valuesOffset + i * Long.BYTES);
+            }
+            int extraOffset = valuesOffset + CHUNK_SIZE * Long.BYTES;
+            if (kind == ValueKind.TIMESTAMP) {
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    nanos[i] = data.getInt(extraOffset + i * Integer.BYTES);
+                }
+            } else if (kind == ValueKind.STRING) {
+                for (int i = 0; i < dictionarySize; i++) {
+                    dictionary.add(readString(data, extraOffset, i));
+                }
+            }
+            spilledOffset = -1;
+        }
+
+        /**
+         * Frees heap data after column was spilled
+         */
+        void release(int offset) {
+            spilledOffset = offset;
+            values = null;
+            nanos = null;
+            dictionary = null;
+            dictionaryIndex = null;
+        }
+
+        long estimateHeapSize() {
+            long size = 32 + NULL_WORDS * Long.BYTES;
+            if (values != null) {
+                size += 16 + (long) values.length * Long.BYTES;
+            }
+            if (nanos != null) {
+                size += 16 + (long) nanos.length * Integer.BYTES;
+            }
+            if (dictionary != null) {
+                for (String str : dictionary) {
+                    size += 48 + str.length();
+                }
+            }
+            if (objects != null) {
+                size += 16 + (long) objects.length * 4;
+                for (Object value : objects) {
+                    if (value != null) {
+                        // Unknown objects, just a guess
+                        size += 64;
+                    }
+                }
+            }
+            return size;
+        }
+
+        @NotNull
+        private String readString(@NotNull ByteBuffer data, int dictionaryOffset, int index) {
+            int start = data.getInt(dictionaryOffset + index * Integer.BYTES);
+            int end = data.getInt(dictionaryOffset + (index + 1) * Integer.BYTES);
+            int charsOffset = dictionaryOffset + (dictionarySize + 1) * Integer.BYTES;
+            char[] chars = new char[end - start];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = data.getChar(charsOffset + (start + i) * Character.BYTES);
+            }
+            return new String(chars);
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.storage;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps row values arrays as is
+ */
+public class HeapRowStorage implements ResultSetRowStorage {
+
+    private static final Object[] EMPTY_ROW = new Object[0];
+
+    private List<Object[]> rows = new ArrayList<>();
+
+    @Override
+    public synchronized int addRow(@NotNull Object[] values) {
+        rows.add(values);
+        return rows.size() - 1;
+    }
+
+    @Override
+    public synchronized int getRowCount() {
+        return rows.size();
+    }
+
+    @NotNull
+    @Override
+    public synchronized Object[] getRow(int index) {
+        return index < rows.size() ? rows.get(index) : EMPTY_ROW;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Object getValue(int index, int column) {
+        Object[] row = getRow(index);
+        return column < row.length ? row[column] : null;
+    }
+
+    @Override
+    public synchronized void setValue(int index, int column, @Nullable Object value) {
+        rows.get(index)[column] = value;
+    }
+
+    @Override
+    public void releaseRow(int index) {
+        for (Object value : getRow(index)) {
+            DBUtils.releaseValue(value);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        rows = new ArrayList<>();
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.storage;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+/**
+ * Result set rows storage.
+ * Rows are addressed by storage index which is assigned when row is added and never changes.
+ * <p>
+ * Implementations must be thread-safe: values may be released in background jobs.
+ */
+public interface ResultSetRowStorage {
+
+    /**
+     * Adds row and returns its storage index
+     */
+    int addRow(@NotNull Object[] values);
+
+    int getRowCount();
+
+    /**
+     * Returns row values. Depending on storage this may be a copy of row values,
+     * so values must be changed with {@link #setValue(int, int, Object)}.
+     */
+    @NotNull
+    Object[] getRow(int index);
+
+    /**
+     * Returns value of the specified column or null if column index is out of row bounds
+     */
+    @Nullable
+    Object getValue(int index, int column);
+
+    void setValue(int index, int column, @Nullable Object value);
+
+    /**
+     * Releases resources held by row values (e.g. LOB locators)
+     */
+    void releaseRow(int index);
+
+    /**
+     * Frees all storage resources. Closed storage returns empty rows.
+     */
+    void close();
+
+}
@@ -16,16 +16,17 @@
  */
 package org.jkiss.dbeaver.ui.editors.binary;
 
-import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.meta.ForTest;
 import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
-import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.*;
 import java.util.*;
 
 
@@ -33,8 +34,10 @@ import java.util.*;
  * A binary content provider. Content backed by files has no effect on memory footprint. Content
  * backed by memory buffers is limited by amount of memory. Notifies ModifyListeners when it has been
  * modified.
- * Keeps track of the positions where changes have been done. Files that back this content must not be
- * modified while the content is still in use.
+ * Content is a piece table: a sequence of pieces, each one refers to a part of some data source
+ * (original file, inserted buffer or file, or buffer of typed bytes). Data sources are never modified,
+ * so edits and undo/redo records only manipulate pieces. Files are read through memory-mapped pages.
+ * Files that back this content must not be modified while the content is still in use.
  *
  * @author Jordi
  */
@@ -53,96 +56,497 @@ public class BinaryContent {
 
 
     /**
-     * A subset of data contained in a ByteBuffer or a File
+     * Sequence of pieces. Piece is a part of a data source: source index, offset in source and length.
+     * Adjacent parts of the same source are merged into one piece.
      */
-    final static class Range implements Comparable<Range>, Cloneable {
-        long position = -1L;
-        long length = -1L;
-        long dataOffset = 0L;
-        Object data = null;
+    static class Pieces {
+        int[] sources;
+        long[] offsets;
+        long[] lengths;
+        int count;
+        long totalLength;
+
+        Pieces()
+        {
+            this(4);
+        }
 
-        private boolean dirty = true;
+        Pieces(int capacity)
+        {
+            sources = new int[capacity];
+            offsets = new long[capacity];
+            lengths = new long[capacity];
+        }
 
-        Range(long aPosition, long aLength)
+        static Pieces of(int source, long offset, long length)
         {
-            position = aPosition;
-            length = aLength;
+            Pieces pieces = new Pieces(1);
+            pieces.add(source, offset, length);
+            return pieces;
         }
 
-        Range(long aPosition, ByteBuffer aBuffer, boolean isDirty)
+        void ensureCapacity(int capacity)
         {
-            this(aPosition, aBuffer.remaining());
-            data = aBuffer;
-            dirty = isDirty;
+            if (capacity > sources.length) {
+                int newCapacity = Math.max(capacity, sources.length * 2);
+                sources = Arrays.copyOf(sources, newCapacity);
+                offsets = Arrays.copyOf(offsets, newCapacity);
+                lengths = Arrays.copyOf(lengths, newCapacity);
+            }
         }
 
-        Range(long aPosition, File aFile, boolean isDirty)
-            throws IOException
+        boolean isContiguous(int index, int source, long offset)
         {
-            this(aPosition, aFile.length());
-            if (length < 0L) throw new IOException("File error");
+            return sources[index] == source && offsets[index] + lengths[index] == offset;
+        }
+
+        void add(int source, long offset, long length)
+        {
+            if (length <= 0) return;
+            if (count > 0 && isContiguous(count - 1, source, offset)) {
+                lengths[count - 1] += length;
+                totalLength += length;
+            } else {
+                insertPiece(count, source, offset, length);
+            }
+        }
 
-            data = new RandomAccessFile(aFile, "r");
-            dirty = isDirty;
+        void addFirst(int source, long offset, long length)
+        {
+            if (length <= 0) return;
+            if (count > 0 && sources[0] == source && offset + length == offsets[0]) {
+                offsets[0] = offset;
+                lengths[0] += length;
+                totalLength += length;
+            } else {
+                insertPiece(0, source, offset, length);
+            }
+        }
+
+        void addAll(Pieces other)
+        {
+            for (int i = 0; i < other.count; i++) {
+                add(other.sources[i], other.offsets[i], other.lengths[i]);
+            }
+        }
+
+        void addAllFirst(Pieces other)
+        {
+            for (int i = other.count - 1; i >= 0; i--) {
+                addFirst(other.sources[i], other.offsets[i], other.lengths[i]);
+            }
         }
 
+        void insertPiece(int index, int source, long offset, long length)
+        {
+            ensureCapacity(count + 1);
+            int tail = count - index;
+            if (tail > 0) {
+                System.arraycopy(sources, index, sources, index + 1, tail);
+                System.arraycopy(offsets, index, offsets, index + 1, tail);
+                System.arraycopy(lengths, index, lengths, index + 1, tail);
+            }
+            sources[index] = source;
+            offsets[index] = offset;
+            lengths[index] = length;
+            count++;
+            totalLength += length;
+        }
+
+        void removePieces(int from, int to)
+        {
+            if (from >= to) return;
+            for (int i = from; i < to; i++) {
+                totalLength -= lengths[i];
+            }
+            int tail = count - to;
+            if (tail > 0) {
+                System.arraycopy(sources, to, sources, from, tail);
+                System.arraycopy(offsets, to, offsets, from, tail);
+                System.arraycopy(lengths, to, lengths, from, tail);
+            }
+            count -= to - from;
+        }
+    }
+
+
+    /**
+     * Pieces of the content. Keeps start positions of pieces for binary search.
+     */
+    static final class PieceTable extends Pieces {
+        long[] starts = new long[sources.length];
+
         @Override
-        public Object clone()
+        void ensureCapacity(int capacity)
         {
-            try {
-                return super.clone();
+            super.ensureCapacity(capacity);
+            if (starts.length < sources.length) {
+                starts = Arrays.copyOf(starts, sources.length);
+            }
+        }
+
+        @Override
+        void insertPiece(int index, int source, long offset, long length)
+        {
+            super.insertPiece(index, source, offset, length);
+            System.arraycopy(starts, index, starts, index + 1, count - index - 1);
+        }
+
+        @Override
+        void removePieces(int from, int to)
+        {
+            if (from >= to) return;
+            System.arraycopy(starts, to, starts, from, count - to);
+            super.removePieces(from, to);
+        }
+
+        /**
+         * Index of the piece which contains the position, or count if position is out of content
+         */
+        int find(long position)
+        {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] + lengths[mid] <= position) {
+                    low = mid + 1;
+                } else if (starts[mid] > position) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
             }
-            catch (CloneNotSupportedException e) {
-                throw new IllegalStateException(e);
+            return count;
+        }
+
+        /**
+         * Makes a piece boundary at the position
+         *
+         * @return index of the piece which starts at the position
+         */
+        int split(long position)
+        {
+            int index = find(position);
+            if (index < count && starts[index] < position) {
+                long delta = position - starts[index];
+                long tailLength = lengths[index] - delta;
+                insertPiece(index + 1, sources[index], offsets[index] + delta, tailLength);
+                lengths[index] = delta;
+                totalLength -= tailLength;
+                index++;
+                starts[index] = position;
+            }
+            return index;
+        }
+
+        void updateStarts(int from)
+        {
+            long position = from == 0 ? 0L : starts[from - 1] + lengths[from - 1];
+            for (int i = from; i < count; i++) {
+                starts[i] = position;
+                position += lengths[i];
             }
         }
 
+        /**
+         * Merges the piece with the previous one if they are contiguous
+         */
+        void mergeWithPrevious(int index)
+        {
+            if (index > 0 && index < count && isContiguous(index - 1, sources[index], offsets[index])) {
+                lengths[index - 1] += lengths[index];
+                totalLength += lengths[index];
+                removePieces(index, index + 1);
+            }
+        }
+
+        Pieces remove(long position, long length)
+        {
+            Pieces removed = new Pieces();
+            if (length <= 0) {
+                return removed;
+            }
+            int from = split(position);
+            int to = split(position + length);
+            for (int i = from; i < to; i++) {
+                removed.add(sources[i], offsets[i], lengths[i]);
+            }
+            removePieces(from, to);
+            mergeWithPrevious(from);
+            updateStarts(from > 0 ? from - 1 : 0);
+            return removed;
+        }
+
+        void insert(long position, Pieces pieces)
+        {
+            if (pieces.totalLength <= 0) {
+                return;
+            }
+            int index = split(position);
+            int first = index;
+            for (int i = 0; i < pieces.count; i++) {
+                if (index > 0 && isContiguous(index - 1, pieces.sources[i], pieces.offsets[i])) {
+                    lengths[index - 1] += pieces.lengths[i];
+                    totalLength += pieces.lengths[i];
+                } else {
+                    insertPiece(index, pieces.sources[i], pieces.offsets[i], pieces.lengths[i]);
+                    index++;
+                }
+            }
+            mergeWithPrevious(index);
+            updateStarts(first > 0 ? first - 1 : 0);
+        }
+    }
+
+
+    /**
+     * Data source of pieces. Source data is never modified after it was added to the content.
+     */
+    abstract static class Source implements Closeable {
+        final boolean dirty;
+
+        Source(boolean dirty)
+        {
+            this.dirty = dirty;
+        }
+
+        /**
+         * Reads up to length bytes at the offset into the buffer
+         *
+         * @return number of bytes read
+         */
+        abstract int read(long offset, ByteBuffer dst, int length) throws IOException;
+
+        abstract int get(long offset) throws IOException;
+
         @Override
-        public int compareTo(@NotNull Range other)
+        public void close()
         {
-            if (position < other.position && exclusiveEnd() <= other.position) return -1;
-            if (other.position < position && other.exclusiveEnd() <= position) return 1;
+        }
+    }
+
 
-            return 0;  // overlap
+    /**
+     * Inserted memory buffer
+     */
+    static final class BufferSource extends Source {
+        private final ByteBuffer buffer;
+
+        BufferSource(ByteBuffer buffer, boolean dirty)
+        {
+            super(dirty);
+            this.buffer = buffer;
         }
 
-        public boolean equals(Object obj)
+        @Override
+        int read(long offset, ByteBuffer dst, int length)
         {
-            return obj instanceof Range && compareTo((Range)obj) == 0;
+            int count = (int) Math.min(Math.min(length, dst.remaining()), buffer.limit() - offset);
+            if (count <= 0) return 0;
+            ByteBuffer src = buffer.duplicate();
+            src.limit((int) offset + count);
+            src.position((int) offset);
+            dst.put(src);
+            return count;
+        }
 
+        @Override
+        int get(long offset)
+        {
+            return buffer.get((int) offset) & 0x0ff;
         }
+    }
+
 
-        long exclusiveEnd()
+    /**
+     * Append-only buffer of typed bytes. Only the last byte may be changed: when lower nibble of the
+     * just typed byte is entered.
+     */
+    static final class AppendSource extends Source {
+        private byte[] data = new byte[256];
+        private int size;
+
+        AppendSource()
         {
-            return position + length;
+            super(true);
         }
 
-        public String toString()
+        long append(byte value)
         {
-            return "Range {position:" + position + ", length:" + length + '}';
+            if (size == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size] = value;
+            return size++;
+        }
+
+        void setLast(byte value)
+        {
+            data[size - 1] = value;
+        }
+
+        long lastOffset()
+        {
+            return size - 1;
+        }
+
+        @Override
+        int read(long offset, ByteBuffer dst, int length)
+        {
+            int count = (int) Math.min(Math.min(length, dst.remaining()), size - offset);
+            if (count <= 0) return 0;
+            dst.put(data, (int) offset, count);
+            return count;
+        }
+
+        @Override
+        int get(long offset)
+        {
+            return data[(int) offset] & 0x0ff;
         }
     }
 
 
-    private static final long mappedFileBufferLength = 2048 * 1024;  // for mapped file I/O
+    /**
+     * File source. File is read by pages which are kept in a small LRU cache.
+     * Pages are memory-mapped, so big files are never loaded into the heap. On Windows mapped files
+     * can't be replaced or deleted until the mapping is garbage collected, so there pages are read in
+     * heap buffers.
+     */
+    static final class FileSource extends Source {
+        private static final int MAPPED_PAGE_SHIFT = 24; // 16Mb
+        private static final int MAX_MAPPED_PAGES = 64;
+        private static final int HEAP_PAGE_SHIFT = 16; // 64Kb
+        private static final int MAX_HEAP_PAGES = 256;
+
+        private final Path path;
+        private final FileChannel channel;
+        private final long size;
+        private boolean useMapping;
+        private final int pageShift;
+        private final Map<Long, ByteBuffer> pages;
+
+        FileSource(File file, boolean dirty)
+            throws IOException
+        {
+            super(dirty);
+            this.path = file.toPath();
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.useMapping = !RuntimeUtils.isWindows();
+            this.pageShift = useMapping ? MAPPED_PAGE_SHIFT : HEAP_PAGE_SHIFT;
+            int maxPages = useMapping ? MAX_MAPPED_PAGES : MAX_HEAP_PAGES;
+            this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, ByteBuffer> eldest)
+                {
+                    return size() > maxPages;
+                }
+            };
+        }
+
+        long size()
+        {
+            return size;
+        }
+
+        boolean isSameFile(File file)
+        {
+            try {
+                return Files.isSameFile(path, file.toPath());
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private synchronized ByteBuffer getPage(long pageIndex)
+            throws IOException
+        {
+            ByteBuffer page = pages.get(pageIndex);
+            if (page == null) {
+                long pageStart = pageIndex << pageShift;
+                int pageLength = (int) Math.min(1L << pageShift, size - pageStart);
+                if (useMapping) {
+                    try {
+                        page = channel.map(FileChannel.MapMode.READ_ONLY, pageStart, pageLength);
+                    } catch (IOException | UnsupportedOperationException e) {
+                        // Mapping is not supported by file system
+                        useMapping = false;
+                    }
+                }
+                if (page == null) {
+                    page = ByteBuffer.allocate(pageLength);
+                    while (page.hasRemaining()) {
+                        if (channel.read(page, pageStart + page.position()) < 0) {
+                            break;
+                        }
+                    }
+                    page.flip();
+                }
+                pages.put(pageIndex, page);
+            }
+            return page;
+        }
+
+        @Override
+        int read(long offset, ByteBuffer dst, int length)
+            throws IOException
+        {
+            int count = (int) Math.min(Math.min(length, dst.remaining()), size - offset);
+            int read = 0;
+            while (read < count) {
+                long position = offset + read;
+                ByteBuffer page = getPage(position >>> pageShift).duplicate();
+                int pageOffset = (int) (position & ((1L << pageShift) - 1));
+                int partLength = Math.min(count - read, page.limit() - pageOffset);
+                if (partLength <= 0) {
+                    break;
+                }
+                page.limit(pageOffset + partLength);
+                page.position(pageOffset);
+                dst.put(page);
+                read += partLength;
+            }
+            return read;
+        }
+
+        @Override
+        int get(long offset)
+            throws IOException
+        {
+            ByteBuffer page = getPage(offset >>> pageShift);
+            int pageOffset = (int) (offset & ((1L << pageShift) - 1));
+            return pageOffset < page.limit() ? page.get(pageOffset) & 0x0ff : 0;
+        }
+
+        @Override
+        public synchronized void close()
+        {
+            pages.clear();
+            ContentUtils.close(channel);
+        }
+    }
+
+
+    private static final int APPEND_SOURCE = 0;
+    private static final int WRITE_BUFFER_LENGTH = 2048 * 1024;
 
     private ActionHistory actions = null;  // undo/redo actions history
-    private ActionHistory actionsTemp = null;
     private boolean dirty = false;
-    private long exclusiveEnd = -1L;
     private long lastUpperNibblePosition = -1L;
     private List<ModifyListener> listeners = null;
-    private List<Integer> changeList = null;
-    private boolean changesInserted = false;
-    private long changesPosition = -1L;
-    private TreeSet<Range> ranges = new TreeSet<>();
-    private Iterator<Range> tailTree = null;
+    private final AppendSource appendSource = new AppendSource();
+    private List<Source> sources = new ArrayList<>();
+    private final PieceTable pieces = new PieceTable();
 
     /**
      * Create new empty content.
      */
-    BinaryContent()
+    @ForTest
+    public BinaryContent()
     {
+        sources.add(appendSource);
     }
 
     /**
@@ -151,26 +555,23 @@ public class BinaryContent {
      * @param aFile the backing content provider
      * @throws IOException when i/o problems occur. The content will be empty but valid
      */
-    BinaryContent(File aFile)
+    @ForTest
+    public BinaryContent(File aFile)
         throws IOException
     {
         this();
         if (aFile == null || aFile.length() < 1L)
             return;
 
-        ranges.add(new Range(0L, aFile, false));
+        FileSource source = new FileSource(aFile, false);
+        pieces.insert(0L, Pieces.of(addSource(source), 0L, source.size()));
     }
 
 
-    void actionsOn(boolean on)
+    private int addSource(Source source)
     {
-        if (on) {
-            if (actions == null)
-                actions = actionsTemp;
-        } else {
-            actionsTemp = actions;
-            actions = null;
-        }
+        sources.add(source);
+        return sources.size() - 1;
     }
 
 
@@ -210,25 +611,6 @@ public class BinaryContent {
     }
 
 
-    void commitChanges()
-    {
-        if (changeList == null) return;
-
-        ByteBuffer store = ByteBuffer.allocate(changeList.size());
-        for (Integer myChange : changeList) {
-            store.put(myChange.byteValue());
-        }
-        store.position(0);
-        changeList = null;
-        if (changesInserted)
-            insertRange(new Range(changesPosition, store, true));
-        else
-            overwriteRange(new Range(changesPosition, store, true));
-        changesInserted = false;
-        changesPosition = -1L;
-    }
-
-
     /**
      * Deletes length bytes from the content at the given position
      *
@@ -239,224 +621,49 @@ public class BinaryContent {
     {
         if (position < 0 || position >= length() || length < 1L) return;
 
-        dirty = true;
         if (length > length() - position)
             length = length() - position;
-        if (actions != null) {
-            lastUpperNibblePosition = -1L;
-            actions.eventPreModify(ActionHistory.ActionType.DELETE, position, length == 1L);
-        }
-        if (changeList != null && changesInserted && changesPosition <= position &&
-            changesPosition + changeList.size() >= position + length) {
-            int deleteStart = (int) (position - changesPosition);
-            List<Integer> subList = changeList.subList(deleteStart, deleteStart + (int) length);
-            if (actions != null) {
-                actions.addDeleted(position, subList, length == 1L);
-                if (length > 1) actions.endAction();
-            }
-            if (length < changeList.size()) {
-                subList.clear();
-            } else {  // length == changeList.size()
-                changeList = null;
-//			splitAndShift(position, 0);  // mark them as dirty
-            }
-        } else {
-            commitChanges();
-            deleteAndShift(position, length);
-        }
-        notifyListeners();
-    }
-
-
-    private void deleteAndShift(long start, long length)
-    {
-        deleteInternal(start, length);
-        initSubtreeTraversing(start, 0L);
-        shiftRemainingRanges(-length);
+        lastUpperNibblePosition = -1L;
+        replace(ActionHistory.ActionType.DELETE, position, length, new Pieces(0), length == 1L);
     }
 
 
-    private void deleteInternal(long startPosition, long length)
+    /**
+     * Replaces part of the content with the new pieces and records the change in the action history
+     */
+    private void replace(ActionHistory.ActionType type, long position, long length, Pieces newPieces, boolean isSingle)
     {
-        if (length < 1L) return;
-        initSubtreeTraversing(startPosition, length);
-        if (!tailTree.hasNext()) return;
-
-        java.util.List<Range> deleted = new ArrayList<>();
-        Range firstRange = tailTree.next();
-        Range secondRange = (Range) firstRange.clone();  // will be tail part of firstRange
-        Range lastRange = null;
-        if (firstRange.position < startPosition) {
-            firstRange.length = startPosition - firstRange.position;
-
-            secondRange.length = secondRange.exclusiveEnd() - startPosition;  // actions
-            secondRange.dataOffset += startPosition - secondRange.position;  // actions
-            secondRange.position = startPosition;  // actions
-        } else {  // firstRange.position == startPosition
-            tailTree.remove();
-        }
-        long endSoFar = secondRange.exclusiveEnd();
-        boolean toBeAdded = false;
-        if (endSoFar > exclusiveEnd) {
-            lastRange = (Range) secondRange.clone();
-            toBeAdded = true;
-            secondRange.length = exclusiveEnd - secondRange.position;  // actions
-        }
-        deleted.add(secondRange);  // actions
-        if (endSoFar < exclusiveEnd) {
-            while (tailTree.hasNext() && lastRange == null) {
-                lastRange = tailTree.next();
-                if (lastRange.exclusiveEnd() <= exclusiveEnd) {
-                    tailTree.remove();
-                    deleted.add(lastRange);  // actions
-                    lastRange = null;
-                }
-            }
-            if (lastRange != null && lastRange.position < exclusiveEnd) {  // actions
-                Range beforeLastRange = (Range) lastRange.clone();
-                beforeLastRange.length = exclusiveEnd - beforeLastRange.position;
-                deleted.add(beforeLastRange);
-            }
-        }
-        if (lastRange != null && lastRange.position < exclusiveEnd &&
-            lastRange.exclusiveEnd() > exclusiveEnd) {
-            long delta = exclusiveEnd - lastRange.position;
-            lastRange.position += delta;
-            lastRange.length -= delta;
-            lastRange.dataOffset += delta;
-            if (toBeAdded) ranges.add(lastRange);
-        }
+        dirty = true;
+        Pieces removed = pieces.remove(position, length);
+        pieces.insert(position, newPieces);
         if (actions != null)
-            actions.addLostRanges(deleted);
-    }
-
-
-    private long[] deleteRanges(List<Range> currentAction)
-    {
-        long[] result = new long[2];
-        result[0] = result[1] = currentAction.get(0).position;
-        actionsOn(false);
-        deleteAndShift(result[0],
-                       currentAction.get(currentAction.size() - 1).exclusiveEnd() - result[0]);
-        actionsOn(true);
-
-        return result;
+            actions.addAction(type, position, removed, newPieces, isSingle);
+        notifyListeners();
     }
 
 
     /**
      * Closes all files before termination. After this call the object is no longer valid. Calling
      * dispose() is optional, but it will let use of files immediately in the operating system, instead of
-     * having to wait until the object is garbage collected. Note: apparently due to a bug in the java
-     * virtual machine combined with some dumb os, files won't be freed after this call. See
-     * http://forum.java.sun.com/thread.jspa?forumID=4&threadID=158689
+     * having to wait until the object is garbage collected.
      */
     public void dispose()
     {
-        if (ranges == null) return;
+        if (sources == null) return;
 
-        for (Range value : ranges) {
-            if (value.data instanceof Closeable) {
-                ContentUtils.close((Closeable) value.data);
-            }
+        for (Source source : sources) {
+            source.close();
         }
 
         if (actions != null) {
             actions.dispose();
             actions = null;
         }
-        ranges = null;
+        sources = null;
         listeners = null;
     }
 
 
-    private int fillWithChanges(ByteBuffer dst, long position)
-    {
-        long relativePosition = position - changesPosition;
-        int changesSize = changeList.size();
-        if (relativePosition < 0L || relativePosition >= changesSize)
-            return 0;
-
-        int remaining = dst.remaining();
-        int i = (int) relativePosition;
-        for (; remaining > 0 && i < changesSize; ++i, --remaining) {
-            dst.put(changeList.get(i).byteValue());
-        }
-
-        return i - (int) relativePosition;
-    }
-
-
-    private int fillWithPartOfRange(ByteBuffer dst, Range sourceRange, long overlapBytes, int maxCopyLength)
-        throws IOException
-    {
-        int dstInitialPosition = dst.position();
-        if (sourceRange.data instanceof ByteBuffer) {
-            ByteBuffer src = (ByteBuffer) sourceRange.data;
-            src.limit((int) (sourceRange.dataOffset + sourceRange.length));
-            src.position((int) (sourceRange.dataOffset + overlapBytes));
-            if (src.remaining() > dst.remaining() || src.remaining() > maxCopyLength) {
-                src.limit(src.position() + Math.min(dst.remaining(), maxCopyLength));
-            }
-            dst.put(src);
-        } else if (sourceRange.data instanceof RandomAccessFile) {
-            RandomAccessFile src = (RandomAccessFile) sourceRange.data;
-            long start = sourceRange.dataOffset + overlapBytes;
-            int length = (int) Math.min(sourceRange.length - overlapBytes, maxCopyLength);
-            int limit = -1;
-            if (dst.remaining() > length) {
-                limit = dst.limit();
-                dst.limit(dst.position() + length);
-            }
-            src.getChannel().read(dst, start);
-            if (limit > 0)
-                dst.limit(limit);
-        }
-
-        return dst.position() - dstInitialPosition;
-    }
-
-
-    private void fillWithRange(ByteBuffer dst, Range sourceRange, long overlapBytes, long position,
-                               List<Long> rangesModified)
-        throws IOException
-    {
-        long positionSoFar = position;
-        if (position < changesPosition) {
-            int added = fillWithPartOfRange(dst, sourceRange, overlapBytes,
-                                            (int) Math.min(changesPosition - position, Integer.MAX_VALUE));
-            positionSoFar += added;
-            overlapBytes += added;
-        }
-        int changesAdded = 0;
-        long changesPosition = positionSoFar;
-        if (changeList != null && positionSoFar >= this.changesPosition &&
-            positionSoFar < this.changesPosition + changeList.size() && overlapBytes < sourceRange.length) {
-            changesAdded = fillWithChanges(dst, positionSoFar);
-            if (changesInserted)
-                positionSoFar += changesAdded;
-            else
-                overlapBytes += changesAdded;
-        }
-
-        positionSoFar += fillWithPartOfRange(dst, sourceRange, overlapBytes, Integer.MAX_VALUE);
-
-        if (rangesModified != null) {
-            if (sourceRange.dirty) {
-                rangesModified.add(position);
-                rangesModified.add(positionSoFar - position);
-            } else if (changesAdded > 0) {//&& !changesInserted) {
-                rangesModified.add(changesPosition);
-                rangesModified.add((long)changesAdded);
-//		} else if (changeList != null && changesPosition >= changesPosition && changesInserted &&
-                //		positionSoFar - changesPosition > 0) {
-                //	rangesModified.add(Long.valueOf(changesPosition));
-                //rangesModified.add(Long.valueOf(positionSoFar - changesPosition));
-            }
-        }
-    }
-
-
     /**
      * Closes all files for termination
      *
@@ -487,44 +694,61 @@ public class BinaryContent {
     /**
      * Reads a sequence of bytes from this content into the given buffer, starting at the given position
      *
-     * @param dst      where to write the read result to
-     * @param position starting read point
+     * @param dst            where to write the read result to
+     * @param rangesModified if not null then gets pairs of position and length of modified parts of read data
+     * @param position       starting read point
      * @return number of bytes read
      */
-    public int get(ByteBuffer dst, List<Long> rangesModified, long position)
+    public int get(ByteBuffer dst, @Nullable List<Long> rangesModified, long position)
         throws IOException
     {
         if (rangesModified != null) rangesModified.clear();
-        long positionShift = 0;
         int dstInitialRemaining = dst.remaining();
-        if (changeList != null && changesInserted && position > changesPosition)
-            positionShift = (int) Math.min(changeList.size(), position - changesPosition);
-
-        long positionSoFar = position - positionShift;
-        initSubtreeTraversing(positionSoFar, dst.remaining());
-
-        Range partialRange;
-        while (tailTree.hasNext() && (partialRange = tailTree.next()).position < exclusiveEnd) {
-            fillWithRange(dst, partialRange, positionSoFar - partialRange.position,
-                          positionSoFar + positionShift, rangesModified);
-            positionSoFar = partialRange.exclusiveEnd();
-            if (changeList != null && changesInserted &&
-                positionSoFar + positionShift > changesPosition)
-                positionShift = changeList.size();
-        }
-        if (dst.remaining() > 0 && changeList != null &&
-            positionSoFar + positionShift < changesPosition + changeList.size()) {
-            int size = fillWithChanges(dst, positionSoFar + positionShift);
-            if (rangesModified != null) {
-                rangesModified.add(positionSoFar + positionShift);
-                rangesModified.add((long)size);
+        int index = position < 0 ? pieces.count : pieces.find(position);
+        long offsetInPiece = index < pieces.count ? position - pieces.starts[index] : 0L;
+        long positionSoFar = position;
+        for (; index < pieces.count && dst.hasRemaining(); index++) {
+            Source source = sources.get(pieces.sources[index]);
+            int length = (int) Math.min(dst.remaining(), pieces.lengths[index] - offsetInPiece);
+            int read = source.read(pieces.offsets[index] + offsetInPiece, dst, length);
+            if (rangesModified != null && source.dirty && read > 0) {
+                addModifiedRange(rangesModified, positionSoFar, read);
             }
+            positionSoFar += read;
+            if (read < length) {
+                // Source is shorter than expected
+                break;
+            }
+            offsetInPiece = 0L;
         }
 
         return dstInitialRemaining - dst.remaining();
     }
 
 
+    private static void addModifiedRange(List<Long> rangesModified, long position, long length)
+    {
+        int size = rangesModified.size();
+        if (size >= 2 && rangesModified.get(size - 2) + rangesModified.get(size - 1) == position) {
+            rangesModified.set(size - 1, rangesModified.get(size - 1) + length);
+        } else {
+            rangesModified.add(position);
+            rangesModified.add(length);
+        }
+    }
+
+
+    private int getByte(long position)
+        throws IOException
+    {
+        int index = pieces.find(position);
+        if (index >= pieces.count) {
+            return 0;
+        }
+        return sources.get(pieces.sources[index]).get(pieces.offsets[index] + position - pieces.starts[index]);
+    }
+
+
     /**
      * Reads the sequence of all bytes from this content into the given file
      *
@@ -538,7 +762,9 @@ public class BinaryContent {
 
 
     /**
-     * Reads a sequence of bytes from this content into the given file
+     * Reads a sequence of bytes from this content into the given file.
+     * If the file backs this content then data is written in a temporary file which then replaces
+     * the destination file. Content keeps reading replaced file data.
      *
      * @param start  first byte in sequence
      * @param length number of bytes to read
@@ -551,97 +777,57 @@ public class BinaryContent {
 
         if (actions != null)
             actions.endAction();
-        commitChanges();
 
-        RandomAccessFile dst = new RandomAccessFile(destinationFile, "rws");
-        try {
-            dst.setLength(length);
-            FileChannel channel = dst.getChannel();
-
-            ByteBuffer buffer = null;
-            for (long position = 0L; position < length; position += mappedFileBufferLength) {
-                int partLength = (int) Math.min(mappedFileBufferLength, length - position);
-                boolean bufferFromMap = true;
-                try {
-                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, partLength);
-                }
-                catch (IOException e) {
-                    // gcj 4.3.0 channel maps work differently than sun's:
-                    // gcj won't accept two calls to channel.map with a different position, sun does
-                    // gcj will happily accept maps of size bigger than available memory, sun won't
-                    // to access past the 2Gb barrier there is no choice but use plain ByteBuffers in gcj
-                    bufferFromMap = false;
-                    if (buffer == null)
-                        buffer = ByteBuffer.allocateDirect((int) mappedFileBufferLength);
-                    buffer.position(0);
-                    buffer.limit(partLength);
-                }
-                get(buffer, start + position);
-                if (bufferFromMap) {
-                    ((MappedByteBuffer) buffer).force();
-                    buffer = null;
-                } else {
-                    buffer.position(0);
-                    buffer.limit(partLength);
-                    channel.write(buffer, position);
-                }
+        boolean isBackingFile = false;
+        for (Source source : sources) {
+            if (source instanceof FileSource fileSource && fileSource.isSameFile(destinationFile)) {
+                isBackingFile = true;
+                break;
             }
-            channel.force(true);
-            channel.close();
         }
-        finally {
-            ContentUtils.close(dst);
+        if (!isBackingFile) {
+            writeToFile(destinationFile.toPath(), start, length);
+            return length;
+        }
+        Path targetPath = destinationFile.toPath().toAbsolutePath();
+        Path tempFile = Files.createTempFile(targetPath.getParent(), destinationFile.getName(), ".tmp");
+        try {
+            writeToFile(tempFile, start, length);
+            try {
+                Files.move(tempFile, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
 
         return length;
     }
 
 
-    /*
-    * Does not check changeList
-    */
-    private int getFromRanges(long position)
+    private void writeToFile(Path path, long start, long length)
         throws IOException
     {
-        int result = 0;
-        Range range = getRangeAt(position);
-        if (range != null) {
-            Object value = range.data;
-            if (value instanceof ByteBuffer) {
-                ByteBuffer data = (ByteBuffer) value;
-                data.limit(data.capacity());
-                data.position((int) range.dataOffset);
-                result = data.get((int) (position - range.position)) & 0x0ff;
-            } else if (value instanceof RandomAccessFile) {
-                RandomAccessFile randomFile = (RandomAccessFile) value;
-                randomFile.seek(position);
-                result = randomFile.read();
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(WRITE_BUFFER_LENGTH, Math.max(length, 1L)));
+            for (long position = 0L; position < length; ) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - position));
+                int read = get(buffer, start + position);
+                if (read <= 0) {
+                    throw new IOException("Unexpected end of binary content at " + (start + position));
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                position += read;
             }
+            channel.force(true);
         }
-
-        return result;
-    }
-
-
-    Range getRangeAt(long position)
-    {
-        SortedSet<Range> subSet = ranges.tailSet(new Range(position, 1L));
-        if (subSet.isEmpty())
-            return null;
-
-        return subSet.first();
-    }
-
-
-    private Set<Range> initSubtreeTraversing(long position, long length)
-    {
-        Set<Range> result = ranges.tailSet(new Range(position, 1L));
-        tailTree = result.iterator();
-        exclusiveEnd = position + length;
-        if (exclusiveEnd > length())
-            exclusiveEnd = length();
-
-        return result;
     }
 
 
@@ -656,13 +842,9 @@ public class BinaryContent {
     {
         if (position > length()) return;
 
-        dirty = true;
-        lastUpperNibblePosition = position;
-        if (actions != null)
-            actions.eventPreModify(ActionHistory.ActionType.INSERT, position, true);
-        updateChanges(position, true);
-        changeList.set((int) (position - changesPosition), source & 0x0ff);
-        notifyListeners();
+        long offset = appendSource.append(source);
+        replace(ActionHistory.ActionType.INSERT, position, 0L, Pieces.of(APPEND_SOURCE, offset, 1L), true);
+        lastUpperNibblePosition = actions != null ? position : -1L;
     }
 
 
@@ -678,16 +860,9 @@ public class BinaryContent {
     {
         if (source.remaining() < 1 || position > length()) return;
 
-        dirty = true;
         lastUpperNibblePosition = -1L;
-        if (actions != null)
-            actions.eventPreModify(ActionHistory.ActionType.INSERT, position, false);
-        commitChanges();
-        Range newRange = new Range(position, source, true);
-        insertRange(newRange);
-        if (actions != null)
-            actions.addInserted((Range) newRange.clone());
-        notifyListeners();
+        int sourceIndex = addSource(new BufferSource(source.slice(), true));
+        replace(ActionHistory.ActionType.INSERT, position, 0L, Pieces.of(sourceIndex, 0L, source.remaining()), false);
     }
 
     /**
@@ -705,36 +880,9 @@ public class BinaryContent {
         long fileLength = aFile.length();
         if (fileLength < 1L || position > length()) return;
 
-        Range newRange = new Range(position, aFile, true);
-        dirty = true;
+        FileSource source = new FileSource(aFile, true);
         lastUpperNibblePosition = -1L;
-        if (actions != null)
-            actions.eventPreModify(ActionHistory.ActionType.INSERT, position, false);
-        commitChanges();
-        insertRange(newRange);
-        if (actions != null)
-            actions.addInserted((Range) newRange.clone());
-        notifyListeners();
-    }
-
-
-    private void insertRange(Range newRange)
-    {
-        splitAndShift(newRange.position, newRange.length);
-        ranges.add(newRange);
-    }
-
-
-    private long[] insertRanges(List<Range> ranges)
-    {
-        BinaryContent.Range firstRange = ranges.get(0);
-        BinaryContent.Range lastRange = ranges.get(ranges.size() - 1);
-        splitAndShift(firstRange.position, lastRange.exclusiveEnd() - firstRange.position);
-        List<Range> cloned = new ArrayList<>(ranges.size());
-        for (Range range : ranges) cloned.add((Range)range.clone());
-        this.ranges.addAll(cloned);
-
-        return new long[]{firstRange.position, lastRange.exclusiveEnd()};
+        replace(ActionHistory.ActionType.INSERT, position, 0L, Pieces.of(addSource(source), 0L, source.size()), false);
     }
 
 
@@ -755,17 +903,7 @@ public class BinaryContent {
      */
     public long length()
     {
-        long result = 0L;
-
-        if (ranges.size() > 0) {
-            result = ranges.last().exclusiveEnd();
-        }
-
-        if (changeList != null && changesInserted) {
-            result += changeList.size();
-        }
-
-        return result;
+        return pieces.totalLength;
     }
 
 
@@ -813,35 +951,29 @@ public class BinaryContent {
         if (offset < 0 || offset > 7 || length < 0 || position >= length())
             return;
 
-        dirty = true;
-        if (actions != null) {
-            if (lastUpperNibblePosition == position && offset == 4 && length == 4)
-                actionsOn(false);
-            else
-                actions.eventPreModify(ActionHistory.ActionType.OVERWRITE, position, true);
-        }
         if (length + offset > 8)
             length = 8 - offset;
-        Range range = updateChanges(position, false);
-        int previous = changeList.get((int) (position - changesPosition));
+        int previous = getByte(position);
         int mask = (0x0ff >>> offset) & (0x0ff << (8 - offset - length));
         int newValue = previous & ~mask | (source << (8 - offset - length)) & mask;
-        changeList.set((int) (position - changesPosition), newValue);
-        if (actions != null) {
-            if (range == null)
-                actions.addLostByte(position, previous);
-            else {
-                Range clone = (Range) range.clone();
-                clone.position = position;
-                clone.length = 1L;
-                clone.dataOffset = range.dataOffset + position - range.position;
-//			clone.dirty = true;
-                actions.addLostRange(clone);
-            }
+        if (actions != null && lastUpperNibblePosition == position && offset == 4 && length == 4 && isLastTypedByte(position)) {
+            // Lower nibble of the just typed byte. Complete that byte, so undo/redo takes effect on the whole byte
+            dirty = true;
+            appendSource.setLast((byte) newValue);
+            notifyListeners();
+        } else {
+            long sourceOffset = appendSource.append((byte) newValue);
+            replace(ActionHistory.ActionType.OVERWRITE, position, 1L, Pieces.of(APPEND_SOURCE, sourceOffset, 1L), true);
         }
-        actionsOn(true);
         lastUpperNibblePosition = actions != null && offset == 0 && length == 4 ? position : -1L;
-        notifyListeners();
+    }
+
+
+    private boolean isLastTypedByte(long position)
+    {
+        int index = pieces.find(position);
+        return index < pieces.count && pieces.sources[index] == APPEND_SOURCE &&
+            pieces.offsets[index] + position - pieces.starts[index] == appendSource.lastOffset();
     }
 
 
@@ -855,8 +987,10 @@ public class BinaryContent {
      */
     public void overwrite(ByteBuffer source, long position)
     {
-        if (source.remaining() > 0 && position < length())
-            overwriteInternal(new Range(position, source, true));
+        if (source.remaining() > 0 && position < length()) {
+            int sourceIndex = addSource(new BufferSource(source.slice(), true));
+            overwriteInternal(Pieces.of(sourceIndex, 0L, source.remaining()), position);
+        }
     }
 
 
@@ -872,53 +1006,17 @@ public class BinaryContent {
     public void overwrite(File aFile, long position)
         throws IOException
     {
-        if (aFile.length() > 0L && position < length())
-            overwriteInternal(new Range(position, aFile, true));
+        if (aFile.length() > 0L && position < length()) {
+            FileSource source = new FileSource(aFile, true);
+            overwriteInternal(Pieces.of(addSource(source), 0L, source.size()), position);
+        }
     }
 
 
-    private void overwriteInternal(Range newRange)
+    private void overwriteInternal(Pieces newPieces, long position)
     {
-        dirty = true;
         lastUpperNibblePosition = -1L;
-        if (actions != null)
-            actions.eventPreModify(ActionHistory.ActionType.OVERWRITE, newRange.position, false);
-        commitChanges();
-        overwriteRange(newRange);
-        if (actions != null)
-            actions.addRangeToCurrentAction((Range) newRange.clone());
-        notifyListeners();
-    }
-
-
-    private void overwriteRange(Range aRange)
-    {
-        deleteInternal(aRange.position, aRange.length);
-        ranges.add(aRange);
-    }
-
-
-    private long[] overwriteRanges(List<Range> ranges)
-    {
-        BinaryContent.Range firstRange = ranges.get(0);
-        BinaryContent.Range lastRange = ranges.get(ranges.size() - 1);
-        splitAndShift(firstRange.position, 0);
-        splitAndShift(lastRange.exclusiveEnd(), 0);
-        initSubtreeTraversing(firstRange.position, 0L);
-        if (tailTree.hasNext()) {
-            Range goingRange = tailTree.next();
-            while (goingRange != null && goingRange.exclusiveEnd() <= lastRange.exclusiveEnd()) {
-                tailTree.remove();
-                goingRange = null;
-                if (tailTree.hasNext())
-                    goingRange = tailTree.next();
-            }
-        }
-        List<Range> cloned = new ArrayList<>(ranges.size());
-        for (Range range : ranges) cloned.add((Range)range.clone());
-        this.ranges.addAll(cloned);
-
-        return new long[]{firstRange.position, lastRange.exclusiveEnd()};
+        replace(ActionHistory.ActionType.OVERWRITE, position, Math.min(newPieces.totalLength, length() - position), newPieces, false);
     }
 
 
@@ -932,84 +1030,40 @@ public class BinaryContent {
     {
         if (actions == null) return null;
 
-        Object[] action = actions.redoAction();
+        ActionHistory.Action action = actions.redoAction();
         if (action == null) return null;
 
-        long[] result = null;
-        @SuppressWarnings("unchecked")
-        List<Range> currentAction = (List<Range>) action[1];
-        if (action[0] == ActionHistory.ActionType.DELETE) {
-            result = deleteRanges(currentAction);
-        } else if (action[0] == ActionHistory.ActionType.INSERT) {
-            result = insertRanges(currentAction);
-        } else if (action[0] == ActionHistory.ActionType.OVERWRITE) {
-            // 0 to size - 1: overwritten ranges, last one: overwrite range
-            int size = currentAction.size();
-            result = overwriteRanges(currentAction.subList(size - 1, size));
-        }
+        pieces.remove(action.position, action.removed.totalLength);
+        pieces.insert(action.position, action.inserted);
+        lastUpperNibblePosition = -1L;
         notifyListeners();
 
-        return result;
+        return new long[]{action.position, action.position + action.inserted.totalLength};
     }
 
     /**
      * Sets action history on. After this call the content will remember past actions to undo and redo
      */
-    void setActionsHistory()
+    @ForTest
+    public void setActionsHistory()
     {
         if (actions == null) {
-            commitChanges();
-            actions = new ActionHistory(this);
-        }
-    }
-
-
-    private void shiftRemainingRanges(long increment)
-    {
-        if (increment == 0L) return;
-
-        while (tailTree.hasNext()) {
-            Range currentRange = tailTree.next();
-            currentRange.position += increment;
-//		currentRange.dirty = true;
+            actions = new ActionHistory();
         }
     }
 
 
-    private void splitAndShift(long position, long increment)
-    {
-        initSubtreeTraversing(position, 0);
-        if (!tailTree.hasNext()) return;
-
-        Range firstRange = tailTree.next();
-        Range secondRange = null;
-        if (firstRange.position < position) {
-            secondRange = (Range) firstRange.clone();  // will be tail part of firstRange
-            long delta = position - firstRange.position;
-            firstRange.length = delta;
-
-            secondRange.length -= delta;
-            secondRange.dataOffset += delta;
-            secondRange.position = secondRange.position + delta + increment;
-//		secondRange.dirty |= increment != 0;
-        } else {
-            firstRange.position += increment;
-//		firstRange.dirty |= increment != 0;
-        }
-        shiftRemainingRanges(increment);
-        if (secondRange != null)
-            ranges.add(secondRange);
-    }
-
-
     /**
-     * Lists the ranges that back this content
+     * Lists the pieces that back this content
      */
     public String toString()
     {
         StringBuilder result = new StringBuilder("BinaryContent: {length:").append(length()).append("}\n");
-        for (Range myRange : ranges) {
-            result.append(myRange).append('\n');
+        for (int i = 0; i < pieces.count; i++) {
+            result.append("Piece {position:").append(pieces.starts[i])
+                .append(", length:").append(pieces.lengths[i])
+                .append(", source:").append(pieces.sources[i])
+                .append(", offset:").append(pieces.offsets[i]).append("}\n");
         }
 
         return result.toString();
@@ -1026,64 +1080,15 @@ public class BinaryContent {
     {
         if (actions == null) return null;
 
-        Object[] action = actions.undoAction();
+        ActionHistory.Action action = actions.undoAction();
         if (action == null) return null;
 
-        commitChanges();
-        long[] result = null;
-        @SuppressWarnings("unchecked")
-        List<Range> currentAction = (List<Range>) action[1];
-        if (action[0] == ActionHistory.ActionType.DELETE) {
-            result = insertRanges(currentAction);
-        } else if (action[0] == ActionHistory.ActionType.INSERT) {
-            result = deleteRanges(currentAction);
-        } else if (action[0] == ActionHistory.ActionType.OVERWRITE) {
-            // 0 to size - 1: overwritten ranges, last one: overwrite  range
-            result = overwriteRanges(currentAction.subList(0, currentAction.size() - 1));
-        }
+        pieces.remove(action.position, action.inserted.totalLength);
+        pieces.insert(action.position, action.removed);
+        lastUpperNibblePosition = -1L;
         notifyListeners();
 
-        return result;
-    }
-
-
-    private Range updateChanges(long position, boolean insert)
-        throws IOException
-    {
-        Range result = null;
-        if (changeList != null) {
-            long lowerLimit = changesPosition;
-            long upperLimit = changesPosition + changeList.size();
-            if (!insert && position >= lowerLimit && position < upperLimit)
-                return null;  // reuse without expanding
-
-            if (!insert) --lowerLimit;
-            if (insert == changesInserted && position >= lowerLimit && position <= upperLimit) { // reuse
-                if (insert) {
-                    changeList.add((int) (position - changesPosition), 0);
-                } else {
-                    result = getRangeAt(position);
-                    if (changesPosition > position) {
-                        changesPosition = position;
-                        changeList.add(0, getFromRanges(position));
-                    } else if (changesPosition + changeList.size() <= position) {
-                        changeList.add(getFromRanges(position));
-                    }
-                }
-                return result;
-
-            } else {
-                commitChanges();
-            }
-        }
-        changeList = new ArrayList<>();
-        changeList.add(getFromRanges(position));
-        changesInserted = insert;
-        changesPosition = position;
-        if (!insert)
-            result = getRangeAt(position);
-
-        return result;
+        return new long[]{action.position, action.position + action.removed.totalLength};
     }
 
 }
@@ -46,7 +46,9 @@ import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.local.StatResultSet;
+import org.jkiss.dbeaver.model.meta.ForTest;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMExecutionHandler;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableParametrized;
@@ -75,11 +77,9 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.sql.BatchUpdateException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * SQLQueryJob
@@ -113,7 +113,7 @@ public class SQLQueryJob extends DataSourceJob
     private final List<DBCResultSet> curResultSets = new ArrayList<>();
     private Throwable lastError = null;
 
-    private DBCStatistics statistics;
+    private DBCStatistics statistics = new DBCStatistics();
     private int fetchResultSetNumber;
     private int resultSetNumber;
     private SQLQuery lastGoodQuery;
@@ -125,6 +125,22 @@ public class SQLQueryJob extends DataSourceJob
 
     private transient int rowsFetched;
 
+    // Max number of statements in a batch, batches are disabled if less than 2
+    private int batchSize;
+    // Statements before this index are executed one by one, even if they can be batched
+    private int batchFallbackEnd;
+    // Results of statements executed in batches. Statements are reported when script execution reaches them
+    private final Map<SQLScriptElement, BatchResult> batchResults = new IdentityHashMap<>();
+    // Auto-commit was switched off to execute batches in a transaction.
+    // It is switched back on before the next statement which is not batched and at the end of the script.
+    private boolean batchAutoCommit;
+    // Number of statements between commits, 0 if the script is not committed every N statements
+    private int commitInterval;
+    private int statementsSinceCommit;
+
+    record BatchResult(long updateCount, long queryTime, @Nullable Throwable error) {
+    }
+
     public SQLQueryJob(
         @NotNull IWorkbenchPartSite partSite,
         @NotNull String name,
@@ -153,6 +169,9 @@ public class SQLQueryJob extends DataSourceJob
                 preferenceStore.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS) && !isDisableFetchResultSet
             );
             this.rsMaxRows = preferenceStore.getInt(ModelPreferences.RESULT_SET_MAX_ROWS);
+            this.batchSize = queries.size() > 1 && preferenceStore.getBoolean(SQLPreferenceConstants.SCRIPT_BATCH_EXECUTE)
+                ? preferenceStore.getInt(SQLPreferenceConstants.SCRIPT_BATCH_SIZE)
+                : 0;
         }
     }
 
@@ -232,12 +251,40 @@ public class SQLQueryJob extends DataSourceJob
                 }
 
                 resultSetNumber = 0;
+                batchFallbackEnd = 0;
+                batchResults.clear();
+                batchAutoCommit = false;
+                statementsSinceCommit = 0;
+                commitInterval = 0;
+                if (txnManager != null && txnManager.isSupportsTransactions()
+                    && !oldAutoCommit && commitType == SQLScriptCommitType.NLINES
+                ) {
+                    commitInterval = getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.SCRIPT_COMMIT_LINES);
+                }
                 for (int queryNum = 0; queryNum < queries.size(); ) {
                     // Execute query
                     SQLScriptElement query = queries.get(queryNum);
 
                     fetchResultSetNumber = resultSetNumber;
-                    boolean runNext = executeSingleQuery(session, query, true);
+                    boolean runNext;
+                    BatchResult batchResult = batchResults.remove(query);
+                    if (batchResult != null) {
+                        runNext = reportBatchedQuery(session, (SQLQuery) query, batchResult);
+                    } else {
+                        if (queryNum >= batchFallbackEnd) {
+                            int batchEnd = getBatchEnd(session, queryNum);
+                            if (batchEnd - queryNum > 1) {
+                                if (!executeBatch(session, queries.subList(queryNum, batchEnd))) {
+                                    // Statements of the failed batch which were not executed are executed one by one
+                                    batchFallbackEnd = batchEnd;
+                                }
+                                // Executed statements are reported one by one
+                                continue;
+                            }
+                        }
+                        restoreBatchAutoCommit(monitor);
+                        runNext = executeSingleQuery(session, query, true);
+                    }
                     if (txnManager != null && txnManager.isSupportsTransactions()
                         && !oldAutoCommit && commitType != SQLScriptCommitType.AUTOCOMMIT
                         && query instanceof SQLQuery sqlQuery
@@ -279,6 +326,12 @@ public class SQLQueryJob extends DataSourceJob
                         }
                     }
 
+                    if (commitInterval > 0 && ++statementsSinceCommit >= commitInterval) {
+                        // Batched statements are counted one by one, batches never cross the commit point
+                        txnManager.commit(session);
+                        statementsSinceCommit = 0;
+                    }
+
                     // Check monitor
                     if (monitor.isCanceled()) {
                         break;
@@ -286,6 +339,7 @@ public class SQLQueryJob extends DataSourceJob
                     monitor.worked(1);
                     queryNum++;
                 }
+                restoreBatchAutoCommit(monitor);
                 if (statistics.getStatementsCount() > 0) {
                     showExecutionResult(session);
                 }
@@ -331,6 +385,8 @@ public class SQLQueryJob extends DataSourceJob
                 "Error during SQL job execution: " + ex.getMessage());
         }
         finally {
+            // Script may be interrupted by an error after a batch
+            restoreBatchAutoCommit(monitor);
             monitor.done();
 
             // Notify job end
@@ -562,6 +618,332 @@ public class SQLQueryJob extends DataSourceJob
         return true;
     }
 
+    /**
+     * Returns the end index (exclusive) of statements which can be executed in a batch starting from the specified one
+     */
+    private int getBatchEnd(@NotNull DBCSession session, int queryNum) {
+        if (batchSize < 2 ||
+            !scriptContext.getPragmas().isEmpty() ||
+            (dataFilter != null && dataFilter.hasFilters()) ||
+            !session.getDataSource().getInfo().supportsBatchUpdates() ||
+            !canRollbackBatch(session, batchAutoCommit) ||
+            (!skipConfirmation && getDataSourceContainer().getConnectionConfiguration().getConnectionType().isConfirmExecute()) ||
+            (!connectionInvalidated && getDataSourceContainer().getPreferenceStore().getBoolean(SQLPreferenceConstants.STATEMENT_INVALIDATE_BEFORE_EXECUTE)) ||
+            (resultsConsumer instanceof ISmartTransactionManager && ((ISmartTransactionManager) resultsConsumer).isSmartAutoCommit()))
+        {
+            return queryNum;
+        }
+        int maxBatchSize = commitInterval > 0 ? Math.min(batchSize, commitInterval - statementsSinceCommit) : batchSize;
+        int batchEnd = queryNum;
+        while (batchEnd < queries.size() && batchEnd - queryNum < maxBatchSize && isBatchQuery(queries.get(batchEnd))) {
+            batchEnd++;
+        }
+        return batchEnd;
+    }
+
+    /**
+     * Failed batch must be rolled back: drivers either stop at the failed statement or continue with the next ones,
+     * and the transaction may be left aborted. So batches are executed in a transaction in auto-commit mode
+     * and after a savepoint in manual commit mode.
+     */
+    private static boolean canRollbackBatch(@NotNull DBCSession session, boolean batchAutoCommit) {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        try {
+            return txnManager != null && txnManager.isSupportsTransactions() &&
+                (batchAutoCommit || txnManager.isAutoCommit() || txnManager.supportsSavepoints());
+        } catch (DBCException e) {
+            log.debug("Can't read transaction mode", e);
+            return false;
+        }
+    }
+
+    /**
+     * Only data modification statements without parameters and results can be batched
+     */
+    private static boolean isBatchQuery(@NotNull SQLScriptElement element) {
+        if (!(element instanceof SQLQuery query) || !CommonUtils.isEmpty(query.getParameters())) {
+            return false;
+        }
+        Statement statement = query.getStatement();
+        if (statement instanceof Insert insert) {
+            return insert.getReturningExpressionList() == null;
+        } else if (statement instanceof Update update) {
+            return update.getReturningExpressionList() == null;
+        }
+        return statement instanceof Delete;
+    }
+
+    /**
+     * Executes statements in a single batch.
+     * Results of executed statements are saved in {@link #batchResults}.
+     * If the batch fails then it is rolled back, so all its statements can be executed one by one
+     * with the usual error reporting.
+     *
+     * @return true if all statements were executed
+     */
+    @ForTest
+    boolean executeBatch(@NotNull DBCSession session, @NotNull List<SQLScriptElement> batch) {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        monitor.subTask("Execute batch of " + batch.size() + " statements");
+        closeStatement();
+
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager == null) {
+            batchSize = 0;
+            return false;
+        }
+        DBCSavepoint savepoint = null;
+        try {
+            if (!batchAutoCommit && txnManager.isAutoCommit()) {
+                // Consecutive batches share the switch, each of them is committed separately
+                txnManager.setAutoCommit(monitor, false);
+                batchAutoCommit = true;
+            }
+            if (!batchAutoCommit) {
+                savepoint = txnManager.setSavepoint(monitor, null);
+            }
+        } catch (Throwable e) {
+            log.debug("Can't start batch transaction, statements will be executed one by one", e);
+            batchSize = 0;
+            return false;
+        }
+        return executeBatch(session, txnManager, batchAutoCommit, savepoint, batch);
+    }
+
+    /**
+     * Switches auto-commit back on if it was switched off for batches
+     */
+    @ForTest
+    void restoreBatchAutoCommit(@NotNull DBRProgressMonitor monitor) {
+        if (!batchAutoCommit) {
+            return;
+        }
+        batchAutoCommit = false;
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
+        if (txnManager != null) {
+            try {
+                txnManager.setAutoCommit(monitor, true);
+            } catch (Throwable e) {
+                log.warn("Error returning to auto commit", e);
+            }
+        }
+    }
+
+    @Nullable
+    @ForTest
+    BatchResult getBatchResult(@NotNull SQLScriptElement element) {
+        return batchResults.get(element);
+    }
+
+    private boolean executeBatch(
+        @NotNull DBCSession session,
+        @NotNull DBCTransactionManager txnManager,
+        boolean autoCommit,
+        @Nullable DBCSavepoint savepoint,
+        @NotNull List<SQLScriptElement> batch
+    ) {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        boolean loggingEnabled = session.isLoggingEnabled();
+        DBCStatement statement;
+        try {
+            // Statements are logged in query manager one by one after the batch execution
+            session.enableLogging(false);
+            try {
+                statement = session.prepareStatement(DBCStatementType.SCRIPT, batch.get(0).getText(), false, false, false);
+            } finally {
+                session.enableLogging(loggingEnabled);
+            }
+        } catch (Throwable e) {
+            log.debug("Can't prepare batch statement, statements will be executed one by one", e);
+            batchSize = 0;
+            rollbackBatch(session, txnManager, savepoint);
+            return false;
+        }
+        curStatement = statement;
+        int[] updateCounts;
+        Throwable batchError = null;
+        long executeTime;
+        try {
+            if (!(statement instanceof DBCScriptStatement scriptStatement)) {
+                batchSize = 0;
+                rollbackBatch(session, txnManager, savepoint);
+                return false;
+            }
+            int statementTimeout = getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.STATEMENT_TIMEOUT);
+            if (statementTimeout > 0) {
+                try {
+                    statement.setStatementTimeout(statementTimeout);
+                } catch (Throwable e) {
+                    log.debug("Can't set statement timeout:" + e.getMessage());
+                }
+            }
+            try {
+                for (SQLScriptElement query : batch) {
+                    scriptStatement.setQueryString(query.getText());
+                    statement.addToBatch();
+                }
+            } catch (Throwable e) {
+                log.debug("Batches are not supported, statements will be executed one by one", e);
+                batchSize = 0;
+                rollbackBatch(session, txnManager, savepoint);
+                return false;
+            }
+
+            long startTime = System.currentTimeMillis();
+            try {
+                updateCounts = statement.executeStatementBatch();
+            } catch (Throwable e) {
+                batchError = e;
+                updateCounts = getBatchUpdateCounts(e);
+            }
+            executeTime = System.currentTimeMillis() - startTime;
+            statistics.addExecuteTime(executeTime);
+
+            if (batchError == null) {
+                try {
+                    if (autoCommit) {
+                        txnManager.commit(session);
+                    } else {
+                        txnManager.releaseSavepoint(monitor, savepoint);
+                    }
+                } catch (Throwable e) {
+                    if (autoCommit) {
+                        batchError = e;
+                    } else {
+                        // Savepoint will be released on commit
+                        log.debug("Can't release batch savepoint", e);
+                    }
+                }
+            }
+            if (batchError != null) {
+                if (rollbackBatch(session, txnManager, savepoint)) {
+                    // Nothing was changed, statements will be executed one by one and report their own errors
+                    log.debug("Batch execution failed, statements will be executed one by one", batchError);
+                    return false;
+                }
+            }
+            logBatch(statement, scriptStatement, loggingEnabled, batch, updateCounts, batchError);
+        } finally {
+            closeStatement();
+        }
+
+        // Batch results as reported by the driver. Failed statement gets the batch error,
+        // statements without results are executed one by one.
+        boolean allExecuted = batchError == null;
+        boolean errorReported = false;
+        int executedCount = batchError == null ? batch.size() : Math.min(updateCounts.length, batch.size());
+        for (int i = 0; i < executedCount; i++) {
+            int updateCount = i < updateCounts.length ? updateCounts[i] : java.sql.Statement.SUCCESS_NO_INFO;
+            Throwable error = null;
+            if (updateCount == java.sql.Statement.EXECUTE_FAILED) {
+                allExecuted = false;
+                if (errorReported) {
+                    continue;
+                }
+                error = batchError;
+                errorReported = true;
+            }
+            batchResults.put(batch.get(i), new BatchResult(Math.max(updateCount, -1), executeTime / batch.size(), error));
+        }
+        if (batchError != null && !errorReported && executedCount < batch.size()) {
+            // Driver stopped at the failed statement
+            batchResults.put(batch.get(executedCount), new BatchResult(-1, executeTime / batch.size(), batchError));
+        }
+        return allExecuted;
+    }
+
+    /**
+     * Rolls back the batch transaction or the batch savepoint
+     *
+     * @return true if changes made by the batch were undone
+     */
+    private static boolean rollbackBatch(
+        @NotNull DBCSession session,
+        @NotNull DBCTransactionManager txnManager,
+        @Nullable DBCSavepoint savepoint
+    ) {
+        try {
+            txnManager.rollback(session, savepoint);
+            return true;
+        } catch (Throwable e) {
+            log.error("Can't rollback failed batch", e);
+            return false;
+        }
+    }
+
+    private static void logBatch(
+        @NotNull DBCStatement statement,
+        @NotNull DBCScriptStatement scriptStatement,
+        boolean loggingEnabled,
+        @NotNull List<SQLScriptElement> batch,
+        @NotNull int[] updateCounts,
+        @Nullable Throwable batchError
+    ) {
+        QMExecutionHandler qmHandler = loggingEnabled ? QMUtils.getDefaultHandler() : null;
+        if (qmHandler == null) {
+            return;
+        }
+        int executedCount = batchError == null ? batch.size() : Math.min(updateCounts.length, batch.size());
+        qmHandler.handleStatementOpen(statement);
+        long totalUpdateCount = 0;
+        for (int i = 0; i < executedCount; i++) {
+            int updateCount = i < updateCounts.length ? updateCounts[i] : java.sql.Statement.SUCCESS_NO_INFO;
+            scriptStatement.setQueryString(batch.get(i).getText());
+            qmHandler.handleStatementExecuteBegin(statement);
+            if (updateCount == java.sql.Statement.EXECUTE_FAILED) {
+                qmHandler.handleStatementExecuteEnd(statement, -1, batchError);
+                continue;
+            }
+            qmHandler.handleStatementExecuteEnd(statement, Math.max(updateCount, -1), null);
+            if (updateCount > 0) {
+                totalUpdateCount += updateCount;
+            }
+        }
+        qmHandler.handleStatementClose(statement, totalUpdateCount);
+    }
+
+    @NotNull
+    private static int[] getBatchUpdateCounts(@NotNull Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof BatchUpdateException batchError && batchError.getUpdateCounts() != null) {
+                return batchError.getUpdateCounts();
+            }
+        }
+        return new int[0];
+    }
+
+    private boolean reportBatchedQuery(@NotNull DBCSession session, @NotNull SQLQuery query, @NotNull BatchResult batchResult) {
+        lastError = null;
+        curResult = new SQLQueryResult(query);
+        statistics.setQueryText(query.getText());
+        statistics.addStatementsCount();
+        if (listener != null) {
+            try {
+                listener.onStartQuery(session, query);
+            } catch (Exception e) {
+                log.error(e);
+            }
+        }
+        if (batchResult.error() != null) {
+            curResult.setError(batchResult.error());
+            lastError = batchResult.error();
+        }
+        SQLQueryResult.ExecuteResult executeResult = curResult.addExecuteResult(false);
+        if (batchResult.updateCount() >= 0) {
+            executeResult.setUpdateCount(batchResult.updateCount());
+            statistics.addRowsUpdated(batchResult.updateCount());
+        }
+        curResult.setQueryTime(batchResult.queryTime());
+        if (listener != null) {
+            notifyQueryExecutionEnd(session, curResult);
+        }
+        if (batchResult.error() != null) {
+            return errorHandling == SQLScriptErrorHandling.IGNORE;
+        }
+        lastGoodQuery = query;
+        return true;
+    }
+
     private boolean shouldRecoverQuery(SQLQuery query) {
         Statement statement = query.getStatement();
         if (statement instanceof Insert ||
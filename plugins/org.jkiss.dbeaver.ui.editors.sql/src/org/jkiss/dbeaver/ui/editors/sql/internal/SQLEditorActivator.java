@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.ui.editors.sql.internal;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.jkiss.dbeaver.model.impl.preferences.BundlePreferenceStore;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.LSMDialectRegistry;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.features.DBRFeatureRegistry;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorFeatures;
@@ -43,6 +44,7 @@ public class SQLEditorActivator extends AbstractUIPlugin {
         preferences = new BundlePreferenceStore(getBundle());
 
         DBRFeatureRegistry.getInstance().registerFeatures(SQLEditorFeatures.class);
+        LSMDialectRegistry.getInstance().warmUpAnalyzers();
     }
 
     @Override
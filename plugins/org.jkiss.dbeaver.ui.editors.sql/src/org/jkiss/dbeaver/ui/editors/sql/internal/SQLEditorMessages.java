@@ -259,6 +259,9 @@ public class SQLEditorMessages extends NLS {
     public static String pref_page_code_editor_label_read_metadata_enabled_tip;
 
     public static String pref_page_sql_editor_checkbox_fetch_resultsets;
+    public static String pref_page_sql_editor_checkbox_batch_execute;
+    public static String pref_page_sql_editor_checkbox_batch_execute_tip;
+    public static String pref_page_sql_editor_label_batch_size;
     public static String pref_page_sql_editor_text_statement_delimiter;
     public static String pref_page_sql_editor_checkbox_ignore_native_delimiter;
     public static String pref_page_sql_editor_checkbox_ignore_native_delimiter_tip;
@@ -61,6 +61,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
     private Combo errorHandlingCombo;
     private Spinner commitLinesText;
     private Button fetchResultSetsCheck;
+    private Button batchExecuteCheck;
+    private Spinner batchSizeSpinner;
     private Button resetCursorCheck;
     private Button maxEditorCheck;
     private Combo showStatisticsCombo;
@@ -97,6 +99,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.contains(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING) ||
             store.contains(SQLPreferenceConstants.SCRIPT_COMMIT_LINES) ||
             store.contains(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS) ||
+            store.contains(SQLPreferenceConstants.SCRIPT_BATCH_EXECUTE) ||
+            store.contains(SQLPreferenceConstants.SCRIPT_BATCH_SIZE) ||
 
             store.contains(ModelPreferences.SCRIPT_STATEMENT_DELIMITER) ||
             store.contains(ModelPreferences.SCRIPT_IGNORE_NATIVE_DELIMITER) ||
@@ -217,6 +221,14 @@ public class PrefPageSQLExecute extends TargetPrefPage
             }
 
             fetchResultSetsCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_fetch_resultsets, null, false, 2);
+            batchExecuteCheck = UIUtils.createCheckbox(
+                scriptsGroup,
+                SQLEditorMessages.pref_page_sql_editor_checkbox_batch_execute,
+                SQLEditorMessages.pref_page_sql_editor_checkbox_batch_execute_tip,
+                false,
+                2
+            );
+            batchSizeSpinner = UIUtils.createLabelSpinner(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_label_batch_size, 100, 2, 100000);
             resetCursorCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_reset_cursor, null, false, 2);
             maxEditorCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_max_editor_on_script_exec, null, false, 2);
             showStatisticsCombo = UIUtils.createLabelCombo(
@@ -317,6 +329,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.setValue(SQLPreferenceConstants.SCRIPT_COMMIT_LINES, commitLinesText.getSelection());
             store.setValue(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING, CommonUtils.fromOrdinal(SQLScriptErrorHandling.class, errorHandlingCombo.getSelectionIndex()).name());
             store.setValue(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS, fetchResultSetsCheck.getSelection());
+            store.setValue(SQLPreferenceConstants.SCRIPT_BATCH_EXECUTE, batchExecuteCheck.getSelection());
+            store.setValue(SQLPreferenceConstants.SCRIPT_BATCH_SIZE, batchSizeSpinner.getSelection());
             store.setValue(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE, resetCursorCheck.getSelection());
             store.setValue(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE, maxEditorCheck.getSelection());
             store.setValue(
@@ -362,6 +376,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
         store.setToDefault(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING);
         store.setToDefault(SQLPreferenceConstants.SCRIPT_COMMIT_LINES);
         store.setToDefault(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS);
+        store.setToDefault(SQLPreferenceConstants.SCRIPT_BATCH_EXECUTE);
+        store.setToDefault(SQLPreferenceConstants.SCRIPT_BATCH_SIZE);
 
         store.setToDefault(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE);
         store.setToDefault(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE);
@@ -447,6 +463,16 @@ public class PrefPageSQLExecute extends TargetPrefPage
                     ? store.getDefaultBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS)
                     : store.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS)
             );
+            batchExecuteCheck.setSelection(
+                useDefaults
+                    ? store.getDefaultBoolean(SQLPreferenceConstants.SCRIPT_BATCH_EXECUTE)
+                    : store.getBoolean(SQLPreferenceConstants.SCRIPT_BATCH_EXECUTE)
+            );
+            batchSizeSpinner.setSelection(
+                useDefaults
+                    ? store.getDefaultInt(SQLPreferenceConstants.SCRIPT_BATCH_SIZE)
+                    : store.getInt(SQLPreferenceConstants.SCRIPT_BATCH_SIZE)
+            );
             resetCursorCheck.setSelection(
                 useDefaults
                     ? store.getDefaultBoolean(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE)
@@ -24,12 +24,24 @@ import org.eclipse.jface.text.*;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.meta.ForTest;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.RunnableWithResult;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLQuery;
 import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
@@ -45,15 +57,15 @@ import org.jkiss.dbeaver.model.stm.LSMInspections;
 import org.jkiss.dbeaver.model.stm.STMTreeNode;
 import org.jkiss.dbeaver.model.stm.STMTreeTermNode;
 import org.jkiss.dbeaver.model.stm.STMUtils;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorUtils;
 import org.jkiss.dbeaver.utils.ListNode;
 
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.regex.Pattern;
 
 public class SQLBackgroundParsingJob {
@@ -62,6 +74,83 @@ public class SQLBackgroundParsingJob {
     private static final boolean DEBUG = false;
 
     private static final long schedulingTimeoutMilliseconds = 500;
+
+    private static final int recognitionCacheSize = 1000;
+
+    // Script elements are recognized in parallel, recognition may read database metadata
+    @NotNull
+    private static final ForkJoinPool recognitionPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    /**
+     * Everything query model recognition depends on besides the query text
+     */
+    record RecognitionScope(
+        @NotNull SQLDialect dialect,
+        // Syntax manager settings used by the query analyzer
+        @NotNull LSMAnalyzerParameters analyzerParameters,
+        @Nullable DBCExecutionContext executionContext,
+        @Nullable String defaultCatalogName,
+        @Nullable String defaultSchemaName,
+        boolean useRealMetadata,
+        long metadataGeneration
+    ) {
+    }
+
+    private record RecognitionKey(@NotNull String text, @NotNull RecognitionScope scope) {
+    }
+
+    record RecognitionResult(@NotNull SQLQueryModel queryModel, @NotNull List<SQLQueryRecognitionProblemInfo> problems) {
+    }
+
+    /**
+     * Progress monitor of a single recognition task.
+     * Tasks run in parallel, so they can't share blocks and progress of the job monitor.
+     * Progress is reported by the job thread, cancellation is taken from the job monitor.
+     */
+    private static class RecognitionTaskMonitor extends ProxyProgressMonitor {
+        private final List<DBRBlockingObject> blocks = new ArrayList<>();
+
+        RecognitionTaskMonitor(@NotNull DBRProgressMonitor original) {
+            super(original);
+        }
+
+        @Override
+        public void beginTask(String name, int totalWork) {
+            // ignore
+        }
+
+        @Override
+        public void done() {
+            // ignore
+        }
+
+        @Override
+        public void subTask(String name) {
+            // ignore
+        }
+
+        @Override
+        public void worked(int work) {
+            // ignore
+        }
+
+        @Override
+        public synchronized void startBlock(DBRBlockingObject object, String taskName) {
+            blocks.add(object);
+        }
+
+        @Override
+        public synchronized void endBlock() {
+            if (!blocks.isEmpty()) {
+                blocks.remove(blocks.size() - 1);
+            }
+        }
+
+        @Override
+        public synchronized List<DBRBlockingObject> getActiveBlocks() {
+            return blocks.isEmpty() ? null : new ArrayList<>(blocks);
+        }
+    }
     
     private static class QueuedRegionInfo {
         public int length;
@@ -82,6 +171,22 @@ public class SQLBackgroundParsingJob {
     private final SQLDocumentSyntaxContext context = new SQLDocumentSyntaxContext();
     @Nullable
     private IDocument document = null;
+    // Query models are offset-independent, so the same text can be reused at any position of the script
+    @NotNull
+    private final Map<RecognitionKey, RecognitionResult> recognitionCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RecognitionKey, RecognitionResult> eldest) {
+            return size() > recognitionCacheSize;
+        }
+    };
+    // Parallel tasks share the editor execution context, so database metadata is read by one task at a time
+    @NotNull
+    private final Object metadataReadLock = new Object();
+    // Incremented on metadata changes, so models recognized with old metadata are not cached
+    private volatile long metadataGeneration = 0;
+    @NotNull
+    private final INavigatorListener metadataListener = this::handleMetadataChange;
+    private boolean metadataListenerRegistered = false;
     @NotNull
     private final AbstractJob job = new AbstractJob("Background parsing job") {
         @Override
@@ -131,6 +236,11 @@ public class SQLBackgroundParsingJob {
                 }
                 this.reset();
             }
+            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+            if (!this.metadataListenerRegistered && navigatorModel != null) {
+                navigatorModel.addListener(this.metadataListener);
+                this.metadataListenerRegistered = true;
+            }
         }
     }
 
@@ -140,6 +250,11 @@ public class SQLBackgroundParsingJob {
     public void dispose() {
         synchronized (this.syncRoot) {
             this.cancel();
+            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+            if (this.metadataListenerRegistered && navigatorModel != null) {
+                navigatorModel.removeListener(this.metadataListener);
+            }
+            this.metadataListenerRegistered = false;
             TextViewer textViewer = this.editor.getTextViewer();
             if (textViewer != null) {
                 textViewer.removeViewportListener(this.documentListener);
@@ -393,12 +508,45 @@ public class SQLBackgroundParsingJob {
         }
     }
     
+    /**
+     * Drops cached query models when database objects of the editor's data source are created, dropped or refreshed
+     */
+    private void handleMetadataChange(@NotNull DBNEvent event) {
+        DBPDataSource dataSource = this.editor.getDataSource();
+        if (dataSource == null ||
+            !(event.getNode() instanceof DBNDatabaseNode node) ||
+            node.getDataSourceContainer() != dataSource.getContainer()
+        ) {
+            return;
+        }
+        boolean metadataChanged = switch (event.getAction()) {
+            // Loading of navigator children doesn't change metadata
+            case ADD -> event.getNodeChange() != DBNEvent.NodeChange.LOAD;
+            case REMOVE -> true;
+            case UPDATE -> switch (event.getNodeChange()) {
+                case REFRESH, STRUCT_REFRESH, UNLOAD, AFTER_LOAD -> true;
+                default -> false;
+            };
+        };
+        if (metadataChanged) {
+            this.invalidateRecognitionCache();
+        }
+    }
+
+    private void invalidateRecognitionCache() {
+        synchronized (this.recognitionCache) {
+            this.metadataGeneration++;
+            this.recognitionCache.clear();
+        }
+    }
+
     private void reset() {
         synchronized (this.syncRoot) {
             this.context.clear();
             this.queuedForReparse.clear();
             this.knownRegionEnd = 0;
             this.knownRegionStart = 0;
+            this.invalidateRecognitionCache();
             this.ensureVisibleRangeIsParsed();
         }
     }
@@ -530,40 +678,51 @@ public class SQLBackgroundParsingJob {
             monitor.worked(1);
 
             SQLSyntaxManager syntaxManager = this.editor.getSyntaxManager();
-            SQLQueryRecognitionContext recognitionContext = new SQLQueryRecognitionContext(monitor, executionContext, useRealMetadata, syntaxManager);
+            RecognitionScope scope = makeRecognitionScope(executionContext, useRealMetadata, syntaxManager);
 
-            int i = 1;
+            // Elements in the visible range go first, so they are highlighted as soon as possible
+            List<SQLScriptElement> orderedElements = new ArrayList<>(elements.size());
             for (SQLScriptElement element : elements) {
-                if (monitor.isCanceled()) {
-                    break;
+                if (element.getOffset() <= visibleFragment.b && element.getOffset() + element.getLength() >= visibleFragment.a) {
+                    orderedElements.add(element);
                 }
-                try {
-                    recognitionContext.reset();
-                    SQLQueryModel queryModel = SQLQueryModelRecognizer.recognizeQuery(recognitionContext, element.getOriginalText());
+            }
+            int visibleCount = orderedElements.size();
+            for (SQLScriptElement element : elements) {
+                if (element.getOffset() > visibleFragment.b || element.getOffset() + element.getLength() < visibleFragment.a) {
+                    orderedElements.add(element);
+                }
+            }
 
-                    if (queryModel != null) {
-                        if (DEBUG) {
-                            log.debug("registering script item @" + element.getOffset() + "+" + element.getLength());
-                        }
-                        SQLDocumentScriptItemSyntaxContext itemContext = this.context.registerScriptItemContext(
-                            element.getOriginalText(),
-                            queryModel,
-                            element.getOffset(),
-                            element.getLength(),
-                            element instanceof SQLQuery queryElement && Boolean.TRUE.equals(queryElement.isEndsWithDelimiter())
-                        );
-                        itemContext.clear();
-                        itemContext.setProblems(recognitionContext.getProblems());
-                        for (SQLQuerySymbolEntry entry : queryModel.getAllSymbols()) {
-                            itemContext.registerToken(entry.getInterval().a, entry);
+            List<ForkJoinTask<RecognitionResult>> tasks = new ArrayList<>(orderedElements.size());
+            for (SQLScriptElement element : orderedElements) {
+                tasks.add(recognitionPool.submit(() -> this.recognizeElement(new RecognitionTaskMonitor(monitor), scope, syntaxManager, element)));
+            }
+            try {
+                for (int i = 0; i < orderedElements.size(); i++) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    SQLScriptElement element = orderedElements.get(i);
+                    try {
+                        RecognitionResult result = tasks.get(i).join();
+                        if (result != null && !monitor.isCanceled()) {
+                            this.registerScriptItem(element, result);
                         }
-                        itemContext.refreshCompleted();
+                    } catch (Throwable ex) {
+                        log.debug("Error while analyzing query text: " + element.getOriginalText(), ex);
+                    }
+                    monitor.worked(1);
+                    monitor.subTask("Background query analysis: subtask #" + (i + 1));
+                    if (i + 1 == visibleCount && visibleCount < orderedElements.size()) {
+                        UIUtils.asyncExec(() -> viewer.invalidateTextPresentation(visibleFragment.a, visibleFragment.length()));
                     }
-                } catch (Throwable ex) {
-                    log.debug("Error while analyzing query text: " + element.getOriginalText(), ex);
                 }
-                monitor.worked(1);
-                monitor.subTask("Background query analysis: subtask #" + (i++));
+            } finally {
+                // Stale work is dropped when the job is canceled on the next document change
+                for (ForkJoinTask<RecognitionResult> task : tasks) {
+                    task.cancel(false);
+                }
             }
             this.context.resetLastAccessCache();
         } catch (Throwable ex) {
@@ -589,6 +748,111 @@ public class SQLBackgroundParsingJob {
         });
     }
 
+    @NotNull
+    @ForTest
+    RecognitionScope makeRecognitionScope(
+        @Nullable DBCExecutionContext executionContext,
+        boolean useRealMetadata,
+        @NotNull SQLSyntaxManager syntaxManager
+    ) {
+        String defaultCatalogName = null;
+        String defaultSchemaName = null;
+        DBCExecutionContextDefaults<?, ?> contextDefaults = executionContext == null ? null : executionContext.getContextDefaults();
+        if (contextDefaults != null) {
+            if (contextDefaults.getDefaultCatalog() != null) {
+                defaultCatalogName = contextDefaults.getDefaultCatalog().getName();
+            }
+            if (contextDefaults.getDefaultSchema() != null) {
+                defaultSchemaName = contextDefaults.getDefaultSchema().getName();
+            }
+        }
+        // Same dialect as the query model recognizer uses
+        SQLDialect dialect = executionContext == null || executionContext.getDataSource() == null ?
+            BasicSQLDialect.INSTANCE : executionContext.getDataSource().getSQLDialect();
+        return new RecognitionScope(
+            dialect,
+            LSMAnalyzerParameters.forDialect(dialect, syntaxManager),
+            executionContext,
+            defaultCatalogName,
+            defaultSchemaName,
+            useRealMetadata,
+            this.metadataGeneration
+        );
+    }
+
+    @Nullable
+    @ForTest
+    RecognitionResult recognizeElement(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull RecognitionScope scope,
+        @NotNull SQLSyntaxManager syntaxManager,
+        @NotNull SQLScriptElement element
+    ) {
+        if (monitor.isCanceled()) {
+            return null;
+        }
+        RecognitionKey key = new RecognitionKey(element.getOriginalText(), scope);
+        RecognitionResult result;
+        synchronized (this.recognitionCache) {
+            result = this.recognitionCache.get(key);
+        }
+        if (result != null) {
+            return result;
+        }
+        SQLQueryRecognitionContext recognitionContext = new SQLQueryRecognitionContext(
+            monitor,
+            scope.executionContext(),
+            scope.useRealMetadata(),
+            syntaxManager
+        );
+        SQLQueryModel queryModel;
+        if (scope.useRealMetadata() && scope.executionContext() != null) {
+            synchronized (this.metadataReadLock) {
+                queryModel = SQLQueryModelRecognizer.recognizeQuery(recognitionContext, element.getOriginalText());
+            }
+        } else {
+            queryModel = SQLQueryModelRecognizer.recognizeQuery(recognitionContext, element.getOriginalText());
+        }
+        if (queryModel == null) {
+            return null;
+        }
+        result = new RecognitionResult(queryModel, recognitionContext.getProblems());
+        // Models with problems are not cached: missing objects may appear in the database later.
+        // Syntax settings may have been changed in the editor during the recognition.
+        if (result.problems().isEmpty() && !monitor.isCanceled() &&
+            scope.analyzerParameters().equals(LSMAnalyzerParameters.forDialect(scope.dialect(), syntaxManager))
+        ) {
+            synchronized (this.recognitionCache) {
+                // Metadata may have been changed during the recognition
+                if (scope.metadataGeneration() == this.metadataGeneration) {
+                    this.recognitionCache.put(key, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    @ForTest
+    void registerScriptItem(@NotNull SQLScriptElement element, @NotNull RecognitionResult result) {
+        if (DEBUG) {
+            log.debug("registering script item @" + element.getOffset() + "+" + element.getLength());
+        }
+        SQLQueryModel queryModel = result.queryModel();
+        SQLDocumentScriptItemSyntaxContext itemContext = this.context.registerScriptItemContext(
+            element.getOriginalText(),
+            queryModel,
+            element.getOffset(),
+            element.getLength(),
+            element instanceof SQLQuery queryElement && Boolean.TRUE.equals(queryElement.isEndsWithDelimiter())
+        );
+        itemContext.clear();
+        itemContext.setProblems(result.problems());
+        for (SQLQuerySymbolEntry entry : queryModel.getAllSymbols()) {
+            itemContext.registerToken(entry.getInterval().a, entry);
+        }
+        itemContext.refreshCompleted();
+    }
+
     private class DocumentLifecycleListener implements IDocumentListener, ITextInputListener, IViewportListener {
 
         @Override
@@ -57,6 +57,8 @@ public class SearchDataPage extends AbstractSearchPage {
     private static final String PROP_CASE_SENSITIVE = "search.data.case-sensitive"; //$NON-NLS-1$
     private static final String PROP_SAMPLE_ROWS = "search.data.sample-rows"; //$NON-NLS-1$
     private static final String PROP_FAST_SEARCH = "search.data.fast-search"; //$NON-NLS-1$
+    private static final String PROP_PARALLEL_QUERIES = "search.data.parallel-queries"; //$NON-NLS-1$
+    private static final String PROP_MAX_TABLES = "search.data.max-tables"; //$NON-NLS-1$
     private static final String PROP_SEARCH_NUMBERS = "search.data.search-numbers"; //$NON-NLS-1$
     private static final String PROP_SEARCH_LOBS = "search.data.search-lobs"; //$NON-NLS-1$
     private static final String PROP_SEARCH_FOREIGN = "search.data.search-foreign"; //$NON-NLS-1$
@@ -216,6 +218,28 @@ public class SearchDataPage extends AbstractSearchPage {
             maxResultsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             maxResultsSpinner.addModifyListener(e -> params.maxResults = maxResultsSpinner.getSelection());
 
+            if (params.maxParallelQueries <= 0) {
+                params.maxParallelQueries = SearchDataQuery.DEFAULT_PARALLEL_QUERIES;
+            }
+
+            final Spinner parallelQueriesSpinner = UIUtils.createLabelSpinner(
+                optionsGroup2,
+                UISearchMessages.dialog_data_search_spinner_parallel_queries,
+                UISearchMessages.dialog_data_search_spinner_parallel_queries_tip, params.maxParallelQueries,
+                1,
+                32);
+            parallelQueriesSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            parallelQueriesSpinner.addModifyListener(e -> params.maxParallelQueries = parallelQueriesSpinner.getSelection());
+
+            final Spinner maxTablesSpinner = UIUtils.createLabelSpinner(
+                optionsGroup2,
+                UISearchMessages.dialog_data_search_spinner_max_tables,
+                UISearchMessages.dialog_data_search_spinner_max_tables_tip, params.maxFoundTables,
+                0,
+                Integer.MAX_VALUE);
+            maxTablesSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            maxTablesSpinner.addModifyListener(e -> params.maxFoundTables = maxTablesSpinner.getSelection());
+
             final Button caseCheckbox = UIUtils.createCheckbox(
                 optionsGroup2,
                 UISearchMessages.dialog_search_objects_case_sensitive,
@@ -321,6 +345,8 @@ public class SearchDataPage extends AbstractSearchPage {
         params.searchLOBs = store.getBoolean(PROP_SEARCH_LOBS);
         params.searchForeignObjects = store.getBoolean(PROP_SEARCH_FOREIGN);
         params.maxResults = store.getInt(PROP_SAMPLE_ROWS);
+        params.maxParallelQueries = store.getInt(PROP_PARALLEL_QUERIES);
+        params.maxFoundTables = store.getInt(PROP_MAX_TABLES);
         for (int i = 0; ; i++) {
             String history = store.getString(PROP_HISTORY + "." + i); //$NON-NLS-1$
             if (CommonUtils.isEmpty(history)) {
@@ -345,6 +371,8 @@ public class SearchDataPage extends AbstractSearchPage {
         store.setValue(PROP_MASK, params.searchString);
         store.setValue(PROP_CASE_SENSITIVE, params.caseSensitive);
         store.setValue(PROP_SAMPLE_ROWS, params.maxResults);
+        store.setValue(PROP_PARALLEL_QUERIES, params.maxParallelQueries);
+        store.setValue(PROP_MAX_TABLES, params.maxFoundTables);
         store.setValue(PROP_FAST_SEARCH, params.fastSearch);
         store.setValue(PROP_SEARCH_NUMBERS, params.searchNumbers);
         store.setValue(PROP_SEARCH_LOBS, params.searchLOBs);
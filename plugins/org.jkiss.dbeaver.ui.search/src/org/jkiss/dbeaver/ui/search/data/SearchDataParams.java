@@ -35,6 +35,8 @@ public class SearchDataParams {
     boolean searchLOBs;
     boolean searchForeignObjects;
     int maxResults;
+    int maxParallelQueries; // Per data source
+    int maxFoundTables; // 0 means no limit
     List<DBNNode> selectedNodes = new ArrayList<>();
 
     public SearchDataParams()
@@ -105,6 +107,22 @@ public class SearchDataParams {
         this.maxResults = maxResults;
     }
 
+    public int getMaxParallelQueries() {
+        return maxParallelQueries;
+    }
+
+    public void setMaxParallelQueries(int maxParallelQueries) {
+        this.maxParallelQueries = maxParallelQueries;
+    }
+
+    public int getMaxFoundTables() {
+        return maxFoundTables;
+    }
+
+    public void setMaxFoundTables(int maxFoundTables) {
+        this.maxFoundTables = maxFoundTables;
+    }
+
     public List<DBNNode> getSelectedNodes() {
         return selectedNodes;
     }
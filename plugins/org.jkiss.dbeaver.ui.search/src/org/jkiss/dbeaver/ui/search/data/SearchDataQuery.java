@@ -20,6 +20,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.ui.IEditorPart;
@@ -36,12 +37,15 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
@@ -55,13 +59,19 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    static final int DEFAULT_PARALLEL_QUERIES = 4;
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
+    private final AtomicInteger foundObjects = new AtomicInteger();
+    private volatile boolean searchStopped;
 
     private SearchDataQuery(SearchDataParams params)
     {
@@ -97,37 +107,56 @@ public class SearchDataQuery implements ISearchQuery {
         try {
             String searchString = params.getSearchString();
 
-            //monitor.subTask("Collect tables");
-            Set<DBPDataSource> dataSources = new HashSet<>();
-            for (DBSDataContainer searcher : params.sources) {
-                dataSources.add(searcher.getDataSource());
+            // Group tables by data source. Each data source is searched with its own concurrency limit
+            Map<DBPDataSource, List<DBSDataContainer>> dataSourceContainers = new LinkedHashMap<>();
+            int searchedCount = 0;
+            for (DBSDataContainer dataContainer : params.sources) {
+                if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
+                    continue;
+                }
+                dataSourceContainers.computeIfAbsent(dataContainer.getDataSource(), ds -> new ArrayList<>()).add(dataContainer);
+                searchedCount++;
             }
 
             // Search
             DBNModel dbnModel = DBWorkbench.getPlatform().getNavigatorModel();
 
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
-
-            int totalObjects = 0;
+            foundObjects.set(0);
+            searchStopped = false;
 
             monitor.beginTask(
-                "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
-                params.sources.size());
+                "Search \"" + searchString + "\" in " + searchedCount + " table(s) / " + dataSourceContainers.size() + " database(s)",
+                searchedCount);
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
+                int parallelQueries = params.maxParallelQueries > 0 ? params.maxParallelQueries : DEFAULT_PARALLEL_QUERIES;
+                List<SearchJob> jobs = new ArrayList<>();
+                for (List<DBSDataContainer> containers : dataSourceContainers.values()) {
+                    Queue<DBSDataContainer> queue = new ConcurrentLinkedQueue<>(orderBySize(monitor, containers));
+                    int jobCount = Math.min(parallelQueries, containers.size());
+                    for (int i = 0; i < jobCount; i++) {
+                        // The first job uses the utility context, others open their own connections
+                        jobs.add(new SearchJob(monitor, dbnModel, queue, i > 0));
+                    }
+                }
+                if (!jobs.isEmpty()) {
+                    JobGroup group = new JobGroup("Search \"" + searchString + "\"", jobs.size(), jobs.size());
+                    for (SearchJob job : jobs) {
+                        job.setJobGroup(group);
+                        job.schedule();
                     }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
+                    try {
+                        group.join(0, m);
+                    } catch (InterruptedException | OperationCanceledException e) {
+                        searchStopped = true;
+                        group.cancel();
                     }
-                    monitor.worked(1);
                 }
             } finally {
                 monitor.done();
             }
 
-            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
+            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, getFoundObjectCount()));
 
             return Status.OK_STATUS;
         } catch (Exception e) {
@@ -135,21 +164,62 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
-        if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
-            return false;
+    private int getFoundObjectCount() {
+        int count = foundObjects.get();
+        return params.maxFoundTables > 0 ? Math.min(count, params.maxFoundTables) : count;
+    }
+
+    /**
+     * Orders tables by size, so small tables are searched first and results appear faster.
+     * Tables without statistics go last.
+     */
+    @NotNull
+    private static List<DBSDataContainer> orderBySize(@NotNull DBRProgressMonitor monitor, @NotNull List<DBSDataContainer> containers) {
+        Set<DBSObject> parents = new HashSet<>();
+        for (DBSDataContainer dataContainer : containers) {
+            DBSObject parent = dataContainer.getParentObject();
+            if (parent instanceof DBPObjectStatisticsCollector collector && !collector.isStatisticsCollected() && parents.add(parent)) {
+                try {
+                    collector.collectObjectStatistics(monitor, false, false);
+                } catch (DBException e) {
+                    log.debug("Error reading statistics of '" + parent.getName() + "'", e);
+                }
+            }
         }
+        List<DBSDataContainer> result = new ArrayList<>(containers);
+        result.sort(Comparator.comparingLong(SearchDataQuery::getContainerSize));
+        return result;
+    }
+
+    private static long getContainerSize(@NotNull DBSDataContainer dataContainer) {
+        if (dataContainer instanceof DBPObjectStatistics statistics && statistics.hasStatistics()) {
+            return statistics.getStatObjectSize();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private boolean isSearchStopped(@NotNull DBRProgressMonitor monitor) {
+        return searchStopped || monitor.isCanceled();
+    }
 
+    private boolean searchDataInContainer(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable Map<DBSInstance, DBCExecutionContext> isolatedContexts
+    ) {
         String objectName = DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML);
         DBNDatabaseNode node = dbnModel.getNodeByObject(monitor, dataContainer, false);
         if (node == null) {
             log.warn("Can't find tree node for object \"" + objectName + "\"");
             return false;
         }
-        monitor.subTask("Search in '" + objectName + "'");
+        synchronized (monitor) {
+            monitor.subTask("Search in '" + objectName + "'");
+        }
         log.debug("Search in '" + objectName + "'");
         SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
+        try (DBCSession session = openSearchSession(searchMonitor, dataContainer, objectName, isolatedContexts)) {
             TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
             try {
                 findRows(session, dataContainer, dataReceiver);
@@ -160,8 +230,20 @@ public class SearchDataQuery implements ISearchQuery {
             }
 
             if (dataReceiver.rowCount > 0) {
+                int foundCount = foundObjects.incrementAndGet();
+                if (params.maxFoundTables > 0) {
+                    if (foundCount > params.maxFoundTables) {
+                        return false;
+                    }
+                    if (foundCount == params.maxFoundTables) {
+                        // Enough results, stop all searches
+                        searchStopped = true;
+                    }
+                }
                 SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
-                searchResult.addObjects(Collections.singletonList(object));
+                synchronized (searchResult) {
+                    searchResult.addObjects(Collections.singletonList(object));
+                }
                 return true;
             }
         } catch (DBCException e) {
@@ -170,6 +252,32 @@ public class SearchDataQuery implements ISearchQuery {
         return false;
     }
 
+    @NotNull
+    private DBCSession openSearchSession(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull String objectName,
+        @Nullable Map<DBSInstance, DBCExecutionContext> isolatedContexts
+    ) {
+        String title = "Search rows in " + objectName;
+        if (isolatedContexts != null) {
+            DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+            DBCExecutionContext context = isolatedContexts.get(instance);
+            if (context == null) {
+                try {
+                    context = instance.openIsolatedContext(monitor, "Data search", null);
+                    isolatedContexts.put(instance, context);
+                } catch (DBException e) {
+                    log.debug("Can't open isolated context for data search, use utility context", e);
+                }
+            }
+            if (context != null) {
+                return context.openSession(monitor, DBCExecutionPurpose.UTIL, title);
+            }
+        }
+        return DBUtils.openUtilSession(monitor, dataContainer, title);
+    }
+
     private DBCStatistics findRows(
         @NotNull DBCSession session,
         @NotNull DBSDataContainer dataContainer,
@@ -342,7 +450,55 @@ public class SearchDataQuery implements ISearchQuery {
 
         @Override
         public boolean isCanceled() {
-            return canceled || baseMonitor.isCanceled();
+            return canceled || isSearchStopped(baseMonitor);
+        }
+    }
+
+    /**
+     * Searches tables of one data source. Several jobs may share the same table queue.
+     */
+    private class SearchJob extends AbstractJob {
+
+        private final DBRProgressMonitor searchMonitor;
+        private final DBNModel dbnModel;
+        private final Queue<DBSDataContainer> containers;
+        private final Map<DBSInstance, DBCExecutionContext> isolatedContexts;
+
+        SearchJob(
+            @NotNull DBRProgressMonitor searchMonitor,
+            @NotNull DBNModel dbnModel,
+            @NotNull Queue<DBSDataContainer> containers,
+            boolean useIsolatedContexts
+        ) {
+            super("Search \"" + params.searchString + "\"");
+            this.searchMonitor = searchMonitor;
+            this.dbnModel = dbnModel;
+            this.containers = containers;
+            this.isolatedContexts = useIsolatedContexts ? new HashMap<>() : null;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                for (DBSDataContainer dataContainer = containers.poll();
+                     dataContainer != null && !isSearchStopped(searchMonitor) && !monitor.isCanceled();
+                     dataContainer = containers.poll())
+                {
+                    searchDataInContainer(searchMonitor, dbnModel, dataContainer, isolatedContexts);
+                    synchronized (searchMonitor) {
+                        searchMonitor.worked(1);
+                    }
+                }
+            } finally {
+                if (isolatedContexts != null) {
+                    for (DBCExecutionContext context : isolatedContexts.values()) {
+                        context.close();
+                    }
+                }
+            }
+            return Status.OK_STATUS;
         }
     }
 
@@ -48,6 +48,10 @@ public class UISearchMessages extends NLS {
     public static String dialog_data_search_control_group_settings;
     public static String dialog_data_search_spinner_max_results;
     public static String dialog_data_search_spinner_max_results_tip;
+    public static String dialog_data_search_spinner_parallel_queries;
+    public static String dialog_data_search_spinner_parallel_queries_tip;
+    public static String dialog_data_search_spinner_max_tables;
+    public static String dialog_data_search_spinner_max_tables_tip;
     public static String dialog_data_search_checkbox_case_sensitive_tip;
     public static String dialog_data_search_checkbox_fast_search;
     public static String dialog_data_search_checkbox_fast_search_tip;
@@ -34,13 +34,18 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectReference;
 import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+import org.jkiss.dbeaver.model.struct.cache.ObjectNameIndex;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.search.AbstractSearchResult;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.CommonUtils;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class SearchMetadataQuery implements ISearchQuery {
     private static final Log log = Log.getLog(SearchMetadataQuery.class);
@@ -89,28 +94,22 @@ public class SearchMetadataQuery implements ISearchQuery {
                 objectNameMask = objectNameMask + "%"; //$NON-NLS-1$
                 params.setMask(objectNameMask);
             }
-            int totalObjects = 0;
-            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
             DBRProgressMonitor localMonitor = RuntimeUtils.makeMonitor(monitor);
+            Set<DBNNode> foundNodes = new HashSet<>();
 
-            Collection<DBSObjectReference> objects = structureAssistant.findObjectsByMask(localMonitor, executionContext, params);
-            for (DBSObjectReference reference : objects) {
-                if (monitor.isCanceled()) {
-                    break;
-                }
-                try {
-                    DBSObject object = reference.resolveObject(localMonitor);
-                    if (object != null) {
-                        DBNNode node = navigatorModel.getNodeByObject(localMonitor, object, false);
-                        if (node != null) {
-                            searchResult.addObjects(Collections.singletonList(node));
-                            totalObjects++;
-                        }
-                    }
-                } catch (DBException e) {
-                    log.error(e);
-                }
+            // Show objects known to the name index first, then complete results with the database search.
+            // Database is not searched if the index has all objects of the search parent
+            DBPDataSource dataSource = executionContext.getDataSource();
+            List<DBSObjectReference> indexedObjects = ObjectNameIndex.findObjects(dataSource, params);
+            if (indexedObjects != null) {
+                addObjects(monitor, localMonitor, indexedObjects, foundNodes);
             }
+            if (!monitor.isCanceled() &&
+                (CommonUtils.isEmpty(indexedObjects) || !ObjectNameIndex.isFullyIndexed(dataSource, params))) {
+                Collection<DBSObjectReference> objects = structureAssistant.findObjectsByMask(localMonitor, executionContext, params);
+                addObjects(monitor, localMonitor, objects, foundNodes);
+            }
+            int totalObjects = foundNodes.size();
             searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
 
             return Status.OK_STATUS;
@@ -119,4 +118,29 @@ public class SearchMetadataQuery implements ISearchQuery {
             return GeneralUtils.makeExceptionStatus(e);
         }
     }
+
+    private void addObjects(
+        @NotNull IProgressMonitor monitor,
+        @NotNull DBRProgressMonitor localMonitor,
+        @NotNull Collection<DBSObjectReference> references,
+        @NotNull Set<DBNNode> foundNodes
+    ) {
+        DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+        for (DBSObjectReference reference : references) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            try {
+                DBSObject object = reference.resolveObject(localMonitor);
+                if (object != null) {
+                    DBNNode node = navigatorModel.getNodeByObject(localMonitor, object, false);
+                    if (node != null && foundNodes.add(node)) {
+                        searchResult.addObjects(Collections.singletonList(node));
+                    }
+                }
+            } catch (DBException e) {
+                log.error(e);
+            }
+        }
+    }
 }
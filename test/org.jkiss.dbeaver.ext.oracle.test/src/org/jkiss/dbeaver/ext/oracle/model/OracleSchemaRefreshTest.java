@@ -0,0 +1,344 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCRemoteInstance;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental schema refresh together with the persistent metadata snapshot.
+ * Database is emulated by answering metadata queries from the in-memory tables list.
+ */
+public class OracleSchemaRefreshTest {
+
+    private static final String SCHEMA_NAME = "TEST_SCHEMA";
+
+    private final Map<String, TestTable> tables = new LinkedHashMap<>();
+    private final CountDownLatch validationGate = new CountDownLatch(1);
+    private Timestamp serverTime = Timestamp.valueOf("2024-03-01 10:00:00");
+
+    private DBPDataSourceContainer container;
+    private DBRProgressMonitor monitor;
+
+    @Before
+    public void setUp() {
+        DBPConnectionConfiguration configuration = new DBPConnectionConfiguration();
+        configuration.setProviderProperty(OracleConstants.PROP_METADATA_INCREMENTAL_REFRESH, String.valueOf(true));
+        DBPPreferenceStore preferenceStore = Mockito.mock(DBPPreferenceStore.class);
+        Mockito.when(preferenceStore.getBoolean(ModelPreferences.META_PERSISTENT_SNAPSHOT)).thenReturn(true);
+
+        container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getId()).thenReturn("oracle-refresh-test-" + UUID.randomUUID());
+        Mockito.when(container.getName()).thenReturn("Oracle refresh test");
+        Mockito.when(container.getDriver()).thenReturn(DBWorkbench.getPlatform().getDataSourceProviderRegistry().findDriver("oracle"));
+        Mockito.when(container.getConnectionConfiguration()).thenReturn(configuration);
+        Mockito.when(container.getPreferenceStore()).thenReturn(preferenceStore);
+        // No metadata folder, so the snapshot is neither read nor saved
+        Mockito.when(container.getProject()).thenReturn(Mockito.mock(DBPProject.class));
+        Mockito.when(container.isConnected()).thenReturn(true);
+
+        monitor = Mockito.mock(DBRProgressMonitor.class);
+    }
+
+    @After
+    public void tearDown() {
+        // Let background snapshot validation finish
+        validationGate.countDown();
+    }
+
+    @Test
+    public void refreshAfterSnapshotLoad() throws Exception {
+        addTable("T1", "USERS");
+        // First connection reads tables from the database and records them to the snapshot
+        OracleSchema firstSchema = connect();
+        Assert.assertEquals(List.of("T1"), getTableNames(firstSchema));
+
+        // Changes made while disconnected
+        advanceTime();
+        tables.get("T1").alter("DATA", serverTime);
+        addTable("T2", "USERS");
+        advanceTime();
+
+        // Second connection reads outdated tables from the snapshot
+        OracleSchema schema = connect();
+        Assert.assertEquals(List.of("T1"), getTableNames(schema));
+        Assert.assertEquals("USERS", getTable(schema, "T1").getTablespace());
+
+        schema.refreshObject(monitor);
+        Assert.assertEquals(List.of("T1", "T2"), getTableNames(schema));
+        Assert.assertEquals("DATA", getTable(schema, "T1").getTablespace());
+
+        // Tables were read from the database, so now the refresh is incremental
+        OracleTableBase unchangedTable = getTable(schema, "T2");
+        advanceTime();
+        tables.get("T1").alter("USERS", serverTime);
+        advanceTime();
+        schema.refreshObject(monitor);
+        Assert.assertTrue(schema.tableCache.isFullyCached());
+        Assert.assertSame(unchangedTable, getTable(schema, "T2"));
+        Assert.assertEquals("USERS", getTable(schema, "T1").getTablespace());
+    }
+
+    private OracleSchema connect() {
+        JDBCSession session = Mockito.mock(JDBCSession.class);
+        OracleDataSource dataSource = Mockito.spy(new OracleDataSource(container));
+        JDBCExecutionContext context = Mockito.mock(JDBCExecutionContext.class);
+        JDBCRemoteInstance instance = Mockito.mock(JDBCRemoteInstance.class);
+        Mockito.doReturn(instance).when(dataSource).getDefaultInstance();
+        Mockito.when(instance.getDefaultContext(Mockito.any(), Mockito.anyBoolean())).thenReturn(context);
+        Mockito.when(context.openSession(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(session);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getExecutionContext()).thenReturn(context);
+        Mockito.when(session.getProgressMonitor()).thenReturn(monitor);
+        try {
+            Mockito.when(session.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> createStatement(session, invocation.getArgument(0)));
+            Mockito.when(session.createStatement()).thenAnswer(invocation -> createStatement(session, null));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return new OracleSchema(dataSource, 1, SCHEMA_NAME);
+    }
+
+    private void addTable(String name, String tablespace) {
+        tables.put(name, new TestTable(name, tablespace, serverTime));
+    }
+
+    private void advanceTime() {
+        serverTime = new Timestamp(serverTime.getTime() + 1000);
+    }
+
+    private List<String> getTableNames(OracleSchema schema) throws Exception {
+        List<String> names = new ArrayList<>();
+        for (OracleTableBase table : schema.tableCache.getAllObjects(monitor, schema)) {
+            names.add(table.getName());
+        }
+        return names;
+    }
+
+    private OracleTable getTable(OracleSchema schema, String name) throws Exception {
+        OracleTableBase table = schema.tableCache.getObject(monitor, schema, name);
+        Assert.assertTrue(table instanceof OracleTable);
+        return (OracleTable) table;
+    }
+
+    /**
+     * Answers metadata queries of the incremental refresh
+     */
+    private JDBCResultSet executeQuery(JDBCSession session, String sql, Map<Integer, Object> params) throws SQLException {
+        if (sql.contains("SYSDATE")) {
+            return createResultSet(session, List.of("SYSDATE"), List.of(Collections.singletonList(serverTime)));
+        }
+        if (sql.contains("MAX(LAST_DDL_TIME)")) {
+            // Snapshot validation waits till the end of the test
+            try {
+                validationGate.await(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new SQLException("Test connection is closed");
+        }
+        List<List<Object>> rows = new ArrayList<>();
+        if (sql.contains("GROUP BY OBJECT_TYPE")) {
+            if (!tables.isEmpty()) {
+                rows.add(List.of("TABLE", tables.size()));
+            }
+            return createResultSet(session, List.of("OBJECT_TYPE", "COUNT(*)"), rows);
+        }
+        if (sql.contains("LAST_DDL_TIME>=?")) {
+            Timestamp watermark = (Timestamp) params.get(2);
+            for (TestTable table : tables.values()) {
+                if (!table.lastDDLTime.before(watermark)) {
+                    rows.add(Arrays.asList(table.name, "TABLE", table.created, table.name));
+                }
+            }
+            return createResultSet(session, List.of("OBJECT_NAME", "OBJECT_TYPE", "CREATED", "TABLE_NAME"), rows);
+        }
+        if (sql.contains("'TABLE','VIEW','MATERIALIZED VIEW'")) {
+            for (TestTable table : tables.values()) {
+                rows.add(List.of(table.name));
+            }
+            return createResultSet(session, List.of("OBJECT_NAME"), rows);
+        }
+        if (sql.contains("'TABLE', 'VIEW', 'MATERIALIZED VIEW'")) {
+            Object tableName = params.get(2);
+            for (TestTable table : tables.values()) {
+                if (tableName == null || tableName.equals(table.name)) {
+                    rows.add(Arrays.asList(SCHEMA_NAME, table.name, "TABLE", "VALID", table.created, table.lastDDLTime, table.tablespace));
+                }
+            }
+            return createResultSet(
+                session,
+                List.of("OWNER", "OBJECT_NAME", "OBJECT_TYPE", "STATUS", "CREATED", "LAST_DDL_TIME", "TABLESPACE_NAME"),
+                rows);
+        }
+        throw new SQLException("Unexpected query: " + sql);
+    }
+
+    private JDBCPreparedStatement createStatement(JDBCSession session, String sql) {
+        Map<Integer, Object> params = new HashMap<>();
+        JDBCResultSet[] resultSet = new JDBCResultSet[1];
+        return (JDBCPreparedStatement) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{JDBCPreparedStatement.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setString":
+                    case "setObject":
+                    case "setTimestamp":
+                        params.put((Integer) args[0], args[1]);
+                        return null;
+                    case "executeQuery":
+                        return executeQuery(session, args == null ? sql : (String) args[0], params);
+                    case "executeStatement":
+                        resultSet[0] = executeQuery(session, sql, params);
+                        return true;
+                    case "getResultSet":
+                        return resultSet[0];
+                    case "execute":
+                        // View existence check
+                        return false;
+                    case "getSession":
+                        return session;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return sql;
+                }
+                return defaultValue(method.getReturnType());
+            });
+    }
+
+    private JDBCResultSet createResultSet(JDBCSession session, List<String> columns, List<List<Object>> rows) {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        try {
+            Mockito.when(metaData.getColumnCount()).thenReturn(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                Mockito.when(metaData.getColumnLabel(i + 1)).thenReturn(columns.get(i));
+                Mockito.when(metaData.getColumnName(i + 1)).thenReturn(columns.get(i));
+                Mockito.when(metaData.getColumnType(i + 1)).thenReturn(Types.VARCHAR);
+                Mockito.when(metaData.getColumnTypeName(i + 1)).thenReturn("VARCHAR2");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        int[] rowIndex = {-1};
+        boolean[] wasNull = {false};
+        return (JDBCResultSet) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{JDBCResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        return ++rowIndex[0] < rows.size();
+                    case "getMetaData":
+                        return metaData;
+                    case "wasNull":
+                        return wasNull[0];
+                    case "getOriginal":
+                        return proxy;
+                    case "getSession":
+                        return session;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "Test result " + columns;
+                }
+                if (!method.getName().startsWith("get") || args == null || args.length != 1) {
+                    return defaultValue(method.getReturnType());
+                }
+                int column = args[0] instanceof Integer index ? index - 1 : columns.indexOf(args[0]);
+                Object value = column < 0 ? null : rows.get(rowIndex[0]).get(column);
+                wasNull[0] = value == null;
+                if (value == null) {
+                    return defaultValue(method.getReturnType());
+                }
+                if (method.getReturnType() == String.class) {
+                    return value.toString();
+                }
+                return value;
+            });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == Void.TYPE) {
+            return null;
+        } else if (type == Boolean.TYPE) {
+            return false;
+        } else if (type == Integer.TYPE) {
+            return 0;
+        } else if (type == Long.TYPE) {
+            return 0L;
+        } else if (type == Short.TYPE) {
+            return (short) 0;
+        } else if (type == Byte.TYPE) {
+            return (byte) 0;
+        } else if (type == Float.TYPE) {
+            return 0f;
+        } else if (type == Double.TYPE) {
+            return 0d;
+        }
+        return '\0';
+    }
+
+    private static class TestTable {
+        private final String name;
+        private final Timestamp created;
+        private String tablespace;
+        private Timestamp lastDDLTime;
+
+        TestTable(String name, String tablespace, Timestamp created) {
+            this.name = name;
+            this.tablespace = tablespace;
+            this.created = created;
+            this.lastDDLTime = created;
+        }
+
+        void alter(String tablespace, Timestamp time) {
+            this.tablespace = tablespace;
+            this.lastDDLTime = time;
+        }
+    }
+
+}
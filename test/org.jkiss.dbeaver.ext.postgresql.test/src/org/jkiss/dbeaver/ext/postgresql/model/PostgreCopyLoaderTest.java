@@ -0,0 +1,163 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PostgreCopyLoaderTest {
+
+    private static final int BINARY_HEADER_LENGTH = 19;
+
+    @Mock
+    private PostgreDataSource dataSource;
+    @Mock
+    private DBDValueHandler valueHandler;
+    @Mock
+    private DBCSession session;
+
+    @Test
+    public void csvValuesAreQuotedAndEscaped() throws Exception {
+        byte[] data = encode(false, new int[]{PostgreOid.TEXT, PostgreOid.INT4, PostgreOid.TEXT, PostgreOid.TEXT},
+            new Object[]{"a\"b\\c", 42, null, "\u00fc\u20ac\ud83d\ude00"},
+            new Object[]{"", new BigDecimal("-1.50"), "x,y\nz", null});
+        Assert.assertEquals(
+            "\"a\\\"b\\\\c\",42,,\"\u00fc\u20ac\ud83d\ude00\"\n" +
+            "\"\",-1.50,\"x,y\nz\",\n",
+            new String(data, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void binaryHeaderAndNulls() throws Exception {
+        byte[] data = encode(true, new int[]{PostgreOid.INT4, PostgreOid.TEXT}, new Object[]{null, "\u00fc"});
+        Assert.assertArrayEquals(
+            new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0, 0, 0, 0, 0, 0, 0, 0, 0},
+            Arrays.copyOf(data, BINARY_HEADER_LENGTH));
+        DataInputStream row = readRow(data, 2);
+        Assert.assertEquals(-1, row.readInt());
+        // Text length is in bytes
+        Assert.assertEquals(2, row.readInt());
+        Assert.assertEquals(0xC3, row.readUnsignedByte());
+        Assert.assertEquals(0xBC, row.readUnsignedByte());
+        Assert.assertEquals(0, row.available());
+    }
+
+    @Test
+    public void binaryNumeric() throws Exception {
+        assertNumeric(new BigDecimal("12345.678"), 1, 0, 3, 1, 2345, 6780);
+        assertNumeric(new BigDecimal("-0.0001"), -1, 0x4000, 4, 1);
+        assertNumeric(new BigDecimal("0.5"), -1, 0, 1, 5000);
+        assertNumeric(new BigDecimal("1E+5"), 1, 0, 0, 10);
+        assertNumeric(new BigDecimal("100000000"), 2, 0, 0, 1);
+        assertNumeric(new BigDecimal("0.00"), 0, 0, 2);
+        assertNumeric(123456789012L, 2, 0, 0, 1234, 5678, 9012);
+        assertNumeric(" 42.10 ", 0, 0, 2, 42, 1000);
+        assertNumeric(Double.NaN, 0, 0xC000, 0);
+        assertNumeric(Double.POSITIVE_INFINITY, 0, 0xD000, 0);
+        assertNumeric("-Infinity", 0, 0xF000, 0);
+    }
+
+    @Test
+    public void binaryDates() throws Exception {
+        Assert.assertEquals(0, readInt(PostgreOid.DATE, LocalDate.of(2000, 1, 1)));
+        Assert.assertEquals(-1, readInt(PostgreOid.DATE, LocalDate.of(1999, 12, 31)));
+        Assert.assertEquals(8826, readInt(PostgreOid.DATE, LocalDate.of(2024, 3, 1)));
+        Assert.assertEquals(-10957, readInt(PostgreOid.DATE, java.sql.Date.valueOf("1970-01-01")));
+    }
+
+    @Test
+    public void binaryTimestamps() throws Exception {
+        Assert.assertEquals(1, readLong(PostgreOid.TIMESTAMP, LocalDateTime.of(2000, 1, 1, 0, 0, 0, 1000)));
+        Assert.assertEquals(-86_400_000_000L, readLong(PostgreOid.TIMESTAMP, LocalDateTime.of(1999, 12, 31, 0, 0)));
+        Assert.assertEquals(
+            762_521_696_123_456L,
+            readLong(PostgreOid.TIMESTAMP, java.sql.Timestamp.valueOf("2024-02-29 11:34:56.123456789")));
+        Assert.assertEquals(
+            0, readLong(PostgreOid.TIMESTAMPTZ, OffsetDateTime.of(2000, 1, 1, 1, 0, 0, 0, ZoneOffset.ofHours(1))));
+        Assert.assertEquals(
+            -946_684_800_000_000L, readLong(PostgreOid.TIMESTAMPTZ, Instant.EPOCH));
+    }
+
+    private void assertNumeric(Object value, int weight, int sign, int dscale, int... digits) throws Exception {
+        DataInputStream row = readRow(encode(true, new int[]{PostgreOid.NUMERIC}, new Object[]{value}), 1);
+        Assert.assertEquals(8 + digits.length * 2, row.readInt());
+        Assert.assertEquals(digits.length, row.readShort());
+        Assert.assertEquals(weight, row.readShort());
+        Assert.assertEquals(sign, row.readUnsignedShort());
+        Assert.assertEquals(dscale, row.readShort());
+        for (int digit : digits) {
+            Assert.assertEquals(digit, row.readShort());
+        }
+        Assert.assertEquals(0, row.available());
+    }
+
+    private int readInt(int typeOid, Object value) throws Exception {
+        DataInputStream row = readRow(encode(true, new int[]{typeOid}, new Object[]{value}), 1);
+        Assert.assertEquals(4, row.readInt());
+        return row.readInt();
+    }
+
+    private long readLong(int typeOid, Object value) throws Exception {
+        DataInputStream row = readRow(encode(true, new int[]{typeOid}, new Object[]{value}), 1);
+        Assert.assertEquals(8, row.readInt());
+        return row.readLong();
+    }
+
+    private DataInputStream readRow(byte[] data, int fieldCount) throws IOException {
+        DataInputStream row = new DataInputStream(
+            new ByteArrayInputStream(data, BINARY_HEADER_LENGTH, data.length - BINARY_HEADER_LENGTH));
+        Assert.assertEquals(fieldCount, row.readShort());
+        return row;
+    }
+
+    private byte[] encode(boolean binary, int[] typeOids, Object[]... rows) throws Exception {
+        PostgreTableColumn[] columns = new PostgreTableColumn[typeOids.length];
+        for (int i = 0; i < typeOids.length; i++) {
+            PostgreDataType dataType = Mockito.mock(PostgreDataType.class);
+            Mockito.when(dataType.getObjectId()).thenReturn((long) typeOids[i]);
+            columns[i] = Mockito.mock(PostgreTableColumn.class);
+            Mockito.when(columns[i].getDataType()).thenReturn(dataType);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PostgreCopyLoader loader = new PostgreCopyLoader(dataSource, columns, valueHandler, binary, output);
+        for (Object[] row : rows) {
+            loader.addRow(session, row);
+        }
+        loader.flushRows(session);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.Set;
+
+/**
+ * Compares two-stage (SLL, then LL) analyzer parsing with plain LL parsing over the statements corpus.
+ */
+public class TwoStageParseTest {
+
+    private static final String STATEMENTS_RESOURCE_NAME = "SelectStatements.sql.txt";
+
+    private static final LSMAnalyzerParameters PARAMETERS = new LSMAnalyzerParameters(
+        Map.of("\"", "\""),
+        true,
+        true,
+        '?',
+        List.of(Map.entry(1, Set.of(":"))),
+        true
+    );
+
+    private static List<String> statements;
+
+    @BeforeClass
+    public static void loadStatements() {
+        statements = readStatements(TwoStageParseTest.class.getResourceAsStream(STATEMENTS_RESOURCE_NAME));
+        Assert.assertFalse(statements.isEmpty());
+    }
+
+    @Test
+    public void testTwoStageParseMatchesLL() {
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer(PARAMETERS);
+        for (String text : statements) {
+            STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString(text), new STMSkippingErrorListener());
+            Assert.assertNotNull(tree);
+
+            SQLStandardParser parser = createParser(text);
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            STMTreeRuleNode expected = parser.sqlQuery();
+            Assert.assertEquals(text, expected.toStringTree(parser), tree.toStringTree(parser));
+        }
+    }
+
+    private static SQLStandardParser createParser(String text) {
+        SQLStandardLexer lexer = new SQLStandardLexer(CharStreams.fromString(text), PARAMETERS);
+        lexer.removeErrorListeners();
+        return new SQLStandardParser(new CommonTokenStream(lexer), PARAMETERS);
+    }
+
+    private static List<String> readStatements(InputStream stream) {
+        List<String> result = new ArrayList<>();
+        try (Scanner scanner = new Scanner(stream)) {
+            StringBuilder sb = new StringBuilder();
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty()) {
+                    if (!(trimmed.startsWith("#") || trimmed.startsWith("--"))) {
+                        sb.append(line).append(" \n");
+                    }
+                } else if (!sb.toString().trim().isEmpty()) {
+                    result.add(sb.toString());
+                    sb.setLength(0);
+                }
+            }
+            if (!sb.toString().trim().isEmpty()) {
+                result.add(sb.toString());
+            }
+        }
+        return result;
+    }
+}
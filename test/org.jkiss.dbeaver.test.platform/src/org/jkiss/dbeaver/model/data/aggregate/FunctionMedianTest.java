@@ -0,0 +1,120 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class FunctionMedianTest {
+
+    @Test
+    public void exactMedianOfIntegers() {
+        Assert.assertEquals(3, median(Arrays.asList(5, 1, 3, 4, 2)));
+        Assert.assertEquals(3L, median(Arrays.asList(5L, 1L, 3L, 4L, 2L)));
+        Assert.assertEquals(2.5, median(Arrays.asList(4, 1, 3, 2)));
+        Assert.assertEquals(2.0, median(Arrays.asList(2.0, 1.0, 3.0)));
+    }
+
+    @Test
+    public void exactMedianKeepsValueType() {
+        Assert.assertEquals(0.1f, median(Arrays.asList(0.3f, 0.1f, 0.05f)));
+        Assert.assertEquals((short) 7, median(Arrays.asList((short) 9, (short) 7, (short) 1)));
+        // Mixed types are sorted as is
+        Assert.assertEquals(2L, median(Arrays.asList(1, 2L, 3.5)));
+    }
+
+    @Test
+    public void exactMedianOfStrings() {
+        Assert.assertEquals("b", median(Arrays.asList("c", "a", "b")));
+    }
+
+    @Test
+    public void exactMedianOfEqualValues() {
+        FunctionMedian func = new FunctionMedian();
+        for (int i = 0; i < 1_000_001; i++) {
+            func.accumulate(7, false);
+        }
+        Assert.assertEquals(7, func.getResult(1_000_001));
+
+        NumericValueBuffer buffer = new NumericValueBuffer();
+        for (int i = 0; i < 1_000_000; i++) {
+            buffer.add(-0.5);
+        }
+        Assert.assertEquals(-0.5, buffer.select(0), 0);
+        Assert.assertEquals(-0.5, buffer.select(999_999), 0);
+    }
+
+    @Test
+    public void exactMedianOfFewDistinctValues() {
+        Random random = new Random(1);
+        List<Integer> values = new ArrayList<>();
+        FunctionMedian func = new FunctionMedian();
+        for (int i = 0; i < 1_000_000; i++) {
+            int value = random.nextInt(3);
+            values.add(value);
+            func.accumulate(value, false);
+        }
+        Collections.sort(values);
+        int middle = values.size() / 2;
+        Assert.assertEquals((values.get(middle - 1) + values.get(middle)) / 2.0, func.getResult(values.size()));
+
+        // Every order statistic of the small sample
+        double[] sample = {2, 0, 1, 1, 2, 0, 0, 2, 1, 1, 0, 2, 2, 2};
+        double[] sorted = sample.clone();
+        Arrays.sort(sorted);
+        for (int k = 0; k < sample.length; k++) {
+            NumericValueBuffer buffer = new NumericValueBuffer();
+            for (double value : sample) {
+                buffer.add(value);
+            }
+            Assert.assertEquals(sorted[k], buffer.select(k), 0);
+        }
+        // Lower and upper middle values differ
+        Assert.assertEquals(1.5, median(Arrays.asList(1, 2, 2, 1, 1, 2)));
+    }
+
+    @Test
+    public void approxMedian() {
+        Random random = new Random(1);
+        FunctionMedianApprox func = new FunctionMedianApprox();
+        for (int i = 0; i < 100_000; i++) {
+            func.accumulate(random.nextDouble() * 1000, false);
+        }
+        Assert.assertEquals(500.0, (Double) func.getResult(0), 10.0);
+    }
+
+    @Test
+    public void approxCountDistinct() {
+        FunctionCountDistinctApprox func = new FunctionCountDistinctApprox();
+        for (int i = 0; i < 200_000; i++) {
+            func.accumulate(i % 50_000, false);
+        }
+        Assert.assertEquals(50_000, (Long) func.getResult(0), 50_000 * 0.03);
+    }
+
+    private static Object median(List<?> values) {
+        FunctionMedian func = new FunctionMedian();
+        values.forEach(value -> func.accumulate(value, false));
+        return func.getResult(values.size());
+    }
+}
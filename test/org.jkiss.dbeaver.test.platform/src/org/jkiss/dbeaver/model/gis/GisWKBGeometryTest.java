@@ -0,0 +1,217 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.gis;
+
+import org.jkiss.utils.CommonUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public class GisWKBGeometryTest {
+
+    private static final int EWKB_Z = 0x80000000;
+    private static final int EWKB_M = 0x40000000;
+    private static final int EWKB_SRID = 0x20000000;
+
+    @Test
+    public void isoDimensions() {
+        GisWKBGeometry pointZ = GisWKBGeometry.fromBytes(
+            wkb(ByteOrder.LITTLE_ENDIAN, 1001, null, 1, 2, 3), false);
+        Assert.assertNotNull(pointZ);
+        Assert.assertEquals("Point", pointZ.getGeometryType());
+        Assert.assertEquals(DBGeometryDimension.XYZ, pointZ.getDimension());
+        Assert.assertEquals(0, pointZ.getSRID());
+        Assert.assertEquals(new Envelope(1, 1, 2, 2), pointZ.getEnvelope());
+
+        GisWKBGeometry lineM = GisWKBGeometry.fromBytes(
+            wkb(ByteOrder.BIG_ENDIAN, 2002, null, 2, -1, 5, 100, 4, -3, 200), false);
+        Assert.assertNotNull(lineM);
+        Assert.assertEquals("LineString", lineM.getGeometryType());
+        Assert.assertEquals(DBGeometryDimension.XYM, lineM.getDimension());
+        Assert.assertEquals(new Envelope(-1, 4, -3, 5), lineM.getEnvelope());
+
+        GisWKBGeometry polygonZM = GisWKBGeometry.fromBytes(
+            wkb(ByteOrder.LITTLE_ENDIAN, 3003, null,
+                1, 4,
+                0, 0, 1, 1,
+                10, 0, 1, 1,
+                10, 20, 1, 1,
+                0, 0, 1, 1), false);
+        Assert.assertNotNull(polygonZM);
+        Assert.assertEquals("Polygon", polygonZM.getGeometryType());
+        Assert.assertEquals(DBGeometryDimension.XYZM, polygonZM.getDimension());
+        Assert.assertEquals(new Envelope(0, 10, 0, 20), polygonZM.getEnvelope());
+    }
+
+    @Test
+    public void ewkbWithSRID() {
+        byte[] bytes = wkb(ByteOrder.BIG_ENDIAN, 1 | EWKB_Z | EWKB_SRID, 4326, 30.5, 50.25, 100);
+        GisWKBGeometry point = GisWKBGeometry.fromBytes(bytes, false);
+        Assert.assertNotNull(point);
+        Assert.assertEquals("Point", point.getGeometryType());
+        Assert.assertEquals(DBGeometryDimension.XYZ, point.getDimension());
+        Assert.assertEquals(4326, point.getSRID());
+        Assert.assertEquals(new Envelope(30.5, 30.5, 50.25, 50.25), point.getEnvelope());
+
+        GisWKBGeometry multiPointM = GisWKBGeometry.fromBytes(
+            concat(
+                header(ByteOrder.LITTLE_ENDIAN, 4 | EWKB_M | EWKB_SRID, 3857, 2),
+                wkb(ByteOrder.LITTLE_ENDIAN, 1 | EWKB_M, null, 1, 2, 0),
+                wkb(ByteOrder.BIG_ENDIAN, 1 | EWKB_M, null, -1, -2, 0)), false);
+        Assert.assertNotNull(multiPointM);
+        Assert.assertEquals("MultiPoint", multiPointM.getGeometryType());
+        Assert.assertEquals(DBGeometryDimension.XYM, multiPointM.getDimension());
+        Assert.assertEquals(3857, multiPointM.getSRID());
+        Assert.assertEquals(new Envelope(-1, 1, -2, 2), multiPointM.getEnvelope());
+    }
+
+    @Test
+    public void mysqlLeadingSRID() {
+        byte[] bytes = concat(
+            ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(4326).array(),
+            wkb(ByteOrder.LITTLE_ENDIAN, 2, null, 3, 1, 1, 2, 2, 3, 0));
+        GisWKBGeometry line = GisWKBGeometry.fromBytes(bytes, true);
+        Assert.assertNotNull(line);
+        Assert.assertEquals("LineString", line.getGeometryType());
+        Assert.assertEquals(DBGeometryDimension.XY, line.getDimension());
+        Assert.assertEquals(4326, line.getSRID());
+        Assert.assertEquals(new Envelope(1, 3, 0, 2), line.getEnvelope());
+
+        // Same bytes without the SRID prefix are not a WKB
+        Assert.assertNull(GisWKBGeometry.fromBytes(bytes, false));
+    }
+
+    @Test
+    public void emptyPoints() {
+        GisWKBGeometry emptyPoint = GisWKBGeometry.fromBytes(
+            wkb(ByteOrder.LITTLE_ENDIAN, 1, null, Double.NaN, Double.NaN), false);
+        Assert.assertNotNull(emptyPoint);
+        Envelope envelope = emptyPoint.getEnvelope();
+        Assert.assertNotNull(envelope);
+        Assert.assertTrue(envelope.isNull());
+
+        GisWKBGeometry multiPoint = GisWKBGeometry.fromBytes(
+            concat(
+                header(ByteOrder.LITTLE_ENDIAN, 4, null, 2),
+                wkb(ByteOrder.LITTLE_ENDIAN, 1, null, Double.NaN, Double.NaN),
+                wkb(ByteOrder.LITTLE_ENDIAN, 1, null, 7, 8)), false);
+        Assert.assertNotNull(multiPoint);
+        Assert.assertEquals(new Envelope(7, 7, 8, 8), multiPoint.getEnvelope());
+    }
+
+    @Test
+    public void truncatedInput() {
+        Assert.assertNull(GisWKBGeometry.fromBytes(new byte[0], false));
+        Assert.assertNull(GisWKBGeometry.fromBytes(new byte[]{1, 1, 0, 0}, false));
+        Assert.assertNull(GisWKBGeometry.fromBytes(new byte[]{1, 0}, true));
+        // Wrong byte order marker
+        Assert.assertNull(GisWKBGeometry.fromBytes(new byte[]{2, 1, 0, 0, 0}, false));
+        // Unknown geometry type
+        Assert.assertNull(GisWKBGeometry.fromBytes(header(ByteOrder.LITTLE_ENDIAN, 17, null), false));
+        Assert.assertNull(GisWKBGeometry.fromBytes(header(ByteOrder.LITTLE_ENDIAN, 4001, null), false));
+        // SRID flag without SRID
+        Assert.assertNull(GisWKBGeometry.fromBytes(header(ByteOrder.LITTLE_ENDIAN, 1 | EWKB_SRID, null), false));
+
+        // Header is fine, coordinates are cut
+        byte[] point = wkb(ByteOrder.LITTLE_ENDIAN, 1, null, 1, 2);
+        GisWKBGeometry truncatedPoint = GisWKBGeometry.fromBytes(Arrays.copyOf(point, point.length - 1), false);
+        Assert.assertNotNull(truncatedPoint);
+        Assert.assertNull(truncatedPoint.getEnvelope());
+
+        byte[] line = wkb(ByteOrder.LITTLE_ENDIAN, 2, null, 1000, 1, 2);
+        GisWKBGeometry truncatedLine = GisWKBGeometry.fromBytes(line, false);
+        Assert.assertNotNull(truncatedLine);
+        Assert.assertNull(truncatedLine.getEnvelope());
+
+        byte[] collection = concat(
+            header(ByteOrder.LITTLE_ENDIAN, 7, null, 2),
+            wkb(ByteOrder.LITTLE_ENDIAN, 1, null, 1, 2));
+        GisWKBGeometry truncatedCollection = GisWKBGeometry.fromBytes(collection, false);
+        Assert.assertNotNull(truncatedCollection);
+        Assert.assertNull(truncatedCollection.getEnvelope());
+    }
+
+    @Test
+    public void undecodableGeometryString() {
+        byte[] point = wkb(ByteOrder.LITTLE_ENDIAN, 1, null, 1, 2);
+        byte[] bytes = Arrays.copyOf(point, point.length - 4);
+        GisWKBGeometry binary = GisWKBGeometry.fromBytes(bytes, false);
+        Assert.assertNotNull(binary);
+
+        DBGeometry geometry = new DBGeometry(binary, 0);
+        Assert.assertFalse(geometry.isDecoded());
+        Assert.assertFalse(geometry.isNull());
+        Assert.assertEquals("Point", geometry.getGeometryType());
+
+        Assert.assertEquals(CommonUtils.toHexString(bytes), geometry.getString());
+        Assert.assertTrue(geometry.isDecoded());
+        Assert.assertFalse(geometry.isNull());
+        Assert.assertNull(geometry.getGeometry());
+        Assert.assertSame(bytes, geometry.getRawValue());
+    }
+
+    private static byte[] header(ByteOrder order, int type, Integer srid, int... counts) {
+        ByteBuffer buffer = ByteBuffer.allocate(5 + (srid == null ? 0 : 4) + counts.length * 4).order(order);
+        buffer.put((byte) (order == ByteOrder.LITTLE_ENDIAN ? 1 : 0));
+        buffer.putInt(type);
+        if (srid != null) {
+            buffer.putInt(srid);
+        }
+        for (int count : counts) {
+            buffer.putInt(count);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Geometry with coordinates. Counts of line points and polygon rings/points are passed as coordinates.
+     */
+    private static byte[] wkb(ByteOrder order, int type, Integer srid, double... values) {
+        byte[] header = header(order, type, srid);
+        ByteBuffer buffer = ByteBuffer.allocate(header.length + values.length * 8).order(order);
+        buffer.put(header);
+        int countIndex = switch ((type & 0xffff) % 1000) {
+            case 2 -> 1;
+            case 3 -> 2;
+            default -> 0;
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i < countIndex) {
+                buffer.putInt((int) values[i]);
+            } else {
+                buffer.putDouble(values[i]);
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (byte[] part : parts) {
+            buffer.put(part);
+        }
+        return buffer.array();
+    }
+}
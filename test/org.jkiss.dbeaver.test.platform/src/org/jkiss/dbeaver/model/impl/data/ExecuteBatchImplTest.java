@@ -0,0 +1,288 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceInfo;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExecuteBatchImplTest {
+
+    @Mock
+    private DBCSession session;
+    @Mock
+    private DBPDataSource dataSource;
+    @Mock
+    private DBPDataSourceInfo dataSourceInfo;
+    @Mock
+    private DBRProgressMonitor monitor;
+
+    private DBSAttributeBase[] batchAttributes;
+    private final Map<String, Object> options = new HashMap<>();
+
+    private final List<TestStatement> preparedStatements = new ArrayList<>();
+    // Executed batches: row ids of each batch
+    private final List<List<Object>> executedBatches = new ArrayList<>();
+    private boolean failExecution;
+
+    @Before
+    public void setUp() {
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getProgressMonitor()).thenReturn(monitor);
+        Mockito.when(dataSource.getInfo()).thenReturn(dataSourceInfo);
+        Mockito.when(dataSourceInfo.supportsBatchUpdates()).thenReturn(true);
+        batchAttributes = new DBSAttributeBase[3];
+        for (int i = 0; i < batchAttributes.length; i++) {
+            batchAttributes[i] = Mockito.mock(DBDAttributeBinding.class);
+        }
+    }
+
+    @Test
+    public void sparseNullsKeepSingleBatchPerPattern() throws DBCException {
+        TestBatch batch = new TestBatch();
+        for (int i = 0; i < 10; i++) {
+            batch.add(i % 2 == 0 ? row(i, "a", null) : row(i, null, "b"));
+        }
+        DBCStatistics statistics = batch.execute(session, options);
+
+        Assert.assertEquals(2, preparedStatements.size());
+        Assert.assertEquals(2, statistics.getStatementsCount());
+        Assert.assertEquals(10, statistics.getRowsUpdated());
+        // One batch per null pattern, rows of each pattern keep their order
+        Assert.assertEquals(List.of(List.of(0, 2, 4, 6, 8), List.of(1, 3, 5, 7, 9)), executedBatches);
+        batch.close();
+    }
+
+    @Test
+    public void poolIsKeptBetweenExecutions() throws DBCException {
+        TestBatch batch = new TestBatch();
+        batch.add(row(1, "a", null));
+        batch.add(row(2, null, null));
+        batch.execute(session, options);
+        batch.add(row(3, null, null));
+        batch.add(row(4, "a", null));
+        batch.add(row(5, "a", "b"));
+        DBCStatistics statistics = batch.execute(session, new HashMap<>(options));
+
+        Assert.assertEquals(3, preparedStatements.size());
+        Assert.assertEquals(1, statistics.getStatementsCount());
+        Assert.assertEquals(3, statistics.getRowsUpdated());
+        Assert.assertEquals(
+            List.of(List.of(1), List.of(2), List.of(3), List.of(4), List.of(5)),
+            executedBatches);
+        for (TestStatement statement : preparedStatements) {
+            Assert.assertFalse(statement.closed);
+        }
+
+        batch.close();
+        for (TestStatement statement : preparedStatements) {
+            Assert.assertTrue(statement.closed);
+        }
+    }
+
+    @Test
+    public void poolIsResetOnSessionOrOptionsChange() throws DBCException {
+        TestBatch batch = new TestBatch();
+        batch.add(row(1, "a", null));
+        batch.add(row(2, "a", null));
+        batch.execute(session, options);
+        Assert.assertEquals(1, preparedStatements.size());
+
+        options.put("test.option", true);
+        batch.add(row(3, "a", null));
+        batch.add(row(4, "a", null));
+        batch.execute(session, options);
+        Assert.assertEquals(2, preparedStatements.size());
+        Assert.assertTrue(preparedStatements.get(0).closed);
+
+        DBCSession otherSession = Mockito.mock(DBCSession.class);
+        Mockito.when(otherSession.getDataSource()).thenReturn(dataSource);
+        Mockito.when(otherSession.getProgressMonitor()).thenReturn(monitor);
+        batch.add(row(5, "a", null));
+        batch.add(row(6, "a", null));
+        batch.execute(otherSession, options);
+        Assert.assertEquals(3, preparedStatements.size());
+        Assert.assertTrue(preparedStatements.get(1).closed);
+        Assert.assertFalse(preparedStatements.get(2).closed);
+        Assert.assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5, 6)), executedBatches);
+        batch.close();
+    }
+
+    @Test
+    public void leastRecentlyUsedStatementIsFlushedWhenPoolIsFull() throws DBCException {
+        batchAttributes = new DBSAttributeBase[5];
+        for (int i = 0; i < batchAttributes.length; i++) {
+            batchAttributes[i] = Mockito.mock(DBDAttributeBinding.class);
+        }
+        TestBatch batch = new TestBatch();
+        for (int pattern = 0; pattern < 8; pattern++) {
+            batch.add(patternRow(pattern, pattern));
+        }
+        // Makes the second pattern least recently used
+        batch.add(patternRow(8, 0));
+        // Pool is full, the second pattern statement is executed and closed
+        batch.add(patternRow(9, 8));
+        DBCStatistics statistics = batch.execute(session, options);
+
+        Assert.assertEquals(9, preparedStatements.size());
+        Assert.assertEquals(10, statistics.getRowsUpdated());
+        Assert.assertTrue(preparedStatements.get(1).closed);
+        // Evicted statement is executed first, the rest in order of their first rows
+        Assert.assertEquals(
+            List.of(List.of(1), List.of(0, 8), List.of(2), List.of(3), List.of(4), List.of(5), List.of(6), List.of(7), List.of(9)),
+            executedBatches);
+        batch.close();
+    }
+
+    @Test
+    public void failedExecutionClosesPool() throws DBCException {
+        TestBatch batch = new TestBatch();
+        batch.add(row(1, "a", null));
+        batch.add(row(2, null, null));
+        failExecution = true;
+        try {
+            batch.execute(session, options);
+            Assert.fail("Execution error expected");
+        } catch (DBCException e) {
+            // expected
+        }
+        Assert.assertEquals(2, preparedStatements.size());
+        for (TestStatement statement : preparedStatements) {
+            Assert.assertTrue(statement.closed);
+        }
+
+        // Rows are kept for retry
+        failExecution = false;
+        batch.add(row(3, "a", null));
+        batch.execute(session, options);
+        Assert.assertEquals(4, preparedStatements.size());
+        Assert.assertFalse(preparedStatements.get(2).closed);
+        Assert.assertEquals(List.of(List.of(1, 3), List.of(2)), executedBatches);
+        batch.close();
+    }
+
+    @Test
+    public void insertParametersSkipNullValues() {
+        ExecuteInsertBatchImpl batch = new ExecuteInsertBatchImpl(
+            batchAttributes, null, true, session, Mockito.mock(DBCExecutionSource.class), Mockito.mock(DBSTable.class), false);
+        Assert.assertArrayEquals(new int[]{0, 1, 2}, batch.getUsedParamIndexes(row(1, "a", "b")));
+        Assert.assertArrayEquals(new int[]{0, 2}, batch.getUsedParamIndexes(row(1, null, "b")));
+        Assert.assertArrayEquals(new int[]{2}, batch.getUsedParamIndexes(row(null, null, "b")));
+        // All nulls are inserted explicitly
+        Assert.assertArrayEquals(new int[]{0, 1, 2}, batch.getUsedParamIndexes(row(null, null, null)));
+    }
+
+    private static Object[] row(Object id, Object value1, Object value2) {
+        return new Object[]{id, value1, value2};
+    }
+
+    /**
+     * Row with 4 values. Value is null if the corresponding pattern bit is set.
+     */
+    private static Object[] patternRow(int id, int pattern) {
+        Object[] row = new Object[5];
+        row[0] = id;
+        for (int i = 0; i < 4; i++) {
+            row[i + 1] = (pattern & (1 << i)) != 0 ? null : "v" + i;
+        }
+        return row;
+    }
+
+    private class TestBatch extends ExecuteBatchImpl {
+        private final Map<DBCStatement, TestStatement> statements = new HashMap<>();
+
+        TestBatch() {
+            super(batchAttributes, null, true);
+        }
+
+        @NotNull
+        @Override
+        protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) {
+            TestStatement statement = new TestStatement("INSERT " + preparedStatements.size());
+            preparedStatements.add(statement);
+            statements.put(statement.proxy, statement);
+            return statement.proxy;
+        }
+
+        @Override
+        protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) {
+            statements.get(statement).boundRow = attributeValues;
+        }
+    }
+
+    private class TestStatement {
+        final String query;
+        final DBCStatement proxy;
+        final List<Object> batch = new ArrayList<>();
+        Object[] boundRow;
+        boolean closed;
+
+        TestStatement(String query) {
+            this.query = query;
+            this.proxy = (DBCStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{DBCStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getQueryString" -> this.query;
+                    case "addToBatch" -> {
+                        Assert.assertFalse(closed);
+                        batch.add(boundRow[0]);
+                        yield null;
+                    }
+                    case "executeStatementBatch" -> {
+                        Assert.assertFalse(closed);
+                        if (failExecution) {
+                            throw new DBCException("Test error");
+                        }
+                        executedBatches.add(new ArrayList<>(batch));
+                        int[] counts = new int[batch.size()];
+                        Arrays.fill(counts, 1);
+                        batch.clear();
+                        yield counts;
+                    }
+                    case "close" -> {
+                        closed = true;
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+public class JDBCMetadataSnapshotTest {
+
+    private static final String CONTAINER_ID = "postgres-jdbc-test";
+    private static final String KEY = "tables";
+    private static final String OTHER_KEY = "columns";
+
+    private static final String[] COLUMNS = {"name", "oid", "flag", "acl", "created", "size", "data", "comment"};
+
+    @Test
+    public void recordSaveLoadReplay() throws Exception {
+        JDBCMetadataSnapshot snapshot = new JDBCMetadataSnapshot(createContainer(CONTAINER_ID));
+        List<List<Object>> recorded = recordRows(snapshot, KEY);
+        // Recording must not change values seen by the reader
+        Assert.assertEquals(readRows(createResultSet()), recorded);
+
+        JDBCMetadataSnapshot loaded = loadSnapshot(saveSnapshot(snapshot, "marker-1"), CONTAINER_ID);
+        ResultSet replay = loaded.replayResult(KEY);
+        Assert.assertNotNull(replay);
+        ResultSetMetaData metaData = replay.getMetaData();
+        Assert.assertEquals(COLUMNS.length, metaData.getColumnCount());
+        Assert.assertEquals("acl", metaData.getColumnLabel(4));
+        Assert.assertEquals(Types.ARRAY, metaData.getColumnType(4));
+        Assert.assertEquals(recorded, readRows(replay));
+        Assert.assertTrue(loaded.isReplayComplete(replay));
+        replay.close();
+    }
+
+    @Test
+    public void replayOfUnreadValues() throws Exception {
+        JDBCMetadataSnapshot snapshot = new JDBCMetadataSnapshot(createContainer(CONTAINER_ID));
+        recordRows(snapshot, KEY);
+        JDBCMetadataSnapshot loaded = loadSnapshot(saveSnapshot(snapshot, "marker-1"), CONTAINER_ID);
+
+        // Not all rows were read
+        ResultSet replay = loaded.replayResult(KEY);
+        Assert.assertTrue(replay.next());
+        replay.close();
+        Assert.assertFalse(loaded.isReplayComplete(replay));
+
+        // Value which wasn't read during recording
+        replay = loaded.replayResult(KEY);
+        Assert.assertTrue(replay.next());
+        Assert.assertEquals(0, replay.getInt("name"));
+        Assert.assertTrue(replay.wasNull());
+        Assert.assertNull(replay.getString(1));
+        while (replay.next()) {
+            // Read all rows
+        }
+        Assert.assertFalse(loaded.isReplayComplete(replay));
+    }
+
+    @Test
+    public void incompleteRecording() throws Exception {
+        JDBCMetadataSnapshot snapshot = new JDBCMetadataSnapshot(createContainer(CONTAINER_ID));
+        // Closed before the end of the result
+        try (ResultSet resultSet = snapshot.recordResult(createResultSet(), KEY)) {
+            Assert.assertNotNull(resultSet);
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals("users", resultSet.getString("name"));
+        }
+        Assert.assertNull(snapshot.replayResult(KEY));
+
+        // Value which can't be stored
+        Object value = new Object();
+        try (ResultSet resultSet = snapshot.recordResult(createResultSet(new String[]{"value"}, new Object[]{value}), KEY)) {
+            Assert.assertNotNull(resultSet);
+            Assert.assertTrue(resultSet.next());
+            Assert.assertSame(value, resultSet.getObject(1));
+            Assert.assertFalse(resultSet.next());
+        }
+        Assert.assertNull(snapshot.replayResult(KEY));
+    }
+
+    @Test
+    public void changeMarker() throws Exception {
+        JDBCMetadataSnapshot snapshot = new JDBCMetadataSnapshot(createContainer(CONTAINER_ID));
+        List<List<Object>> recorded = recordRows(snapshot, KEY);
+        byte[] data = saveSnapshot(snapshot, "marker-1");
+
+        // Same marker, loaded results are kept
+        JDBCMetadataSnapshot loaded = loadSnapshot(data, CONTAINER_ID);
+        Assert.assertNull(loaded.applyChangeMarker("marker-1"));
+        Assert.assertEquals(recorded, readRows(loaded.replayResult(KEY)));
+
+        // Changed marker, loaded results are dropped but results recorded after connect are kept
+        loaded = loadSnapshot(data, CONTAINER_ID);
+        recordRows(loaded, OTHER_KEY);
+        Assert.assertEquals(List.of(), loaded.applyChangeMarker("marker-2"));
+        Assert.assertNull(loaded.replayResult(KEY));
+        Assert.assertNotNull(loaded.replayResult(OTHER_KEY));
+        // New marker is saved
+        loaded = loadSnapshot(saveSnapshot(loaded, "marker-2"), CONTAINER_ID);
+        Assert.assertNull(loaded.applyChangeMarker("marker-2"));
+        Assert.assertNotNull(loaded.replayResult(OTHER_KEY));
+
+        // Marker can't be read
+        loaded = loadSnapshot(data, CONTAINER_ID);
+        Assert.assertNotNull(loaded.applyChangeMarker(null));
+        Assert.assertNull(loaded.replayResult(KEY));
+    }
+
+    @Test
+    public void loadOtherSnapshots() throws Exception {
+        JDBCMetadataSnapshot snapshot = new JDBCMetadataSnapshot(createContainer(CONTAINER_ID));
+        recordRows(snapshot, KEY);
+        byte[] data = saveSnapshot(snapshot, "marker-1");
+
+        JDBCMetadataSnapshot loaded = loadSnapshot(data, "other-container");
+        Assert.assertNull(loaded.replayResult(KEY));
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        try {
+            loadSnapshot(buffer.toByteArray(), CONTAINER_ID);
+            Assert.fail("Snapshot of unknown format must not be loaded");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    private static List<List<Object>> recordRows(JDBCMetadataSnapshot snapshot, String key) throws SQLException {
+        try (ResultSet resultSet = snapshot.recordResult(createResultSet(), key)) {
+            Assert.assertNotNull(resultSet);
+            return readRows(resultSet);
+        }
+    }
+
+    private static byte[] saveSnapshot(JDBCMetadataSnapshot snapshot, String marker) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeSnapshot(out, marker);
+        return out.toByteArray();
+    }
+
+    private static JDBCMetadataSnapshot loadSnapshot(byte[] data, String containerId) throws IOException {
+        JDBCMetadataSnapshot snapshot = new JDBCMetadataSnapshot(createContainer(containerId));
+        snapshot.readSnapshot(new ByteArrayInputStream(data));
+        return snapshot;
+    }
+
+    private static DBPDataSourceContainer createContainer(String id) {
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getId()).thenReturn(id);
+        Mockito.when(container.getName()).thenReturn(id);
+        // No metadata folder, so background save does nothing
+        Mockito.when(container.getProject()).thenReturn(Mockito.mock(DBPProject.class));
+        return container;
+    }
+
+    /**
+     * Reads rows the way cache fetch functions do: by name and index, primitive getters with wasNull checks
+     */
+    private static List<List<Object>> readRows(ResultSet resultSet) throws SQLException {
+        List<List<Object>> rows = new ArrayList<>();
+        while (resultSet.next()) {
+            List<Object> row = new ArrayList<>();
+            row.add(resultSet.getString("name"));
+            long oid = resultSet.getLong("oid");
+            row.add(resultSet.wasNull() ? null : oid);
+            row.add(resultSet.getBoolean(3));
+            Array acl = resultSet.getArray("acl");
+            row.add(acl == null ? null : Arrays.asList((Object[]) acl.getArray()));
+            row.add(resultSet.getTimestamp("created"));
+            row.add(resultSet.getBigDecimal("size"));
+            byte[] data = resultSet.getBytes("data");
+            row.add(data == null ? null : Arrays.toString(data));
+            try {
+                row.add(resultSet.getString("comment"));
+            } catch (SQLException e) {
+                row.add(e.getMessage() + " " + e.getSQLState() + " " + e.getErrorCode());
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static ResultSet createResultSet() {
+        Timestamp created = Timestamp.valueOf("2024-02-29 10:15:30.123456789");
+        return createResultSet(
+            COLUMNS,
+            new Object[]{
+                "users", 16384L, true, new String[]{"postgres=arwdDxt/postgres", "=r/postgres"},
+                created, new BigDecimal("12.50"), new byte[]{1, 2, 3}, "Users table"
+            },
+            new Object[]{
+                "users", null, false, null,
+                null, null, null, new SQLException("permission denied for table", "42501", 7)
+            },
+            new Object[]{
+                "таблица \"quoted\"", 0L, true, new String[]{null, "", "a,b"},
+                created, new BigDecimal("-1E+3"), new byte[0], null
+            });
+    }
+
+    /**
+     * In-memory result set. Exceptions in rows are thrown by getters.
+     */
+    private static ResultSet createResultSet(String[] columns, Object[]... rows) {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        try {
+            Mockito.when(metaData.getColumnCount()).thenReturn(columns.length);
+            for (int i = 0; i < columns.length; i++) {
+                Mockito.when(metaData.getColumnLabel(i + 1)).thenReturn(columns[i]);
+                Mockito.when(metaData.getColumnName(i + 1)).thenReturn(columns[i]);
+                Mockito.when(metaData.getColumnType(i + 1)).thenReturn(columns[i].equals("acl") ? Types.ARRAY : Types.OTHER);
+                Mockito.when(metaData.getColumnTypeName(i + 1)).thenReturn(columns[i].equals("acl") ? "_aclitem" : "test");
+            }
+        } catch (SQLException e) {
+            throw new IllegalArgumentException(e);
+        }
+        int[] rowIndex = {-1};
+        boolean[] wasNull = {false};
+        return (ResultSet) Proxy.newProxyInstance(
+            JDBCMetadataSnapshotTest.class.getClassLoader(),
+            new Class[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        return ++rowIndex[0] < rows.length;
+                    case "close":
+                        return null;
+                    case "getMetaData":
+                        return metaData;
+                    case "wasNull":
+                        return wasNull[0];
+                }
+                if (!method.getName().startsWith("get") || args == null || args.length != 1) {
+                    throw new SQLFeatureNotSupportedException(method.getName());
+                }
+                int column = args[0] instanceof Integer index ? index - 1 : Arrays.asList(columns).indexOf(args[0]);
+                Object value = rows[rowIndex[0]][column];
+                if (value instanceof SQLException error) {
+                    throw error;
+                }
+                wasNull[0] = value == null;
+                if (value instanceof Object[] elements) {
+                    Array array = Mockito.mock(Array.class);
+                    Mockito.when(array.getArray()).thenReturn(elements.clone());
+                    return array;
+                }
+                if (value == null && method.getReturnType().isPrimitive()) {
+                    return method.getReturnType() == Boolean.TYPE ? (Object) false : (Object) 0L;
+                }
+                return value;
+            });
+    }
+
+}
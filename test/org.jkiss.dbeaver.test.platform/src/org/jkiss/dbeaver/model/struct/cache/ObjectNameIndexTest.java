@@ -0,0 +1,386 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.rdb.DBSProcedure;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTableColumn;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class ObjectNameIndexTest {
+
+    private static final String CONTAINER_ID = "name-index-test";
+
+    private static final DBSObjectType[] TABLES = {RelationalObjectType.TYPE_TABLE};
+    private static final DBSObjectType[] COLUMNS = {RelationalObjectType.TYPE_TABLE_COLUMN};
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private final List<DBPProject> projects = new ArrayList<>();
+    private Path metadataFolder;
+
+    /**
+     * Data sources usually are containers of catalogs or schemas
+     */
+    interface TestDataSource extends DBPDataSource, DBSObjectContainer {
+    }
+
+    @Before
+    public void createMetadataFolder() throws IOException {
+        metadataFolder = Files.createTempDirectory("dbeaver-index");
+    }
+
+    @After
+    public void deleteMetadataFolder() throws IOException {
+        // Delayed index save must not write to the deleted folder
+        for (DBPProject project : projects) {
+            Mockito.when(project.getMetadataFolder(true)).thenReturn(null);
+        }
+        try (Stream<Path> files = Files.walk(metadataFolder)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void findByScopeAndType() throws DBException {
+        TestDataSource dataSource = createDataSource(CONTAINER_ID);
+        DBSSchema publicSchema = createSchema(dataSource, "public");
+        DBSSchema salesSchema = createSchema(dataSource, "sales");
+        DBSTable orders = createObject(DBSTable.class, publicSchema, "orders");
+        DBSTable orderItems = createObject(DBSTable.class, publicSchema, "order_items");
+        DBSTable salesOrders = createObject(DBSTable.class, salesSchema, "orders");
+        DBSTableColumn orderId = createObject(DBSTableColumn.class, orders, "order_id");
+        DBSProcedure orderTotal = createObject(DBSProcedure.class, publicSchema, "order_total");
+        // Not indexed type
+        DBSObject orderLog = createObject(DBSObject.class, publicSchema, "order_log");
+
+        ObjectNameIndex index = ObjectNameIndex.getIndex(dataSource);
+        Assert.assertNotNull(index);
+        Assert.assertSame(index, ObjectNameIndex.getIndex(dataSource));
+        index.loadIndex();
+        ObjectNameIndex.updateObjects(null, List.of(orders, orderItems, salesOrders, orderId, orderTotal, orderLog));
+
+        // Global search
+        Assert.assertEquals(Set.of(orders, orderItems, salesOrders), find(dataSource, TABLES, "order%", null));
+        Assert.assertEquals(Set.of(orderItems), find(dataSource, TABLES, "%items", null));
+        Assert.assertEquals(Set.of(orders, orderItems, salesOrders), find(dataSource, TABLES, "ORDER%", null));
+        DBSStructureAssistant.ObjectsSearchParams params = createParams(TABLES, "ORDER%", null);
+        params.setCaseSensitive(true);
+        Assert.assertEquals(List.of(), ObjectNameIndex.findObjects(dataSource, params));
+        params = createParams(TABLES, "order%", null);
+        params.setMaxResults(1);
+        Assert.assertEquals(1, Objects.requireNonNull(ObjectNameIndex.findObjects(dataSource, params)).size());
+
+        // Search in the parent object
+        Assert.assertEquals(Set.of(orders, orderItems), find(dataSource, TABLES, "order%", publicSchema));
+        Assert.assertEquals(Set.of(salesOrders), find(dataSource, TABLES, "order%", salesSchema));
+        Assert.assertEquals(Set.of(orders, orderItems, salesOrders), find(dataSource, TABLES, "order%", dataSource));
+        Assert.assertEquals(Set.of(orderId), find(dataSource, COLUMNS, "order%", publicSchema));
+        Assert.assertEquals(Set.of(orderId), find(dataSource, COLUMNS, "order%", orders));
+        Assert.assertEquals(Set.of(), find(dataSource, COLUMNS, "order%", salesSchema));
+        Assert.assertEquals(
+            Set.of(orderTotal),
+            find(dataSource, new DBSObjectType[]{RelationalObjectType.TYPE_TABLE, RelationalObjectType.TYPE_PROCEDURE}, "order_t%", publicSchema));
+
+        // Searches which index can't handle
+        params = createParams(TABLES, "order%", null);
+        params.setGlobalSearch(false);
+        Assert.assertNull("Active schema is not known to the index", ObjectNameIndex.findObjects(dataSource, params));
+        params = createParams(TABLES, "order%", null);
+        params.setSearchInComments(true);
+        Assert.assertNull(ObjectNameIndex.findObjects(dataSource, params));
+        Assert.assertNull(ObjectNameIndex.findObjects(null, createParams(TABLES, "order%", null)));
+    }
+
+    @Test
+    public void objectChanges() throws DBException {
+        TestDataSource dataSource = createDataSource(CONTAINER_ID);
+        DBSSchema publicSchema = createSchema(dataSource, "public");
+        DBSTable orders = createObject(DBSTable.class, publicSchema, "orders");
+        DBSTable orderItems = createObject(DBSTable.class, publicSchema, "order_items");
+        ObjectNameIndex index = Objects.requireNonNull(ObjectNameIndex.getIndex(dataSource));
+        index.loadIndex();
+        ObjectNameIndex.updateObjects(null, List.of(orders, orderItems));
+
+        // Rename
+        Mockito.when(orders.getName()).thenReturn("purchases");
+        ObjectNameIndex.renameObject(orders, "orders");
+        Assert.assertEquals(Set.of(orderItems), find(dataSource, TABLES, "order%", null));
+        Assert.assertEquals(Set.of(orders), find(dataSource, TABLES, "purch%", null));
+
+        // Drop
+        ObjectNameIndex.updateObjects(List.of(orderItems), null);
+        Assert.assertEquals(Set.of(), find(dataSource, TABLES, "order%", null));
+
+        // Refresh keeps the cache content which is read again
+        DBSTable newOrders = createObject(DBSTable.class, publicSchema, "purchases");
+        ObjectNameIndex.updateObjects(List.of(orders), List.of(newOrders));
+        Assert.assertEquals(Set.of(newOrders), find(dataSource, TABLES, "purch%", null));
+    }
+
+    @Test
+    public void detachAndResolve() throws DBException {
+        TestDataSource dataSource = createDataSource(CONTAINER_ID);
+        DBSSchema publicSchema = createSchema(dataSource, "public");
+        DBSTable customers = createObject(DBSTable.class, publicSchema, "customers");
+        DBSTableColumn customerId = createObject(DBSTableColumn.class, customers, "customer_id");
+        DBSTableColumn customerName = createObject(DBSTableColumn.class, customers, "customer_name");
+        ObjectNameIndex index = Objects.requireNonNull(ObjectNameIndex.getIndex(dataSource));
+        index.loadIndex();
+        ObjectNameIndex.updateObjects(null, List.of(customers, customerId, customerName));
+
+        // Refresh releases objects, names are kept
+        ObjectNameIndex.detachObjects(List.of(customers, customerId, customerName));
+        List<DBSObjectReference> references = ObjectNameIndex.findObjects(dataSource, createParams(TABLES, "customers", null));
+        Assert.assertNotNull(references);
+        Assert.assertEquals(1, references.size());
+        DBSObjectReference reference = references.get(0);
+        Assert.assertEquals("customers", reference.getName());
+        Assert.assertEquals(RelationalObjectType.TYPE_TABLE, reference.getObjectType());
+        Assert.assertEquals(DBSTable.class, reference.getObjectClass());
+        Assert.assertNull(reference.getContainer());
+
+        // Names are resolved by their path
+        DBSTable newCustomers = createObject(DBSTable.class, publicSchema, "customers");
+        Mockito.when(publicSchema.getChild(monitor, "customers")).thenReturn(newCustomers);
+        Mockito.when(newCustomers.getAttribute(monitor, "customer_name")).thenReturn(customerName);
+        Assert.assertSame(newCustomers, reference.resolveObject(monitor));
+        Assert.assertEquals(Set.of(customerName), find(dataSource, COLUMNS, "customer_name", null));
+
+        // Column was dropped in the database, its name is removed from the index
+        references = ObjectNameIndex.findObjects(dataSource, createParams(COLUMNS, "customer_id", null));
+        Assert.assertNotNull(references);
+        Assert.assertEquals(1, references.size());
+        Assert.assertNull(references.get(0).resolveObject(monitor));
+        Assert.assertEquals(List.of(), ObjectNameIndex.findObjects(dataSource, createParams(COLUMNS, "customer_id", null)));
+        Assert.assertEquals(Set.of(customerName), find(dataSource, COLUMNS, "customer%", null));
+    }
+
+    @Test
+    public void saveAndLoad() throws DBException, IOException {
+        TestDataSource dataSource = createDataSource(CONTAINER_ID);
+        DBSSchema publicSchema = createSchema(dataSource, "public");
+        DBSTable orders = createObject(DBSTable.class, publicSchema, "orders");
+        DBSTableColumn orderId = createObject(DBSTableColumn.class, orders, "order_id");
+        DBSProcedure orderTotal = createObject(DBSProcedure.class, publicSchema, "order_total");
+        ObjectNameIndex index = Objects.requireNonNull(ObjectNameIndex.getIndex(dataSource));
+        index.loadIndex();
+        ObjectNameIndex.updateObjects(null, List.of(orders, orderId, orderTotal));
+        index.saveIndex();
+
+        Path indexFolder = metadataFolder.resolve("metadata-index");
+        List<Path> indexFiles;
+        try (Stream<Path> files = Files.list(indexFolder)) {
+            indexFiles = files.toList();
+        }
+        Assert.assertEquals(1, indexFiles.size());
+
+        // Next connect
+        TestDataSource newDataSource = createDataSource(CONTAINER_ID);
+        DBSSchema newSchema = createSchema(newDataSource, "public");
+        DBSTable newOrders = createObject(DBSTable.class, newSchema, "orders");
+        DBSTableColumn newOrderId = createObject(DBSTableColumn.class, newOrders, "order_id");
+        DBSProcedure newOrderTotal = createObject(DBSProcedure.class, newSchema, "order_total");
+        Mockito.when(newSchema.getChild(monitor, "orders")).thenReturn(newOrders);
+        Mockito.when(newSchema.getChild(monitor, "order_total")).thenReturn(newOrderTotal);
+        Mockito.when(newOrders.getAttribute(monitor, "order_id")).thenReturn(newOrderId);
+
+        ObjectNameIndex newIndex = Objects.requireNonNull(ObjectNameIndex.getIndex(newDataSource));
+        Assert.assertNotSame(index, newIndex);
+        newIndex.loadIndex();
+        DBSObjectType[] allTypes = {
+            RelationalObjectType.TYPE_TABLE, RelationalObjectType.TYPE_TABLE_COLUMN, RelationalObjectType.TYPE_PROCEDURE
+        };
+        List<DBSObjectReference> references = ObjectNameIndex.findObjects(newDataSource, createParams(allTypes, "order%", null));
+        Assert.assertNotNull(references);
+        Map<String, DBSObjectType> types = new HashMap<>();
+        for (DBSObjectReference reference : references) {
+            types.put(reference.getName(), reference.getObjectType());
+        }
+        Assert.assertEquals(
+            Map.of(
+                "orders", RelationalObjectType.TYPE_TABLE,
+                "order_id", RelationalObjectType.TYPE_TABLE_COLUMN,
+                "order_total", RelationalObjectType.TYPE_PROCEDURE),
+            types);
+        Assert.assertEquals(Set.of(newOrders, newOrderId, newOrderTotal), find(newDataSource, allTypes, "order%", null));
+        Assert.assertEquals(Set.of(newOrderId), find(newDataSource, COLUMNS, "order%", newSchema));
+
+        // Other connection has its own index
+        TestDataSource otherDataSource = createDataSource("other-" + CONTAINER_ID);
+        ObjectNameIndex otherIndex = Objects.requireNonNull(ObjectNameIndex.getIndex(otherDataSource));
+        otherIndex.loadIndex();
+        Assert.assertEquals(List.of(), ObjectNameIndex.findObjects(otherDataSource, createParams(allTypes, "order%", null)));
+
+        // Broken file is ignored
+        Files.write(indexFiles.get(0), new byte[]{1, 2, 3, 4});
+        TestDataSource brokenDataSource = createDataSource(CONTAINER_ID);
+        ObjectNameIndex brokenIndex = Objects.requireNonNull(ObjectNameIndex.getIndex(brokenDataSource));
+        brokenIndex.loadIndex();
+        Assert.assertEquals(List.of(), ObjectNameIndex.findObjects(brokenDataSource, createParams(allTypes, "order%", null)));
+    }
+
+    @Test
+    public void fullyIndexedParents() throws DBException {
+        TestDataSource dataSource = createDataSource(CONTAINER_ID);
+        DBSSchema publicSchema = createSchema(dataSource, "public");
+        DBSSchema salesSchema = createSchema(dataSource, "sales");
+        DBSTable orders = createObject(DBSTable.class, publicSchema, "orders");
+        DBSTable orderItems = createObject(DBSTable.class, publicSchema, "order_items");
+        DBSTable salesOrders = createObject(DBSTable.class, salesSchema, "orders");
+        DBSTableColumn orderId = createObject(DBSTableColumn.class, orders, "order_id");
+        ObjectNameIndex index = Objects.requireNonNull(ObjectNameIndex.getIndex(dataSource));
+        index.loadIndex();
+
+        // Objects read one by one
+        ObjectNameIndex.updateObjects(null, List.of(orders, salesOrders));
+        Assert.assertFalse(isFullyIndexed(dataSource, TABLES, publicSchema));
+
+        // All tables of the schema were read
+        ObjectNameIndex.updateObjects(List.of(orders), List.of(orders, orderItems));
+        ObjectNameIndex.markFullyIndexed(List.of(orders, orderItems));
+        Assert.assertTrue(isFullyIndexed(dataSource, TABLES, publicSchema));
+        Assert.assertTrue(isFullyIndexed(dataSource, new DBSObjectType[]{RelationalObjectType.TYPE_TABLE, RelationalObjectType.TYPE_PROCEDURE}, publicSchema));
+        Assert.assertFalse(isFullyIndexed(dataSource, new DBSObjectType[]{RelationalObjectType.TYPE_PROCEDURE}, publicSchema));
+        Assert.assertFalse(isFullyIndexed(dataSource, TABLES, salesSchema));
+        Assert.assertFalse("Columns were not read", isFullyIndexed(dataSource, COLUMNS, publicSchema));
+        Assert.assertFalse("Other schemas were not read", isFullyIndexed(dataSource, TABLES, dataSource));
+        Assert.assertFalse(isFullyIndexed(dataSource, TABLES, null));
+        DBSStructureAssistant.ObjectsSearchParams params = createParams(TABLES, "order%", publicSchema);
+        params.setSearchInComments(true);
+        Assert.assertFalse(ObjectNameIndex.isFullyIndexed(dataSource, params));
+
+        ObjectNameIndex.updateObjects(null, List.of(orderId));
+        ObjectNameIndex.markFullyIndexed(List.of(orderId));
+        Assert.assertTrue(isFullyIndexed(dataSource, COLUMNS, orders));
+
+        // Refresh
+        ObjectNameIndex.detachObjects(List.of(orders, orderItems));
+        Assert.assertFalse(isFullyIndexed(dataSource, TABLES, publicSchema));
+        ObjectNameIndex.markFullyIndexed(List.of(orders, orderItems));
+        Assert.assertTrue(isFullyIndexed(dataSource, TABLES, publicSchema));
+
+        // Next connect doesn't use parents read in the previous connection
+        TestDataSource newDataSource = Mockito.mock(TestDataSource.class);
+        DBPDataSourceContainer container = dataSource.getContainer();
+        Mockito.when(newDataSource.getContainer()).thenReturn(container);
+        Mockito.when(newDataSource.getDataSource()).thenReturn(newDataSource);
+        Mockito.when(container.getDataSource()).thenReturn(newDataSource);
+        DBSSchema newSchema = createSchema(newDataSource, "public");
+        Assert.assertSame(index, ObjectNameIndex.getIndex(newDataSource));
+        Assert.assertFalse(isFullyIndexed(newDataSource, TABLES, newSchema));
+        ObjectNameIndex.markFullyIndexed(List.of(createObject(DBSTable.class, newSchema, "orders")));
+        Assert.assertTrue(isFullyIndexed(newDataSource, TABLES, newSchema));
+    }
+
+    @Test
+    public void disabledIndex() {
+        TestDataSource dataSource = createDataSource(CONTAINER_ID);
+        DBPPreferenceStore preferenceStore = dataSource.getContainer().getPreferenceStore();
+        Mockito.when(preferenceStore.getBoolean(ModelPreferences.META_NAME_INDEX)).thenReturn(false);
+        Assert.assertNull(ObjectNameIndex.getIndex(dataSource));
+        Assert.assertNull(ObjectNameIndex.findObjects(dataSource, createParams(TABLES, "order%", null)));
+    }
+
+    private Set<DBSObject> find(
+        DBPDataSource dataSource,
+        DBSObjectType[] objectTypes,
+        String mask,
+        DBSObject parentObject
+    ) throws DBException {
+        List<DBSObjectReference> references = ObjectNameIndex.findObjects(dataSource, createParams(objectTypes, mask, parentObject));
+        Assert.assertNotNull(references);
+        Set<DBSObject> objects = new HashSet<>();
+        for (DBSObjectReference reference : references) {
+            objects.add(reference.resolveObject(monitor));
+        }
+        Assert.assertEquals("Each object is found once", references.size(), objects.size());
+        return objects;
+    }
+
+    private static boolean isFullyIndexed(DBPDataSource dataSource, DBSObjectType[] objectTypes, DBSObject parentObject) {
+        return ObjectNameIndex.isFullyIndexed(dataSource, createParams(objectTypes, "order%", parentObject));
+    }
+
+    private static DBSStructureAssistant.ObjectsSearchParams createParams(
+        DBSObjectType[] objectTypes,
+        String mask,
+        DBSObject parentObject
+    ) {
+        DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(objectTypes, mask);
+        params.setParentObject(parentObject);
+        params.setGlobalSearch(parentObject == null);
+        return params;
+    }
+
+    private TestDataSource createDataSource(String id) {
+        DBPPreferenceStore preferenceStore = Mockito.mock(DBPPreferenceStore.class);
+        Mockito.when(preferenceStore.getBoolean(ModelPreferences.META_NAME_INDEX)).thenReturn(true);
+        DBPProject project = Mockito.mock(DBPProject.class);
+        Mockito.when(project.getMetadataFolder(true)).thenReturn(metadataFolder);
+        Mockito.when(project.getMetadataFolder(false)).thenReturn(metadataFolder);
+        projects.add(project);
+
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getId()).thenReturn(id);
+        Mockito.when(container.getName()).thenReturn(id);
+        Mockito.when(container.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.when(container.getProject()).thenReturn(project);
+        TestDataSource dataSource = Mockito.mock(TestDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(dataSource.getDataSource()).thenReturn(dataSource);
+        Mockito.when(container.getDataSource()).thenReturn(dataSource);
+        return dataSource;
+    }
+
+    private DBSSchema createSchema(TestDataSource dataSource, String name) throws DBException {
+        DBSSchema schema = createObject(DBSSchema.class, dataSource, name);
+        Mockito.when(dataSource.getChild(monitor, name)).thenReturn(schema);
+        return schema;
+    }
+
+    private static <T extends DBSObject> T createObject(Class<T> type, DBSObject parent, String name) {
+        T object = Mockito.mock(type);
+        DBPDataSource dataSource = parent.getDataSource();
+        Mockito.when(object.getName()).thenReturn(name);
+        Mockito.when(object.getParentObject()).thenReturn(parent);
+        Mockito.when(object.getDataSource()).thenReturn(dataSource);
+        return object;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TrigramNameIndexTest {
+
+    @Test
+    public void findByMask() {
+        TrigramNameIndex<String> index = makeIndex("customer", "customer_address", "order_customer", "orders", "cu");
+        Assert.assertEquals(List.of("customer", "customer_address"), index.find("cust%", false, null, 10));
+        Assert.assertEquals(List.of("customer", "customer_address", "order_customer"), index.find("%CUSTOMER%", false, null, 10));
+        Assert.assertEquals(List.of(), index.find("%CUSTOMER%", true, null, 10));
+        Assert.assertEquals(List.of("orders"), index.find("order_", false, null, 10));
+        Assert.assertEquals(List.of("cu"), index.find("cu", false, null, 10));
+        Assert.assertEquals(List.of("customer"), index.find("%cust%", false, name -> !name.contains("_"), 10));
+        Assert.assertEquals(1, index.find("%", false, null, 1).size());
+    }
+
+    @Test
+    public void removeAndReplace() {
+        TrigramNameIndex<String> index = makeIndex("customer", "orders");
+        Assert.assertEquals("orders", index.remove("orders"));
+        Assert.assertNull(index.remove("orders"));
+        Assert.assertEquals(List.of(), index.find("ord%", false, null, 10));
+
+        index.put("customer", "client", "client");
+        Assert.assertEquals(List.of(), index.find("cust%", false, null, 10));
+        Assert.assertEquals(List.of("client"), index.find("cli%", false, null, 10));
+        Assert.assertEquals(1, index.size());
+    }
+
+    @Test
+    public void compactAfterRemove() {
+        TrigramNameIndex<String> index = new TrigramNameIndex<>();
+        for (int i = 0; i < 30_000; i++) {
+            index.put("t" + i, "table_" + i, "table_" + i);
+        }
+        for (int i = 0; i < 25_000; i++) {
+            index.remove("t" + i);
+        }
+        Assert.assertEquals(5_000, index.size());
+        Assert.assertEquals(List.of("table_29999"), index.find("%29999", false, null, 10));
+        Assert.assertEquals(5_000, index.find("table%", false, null, Integer.MAX_VALUE).size());
+    }
+
+    private static TrigramNameIndex<String> makeIndex(String... names) {
+        TrigramNameIndex<String> index = new TrigramNameIndex<>();
+        for (String name : names) {
+            index.put(name, name, name);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.jobs;
+
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.app.DBPWorkspace;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataSourceMonitorJobTest {
+
+    @Mock
+    private DBPPlatform platform;
+    @Mock
+    private DBPWorkspace workspace;
+    @Mock
+    private DBPProject project;
+    @Mock
+    private DBPDataSourceRegistry registry;
+    @Mock
+    private DBPDataSourceContainer connected;
+    @Mock
+    private DBPDataSourceContainer disconnected;
+    @Mock
+    private DBPPreferenceStore preferenceStore;
+
+    private final DBPConnectionConfiguration configuration = new DBPConnectionConfiguration();
+    private int endIdleCalls;
+    private DataSourceMonitorJob job;
+
+    @Before
+    public void setUp() {
+        Mockito.doReturn(List.of(project)).when(workspace).getProjects();
+        Mockito.lenient().when(project.isOpen()).thenReturn(true);
+        Mockito.lenient().when(project.isRegistryLoaded()).thenReturn(true);
+        Mockito.lenient().when(project.getDataSourceRegistry()).thenReturn(registry);
+        Mockito.lenient().doReturn(List.of(connected, disconnected)).when(registry).getDataSources();
+        for (DBPDataSourceContainer container : List.of(connected, disconnected)) {
+            Mockito.lenient().when(container.getRegistry()).thenReturn(registry);
+            Mockito.lenient().when(container.getConnectionConfiguration()).thenReturn(configuration);
+            Mockito.lenient().when(container.getPreferenceStore()).thenReturn(preferenceStore);
+        }
+        Mockito.lenient().when(connected.isConnected()).thenReturn(true);
+        job = new DataSourceMonitorJob(platform) {
+            @Override
+            protected boolean endIdleTransactionOrConnection(DBPDataSourceContainer dsDescriptor, long lastUserActivityTime) {
+                endIdleCalls++;
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void dataSourcesFollowRegistryEvents() {
+        job.checkDataSourceAliveInWorkspace(workspace, -1);
+        DBPEventListener listener = captureRegistryListener();
+        Assert.assertTrue(job.isWatched(connected));
+        Assert.assertFalse(job.isWatched(disconnected));
+        // Keep-alive and idle timeout checks
+        Assert.assertEquals(2, job.getQueuedCheckCount());
+
+        Mockito.when(disconnected.isConnected()).thenReturn(true);
+        listener.handleDataSourceEvent(new DBPEvent(DBPEvent.Action.AFTER_CONNECT, disconnected, true));
+        Assert.assertTrue(job.isWatched(disconnected));
+        Assert.assertEquals(4, job.getQueuedCheckCount());
+        // Repeated events don't add checks
+        listener.handleDataSourceEvent(new DBPEvent(DBPEvent.Action.OBJECT_UPDATE, disconnected, true));
+        Assert.assertEquals(4, job.getQueuedCheckCount());
+
+        Mockito.when(connected.isConnected()).thenReturn(false);
+        listener.handleDataSourceEvent(new DBPEvent(DBPEvent.Action.OBJECT_UPDATE, connected, false));
+        Assert.assertFalse(job.isWatched(connected));
+        Assert.assertEquals(2, job.getQueuedCheckCount());
+
+        listener.handleDataSourceEvent(new DBPEvent(DBPEvent.Action.OBJECT_REMOVE, disconnected));
+        Assert.assertFalse(job.isWatched(disconnected));
+        Assert.assertEquals(0, job.getQueuedCheckCount());
+
+        // Registry is subscribed once
+        job.checkDataSourceAliveInWorkspace(workspace, -1);
+        Mockito.verify(registry, Mockito.times(1)).addDataSourceListener(Mockito.any());
+        Assert.assertFalse(job.isWatched(connected));
+    }
+
+    @Test
+    public void workspaceIsScannedOnEveryCheck() {
+        Mockito.when(project.isRegistryLoaded()).thenReturn(false);
+        job.checkDataSourceAliveInWorkspace(workspace, -1);
+        Mockito.verify(registry, Mockito.never()).addDataSourceListener(Mockito.any());
+        Assert.assertFalse(job.isWatched(connected));
+
+        // Registry loaded after the first check
+        Mockito.when(project.isRegistryLoaded()).thenReturn(true);
+        job.checkDataSourceAliveInWorkspace(workspace, -1);
+        DBPEventListener listener = captureRegistryListener();
+        Assert.assertTrue(job.isWatched(connected));
+
+        // Project closed
+        Mockito.when(project.isOpen()).thenReturn(false);
+        job.checkDataSourceAliveInWorkspace(workspace, -1);
+        Mockito.verify(registry).removeDataSourceListener(listener);
+        Assert.assertFalse(job.isWatched(connected));
+        Assert.assertEquals(0, job.getQueuedCheckCount());
+    }
+
+    @Test
+    public void idleDataSourceIsHandledOncePerCheck() {
+        configuration.setCloseIdleConnection(true);
+        configuration.setCloseIdleInterval(5);
+        Mockito.when(preferenceStore.contains(ModelPreferences.TRANSACTIONS_AUTO_CLOSE_ENABLED)).thenReturn(true);
+        Mockito.when(preferenceStore.getInt(ModelPreferences.TRANSACTIONS_AUTO_CLOSE_TTL)).thenReturn(5);
+
+        // Both disconnect and transaction timeouts are expired
+        long lastUserActivityTime = System.currentTimeMillis() - 60000;
+        job.checkDataSourceAliveInWorkspace(workspace, lastUserActivityTime);
+        Assert.assertEquals(1, endIdleCalls);
+
+        // Next check is in 5 seconds
+        job.checkDataSourceAliveInWorkspace(workspace, lastUserActivityTime);
+        Assert.assertEquals(1, endIdleCalls);
+        Assert.assertEquals(2, job.getQueuedCheckCount());
+    }
+
+    private DBPEventListener captureRegistryListener() {
+        ArgumentCaptor<DBPEventListener> listener = ArgumentCaptor.forClass(DBPEventListener.class);
+        Mockito.verify(registry).addDataSourceListener(listener.capture());
+        return listener.getValue();
+    }
+}
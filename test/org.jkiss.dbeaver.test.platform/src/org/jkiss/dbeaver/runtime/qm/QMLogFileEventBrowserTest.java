@@ -0,0 +1,95 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.qm.QMEventCursor;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class QMLogFileEventBrowserTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void readsNewestEventsFirst() throws Exception {
+        Path logFolder = tempFolder.getRoot().toPath();
+        writeQueries(logFolder.resolve("dbeaver_sql_20240101.jsonl"), 0, 300);
+        writeQueries(logFolder.resolve("dbeaver_sql_20240102.jsonl"), 300, 10);
+
+        QMLogFileEventBrowser browser = new QMLogFileEventBrowser(logFolder);
+        List<String> queries = readQueries(browser, new QMEventCriteria(), 20);
+        Assert.assertEquals(20, queries.size());
+        Assert.assertEquals("select 309", queries.get(0));
+        Assert.assertEquals("select 300", queries.get(9));
+        Assert.assertEquals("select 299", queries.get(10));
+        Assert.assertEquals("select 290", queries.get(19));
+
+        // Appended lines are indexed incrementally
+        writeQueries(logFolder.resolve("dbeaver_sql_20240102.jsonl"), 310, 1);
+        Assert.assertEquals("select 310", readQueries(browser, new QMEventCriteria(), 1).get(0));
+    }
+
+    @Test
+    public void readsInAscendingOrderWithSearch() throws Exception {
+        Path logFolder = tempFolder.getRoot().toPath();
+        writeQueries(logFolder.resolve("dbeaver_sql_20240101.jsonl"), 0, 1000);
+
+        QMEventCriteria criteria = new QMEventCriteria();
+        criteria.setDesc(false);
+        criteria.setSearchString("SELECT 99");
+        List<String> queries = readQueries(new QMLogFileEventBrowser(logFolder), criteria, 100);
+        Assert.assertEquals(List.of("select 99", "select 990", "select 991", "select 992", "select 993",
+            "select 994", "select 995", "select 996", "select 997", "select 998", "select 999"), queries);
+    }
+
+    private static List<String> readQueries(QMLogFileEventBrowser browser, QMEventCriteria criteria, int maxCount) throws DBException {
+        List<String> queries = new ArrayList<>();
+        VoidProgressMonitor monitor = new VoidProgressMonitor();
+        try (QMEventCursor cursor = browser.getQueryHistoryCursor(new QMCursorFilter(null, criteria, null))) {
+            while (queries.size() < maxCount && cursor.hasNextEvent(monitor)) {
+                queries.add(((QMMStatementExecuteInfo) cursor.nextEvent(monitor).getObject()).getQueryString());
+            }
+        }
+        return queries;
+    }
+
+    private static void writeQueries(Path file, int first, int count) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (int i = first; i < first + count; i++) {
+                writer.write("{\"id\":" + i + ",\"action\":\"END\",\"openTime\":" + i + ",\"closeTime\":" + i +
+                    ",\"containerName\":\"test\",\"type\":\"query\",\"query\":\"select " + i + "\",\"purpose\":\"USER\",\"rows\":1}\n");
+            }
+        }
+    }
+}
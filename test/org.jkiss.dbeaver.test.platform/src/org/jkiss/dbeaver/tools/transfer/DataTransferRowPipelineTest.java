@@ -0,0 +1,80 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DataTransferRowPipelineTest {
+
+    @Test
+    public void writesRowsInOrder() throws DBCException {
+        List<Object> written = new ArrayList<>();
+        DataTransferRowPipeline pipeline = new DataTransferRowPipeline("test", row -> written.add(row[0]), 7, 2);
+        pipeline.start();
+        for (int i = 0; i < 1000; i++) {
+            pipeline.addRow(new Object[]{i});
+        }
+        pipeline.finish();
+
+        Assert.assertEquals(1000, written.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, written.get(i));
+        }
+        DBCStatistics statistics = new DBCStatistics();
+        pipeline.fillStatistics(statistics);
+        Assert.assertTrue(statistics.getInfo().containsKey(DataTransferRowPipeline.STAT_FETCH_WAIT_TIME));
+        Assert.assertTrue(statistics.getInfo().containsKey(DataTransferRowPipeline.STAT_WRITE_WAIT_TIME));
+    }
+
+    @Test
+    public void flushWritesPendingRows() throws DBCException {
+        List<Object> written = new ArrayList<>();
+        DataTransferRowPipeline pipeline = new DataTransferRowPipeline("test", row -> written.add(row[0]), 100, 2);
+        pipeline.start();
+        pipeline.addRow(new Object[]{1});
+        pipeline.addRow(new Object[]{2});
+        pipeline.flush();
+        Assert.assertEquals(List.of(1, 2), written);
+        pipeline.addRow(new Object[]{3});
+        pipeline.finish();
+        Assert.assertEquals(List.of(1, 2, 3), written);
+    }
+
+    @Test
+    public void writerErrorIsPropagated() {
+        DataTransferRowPipeline pipeline = new DataTransferRowPipeline("test", row -> {
+            throw new IOException("Disk full");
+        }, 1, 1);
+        pipeline.start();
+        try {
+            for (int i = 0; i < 100; i++) {
+                pipeline.addRow(new Object[]{i});
+            }
+            pipeline.finish();
+            Assert.fail("Writer error expected");
+        } catch (DBCException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+}
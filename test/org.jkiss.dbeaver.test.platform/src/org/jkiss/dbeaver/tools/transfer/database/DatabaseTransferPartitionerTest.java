@@ -0,0 +1,90 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class DatabaseTransferPartitionerTest {
+
+    @Test
+    public void evenRanges() {
+        assertBounds(bounds(0, 100, 4, true), "25", "50", "75");
+        assertBounds(bounds(0, 10, 4, true), "2", "5", "7");
+        assertBounds(DatabaseTransferPartitioner.makeRangeBounds(
+            BigDecimal.ZERO, BigDecimal.ONE, 4, false), "0.25", "0.5", "0.75");
+    }
+
+    @Test
+    public void emptyRange() {
+        Assert.assertTrue(bounds(5, 5, 4, true).isEmpty());
+        Assert.assertTrue(bounds(10, 5, 4, true).isEmpty());
+        Assert.assertTrue(bounds(0, 100, 1, true).isEmpty());
+        Assert.assertTrue(bounds(0, 100, 0, true).isEmpty());
+    }
+
+    @Test
+    public void fewerKeysThanPartitions() {
+        // Bounds are distinct, so there are fewer ranges than requested
+        assertBounds(bounds(1, 3, 10, true), "2");
+        assertBounds(bounds(1, 5, 10, true), "2", "3", "4");
+        Assert.assertTrue(bounds(0, 1, 4, true).isEmpty());
+    }
+
+    @Test
+    public void negativeRanges() {
+        assertBounds(bounds(-100, -20, 4, true), "-80", "-60", "-40");
+        // Integral bounds are rounded down
+        assertBounds(bounds(-10, -1, 4, true), "-8", "-6", "-4");
+        assertBounds(bounds(-10, 10, 2, true), "0");
+        assertBounds(DatabaseTransferPartitioner.makeRangeBounds(
+            new BigDecimal("-1.5"), new BigDecimal("-0.5"), 2, false), "-1");
+    }
+
+    @Test
+    public void longLimits() {
+        assertBounds(bounds(Long.MAX_VALUE - 10, Long.MAX_VALUE, 4, true),
+            String.valueOf(Long.MAX_VALUE - 8), String.valueOf(Long.MAX_VALUE - 5), String.valueOf(Long.MAX_VALUE - 3));
+        assertBounds(bounds(Long.MIN_VALUE, Long.MIN_VALUE + 10, 4, true),
+            String.valueOf(Long.MIN_VALUE + 2), String.valueOf(Long.MIN_VALUE + 5), String.valueOf(Long.MIN_VALUE + 7));
+
+        // Range wider than Long.MAX_VALUE
+        List<BigDecimal> bounds = bounds(Long.MIN_VALUE, Long.MAX_VALUE, 16, true);
+        Assert.assertEquals(15, bounds.size());
+        long previous = Long.MIN_VALUE;
+        for (BigDecimal bound : bounds) {
+            long value = bound.longValueExact();
+            Assert.assertTrue(value > previous);
+            previous = value;
+        }
+        Assert.assertTrue(previous < Long.MAX_VALUE);
+    }
+
+    private static List<BigDecimal> bounds(long min, long max, int count, boolean integral) {
+        return DatabaseTransferPartitioner.makeRangeBounds(BigDecimal.valueOf(min), BigDecimal.valueOf(max), count, integral);
+    }
+
+    private static void assertBounds(List<BigDecimal> bounds, String... expected) {
+        Assert.assertEquals(expected.length, bounds.size());
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(0, new BigDecimal(expected[i]).compareTo(bounds.get(i)));
+        }
+    }
+}
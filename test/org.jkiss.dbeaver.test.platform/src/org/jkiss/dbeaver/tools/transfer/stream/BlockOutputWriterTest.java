@@ -0,0 +1,56 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class BlockOutputWriterTest {
+
+    @Test
+    public void writesOnlyFullBlocksUntilFlush() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BlockOutputWriter writer = new BlockOutputWriter(out, StandardCharsets.UTF_8, 1024);
+        writer.write("abc");
+        Assert.assertEquals(0, out.size());
+        Assert.assertEquals(3, writer.getPendingBytes());
+        writer.write("x".repeat(20000));
+        Assert.assertTrue(out.size() > 0);
+        Assert.assertEquals(0, out.size() % 1024);
+        writer.flush();
+        Assert.assertEquals(20003, out.size());
+        Assert.assertEquals(0, writer.getPendingBytes());
+    }
+
+    @Test
+    public void encodesSurrogatePairsSplitBetweenWrites() throws IOException {
+        // Non-BMP characters are encoded as surrogate pairs and may be split by the char buffer
+        String text = "😀 é中".repeat(10000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BlockOutputWriter writer = new BlockOutputWriter(out, StandardCharsets.UTF_8, 1024)) {
+            for (int i = 0; i < text.length(); i++) {
+                writer.write(text.charAt(i));
+            }
+            writer.write(text.toCharArray(), 0, text.length());
+        }
+        Assert.assertEquals(text + text, out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+public class ParallelGzipOutputStreamTest {
+
+    @Test
+    public void compressesMultipleBlocks() throws IOException {
+        Random random = new Random(1);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, ForkJoinPool.commonPool(), Deflater.DEFAULT_COMPRESSION, 4096)) {
+            for (int i = 0; i < 100; i++) {
+                // Compressible but not trivial data
+                byte[] chunk = new byte[1 + random.nextInt(3000)];
+                for (int k = 0; k < chunk.length; k++) {
+                    chunk[k] = (byte) ('a' + random.nextInt(8));
+                }
+                out.write(chunk);
+                expected.write(chunk);
+                if (i % 10 == 0) {
+                    out.write('\n');
+                    expected.write('\n');
+                    out.flush();
+                }
+            }
+        }
+        Assert.assertTrue(compressed.size() < expected.size());
+        Assert.assertArrayEquals(expected.toByteArray(), decompress(compressed.toByteArray()));
+    }
+
+    @Test
+    public void emptyInputProducesValidGzip() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(compressed).close();
+        Assert.assertArrayEquals(new byte[0], decompress(compressed.toByteArray()));
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
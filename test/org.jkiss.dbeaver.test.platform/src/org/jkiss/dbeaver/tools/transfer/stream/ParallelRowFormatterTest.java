@@ -0,0 +1,116 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.StreamExporterParallelAbstract;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelRowFormatterTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void writesRowsInOrder() throws DBException, IOException {
+        StringWriter output = new StringWriter();
+        ParallelRowFormatter formatter = new ParallelRowFormatter(new TestExporter(-1), Mockito.mock(DBCSession.class), output, pool, 7);
+        int rowNum = 0;
+        for (int batch = 0; batch < 10; batch++) {
+            Object[][] rows = new Object[100][];
+            for (int i = 0; i < 50; i++) {
+                rows[i] = new Object[]{"value" + rowNum++};
+            }
+            // Only part of the batch array is filled
+            formatter.submit(rows, 50);
+        }
+        formatter.flush();
+
+        String[] lines = output.toString().split("\n");
+        Assert.assertEquals(rowNum, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Assert.assertEquals(i + "=value" + i, lines[i]);
+        }
+    }
+
+    @Test
+    public void formattingErrorIsPropagated() throws IOException {
+        ParallelRowFormatter formatter = new ParallelRowFormatter(new TestExporter(33), Mockito.mock(DBCSession.class), new StringWriter(), pool, 10);
+        Object[][] rows = new Object[100][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{i};
+        }
+        try {
+            formatter.submit(rows, rows.length);
+            formatter.flush();
+            Assert.fail("Formatting error expected");
+        } catch (DBException e) {
+            Assert.assertEquals("Bad row 33", e.getMessage());
+        }
+    }
+
+    private static class TestExporter extends StreamExporterParallelAbstract {
+        private final long badRowIndex;
+
+        TestExporter(long badRowIndex) {
+            this.badRowIndex = badRowIndex;
+        }
+
+        @Override
+        public void exportHeader(DBCSession session) {
+            resetRowCount();
+        }
+
+        @Override
+        public void exportFooter(DBRProgressMonitor monitor) {
+            // no footer
+        }
+
+        @Override
+        protected void writeRow(@NotNull DBCSession session, @Nullable DBCResultSet resultSet, @NotNull Object[] row, long rowIndex, @NotNull PrintWriter out)
+            throws DBException
+        {
+            if (rowIndex == badRowIndex) {
+                throw new DBException("Bad row " + rowIndex);
+            }
+            out.write(rowIndex + "=" + row[0] + "\n");
+        }
+    }
+}
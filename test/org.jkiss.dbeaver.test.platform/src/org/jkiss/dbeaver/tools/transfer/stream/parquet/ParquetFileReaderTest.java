@@ -0,0 +1,773 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reader tests. Encoded data is built here from the Parquet format specification
+ * (https://github.com/apache/parquet-format), independently of ParquetFileWriter,
+ * so encodings which the writer never produces are covered too.
+ */
+public class ParquetFileReaderTest {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    // Values from parquet.thrift
+    private static final int TYPE_BOOLEAN = 0;
+    private static final int TYPE_INT32 = 1;
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_BYTE_ARRAY = 6;
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CODEC_UNCOMPRESSED = 0;
+    private static final int CODEC_SNAPPY = 1;
+    private static final int CODEC_GZIP = 2;
+    private static final int PAGE_DATA = 0;
+    private static final int PAGE_DICTIONARY = 2;
+    private static final int PAGE_DATA_V2 = 3;
+    private static final int ENC_PLAIN = 0;
+    private static final int ENC_PLAIN_DICTIONARY = 2;
+    private static final int ENC_RLE = 3;
+    private static final int ENC_DELTA_BINARY_PACKED = 5;
+    private static final int ENC_DELTA_LENGTH_BYTE_ARRAY = 6;
+    private static final int ENC_DELTA_BYTE_ARRAY = 7;
+    private static final int ENC_RLE_DICTIONARY = 8;
+
+    @Test
+    public void decodeRleBitPacked() throws IOException {
+        byte[] data = {
+            // Bit-packed run from the specification: values 0..7, bit width 3
+            0x03, (byte) 0x88, (byte) 0xC6, (byte) 0xFA,
+            // RLE run: 5 times value 4
+            0x0A, 0x04
+        };
+        int[] result = new int[13];
+        ParquetFileReader.decodeRleBitPacked(data, 0, data.length, 3, result, 13);
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 4, 4, 4, 4, 4}, result);
+
+        // RLE value wider than one byte
+        data = new byte[]{0x06, 0x2C, 0x01};
+        result = new int[3];
+        ParquetFileReader.decodeRleBitPacked(data, 0, data.length, 9, result, 3);
+        Assert.assertArrayEquals(new int[]{300, 300, 300}, result);
+
+        // Padding of the last bit-packed group is ignored
+        result = new int[5];
+        ParquetFileReader.decodeRleBitPacked(new byte[]{0x03, (byte) 0x88, (byte) 0xC6, (byte) 0xFA}, 0, 4, 3, result, 5);
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3, 4}, result);
+
+        try {
+            ParquetFileReader.decodeRleBitPacked(new byte[]{0x0A, 0x04}, 0, 2, 3, new int[6], 6);
+            Assert.fail("Truncated data must fail");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void readDeltaBinaryPackedPages() throws IOException {
+        ChunkFixture value = new ChunkFixture("value", TYPE_INT32, false, -1, CODEC_UNCOMPRESSED);
+        // Example 1 from the specification: 1, 2, 3, 4, 5
+        value.addDataPage(ENC_DELTA_BINARY_PACKED, 5, null,
+            new byte[]{(byte) 0x80, 0x01, 0x04, 0x05, 0x02, 0x02, 0x00, 0x00, 0x00, 0x00});
+        // Example 2 from the specification: 7, 5, 3, 1, 2, 3, 4, 5
+        value.addDataPage(ENC_DELTA_BINARY_PACKED, 8, null, new byte[]{
+            (byte) 0x80, 0x01, 0x04, 0x08, 0x0E,
+            0x03, 0x02, 0x00, 0x00, 0x00,
+            (byte) 0xC0, (byte) 0xFF, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00
+        });
+        // Several blocks, partial miniblocks and negative deltas
+        long[] values = new long[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i % 2 == 0 ? 1 : -1) * i * 1_000_003;
+        }
+        value.addDataPage(ENC_DELTA_BINARY_PACKED, values.length, null, encodeDeltaBinaryPacked(values));
+
+        List<Integer> expected = new ArrayList<>(List.of(1, 2, 3, 4, 5, 7, 5, 3, 1, 2, 3, 4, 5));
+        for (long number : values) {
+            expected.add((int) number);
+        }
+        Path file = writeFixture(expected.size(), value);
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            ParquetFileReader.RowReader rows = reader.openRows(null);
+            Object[] row = new Object[1];
+            for (int i = 0; i < expected.size(); i++) {
+                Assert.assertTrue(rows.next(row));
+                Assert.assertEquals("Row " + i, expected.get(i), row[0]);
+            }
+            Assert.assertFalse(rows.next(row));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void decompressSnappy() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String longLiteral = "0123456789".repeat(7);
+        String prefix = "abcd" + "abcdabcdab" + "xyz";
+        String expected = prefix + prefix + "ab" + longLiteral + longLiteral.substring(0, 40);
+        writeVarInt(out, expected.length());
+        // Literal "abcd"
+        out.write(3 << 2);
+        out.write("abcd".getBytes(StandardCharsets.US_ASCII));
+        // 1-byte offset copy, overlapping: length 10, offset 4
+        out.write(1 | (10 - 4) << 2);
+        out.write(4);
+        // Literal "xyz"
+        out.write(2 << 2);
+        out.write("xyz".getBytes(StandardCharsets.US_ASCII));
+        // 2-byte offset copy: length 19, offset 17
+        out.write(2 | (19 - 1) << 2);
+        out.write(17);
+        out.write(0);
+        // Literal longer than 60 bytes, length in one extra byte
+        out.write(60 << 2);
+        out.write(longLiteral.length() - 1);
+        out.write(longLiteral.getBytes(StandardCharsets.US_ASCII));
+        // 4-byte offset copy: length 40, offset 70
+        out.write(3 | (40 - 1) << 2);
+        out.write(new byte[]{70, 0, 0, 0});
+
+        byte[] result = ParquetFileReader.decompressSnappy(out.toByteArray());
+        Assert.assertEquals(expected, new String(result, StandardCharsets.US_ASCII));
+
+        try {
+            // Copy before the start of output
+            ParquetFileReader.decompressSnappy(new byte[]{0x08, 0x00, 'a', 1 | (4 << 2), 0x02});
+            Assert.fail("Bad copy offset must fail");
+        } catch (IOException e) {
+            // Expected
+        }
+        try {
+            // Truncated literal
+            ParquetFileReader.decompressSnappy(new byte[]{0x08, 7 << 2, 'a', 'b'});
+            Assert.fail("Truncated data must fail");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void readDictionaryPagesWithGzip() throws IOException {
+        String[] dictionary = {"red", "green", "blue"};
+        int rowCount = 20;
+        String[] expected = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            expected[i] = i % 5 == 4 ? null : dictionary[i % 3];
+        }
+
+        ChunkFixture color = new ChunkFixture("color", TYPE_BYTE_ARRAY, true, CONVERTED_UTF8, CODEC_GZIP);
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        for (String value : dictionary) {
+            writePlainBytes(plain, value.getBytes(StandardCharsets.UTF_8));
+        }
+        color.addDictionaryPage(plain.toByteArray(), dictionary.length);
+        // Parquet 2.0 and legacy 1.0 dictionary encoding ids
+        for (int page = 0; page < 2; page++) {
+            int[] levels = new int[10];
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int row = page * 10 + i;
+                levels[i] = expected[row] == null ? 0 : 1;
+                if (expected[row] != null) {
+                    indexes.add(row % 3);
+                }
+            }
+            ByteArrayOutputStream values = new ByteArrayOutputStream();
+            values.write(2);
+            values.write(encodeRleBitPacked(indexes.stream().mapToInt(Integer::intValue).toArray(), 2));
+            color.addDataPage(page == 0 ? ENC_RLE_DICTIONARY : ENC_PLAIN_DICTIONARY, 10, encodeRleBitPacked(levels, 1), values.toByteArray());
+        }
+
+        Path file = writeFixture(rowCount, color);
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            Assert.assertEquals(rowCount, reader.getRowCount());
+            ParquetColumn column = reader.getColumns().get(0);
+            Assert.assertEquals("color", column.getName());
+            Assert.assertEquals(ParquetColumn.LogicalType.STRING, column.getLogicalType());
+            Assert.assertTrue(column.isOptional());
+
+            ParquetFileReader.RowReader rows = reader.openRows(null);
+            Object[] row = new Object[1];
+            for (int i = 0; i < rowCount; i++) {
+                Assert.assertTrue(rows.next(row));
+                Assert.assertEquals("Row " + i, expected[i], row[0]);
+            }
+            Assert.assertFalse(rows.next(row));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void readDeltaEncodedPagesV2WithSnappy() throws IOException {
+        int rowCount = 300;
+        long[] ids = new long[rowCount];
+        int[] codes = new int[rowCount];
+        String[] names = new String[rowCount];
+        String[] paths = new String[rowCount];
+        boolean[] flags = new boolean[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            ids[i] = (i % 2 == 0 ? 1 : -1) * (long) i * 1_000_003L;
+            codes[i] = i * -7919;
+            names[i] = i % 7 == 0 ? null : (i % 3 == 0 ? "имя " : "name ") + i;
+            paths[i] = "/data/item/" + i / 10 + "/" + i;
+            flags[i] = i % 16 < 9;
+        }
+
+        ChunkFixture id = new ChunkFixture("id", TYPE_INT64, false, -1, CODEC_SNAPPY);
+        ChunkFixture code = new ChunkFixture("code", TYPE_INT32, false, -1, CODEC_SNAPPY);
+        ChunkFixture name = new ChunkFixture("name", TYPE_BYTE_ARRAY, true, CONVERTED_UTF8, CODEC_SNAPPY);
+        ChunkFixture path = new ChunkFixture("path", TYPE_BYTE_ARRAY, false, CONVERTED_UTF8, CODEC_SNAPPY);
+        ChunkFixture flag = new ChunkFixture("flag", TYPE_BOOLEAN, false, -1, CODEC_SNAPPY);
+        // Pages split inside a delta block
+        int[][] pages = {{0, 200}, {200, rowCount}};
+        for (int[] page : pages) {
+            int from = page[0];
+            int to = page[1];
+            int count = to - from;
+
+            id.addDataPageV2(ENC_DELTA_BINARY_PACKED, count, 0, new byte[0],
+                encodeDeltaBinaryPacked(Arrays.copyOfRange(ids, from, to)), true);
+
+            long[] codeValues = new long[count];
+            for (int i = 0; i < count; i++) {
+                codeValues[i] = codes[from + i];
+            }
+            code.addDataPageV2(ENC_DELTA_BINARY_PACKED, count, 0, new byte[0], encodeDeltaBinaryPacked(codeValues), true);
+
+            int[] levels = new int[count];
+            List<byte[]> nameValues = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (names[from + i] != null) {
+                    levels[i] = 1;
+                    nameValues.add(names[from + i].getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            name.addDataPageV2(ENC_DELTA_LENGTH_BYTE_ARRAY, count, count - nameValues.size(), encodeRleBitPacked(levels, 1),
+                encodeDeltaLengthByteArray(nameValues), true);
+
+            List<byte[]> pathValues = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                pathValues.add(paths[i].getBytes(StandardCharsets.UTF_8));
+            }
+            // Uncompressed page in compressed column chunk
+            path.addDataPageV2(ENC_DELTA_BYTE_ARRAY, count, 0, new byte[0], encodeDeltaByteArray(pathValues), false);
+
+            int[] bits = new int[count];
+            for (int i = 0; i < count; i++) {
+                bits[i] = flags[from + i] ? 1 : 0;
+            }
+            byte[] rle = encodeRleBitPacked(bits, 1);
+            ByteArrayOutputStream flagValues = new ByteArrayOutputStream();
+            writeIntLE(flagValues, rle.length);
+            flagValues.write(rle);
+            flag.addDataPageV2(ENC_RLE, count, 0, new byte[0], flagValues.toByteArray(), true);
+        }
+
+        Path file = writeFixture(rowCount, id, code, name, path, flag);
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            Assert.assertEquals(rowCount, reader.getRowCount());
+            Assert.assertEquals(5, reader.getColumns().size());
+
+            ParquetFileReader.RowReader rows = reader.openRows(null);
+            Object[] row = new Object[5];
+            for (int i = 0; i < rowCount; i++) {
+                Assert.assertTrue(rows.next(row));
+                Assert.assertEquals("Row " + i, ids[i], row[0]);
+                Assert.assertEquals("Row " + i, codes[i], row[1]);
+                Assert.assertEquals("Row " + i, names[i], row[2]);
+                Assert.assertEquals("Row " + i, paths[i], row[3]);
+                Assert.assertEquals("Row " + i, flags[i], row[4]);
+            }
+            Assert.assertFalse(rows.next(row));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void readPlainPagesV1() throws IOException {
+        int rowCount = 10;
+        ChunkFixture flag = new ChunkFixture("flag", TYPE_BOOLEAN, true, -1, CODEC_UNCOMPRESSED);
+        int[] levels = new int[rowCount];
+        ByteArrayOutputStream values = new ByteArrayOutputStream();
+        int bits = 0;
+        int count = 0;
+        for (int i = 0; i < rowCount; i++) {
+            if (i % 4 != 3) {
+                levels[i] = 1;
+                bits |= (i % 2) << count++;
+            }
+        }
+        values.write(bits);
+        flag.addDataPage(ENC_PLAIN, rowCount, encodeRleBitPacked(levels, 1), values.toByteArray());
+
+        Path file = writeFixture(rowCount, flag);
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            ParquetFileReader.RowReader rows = reader.openRows(null);
+            Object[] row = new Object[1];
+            for (int i = 0; i < rowCount; i++) {
+                Assert.assertTrue(rows.next(row));
+                Assert.assertEquals("Row " + i, i % 4 == 3 ? null : i % 2 == 1, row[0]);
+            }
+            Assert.assertFalse(rows.next(row));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+    // Fixture files
+
+    /**
+     * Single column chunk with hand-encoded pages
+     */
+    private static class ChunkFixture {
+        private final String name;
+        private final int type;
+        private final boolean optional;
+        private final int convertedType;
+        private final int codec;
+        private final ByteArrayOutputStream pages = new ByteArrayOutputStream();
+        private long numValues;
+        private long uncompressedSize;
+        private int dataPageOffset;
+
+        ChunkFixture(String name, int type, boolean optional, int convertedType, int codec) {
+            this.name = name;
+            this.type = type;
+            this.optional = optional;
+            this.convertedType = convertedType;
+            this.codec = codec;
+        }
+
+        void addDictionaryPage(byte[] values, int count) throws IOException {
+            byte[] compressed = compress(values);
+            ThriftWriter header = beginPageHeader(PAGE_DICTIONARY, values.length, compressed.length);
+            header.beginStructField(7);
+            header.writeI32Field(1, count);
+            header.writeI32Field(2, ENC_PLAIN);
+            header.endStruct();
+            header.endStruct();
+            pages.write(compressed);
+            uncompressedSize += values.length;
+            dataPageOffset = pages.size();
+        }
+
+        void addDataPage(int encoding, int count, byte[] levels, byte[] values) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (optional) {
+                writeIntLE(body, levels.length);
+                body.write(levels);
+            }
+            body.write(values);
+            byte[] compressed = compress(body.toByteArray());
+            ThriftWriter header = beginPageHeader(PAGE_DATA, body.size(), compressed.length);
+            header.beginStructField(5);
+            header.writeI32Field(1, count);
+            header.writeI32Field(2, encoding);
+            header.writeI32Field(3, ENC_RLE);
+            header.writeI32Field(4, ENC_RLE);
+            header.endStruct();
+            header.endStruct();
+            pages.write(compressed);
+            numValues += count;
+            uncompressedSize += body.size();
+        }
+
+        void addDataPageV2(int encoding, int count, int nullCount, byte[] levels, byte[] values, boolean compressValues) throws IOException {
+            // Levels are never compressed in V2 pages
+            byte[] compressed = compressValues ? compress(values) : values;
+            ThriftWriter header = beginPageHeader(PAGE_DATA_V2, levels.length + values.length, levels.length + compressed.length);
+            header.beginStructField(8);
+            header.writeI32Field(1, count);
+            header.writeI32Field(2, nullCount);
+            header.writeI32Field(3, count);
+            header.writeI32Field(4, encoding);
+            header.writeI32Field(5, levels.length);
+            header.writeI32Field(6, 0);
+            header.writeBoolField(7, compressValues);
+            header.endStruct();
+            header.endStruct();
+            pages.write(levels);
+            pages.write(compressed);
+            numValues += count;
+            uncompressedSize += levels.length + values.length;
+        }
+
+        private ThriftWriter beginPageHeader(int pageType, int uncompressedSize, int compressedSize) throws IOException {
+            ThriftWriter header = new ThriftWriter(pages);
+            header.beginStruct();
+            header.writeI32Field(1, pageType);
+            header.writeI32Field(2, uncompressedSize);
+            header.writeI32Field(3, compressedSize);
+            return header;
+        }
+
+        private byte[] compress(byte[] data) throws IOException {
+            switch (codec) {
+                case CODEC_SNAPPY:
+                    return compressSnappy(data);
+                case CODEC_GZIP: {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    try (OutputStream gzip = new GZIPOutputStream(out)) {
+                        gzip.write(data);
+                    }
+                    return out.toByteArray();
+                }
+                default:
+                    return data;
+            }
+        }
+    }
+
+    /**
+     * Writes single row group file
+     */
+    private static Path writeFixture(int rowCount, ChunkFixture... chunks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(MAGIC);
+        long[] offsets = new long[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            offsets[i] = out.size();
+            chunks[i].pages.writeTo(out);
+        }
+
+        ByteArrayOutputStream footer = new ByteArrayOutputStream();
+        ThriftWriter writer = new ThriftWriter(footer);
+        writer.beginStruct();
+        writer.writeI32Field(1, 1);
+        writer.beginListField(2, ThriftWriter.TYPE_STRUCT, chunks.length + 1);
+        writer.beginStruct();
+        writer.writeStringField(4, "schema");
+        writer.writeI32Field(5, chunks.length);
+        writer.endStruct();
+        for (ChunkFixture chunk : chunks) {
+            writer.beginStruct();
+            writer.writeI32Field(1, chunk.type);
+            writer.writeI32Field(3, chunk.optional ? 1 : 0);
+            writer.writeStringField(4, chunk.name);
+            if (chunk.convertedType >= 0) {
+                writer.writeI32Field(6, chunk.convertedType);
+            }
+            writer.endStruct();
+        }
+        writer.writeI64Field(3, rowCount);
+        writer.beginListField(4, ThriftWriter.TYPE_STRUCT, 1);
+        writer.beginStruct();
+        writer.beginListField(1, ThriftWriter.TYPE_STRUCT, chunks.length);
+        for (int i = 0; i < chunks.length; i++) {
+            ChunkFixture chunk = chunks[i];
+            writer.beginStruct();
+            writer.writeI64Field(2, offsets[i]);
+            writer.beginStructField(3);
+            writer.writeI32Field(1, chunk.type);
+            writer.beginListField(2, ThriftWriter.TYPE_I32, 0);
+            writer.beginListField(3, ThriftWriter.TYPE_BINARY, 1);
+            writer.writeString(chunk.name);
+            writer.writeI32Field(4, chunk.codec);
+            writer.writeI64Field(5, chunk.numValues);
+            writer.writeI64Field(6, chunk.uncompressedSize);
+            writer.writeI64Field(7, chunk.pages.size());
+            writer.writeI64Field(9, offsets[i] + chunk.dataPageOffset);
+            if (chunk.dataPageOffset > 0) {
+                writer.writeI64Field(11, offsets[i]);
+            }
+            writer.endStruct();
+            writer.endStruct();
+        }
+        writer.writeI64Field(2, out.size());
+        writer.writeI64Field(3, rowCount);
+        writer.endStruct();
+        writer.endStruct();
+
+        footer.writeTo(out);
+        writeIntLE(out, footer.size());
+        out.write(MAGIC);
+
+        Path file = Files.createTempFile("dbeaver-test", ".parquet");
+        Files.write(file, out.toByteArray());
+        return file;
+    }
+
+    /**
+     * Thrift compact protocol writer, just enough for Parquet metadata
+     */
+    private static class ThriftWriter {
+        static final int TYPE_TRUE = 1;
+        static final int TYPE_FALSE = 2;
+        static final int TYPE_I32 = 5;
+        static final int TYPE_I64 = 6;
+        static final int TYPE_BINARY = 8;
+        static final int TYPE_LIST = 9;
+        static final int TYPE_STRUCT = 12;
+
+        private final ByteArrayOutputStream out;
+        private final Deque<Integer> fieldIdStack = new ArrayDeque<>();
+        private int lastFieldId;
+
+        ThriftWriter(ByteArrayOutputStream out) {
+            this.out = out;
+        }
+
+        void beginStruct() {
+            fieldIdStack.push(lastFieldId);
+            lastFieldId = 0;
+        }
+
+        void endStruct() {
+            out.write(0);
+            lastFieldId = fieldIdStack.pop();
+        }
+
+        void beginStructField(int fieldId) {
+            writeFieldHeader(fieldId, TYPE_STRUCT);
+            beginStruct();
+        }
+
+        void beginListField(int fieldId, int elementType, int size) {
+            writeFieldHeader(fieldId, TYPE_LIST);
+            if (size < 15) {
+                out.write(size << 4 | elementType);
+            } else {
+                out.write(0xF0 | elementType);
+                writeVarInt(out, size);
+            }
+        }
+
+        void writeBoolField(int fieldId, boolean value) {
+            writeFieldHeader(fieldId, value ? TYPE_TRUE : TYPE_FALSE);
+        }
+
+        void writeI32Field(int fieldId, int value) {
+            writeFieldHeader(fieldId, TYPE_I32);
+            writeZigZag(out, value);
+        }
+
+        void writeI64Field(int fieldId, long value) {
+            writeFieldHeader(fieldId, TYPE_I64);
+            writeZigZag(out, value);
+        }
+
+        void writeStringField(int fieldId, String value) {
+            writeFieldHeader(fieldId, TYPE_BINARY);
+            writeString(value);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        private void writeFieldHeader(int fieldId, int type) {
+            int delta = fieldId - lastFieldId;
+            if (delta > 0 && delta <= 15) {
+                out.write(delta << 4 | type);
+            } else {
+                out.write(type);
+                writeZigZag(out, fieldId);
+            }
+            lastFieldId = fieldId;
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+    // Encoders
+
+    /**
+     * RLE/bit-packing hybrid: RLE runs for 8+ equal values, bit-packed groups of 8 otherwise
+     */
+    private static byte[] encodeRleBitPacked(int[] values, int bitWidth) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int pos = 0;
+        while (pos < values.length) {
+            int run = 1;
+            while (pos + run < values.length && values[pos + run] == values[pos]) {
+                run++;
+            }
+            if (run >= 8) {
+                writeVarInt(out, run << 1);
+                for (int i = 0; i < (bitWidth + 7) / 8; i++) {
+                    out.write(values[pos] >>> (i * 8));
+                }
+                pos += run;
+            } else {
+                long[] group = new long[8];
+                for (int i = 0; i < 8 && pos + i < values.length; i++) {
+                    group[i] = values[pos + i];
+                }
+                writeVarInt(out, 1 << 1 | 1);
+                out.writeBytes(packBits(group, bitWidth));
+                pos += 8;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * DELTA_BINARY_PACKED with the parquet-mr layout: blocks of 128 values, 4 miniblocks per block
+     */
+    private static byte[] encodeDeltaBinaryPacked(long[] values) {
+        int blockSize = 128;
+        int miniBlockCount = 4;
+        int miniBlockSize = blockSize / miniBlockCount;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarInt(out, blockSize);
+        writeVarInt(out, miniBlockCount);
+        writeVarInt(out, values.length);
+        writeZigZag(out, values.length == 0 ? 0 : values[0]);
+        for (int start = 1; start < values.length; start += blockSize) {
+            int end = Math.min(start + blockSize, values.length);
+            long minDelta = Long.MAX_VALUE;
+            for (int i = start; i < end; i++) {
+                minDelta = Math.min(minDelta, values[i] - values[i - 1]);
+            }
+            writeZigZag(out, minDelta);
+            long[][] miniBlocks = new long[miniBlockCount][];
+            int[] bitWidths = new int[miniBlockCount];
+            for (int m = 0; m < miniBlockCount; m++) {
+                int from = start + m * miniBlockSize;
+                if (from >= end) {
+                    continue;
+                }
+                miniBlocks[m] = new long[miniBlockSize];
+                for (int i = from; i < Math.min(from + miniBlockSize, end); i++) {
+                    long delta = values[i] - values[i - 1] - minDelta;
+                    miniBlocks[m][i - from] = delta;
+                    bitWidths[m] = Math.max(bitWidths[m], 64 - Long.numberOfLeadingZeros(delta));
+                }
+            }
+            for (int bitWidth : bitWidths) {
+                out.write(bitWidth);
+            }
+            for (int m = 0; m < miniBlockCount; m++) {
+                if (miniBlocks[m] != null) {
+                    out.writeBytes(packBits(miniBlocks[m], bitWidths[m]));
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeDeltaLengthByteArray(List<byte[]> values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(encodeDeltaBinaryPacked(values.stream().mapToLong(value -> value.length).toArray()));
+        for (byte[] value : values) {
+            out.writeBytes(value);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeDeltaByteArray(List<byte[]> values) {
+        long[] prefixLengths = new long[values.size()];
+        long[] suffixLengths = new long[values.size()];
+        ByteArrayOutputStream suffixes = new ByteArrayOutputStream();
+        byte[] previous = new byte[0];
+        for (int i = 0; i < values.size(); i++) {
+            byte[] value = values.get(i);
+            int prefix = 0;
+            while (prefix < previous.length && prefix < value.length && previous[prefix] == value[prefix]) {
+                prefix++;
+            }
+            prefixLengths[i] = prefix;
+            suffixLengths[i] = value.length - prefix;
+            suffixes.write(value, prefix, value.length - prefix);
+            previous = value;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(encodeDeltaBinaryPacked(prefixLengths));
+        out.writeBytes(encodeDeltaBinaryPacked(suffixLengths));
+        out.writeBytes(suffixes.toByteArray());
+        return out.toByteArray();
+    }
+
+    /**
+     * Snappy stream made of literals only, which is valid (if useless) compressed data
+     */
+    private static byte[] compressSnappy(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarInt(out, data.length);
+        for (int pos = 0; pos < data.length; ) {
+            int length = Math.min(data.length - pos, 65536);
+            if (length <= 60) {
+                out.write((length - 1) << 2);
+            } else if (length <= 256) {
+                out.write(60 << 2);
+                out.write(length - 1);
+            } else {
+                out.write(61 << 2);
+                out.write(length - 1);
+                out.write((length - 1) >> 8);
+            }
+            out.write(data, pos, length);
+            pos += length;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Little-endian bit packing. Values count must be a multiple of 8.
+     */
+    private static byte[] packBits(long[] values, int bitWidth) {
+        byte[] result = new byte[values.length * bitWidth / 8];
+        long bitPos = 0;
+        for (long value : values) {
+            for (int bit = 0; bit < bitWidth; bit++, bitPos++) {
+                if ((value >>> bit & 1) != 0) {
+                    result[(int) (bitPos >>> 3)] |= (byte) (1 << (bitPos & 7));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void writePlainBytes(ByteArrayOutputStream out, byte[] value) {
+        writeIntLE(out, value.length);
+        out.writeBytes(value);
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >> 8);
+        out.write(value >> 16);
+        out.write(value >> 24);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeZigZag(ByteArrayOutputStream out, long value) {
+        writeVarInt(out, value << 1 ^ value >> 63);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ParquetFileWriterTest {
+
+    private static final int ROW_COUNT = 5000;
+
+    @Test
+    public void writeAndReadRows() throws IOException {
+        checkRoundTrip(ParquetCodec.UNCOMPRESSED);
+        checkRoundTrip(ParquetCodec.GZIP);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedCodec() {
+        new ParquetFileWriter(OutputStream.nullOutputStream(), createColumns(), ParquetCodec.ZSTD,
+            ParquetFileWriter.DEFAULT_ROW_GROUP_SIZE, ParquetFileWriter.DEFAULT_PAGE_SIZE);
+    }
+
+    private static void checkRoundTrip(ParquetCodec codec) throws IOException {
+        Path file = Files.createTempFile("dbeaver-test", ".parquet");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                // Small row groups and pages to test boundaries
+                ParquetFileWriter writer = new ParquetFileWriter(out, createColumns(), codec, 16 * 1024, 1024);
+                for (int i = 0; i < ROW_COUNT; i++) {
+                    writer.writeRow(new Object[]{
+                        i,
+                        i % 7 == 0 ? null : ("value " + i).getBytes(StandardCharsets.UTF_8),
+                        i % 3 == 0 ? null : (long) i * 1000,
+                        i % 2 == 0
+                    });
+                }
+                writer.finish();
+            }
+
+            try (ParquetFileReader reader = new ParquetFileReader(file)) {
+                Assert.assertEquals(ROW_COUNT, reader.getRowCount());
+                Assert.assertEquals(4, reader.getColumns().size());
+                Assert.assertEquals("name", reader.getColumns().get(1).getName());
+
+                ParquetFileReader.RowReader rows = reader.openRows(null);
+                Object[] row = new Object[4];
+                for (int i = 0; i < ROW_COUNT; i++) {
+                    Assert.assertTrue(rows.next(row));
+                    Assert.assertEquals(i, row[0]);
+                    Assert.assertEquals(i % 7 == 0 ? null : "value " + i, row[1]);
+                    Assert.assertEquals(i % 3 == 0 ? null : BigDecimal.valueOf(i * 1000L, 2), row[2]);
+                    Assert.assertEquals(i % 2 == 0, row[3]);
+                }
+                Assert.assertFalse(rows.next(row));
+            }
+
+            try (ParquetFileReader reader = new ParquetFileReader(file)) {
+                // Columns out of projection are not read
+                ParquetFileReader.RowReader rows = reader.openRows(new boolean[]{false, true, false, false});
+                Object[] row = new Object[4];
+                Assert.assertTrue(rows.next(row));
+                Assert.assertNull(row[0]);
+                Assert.assertNull(row[1]);
+                Assert.assertTrue(rows.next(row));
+                Assert.assertNull(row[0]);
+                Assert.assertEquals("value 1", row[1]);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<ParquetColumn> createColumns() {
+        ParquetColumn id = new ParquetColumn("id", ParquetColumn.PhysicalType.INT32, ParquetColumn.LogicalType.NONE);
+        id.setOptional(false);
+        ParquetColumn amount = new ParquetColumn("amount", ParquetColumn.PhysicalType.INT64, ParquetColumn.LogicalType.DECIMAL);
+        amount.setDecimal(18, 2);
+        return List.of(
+            id,
+            new ParquetColumn("name", ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.STRING),
+            amount,
+            new ParquetColumn("flag", ParquetColumn.PhysicalType.BOOLEAN, ParquetColumn.LogicalType.NONE));
+    }
+}
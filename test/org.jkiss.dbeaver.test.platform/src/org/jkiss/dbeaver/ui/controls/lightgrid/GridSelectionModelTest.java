@@ -0,0 +1,128 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class GridSelectionModelTest {
+
+    private static final int COLUMNS = 10;
+    private static final int ROWS = 100_000;
+
+    @Test
+    public void selectAll() {
+        GridSelectionModel selection = selectAll(new GridSelectionModel());
+
+        Assert.assertEquals(COLUMNS * ROWS, selection.size());
+        Assert.assertEquals(ROWS, selection.getRowCount());
+        Assert.assertTrue(selection.contains(new GridPos(0, 0)));
+        Assert.assertTrue(selection.contains(new GridPos(COLUMNS - 1, ROWS - 1)));
+        Assert.assertFalse(selection.contains(new GridPos(COLUMNS, 0)));
+        Assert.assertFalse(selection.containsRow(ROWS));
+        Assert.assertEquals(COLUMNS, selection.getSelectedColumns().cardinality());
+
+        // Cells are iterated in natural order
+        Iterator<GridPos> cells = selection.iterator();
+        Assert.assertEquals(new GridPos(0, 0), cells.next());
+        Assert.assertEquals(new GridPos(1, 0), cells.next());
+        for (int i = 2; i < COLUMNS; i++) {
+            cells.next();
+        }
+        Assert.assertEquals(new GridPos(0, 1), cells.next());
+
+        // Select all again doesn't change anything
+        GridSelectionModel copy = new GridSelectionModel(selection);
+        selectAll(selection);
+        Assert.assertTrue(selection.isSameSelection(copy));
+    }
+
+    @Test
+    public void selectAllThenCtrlToggle() {
+        GridSelectionModel selection = selectAll(new GridSelectionModel());
+        GridPos cell = new GridPos(3, 500);
+
+        // Ctrl+click on selected cell deselects it
+        Assert.assertTrue(selection.remove(cell));
+        Assert.assertEquals(COLUMNS * ROWS - 1, selection.size());
+        Assert.assertFalse(selection.contains(cell));
+        Assert.assertTrue(selection.contains(new GridPos(2, 500)));
+        Assert.assertTrue(selection.contains(new GridPos(4, 500)));
+        Assert.assertTrue(selection.contains(new GridPos(3, 499)));
+        Assert.assertTrue(selection.contains(new GridPos(3, 501)));
+        Assert.assertEquals(ROWS, selection.getRowCount());
+
+        // Second Ctrl+click selects it back
+        Assert.assertTrue(selection.add(cell));
+        Assert.assertTrue(selection.isSameSelection(selectAll(new GridSelectionModel())));
+
+        // Ctrl+click on the corner when everything is selected deselects everything
+        List<GridPos> allCells = new ArrayList<>();
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLUMNS; col++) {
+                allCells.add(new GridPos(col, row));
+            }
+        }
+        Assert.assertTrue(selection.containsAll(allCells));
+        selection.removeAll(allCells);
+        Assert.assertTrue(selection.isEmpty());
+        Assert.assertEquals(0, selection.size());
+        Assert.assertEquals(0, selection.getRowCount());
+    }
+
+    @Test
+    public void rangeAfterSelectAll() {
+        GridSelectionModel selection = selectAll(new GridSelectionModel());
+        GridSelectionModel beforeRangeSelect = new GridSelectionModel(selection);
+
+        // Shift+click: selection is replaced with the range
+        selection.clear();
+        selection.addRange(2, 10, 4, 20);
+        Assert.assertEquals(3 * 11, selection.size());
+        Assert.assertEquals(11, selection.getRowCount());
+        Assert.assertTrue(selection.contains(new GridPos(2, 10)));
+        Assert.assertTrue(selection.contains(new GridPos(4, 20)));
+        Assert.assertFalse(selection.contains(new GridPos(1, 10)));
+        Assert.assertFalse(selection.contains(new GridPos(5, 20)));
+        Assert.assertFalse(selection.containsRow(9));
+        Assert.assertFalse(selection.containsRow(21));
+
+        // Ctrl+Shift+click: range is added to the selection made before
+        selection.setSelection(beforeRangeSelect);
+        selection.addRange(2, 10, 4, 20);
+        Assert.assertTrue(selection.isSameSelection(beforeRangeSelect));
+        Assert.assertEquals(COLUMNS * ROWS, selection.size());
+
+        // Range crossing the selection border
+        selection.removeRowsFrom(ROWS / 2);
+        Assert.assertEquals(COLUMNS * (ROWS / 2), selection.size());
+        selection.addRange(0, ROWS / 2 - 5, 1, ROWS / 2 + 4);
+        Assert.assertEquals(COLUMNS * (ROWS / 2) + 2 * 5, selection.size());
+        Assert.assertEquals(ROWS / 2 + 5, selection.getRowCount());
+        Assert.assertTrue(selection.contains(new GridPos(1, ROWS / 2 + 4)));
+        Assert.assertFalse(selection.contains(new GridPos(2, ROWS / 2)));
+    }
+
+    private static GridSelectionModel selectAll(GridSelectionModel selection) {
+        selection.addRange(0, 0, COLUMNS - 1, ROWS - 1);
+        return selection;
+    }
+}
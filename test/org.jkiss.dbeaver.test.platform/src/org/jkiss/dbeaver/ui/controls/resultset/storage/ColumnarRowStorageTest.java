@@ -0,0 +1,225 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.storage;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.stream.Stream;
+
+public class ColumnarRowStorageTest {
+
+    // Two full chunks and a partial one
+    private static final int ROW_COUNT = ColumnarRowStorage.CHUNK_SIZE * 2 + 100;
+
+    private static final String[] STRINGS = {
+        "",
+        "plain",
+        "юникод",
+        "emoji 😀",
+        "lone high \uD800",
+        "\uDC00 lone low",
+        "reversed \uDC00\uD800",
+    };
+
+    private Path spillFolder;
+
+    @Before
+    public void createSpillFolder() throws IOException {
+        spillFolder = Files.createTempDirectory("dbeaver-test");
+    }
+
+    @After
+    public void deleteSpillFolder() throws IOException {
+        try (Stream<Path> files = Files.list(spillFolder)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(spillFolder);
+    }
+
+    @Test
+    public void roundTripInMemory() {
+        ColumnarRowStorage storage = createStorage(-1);
+        Assert.assertEquals(0, storage.getSpilledChunkCount());
+        checkRows(storage);
+        storage.close();
+    }
+
+    @Test
+    public void roundTripSpilled() throws IOException {
+        ColumnarRowStorage storage = createStorage(0);
+        Assert.assertEquals(2, storage.getSpilledChunkCount());
+        checkRows(storage);
+        // Spilled chunks are read from disk without loading them back
+        Assert.assertEquals(2, storage.getSpilledChunkCount());
+
+        storage.close();
+        try (Stream<Path> files = Files.list(spillFolder)) {
+            Assert.assertEquals("Spill file must be deleted on close", 0, files.count());
+        }
+    }
+
+    @Test
+    public void editSpilledRows() {
+        ColumnarRowStorage storage = createStorage(0);
+        int row = 10;
+        // Same kind
+        storage.setValue(row, 3, 42);
+        // New dictionary string, including an unpaired surrogate
+        storage.setValue(row, 12, "edited \uDBFF");
+        // Null
+        storage.setValue(row, 11, null);
+        // Other kind, column falls back to objects
+        storage.setValue(row, 4, "not a number");
+        // Value for a column which was all nulls
+        storage.setValue(row, 15, 7.5);
+        // Edited chunk is spilled again
+        Assert.assertEquals(2, storage.getSpilledChunkCount());
+
+        Object[] expected = createRow(row);
+        expected[3] = 42;
+        expected[12] = "edited \uDBFF";
+        expected[11] = null;
+        expected[4] = "not a number";
+        expected[15] = 7.5;
+        checkRow(expected, storage.getRow(row), row);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            if (i != row) {
+                checkRow(createRow(i), storage.getRow(i), i);
+            }
+        }
+        storage.close();
+    }
+
+    @Test
+    public void editLastChunk() {
+        ColumnarRowStorage storage = createStorage(0);
+        int row = ROW_COUNT - 1;
+        storage.setValue(row, 0, Boolean.TRUE);
+        storage.setValue(row, 12, "last");
+        Assert.assertEquals(Boolean.TRUE, storage.getValue(row, 0));
+        Assert.assertEquals("last", storage.getValue(row, 12));
+        storage.close();
+    }
+
+    @Test
+    public void irregularRows() {
+        ColumnarRowStorage storage = new ColumnarRowStorage(2, -1, spillFolder);
+        storage.addRow(new Object[]{1, "a"});
+        int index = storage.addRow(new Object[]{2, "b", "extra"});
+        storage.addRow(new Object[]{3});
+        Assert.assertArrayEquals(new Object[]{2, "b", "extra"}, storage.getRow(index));
+        Assert.assertEquals("extra", storage.getValue(index, 2));
+        Assert.assertNull(storage.getValue(2, 1));
+        Assert.assertNull(storage.getValue(0, 5));
+        storage.setValue(index, 2, "changed");
+        Assert.assertEquals("changed", storage.getValue(index, 2));
+        Assert.assertArrayEquals(new Object[]{1, "a"}, storage.getRow(0));
+        storage.close();
+    }
+
+    @Test
+    public void closedStorage() {
+        ColumnarRowStorage storage = createStorage(0);
+        storage.close();
+        Assert.assertEquals(0, storage.getSpilledChunkCount());
+        Assert.assertNull(storage.getValue(0, 0));
+        try {
+            storage.setValue(0, 0, Boolean.TRUE);
+            Assert.fail("Closed storage must not accept values");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        try {
+            storage.addRow(createRow(0));
+            Assert.fail("Closed storage must not accept rows");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    private ColumnarRowStorage createStorage(long heapBudget) {
+        ColumnarRowStorage storage = new ColumnarRowStorage(createRow(0).length, heapBudget, spillFolder);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Assert.assertEquals(i, storage.addRow(createRow(i)));
+        }
+        Assert.assertEquals(ROW_COUNT, storage.getRowCount());
+        return storage;
+    }
+
+    private static void checkRows(ColumnarRowStorage storage) {
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Object[] expected = createRow(i);
+            checkRow(expected, storage.getRow(i), i);
+            for (int column = 0; column < expected.length; column++) {
+                checkValue(expected[column], storage.getValue(i, column), i);
+            }
+        }
+    }
+
+    private static void checkRow(Object[] expected, Object[] actual, int row) {
+        Assert.assertEquals("Row " + row + " length", expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            checkValue(expected[i], actual[i], row);
+        }
+    }
+
+    private static void checkValue(Object expected, Object actual, int row) {
+        // Float and Double equals() compare bits, so NaN and -0.0 are checked too
+        Assert.assertEquals("Row " + row, expected, actual);
+        if (expected != null) {
+            Assert.assertEquals("Row " + row, expected.getClass(), actual.getClass());
+        }
+    }
+
+    /**
+     * One column per value kind, plus object, mixed and all-null columns
+     */
+    private static Object[] createRow(int row) {
+        Timestamp timestamp = new Timestamp(1_700_000_000_000L + row * 1000L);
+        timestamp.setNanos(row * 7919 % 1_000_000_000);
+        return new Object[]{
+            row % 5 == 0 ? null : row % 2 == 0,
+            (byte) row,
+            (short) -row,
+            row % 3 == 0 ? null : row * 31,
+            (long) row * 1_000_000_007L,
+            row % 7 == 0 ? Float.NaN : row == 1 ? -0.0f : row / 3.0f,
+            row % 7 == 0 ? Double.NEGATIVE_INFINITY : row == 1 ? -0.0 : row / 7.0,
+            new Date(1_600_000_000_000L + row * 60_000L),
+            new java.sql.Date(1_500_000_000_000L + row * 86_400_000L),
+            new Time(row * 1000L),
+            timestamp,
+            row % 11 == 0 ? null : STRINGS[row % STRINGS.length] + (row % 3 == 0 ? "" : " " + row),
+            STRINGS[row % STRINGS.length],
+            row % 4 == 0 ? null : BigDecimal.valueOf(row, 2),
+            row % 2 == 0 ? (Object) row : "mixed " + row,
+            null
+        };
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BinaryContentTest {
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("dbeaver-binary", ".bin");
+        Files.write(file, bytes("0123456789"));
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void editContent() throws IOException {
+        BinaryContent content = new BinaryContent(file.toFile());
+        Assert.assertFalse(content.isDirty());
+        Assert.assertEquals("0123456789", read(content));
+
+        content.insert(ByteBuffer.wrap(bytes("XY")), 5);
+        Assert.assertEquals("01234XY56789", read(content));
+        content.overwrite((byte) 'Z', 0);
+        Assert.assertEquals("Z1234XY56789", read(content));
+        content.overwrite(ByteBuffer.wrap(bytes("ab")), 10);
+        Assert.assertEquals("Z1234XY567ab", read(content));
+        content.insert((byte) 'c', 12);
+        Assert.assertEquals("Z1234XY567abc", read(content));
+        content.delete(1, 3);
+        Assert.assertEquals("Z4XY567abc", read(content));
+        // Deletion is limited by the content length
+        content.delete(7, 100);
+        Assert.assertEquals("Z4XY567", read(content));
+        // Out of content
+        content.insert((byte) 'd', 100);
+        content.overwrite((byte) 'd', 7);
+        content.delete(7, 1);
+        Assert.assertEquals("Z4XY567", read(content));
+        Assert.assertTrue(content.isDirty());
+
+        // Reads from the middle of pieces
+        ByteBuffer buffer = ByteBuffer.allocate(3);
+        List<Long> modified = new ArrayList<>();
+        Assert.assertEquals(3, content.get(buffer, modified, 2));
+        Assert.assertEquals("XY5", new String(buffer.array(), StandardCharsets.US_ASCII));
+        Assert.assertEquals(List.of(2L, 2L), modified);
+
+        content.get(buffer.clear(), modified, 0);
+        Assert.assertEquals(List.of(0L, 1L, 2L, 1L), modified);
+
+        // No history
+        Assert.assertFalse(content.canUndo());
+        Assert.assertNull(content.undo());
+        content.dispose();
+    }
+
+    @Test
+    public void editNibbles() throws IOException {
+        Files.write(file, new byte[]{0x00, 0x11, 0x22});
+        BinaryContent content = new BinaryContent(file.toFile());
+        content.setActionsHistory();
+        int[] modifyCount = {0};
+        content.addModifyListener(() -> modifyCount[0]++);
+
+        // Type "ABCD" in insert mode
+        content.insert((byte) 0xA0, 1);
+        content.overwrite((byte) 0x0B, 4, 4, 1);
+        content.insert((byte) 0xC0, 2);
+        content.overwrite((byte) 0x0D, 4, 4, 2);
+        Assert.assertEquals("00ABCD1122", readHex(content));
+        Assert.assertEquals(4, modifyCount[0]);
+        // Whole typed bytes are undone at once
+        Assert.assertArrayEquals(new long[]{1, 1}, content.undo());
+        Assert.assertEquals("001122", readHex(content));
+        Assert.assertFalse(content.canUndo());
+        Assert.assertArrayEquals(new long[]{1, 3}, content.redo());
+        Assert.assertEquals("00ABCD1122", readHex(content));
+
+        // Type "EF" in overwrite mode
+        content.overwrite((byte) 0x0E, 0, 4, 0);
+        Assert.assertEquals("E0ABCD1122", readHex(content));
+        content.overwrite((byte) 0x0F, 4, 4, 0);
+        Assert.assertEquals("EFABCD1122", readHex(content));
+        content.undo();
+        Assert.assertEquals("00ABCD1122", readHex(content));
+        content.redo();
+        Assert.assertEquals("EFABCD1122", readHex(content));
+
+        // Lower nibble of other byte is a separate change
+        content.overwrite((byte) 0x0E, 0, 4, 4);
+        content.overwrite((byte) 0x0F, 4, 4, 3);
+        Assert.assertEquals("EFABCD1FE2", readHex(content));
+        content.undo();
+        Assert.assertEquals("EFABCD11E2", readHex(content));
+        content.dispose();
+    }
+
+    @Test
+    public void editNibblesWithoutHistory() throws IOException {
+        BinaryContent content = new BinaryContent();
+        content.insert((byte) 0xA0, 0);
+        content.overwrite((byte) 0x0B, 4, 4, 0);
+        content.insert((byte) 0xC0, 1);
+        content.overwrite((byte) 0x0D, 4, 4, 1);
+        content.overwrite((byte) 0x0E, 0, 4, 0);
+        content.overwrite((byte) 0x0F, 4, 4, 0);
+        Assert.assertEquals("EFCD", readHex(content));
+        Assert.assertFalse(content.canUndo());
+        Assert.assertNull(content.undo());
+        content.dispose();
+    }
+
+    @Test
+    public void undoRedo() throws IOException {
+        BinaryContent content = new BinaryContent(file.toFile());
+        content.setActionsHistory();
+
+        // Typing is merged into one action
+        content.insert((byte) 'x', 1);
+        content.insert((byte) 'y', 2);
+        content.insert((byte) 'z', 3);
+        Assert.assertEquals("0xyz123456789", read(content));
+        Assert.assertArrayEquals(new long[]{1, 1}, content.undo());
+        Assert.assertEquals("0123456789", read(content));
+        Assert.assertFalse(content.canUndo());
+        Assert.assertTrue(content.canRedo());
+        Assert.assertArrayEquals(new long[]{1, 4}, content.redo());
+        Assert.assertEquals("0xyz123456789", read(content));
+        Assert.assertFalse(content.canRedo());
+
+        // Backspace
+        content.delete(3, 1);
+        content.delete(2, 1);
+        Assert.assertEquals("0x123456789", read(content));
+        Assert.assertArrayEquals(new long[]{2, 4}, content.undo());
+        Assert.assertEquals("0xyz123456789", read(content));
+
+        // Delete
+        content.delete(1, 1);
+        content.delete(1, 1);
+        Assert.assertEquals("0z123456789", read(content));
+        content.undo();
+        Assert.assertEquals("0xyz123456789", read(content));
+
+        // Overwrite
+        content.overwrite((byte) 'a', 4);
+        content.overwrite((byte) 'b', 5);
+        Assert.assertEquals("0xyzab3456789", read(content));
+        content.undo();
+        Assert.assertEquals("0xyz123456789", read(content));
+
+        // Not contiguous or different actions are not merged
+        content.insert((byte) 'p', 0);
+        content.insert((byte) 'q', 5);
+        content.overwrite((byte) 'r', 6);
+        Assert.assertEquals("p0xyzqr23456789", read(content));
+        content.undo();
+        Assert.assertEquals("p0xyzq123456789", read(content));
+        content.undo();
+        Assert.assertEquals("p0xyz123456789", read(content));
+
+        // Block actions are never merged
+        content.insert(ByteBuffer.wrap(bytes("AB")), 0);
+        content.insert(ByteBuffer.wrap(bytes("CD")), 2);
+        Assert.assertEquals("ABCDp0xyz123456789", read(content));
+        content.undo();
+        Assert.assertEquals("ABp0xyz123456789", read(content));
+
+        // New action drops redo
+        Assert.assertTrue(content.canRedo());
+        content.delete(0, 2);
+        Assert.assertFalse(content.canRedo());
+        Assert.assertEquals("p0xyz123456789", read(content));
+
+        // Undo everything
+        while (content.canUndo()) {
+            content.undo();
+        }
+        Assert.assertEquals("0123456789", read(content));
+        content.dispose();
+    }
+
+    @Test
+    public void saveToSameFile() throws IOException {
+        BinaryContent content = new BinaryContent(file.toFile());
+        content.setActionsHistory();
+        content.overwrite(ByteBuffer.wrap(bytes("AB")), 2);
+        content.delete(8, 2);
+        content.insert((byte) 'x', 0);
+        Assert.assertEquals("x01AB4567", read(content));
+
+        Assert.assertEquals(9, content.get(file.toFile()));
+        Assert.assertEquals("x01AB4567", new String(Files.readAllBytes(file), StandardCharsets.US_ASCII));
+        // Content still refers to the original data
+        Assert.assertEquals("x01AB4567", read(content));
+
+        // Saving ends typing, so next byte is a separate action
+        content.insert((byte) 'y', 1);
+        Assert.assertEquals("xy01AB4567", read(content));
+        content.undo();
+        Assert.assertEquals("x01AB4567", read(content));
+        content.undo();
+        Assert.assertEquals("01AB4567", read(content));
+
+        Path part = Files.createTempFile("dbeaver-binary", ".bin");
+        try {
+            Assert.assertEquals(4, content.get(part.toFile(), 2, 4));
+            Assert.assertEquals("AB45", new String(Files.readAllBytes(part), StandardCharsets.US_ASCII));
+        } finally {
+            Files.delete(part);
+        }
+
+        Assert.assertEquals(8, content.get(file.toFile()));
+        content.dispose();
+
+        BinaryContent saved = new BinaryContent(file.toFile());
+        Assert.assertEquals("01AB4567", read(saved));
+        Assert.assertFalse(saved.isDirty());
+        saved.dispose();
+    }
+
+    private static byte[] bytes(String str) {
+        return str.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] readBytes(BinaryContent content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) content.length());
+        Assert.assertEquals(content.length(), content.get(buffer, 0));
+        return buffer.array();
+    }
+
+    private static String read(BinaryContent content) throws IOException {
+        return new String(readBytes(content), StandardCharsets.US_ASCII);
+    }
+
+    private static String readHex(BinaryContent content) throws IOException {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : readBytes(content)) {
+            hex.append(String.format("%02X", b));
+        }
+        return hex.toString();
+    }
+
+}
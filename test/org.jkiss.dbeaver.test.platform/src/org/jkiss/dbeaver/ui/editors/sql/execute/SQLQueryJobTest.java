@@ -0,0 +1,178 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.execute;
+
+import org.eclipse.ui.IWorkbenchPartSite;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptCommitType;
+import org.jkiss.dbeaver.model.sql.SQLScriptContext;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLScriptErrorHandling;
+import org.jkiss.dbeaver.ui.editors.sql.SQLPreferenceConstants;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLQueryJobTest {
+
+    @Mock
+    private IWorkbenchPartSite partSite;
+    @Mock
+    private DBPDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer container;
+    @Mock
+    private DBPPreferenceStore preferenceStore;
+    @Mock
+    private SQLScriptContext scriptContext;
+    @Mock
+    private DBCSession session;
+    @Mock
+    private DBRProgressMonitor monitor;
+    @Mock
+    private DBCScriptStatement statement;
+    @Mock
+    private DBCSavepoint savepoint;
+
+    private DBCExecutionContext executionContext;
+    private DBCTransactionManager txnManager;
+    private final List<SQLScriptElement> queries = new ArrayList<>();
+    private SQLQueryJob job;
+
+    @Before
+    public void setUp() throws DBCException {
+        executionContext = Mockito.mock(
+            DBCExecutionContext.class,
+            Mockito.withSettings().extraInterfaces(DBCTransactionManager.class));
+        txnManager = (DBCTransactionManager) executionContext;
+        Mockito.when(executionContext.isConnected()).thenReturn(true);
+        Mockito.when(executionContext.getDataSource()).thenReturn(dataSource);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(container.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.when(preferenceStore.getString(SQLPreferenceConstants.SCRIPT_COMMIT_TYPE))
+            .thenReturn(SQLScriptCommitType.AT_END.name());
+        Mockito.when(preferenceStore.getString(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING))
+            .thenReturn(SQLScriptErrorHandling.STOP_ROLLBACK.name());
+        Mockito.lenient().when(txnManager.isSupportsTransactions()).thenReturn(true);
+
+        Mockito.when(session.getExecutionContext()).thenReturn(executionContext);
+        Mockito.when(session.getProgressMonitor()).thenReturn(monitor);
+        Mockito.lenient().when(session.prepareStatement(
+            Mockito.eq(DBCStatementType.SCRIPT), Mockito.anyString(), Mockito.eq(false), Mockito.eq(false), Mockito.eq(false))
+        ).thenReturn(statement);
+
+        for (int i = 0; i < 6; i++) {
+            queries.add(new SQLQuery(null, "INSERT INTO t VALUES (" + i + ")"));
+        }
+        job = new SQLQueryJob(partSite, "Test", executionContext, null, queries, scriptContext, null, null, false);
+    }
+
+    @Test
+    public void autoCommitIsSwitchedOncePerRun() throws DBCException {
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(true);
+        Mockito.when(statement.executeStatementBatch()).thenReturn(new int[]{1, 1, 1});
+
+        Assert.assertTrue(job.executeBatch(session, queries.subList(0, 3)));
+        Assert.assertTrue(job.executeBatch(session, queries.subList(3, 6)));
+        Mockito.verify(txnManager, Mockito.times(1)).setAutoCommit(monitor, false);
+        Mockito.verify(txnManager, Mockito.never()).setAutoCommit(monitor, true);
+        // Each batch is committed
+        Mockito.verify(txnManager, Mockito.times(2)).commit(session);
+        for (SQLScriptElement query : queries) {
+            SQLQueryJob.BatchResult result = job.getBatchResult(query);
+            Assert.assertNotNull(result);
+            Assert.assertEquals(1, result.updateCount());
+            Assert.assertNull(result.error());
+        }
+
+        job.restoreBatchAutoCommit(monitor);
+        job.restoreBatchAutoCommit(monitor);
+        Mockito.verify(txnManager, Mockito.times(1)).setAutoCommit(monitor, true);
+    }
+
+    @Test
+    public void failedBatchIsRolledBack() throws DBCException {
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(true);
+        Mockito.when(statement.executeStatementBatch()).thenThrow(
+            new DBCException("Batch failed", new BatchUpdateException(new int[]{1})));
+
+        // Statements are executed one by one after the rollback
+        Assert.assertFalse(job.executeBatch(session, queries.subList(0, 3)));
+        Mockito.verify(txnManager).rollback(session, null);
+        Mockito.verify(txnManager, Mockito.never()).commit(session);
+        for (SQLScriptElement query : queries) {
+            Assert.assertNull(job.getBatchResult(query));
+        }
+    }
+
+    @Test
+    public void failedBatchIsRolledBackToSavepoint() throws DBCException {
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(false);
+        Mockito.when(txnManager.setSavepoint(monitor, null)).thenReturn(savepoint);
+        Mockito.when(statement.executeStatementBatch()).thenThrow(
+            new DBCException("Batch failed", new BatchUpdateException(new int[]{1})));
+
+        Assert.assertFalse(job.executeBatch(session, queries.subList(0, 3)));
+        Mockito.verify(txnManager).rollback(session, savepoint);
+        Mockito.verify(txnManager, Mockito.never()).setAutoCommit(Mockito.any(), Mockito.anyBoolean());
+        Mockito.verify(txnManager, Mockito.never()).commit(session);
+    }
+
+    @Test
+    public void failedStatementIndexIsReported() throws DBCException {
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(true);
+        Mockito.doThrow(new DBCException("Rollback failed")).when(txnManager).rollback(session, null);
+        DBCException stopError = new DBCException("Batch failed", new BatchUpdateException(new int[]{1}));
+        DBCException continueError = new DBCException(
+            "Batch failed", new BatchUpdateException(new int[]{1, Statement.EXECUTE_FAILED, 1}));
+        Mockito.when(statement.executeStatementBatch()).thenThrow(stopError, continueError);
+
+        // Driver stopped at the second statement, the third one is executed later
+        Assert.assertFalse(job.executeBatch(session, queries.subList(0, 3)));
+        assertBatchResult(queries.get(0), 1, null);
+        assertBatchResult(queries.get(1), -1, stopError);
+        Assert.assertNull(job.getBatchResult(queries.get(2)));
+
+        // Driver continued after the failed second statement
+        Assert.assertFalse(job.executeBatch(session, queries.subList(3, 6)));
+        assertBatchResult(queries.get(3), 1, null);
+        assertBatchResult(queries.get(4), -1, continueError);
+        assertBatchResult(queries.get(5), 1, null);
+    }
+
+    private void assertBatchResult(SQLScriptElement query, long updateCount, Throwable error) {
+        SQLQueryJob.BatchResult result = job.getBatchResult(query);
+        Assert.assertNotNull(result);
+        Assert.assertEquals(updateCount, result.updateCount());
+        Assert.assertSame(error, result.error());
+    }
+}
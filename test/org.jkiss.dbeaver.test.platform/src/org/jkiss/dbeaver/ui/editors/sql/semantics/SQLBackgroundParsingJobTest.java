@@ -0,0 +1,111 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.semantics;
+
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.semantics.SQLDocumentSyntaxContext;
+import org.jkiss.dbeaver.model.sql.semantics.SQLQuerySymbolEntry;
+import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLBackgroundParsingJobTest {
+
+    private static final String QUERY = "SELECT a FROM t";
+
+    @Mock
+    private SQLEditorBase editor;
+
+    private SQLBackgroundParsingJob job;
+    private SQLSyntaxManager syntaxManager;
+
+    @Before
+    public void setUp() {
+        job = new SQLBackgroundParsingJob(editor);
+        syntaxManager = createSyntaxManager(false);
+    }
+
+    @Test
+    public void identicalQueriesShareModel() {
+        int secondOffset = QUERY.length() + 2;
+        SQLQuery first = new SQLQuery(null, QUERY, 0, QUERY.length());
+        SQLQuery second = new SQLQuery(null, QUERY, secondOffset, QUERY.length());
+
+        var scope = job.makeRecognitionScope(null, false, syntaxManager);
+        SQLBackgroundParsingJob.RecognitionResult firstResult = job.recognizeElement(new VoidProgressMonitor(), scope, syntaxManager, first);
+        SQLBackgroundParsingJob.RecognitionResult secondResult = job.recognizeElement(new VoidProgressMonitor(), scope, syntaxManager, second);
+        Assert.assertNotNull(firstResult);
+        Assert.assertNotNull(secondResult);
+        Assert.assertSame(firstResult.queryModel(), secondResult.queryModel());
+
+        job.registerScriptItem(first, firstResult);
+        job.registerScriptItem(second, secondResult);
+
+        // Tokens of the shared model are found at the positions of both queries
+        SQLDocumentSyntaxContext context = job.getCurrentContext();
+        assertToken(context, QUERY.indexOf(" a ") + 1, "a");
+        assertToken(context, QUERY.indexOf(" t") + 1, "t");
+        assertToken(context, secondOffset + QUERY.indexOf(" a ") + 1, "a");
+        assertToken(context, secondOffset + QUERY.indexOf(" t") + 1, "t");
+    }
+
+    @Test
+    public void syntaxSettingsArePartOfCacheKey() {
+        SQLSyntaxManager parametersSyntaxManager = createSyntaxManager(true);
+        SQLQuery query = new SQLQuery(null, QUERY, 0, QUERY.length());
+
+        var scope = job.makeRecognitionScope(null, false, syntaxManager);
+        var parametersScope = job.makeRecognitionScope(null, false, parametersSyntaxManager);
+        Assert.assertEquals(scope, job.makeRecognitionScope(null, false, createSyntaxManager(false)));
+        Assert.assertNotEquals(scope, parametersScope);
+
+        SQLBackgroundParsingJob.RecognitionResult result = job.recognizeElement(new VoidProgressMonitor(), scope, syntaxManager, query);
+        SQLBackgroundParsingJob.RecognitionResult parametersResult = job.recognizeElement(
+            new VoidProgressMonitor(), parametersScope, parametersSyntaxManager, query);
+        Assert.assertNotNull(result);
+        Assert.assertNotNull(parametersResult);
+        Assert.assertNotSame(result.queryModel(), parametersResult.queryModel());
+    }
+
+    private static void assertToken(SQLDocumentSyntaxContext context, int offset, String name) {
+        SQLQuerySymbolEntry token = context.findToken(offset);
+        Assert.assertNotNull(token);
+        Assert.assertEquals(name, token.getRawName());
+        Assert.assertEquals(offset, context.getLastAccessedTokenOffset());
+    }
+
+    private static SQLSyntaxManager createSyntaxManager(boolean parametersEnabled) {
+        DBPPreferenceStore preferenceStore = Mockito.mock(DBPPreferenceStore.class);
+        Mockito.lenient().when(preferenceStore.getString(ModelPreferences.SCRIPT_STATEMENT_DELIMITER_BLANK))
+            .thenReturn(ModelPreferences.SQLScriptStatementDelimiterMode.SMART.name());
+        Mockito.lenient().when(preferenceStore.getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED)).thenReturn(parametersEnabled);
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(BasicSQLDialect.INSTANCE, preferenceStore);
+        return syntaxManager;
+    }
+}